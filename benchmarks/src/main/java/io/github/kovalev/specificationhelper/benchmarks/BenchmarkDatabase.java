@@ -0,0 +1,176 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.benchmarks.domain.Comment;
+import io.github.kovalev.specificationhelper.benchmarks.domain.Post;
+import io.github.kovalev.specificationhelper.benchmarks.domain.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Встроенная БД H2 в режиме совместимости с PostgreSQL и фабрика сессий Hibernate для бенчмарков.
+ *
+ * <ul>
+ *     <li>{@link #create(String)} - таблица {@code items} для {@link InBenchmark};</li>
+ *     <li>{@link #createBlog(String)} - схема {@code users}/{@code posts}/{@code comments} из миграций тестов
+ *     библиотеки для {@link TranslationBenchmark} и {@link QueryBenchmark}.</li>
+ * </ul>
+ */
+public final class BenchmarkDatabase {
+
+    /**
+     * Миграции тестов библиотеки, копируются в ресурсы модуля при сборке.
+     */
+    private static final String[] BLOG_MIGRATIONS = {
+            "db/migration/V2__create_users_table.sql",
+            "db/migration/V3__create_posts_table.sql",
+            "db/migration/V4__create_comments_table.sql"
+    };
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Создаёт in-memory БД с таблицей {@code items}.
+     *
+     * @param name имя БД (у каждого бенчмарка своя)
+     * @return фабрика сессий
+     */
+    public static SessionFactory create(String name) {
+        return new Configuration()
+                .addAnnotatedClass(Item.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url(name))
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "500")
+                .setProperty(AvailableSettings.SHOW_SQL, "false")
+                .buildSessionFactory();
+    }
+
+    /**
+     * Заполняет таблицу {@code items}.
+     *
+     * @param sessionFactory фабрика сессий
+     * @param rows           число строк
+     * @return идентификаторы вставленных строк в порядке вставки
+     */
+    public static List<UUID> fill(SessionFactory sessionFactory, int rows) {
+        List<UUID> ids = new ArrayList<>(rows);
+        sessionFactory.inTransaction(session -> {
+            for (int i = 0; i < rows; i++) {
+                Item item = new Item();
+                item.setId(UUID.randomUUID());
+                item.setName("item-" + i);
+                item.setRank(i);
+                session.persist(item);
+                ids.add(item.getId());
+
+                if (i % 500 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Создаёт in-memory БД со схемой {@code users}/{@code posts}/{@code comments} из миграций тестов библиотеки.
+     *
+     * @param name имя БД (у каждого бенчмарка своя)
+     * @return фабрика сессий
+     */
+    public static SessionFactory createBlog(String name) {
+        try (Connection connection = DriverManager.getConnection(url(name));
+             Statement statement = connection.createStatement()) {
+            // БД живёт до конца JVM, повторный trial без форка начинает с пустой схемы
+            statement.execute("DROP ALL OBJECTS");
+            for (String migration : BLOG_MIGRATIONS) {
+                statement.execute("RUNSCRIPT FROM 'classpath:" + migration + "'");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create schema for " + name, e);
+        }
+
+        return new Configuration()
+                .addAnnotatedClass(User.class)
+                .addAnnotatedClass(Post.class)
+                .addAnnotatedClass(Comment.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, url(name))
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "validate")
+                .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "500")
+                .setProperty(AvailableSettings.SHOW_SQL, "false")
+                .buildSessionFactory();
+    }
+
+    /**
+     * Заполняет схему {@code users}/{@code posts}/{@code comments}.
+     *
+     * <p>Пользователь {@code i}: {@code username = "user-i"}, {@code email = "user-i@example.com"}
+     * (у каждого десятого {@code null}); посты {@code "post-i-j"}; у каждого поста {@code commentsPerPost}
+     * комментариев автора поста.</p>
+     *
+     * @param sessionFactory  фабрика сессий
+     * @param users           число пользователей
+     * @param postsPerUser    число постов у пользователя
+     * @param commentsPerPost число комментариев у поста
+     * @return идентификаторы пользователей в порядке вставки
+     */
+    public static List<UUID> seed(SessionFactory sessionFactory, int users, int postsPerUser, int commentsPerPost) {
+        List<UUID> ids = new ArrayList<>(users);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        sessionFactory.inTransaction(session -> {
+            int pending = 0;
+            for (int i = 0; i < users; i++) {
+                User user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername("user-" + i);
+                user.setEmail(i % 10 == 0 ? null : "user-" + i + "@example.com");
+                user.setCreatedAt(start.plusMinutes(i));
+                session.persist(user);
+                ids.add(user.getId());
+
+                for (int j = 0; j < postsPerUser; j++) {
+                    Post post = new Post();
+                    post.setId(UUID.randomUUID());
+                    post.setTitle("post-" + i + "-" + j);
+                    post.setContent("content " + i + " " + j);
+                    post.setCreatedAt(start.plusMinutes(i).plusSeconds(j));
+                    post.setAuthor(user);
+                    session.persist(post);
+
+                    for (int k = 0; k < commentsPerPost; k++) {
+                        Comment comment = new Comment();
+                        comment.setId(UUID.randomUUID());
+                        comment.setText("comment " + k);
+                        comment.setCreatedAt(post.getCreatedAt().plusSeconds(k));
+                        comment.setAuthor(user);
+                        comment.setPost(post);
+                        session.persist(comment);
+                    }
+                    pending += commentsPerPost + 1;
+                }
+
+                if (++pending >= 500) {
+                    session.flush();
+                    session.clear();
+                    pending = 0;
+                }
+            }
+        });
+        return ids;
+    }
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+}
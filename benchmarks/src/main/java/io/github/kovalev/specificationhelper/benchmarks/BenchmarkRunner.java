@@ -0,0 +1,31 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа {@code benchmarks.jar}: аргументы командной строки JMH и всегда включённый профиль {@code gc}
+ * (скорость выделения памяти и число сборок на операцию).
+ *
+ * <pre>{@code
+ * java -jar benchmarks/target/benchmarks.jar                      # все бенчмарки
+ * java -jar benchmarks/target/benchmarks.jar Translation -p depth=3
+ * }</pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
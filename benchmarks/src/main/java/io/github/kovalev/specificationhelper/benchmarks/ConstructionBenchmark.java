@@ -0,0 +1,80 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.benchmarks.domain.User;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.specifications.CustomSpecification;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Уровень 1: создание объектов спецификаций без Hibernate.
+ *
+ * <p>Показывает стоимость разбора путей, создания деревьев, построения шаблона LIKE и вычисления
+ * отпечатка формы. Выделение памяти на операцию - в профиле {@code gc} ({@code gc.alloc.rate.norm}).</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    private static final FieldPath<User> TITLE = FieldPath.of("posts.title");
+
+    private int seed;
+
+    /**
+     * Размеры дерева; применяются только к бенчмаркам деревьев.
+     */
+    @State(Scope.Thread)
+    public static class Tree {
+
+        @Param({"2", "8", "16"})
+        private int width;
+
+        @Param({"1", "2", "3"})
+        private int depth;
+
+        private int seed;
+    }
+
+    @Benchmark
+    public Specification<User> tree(Tree tree) {
+        return SpecificationTrees.tree(tree.width, tree.depth, tree.seed++);
+    }
+
+    @Benchmark
+    public long treeShape(Tree tree) {
+        return ((CustomSpecification<User>) SpecificationTrees.tree(tree.width, tree.depth, tree.seed++)).shape();
+    }
+
+    @Benchmark
+    public Specification<User> equalWithStringPath() {
+        return new Equal<>("posts.title", "post-" + seed++);
+    }
+
+    @Benchmark
+    public Specification<User> equalWithFieldPath() {
+        return new Equal<>(TITLE, "post-" + seed++);
+    }
+
+    @Benchmark
+    public String likePattern() {
+        return new Like<User>("email", "user_" + seed++ + "%", LikeMatchMode.BOTH, true).pattern();
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.utils.InSettings;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение способов передачи списка значений в {@link In}.
+ *
+ * <p>На каждой итерации выбирается случайный список размера от {@code size / 2} до {@code size}:
+ * так видна разница между одним SQL на каждый размер ({@link InStrategy#PARAMETERS}),
+ * логарифмическим числом вариантов ({@link InStrategy#PADDED_PARAMETERS}) и одним SQL для всех размеров
+ * ({@link InStrategy#ARRAY}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int size;
+
+    @Param({"PARAMETERS", "PADDED_PARAMETERS", "ARRAY"})
+    private InStrategy strategy;
+
+    private SessionFactory sessionFactory;
+    private List<UUID> ids;
+    private InSettings settings;
+    private final Random random = new Random(42);
+    private List<UUID> values;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create("in_" + strategy + "_" + size);
+        ids = BenchmarkDatabase.fill(sessionFactory, ROWS);
+        settings = InSettings.DEFAULT.withStrategy(strategy);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextValues() {
+        int count = size / 2 + random.nextInt(size / 2 + 1);
+        values = new ArrayList<>(ids.subList(0, count));
+        Collections.shuffle(values, random);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<Item> findByIds() {
+        return sessionFactory.fromSession(session -> {
+            var cb = session.getCriteriaBuilder();
+            var query = cb.createQuery(Item.class);
+            var root = query.from(Item.class);
+            query.where(new In<Item, UUID>("id", values, settings).toPredicate(root, query, cb));
+            return session.createQuery(query).getResultList();
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "items")
+public class Item {
+
+    @Id
+    private UUID id;
+
+    private String name;
+
+    private Integer rank;
+}
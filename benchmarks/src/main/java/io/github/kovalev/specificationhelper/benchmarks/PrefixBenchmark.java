@@ -0,0 +1,92 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.benchmarks.domain.User;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск по префиксу: {@code like 'prefix%'} ({@link LikeMatchMode#END_ONLY}) против диапазона
+ * ({@link LikeMatchMode#PREFIX_RANGE}) по колонке {@code users.username} с B-tree индексом.
+ *
+ * <p>{@value #USERS} пользователей с именами {@code user0}, {@code user1}, ...: префикс {@code user123}
+ * находит 111 строк, {@code user1} - 11 111. H2 не использует индекс для {@code like} с параметром и, как
+ * PostgreSQL с collation, отличной от {@code C}, сканирует всю таблицу; диапазон читает только часть индекса.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrefixBenchmark {
+
+    private static final int USERS = 100_000;
+
+    @Param({"user123", "user1"})
+    private String prefix;
+
+    @Param({"END_ONLY", "PREFIX_RANGE"})
+    private LikeMatchMode mode;
+
+    private SessionFactory sessionFactory;
+    private Like<User> like;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.createBlog("prefix_" + prefix + "_" + mode);
+        sessionFactory.inTransaction(session -> {
+            session.createNativeMutationQuery("create index users_username_idx on users (username)").executeUpdate();
+
+            LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+            for (int i = 0; i < USERS; i++) {
+                User user = new User();
+                user.setId(UUID.randomUUID());
+                user.setUsername("user" + i);
+                user.setCreatedAt(createdAt);
+                session.persist(user);
+
+                if (i % 500 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+
+        like = new Like<>("username", prefix, mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<User> findByPrefix() {
+        return sessionFactory.fromSession(session -> {
+            var cb = session.getCriteriaBuilder();
+            var query = cb.createQuery(User.class);
+            var root = query.from(User.class);
+            query.where(like.toPredicate(root, query, cb));
+            return session.createQuery(query).getResultList();
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.benchmarks.domain.User;
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Уровень 3: выполнение запросов на встроенной H2 (режим PostgreSQL) со схемой тестов библиотеки.
+ *
+ * <p>База заполняется один раз: {@value #USERS} пользователей, по {@value #POSTS_PER_USER} поста и
+ * по {@value #COMMENTS_PER_POST} комментария. Каждый запрос выполняется в новой сессии через Criteria API
+ * ({@code criteria*}) и через скомпилированный HQL ({@code compiled*}).</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBenchmark {
+
+    private static final int USERS = 10_000;
+    private static final int POSTS_PER_USER = 3;
+    private static final int COMMENTS_PER_POST = 2;
+
+    @Param({"1", "100", "1000"})
+    private int inSize;
+
+    private SessionFactory sessionFactory;
+    private Specification<User> equal;
+    private Specification<User> join;
+    private Specification<User> in;
+    private Specification<User> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.createBlog("query_" + inSize);
+        List<UUID> ids = BenchmarkDatabase.seed(sessionFactory, USERS, POSTS_PER_USER, COMMENTS_PER_POST);
+
+        equal = new Equal<>("username", "user-" + USERS / 2);
+        join = new And<>(new Equal<>("posts.title", "post-42-1"), new Like<>("email", "user-42", true));
+        in = new In<>("id", ids.subList(0, inSize));
+        tree = new And<>(
+                new GreaterThanOrEqualTo<>("createdAt", LocalDateTime.of(2024, 1, 2, 0, 0)),
+                SpecificationTrees.tree(4, 2, 0)
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<User> criteriaEqual() {
+        return criteria(equal);
+    }
+
+    @Benchmark
+    public List<User> compiledEqual() {
+        return compiled(equal);
+    }
+
+    @Benchmark
+    public List<User> criteriaJoin() {
+        return criteria(join);
+    }
+
+    @Benchmark
+    public List<User> compiledJoin() {
+        return compiled(join);
+    }
+
+    @Benchmark
+    public List<User> criteriaIn() {
+        return criteria(in);
+    }
+
+    @Benchmark
+    public List<User> compiledIn() {
+        return compiled(in);
+    }
+
+    @Benchmark
+    public List<User> criteriaTree() {
+        return criteria(tree);
+    }
+
+    private List<User> criteria(Specification<User> specification) {
+        return sessionFactory.fromSession(session -> {
+            CriteriaBuilder cb = session.getCriteriaBuilder();
+            CriteriaQuery<User> query = cb.createQuery(User.class);
+            Root<User> root = query.from(User.class);
+            query.where(specification.toPredicate(root, query, cb));
+            return session.createQuery(query).getResultList();
+        });
+    }
+
+    private List<User> compiled(Specification<User> specification) {
+        return sessionFactory.fromSession(session -> {
+            CompiledQuery compiled = new HqlCompiler(session).compile(User.class, specification).orElseThrow();
+            return compiled.bind(session.createQuery(compiled.selectHql(), User.class)).getResultList();
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.benchmarks.domain.User;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Построение деревьев спецификаций {@link User} заданной ширины и глубины.
+ *
+ * <p>Узлы чередуют {@link And} и {@link Or}, у каждого узла {@code width} потомков, листья
+ * ({@code width ^ depth} штук) по кругу: {@link Equal} по {@code username}, {@link Like} по {@code email},
+ * {@link In} по {@code username}, {@link Between} по {@code createdAt} и {@link Equal} по {@code posts.title}
+ * (JOIN).</p>
+ */
+public final class SpecificationTrees {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private SpecificationTrees() {
+    }
+
+    /**
+     * @param width число потомков у каждого узла
+     * @param depth число уровней составных узлов; {@code 1} - один {@link And} из листьев
+     * @param seed  смещение значений листьев (одинаковая форма, разные значения)
+     * @return дерево спецификаций
+     */
+    public static Specification<User> tree(int width, int depth, int seed) {
+        return node(width, depth, 0, new int[]{seed});
+    }
+
+    private static Specification<User> node(int width, int depth, int level, int[] counter) {
+        List<Specification<User>> children = new ArrayList<>(width);
+        for (int i = 0; i < width; i++) {
+            children.add(level + 1 == depth ? leaf(counter[0]++) : node(width, depth, level + 1, counter));
+        }
+        return level % 2 == 0 ? new And<>(children) : new Or<>(children);
+    }
+
+    /**
+     * @param i номер листа
+     * @return спецификация-лист
+     */
+    public static Specification<User> leaf(int i) {
+        return switch (i % 5) {
+            case 0 -> new Equal<>("username", "user-" + i);
+            case 1 -> new Like<>("email", "user-" + i, true);
+            case 2 -> new In<>("username", List.of("user-" + i, "user-" + (i + 1), "user-" + (i + 2)));
+            case 3 -> new Between<>("createdAt", List.of(START.plusMinutes(i), START.plusMinutes(i + 60L)));
+            default -> new Equal<>("posts.title", "post-" + i + "-0");
+        };
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.kovalev.specificationhelper.benchmarks;
+
+import io.github.kovalev.specificationhelper.benchmarks.domain.User;
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.optimizer.SpecificationOptimizer;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Уровень 2: перевод спецификаций в Criteria API и HQL без обращения к базе.
+ *
+ * <p>Спецификации создаются заранее, измеряется только {@code toPredicate} (вместе с {@code PathCalculator},
+ * объединением {@code And}/{@code Or} и построением {@code IN}), оптимизация дерева и компиляция в HQL.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslationBenchmark {
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private CriteriaBuilder cb;
+    private HqlCompiler compiler;
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+
+    private Specification<User> joins;
+    private Specification<User> like;
+
+    /**
+     * Дерево заданной ширины и глубины.
+     */
+    @State(Scope.Thread)
+    public static class Tree {
+
+        @Param({"2", "8", "16"})
+        private int width;
+
+        @Param({"1", "2", "3"})
+        private int depth;
+
+        private Specification<User> specification;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            specification = SpecificationTrees.tree(width, depth, 0);
+        }
+    }
+
+    /**
+     * {@link In} со списком заданного размера.
+     */
+    @State(Scope.Thread)
+    public static class InList {
+
+        @Param({"10", "1000", "100000"})
+        private int size;
+
+        private Specification<User> specification;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<String> values = IntStream.range(0, size).mapToObj(i -> "user-" + i).toList();
+            specification = new In<>("username", values);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.createBlog("translation");
+        session = sessionFactory.openSession();
+        cb = session.getCriteriaBuilder();
+        compiler = new HqlCompiler(session);
+
+        joins = new And<>(
+                new Equal<>("posts.title", "post-1-0"),
+                new Equal<>("posts.comments.text", "comment 0"),
+                new Equal<>("comments.post.title", "post-1-0")
+        );
+        like = new Like<>("email", "user_1%", true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CriteriaQuery<User> treeToPredicate(Tree tree) {
+        return toQuery(tree.specification);
+    }
+
+    @Benchmark
+    public Specification<User> treeOptimize(Tree tree) {
+        return optimizer.optimize(tree.specification);
+    }
+
+    @Benchmark
+    public Optional<CompiledQuery> treeCompile(Tree tree) {
+        return compiler.compile(User.class, tree.specification);
+    }
+
+    @Benchmark
+    public CriteriaQuery<User> inToPredicate(InList in) {
+        return toQuery(in.specification);
+    }
+
+    @Benchmark
+    public CriteriaQuery<User> joinPaths() {
+        return toQuery(joins);
+    }
+
+    @Benchmark
+    public CriteriaQuery<User> likeToPredicate() {
+        return toQuery(like);
+    }
+
+    private CriteriaQuery<User> toQuery(Specification<User> specification) {
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+        return query.where(specification.toPredicate(root, query, cb));
+    }
+}
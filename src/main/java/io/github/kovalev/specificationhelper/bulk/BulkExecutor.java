@@ -0,0 +1,277 @@
+package io.github.kovalev.specificationhelper.bulk;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Массовые {@code UPDATE} и {@code DELETE} по спецификации без загрузки сущностей.
+ *
+ * <p>В {@code DELETE} и {@code UPDATE} нельзя присоединять таблицы, а спецификации с путями через ассоциации
+ * ({@code posts.title}, {@code author.username}) строят JOIN через {@code PathCalculator}. Если условие создаёт
+ * JOIN, оно переносится в подзапрос по идентификатору:</p>
+ * <pre>{@code
+ * delete from User e where e.id in (select x.id from User x left join x.posts p where p.title = ?)
+ * }</pre>
+ * <p>Условия без JOIN (в том числе {@code Exists}) применяются к строке напрямую.</p>
+ *
+ * <p>Варианты с {@code chunkSize} выполняют оператор по диапазонам идентификаторов, каждый диапазон - в своей
+ * транзакции {@link TransactionOperations}, поэтому один оператор блокирует не больше {@code chunkSize} строк:</p>
+ * <pre>{@code
+ * long archived = new BulkExecutor<>(entityManager, User.class)
+ *         .update(spec, Map.of("archived", true), 10_000, transactionTemplate);
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Операторы выполняются в базе мимо контекста персистентности: загруженные сущности не обновляются,
+ *     события сущностей не вызываются ({@code ResultCache} нужно сбросить через {@code invalidate}).</li>
+ *     <li>Присваиваются только собственные атрибуты сущности, кроме идентификатора.</li>
+ *     <li>Диапазоны строятся по идентификатору сущности в порядке базы; у сущности должен быть один
+ *     идентификатор.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+public class BulkExecutor<E> {
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final EntityType<E> entity;
+    private final SingularAttribute<? super E, ?> id;
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     * @throws IllegalArgumentException если у сущности составной идентификатор
+     */
+    public BulkExecutor(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.entity = entityManager.getMetamodel().entity(domainClass);
+        if (!entity.hasSingleIdAttribute()) {
+            throw new IllegalArgumentException("Entity " + entity.getName() + " has no single id attribute");
+        }
+        this.id = entity.getId(entity.getIdType().getJavaType());
+    }
+
+    /**
+     * Удаляет строки одним оператором. Должен выполняться в транзакции.
+     *
+     * @param specification условие; {@code null} - все строки
+     * @return число удалённых строк
+     */
+    public long delete(@Nullable Specification<E> specification) {
+        return delete(specification, null, null);
+    }
+
+    /**
+     * Удаляет строки по диапазонам идентификаторов.
+     *
+     * @param specification условие; {@code null} - все строки
+     * @param chunkSize     наибольшее число строк одного оператора
+     * @param transactions  транзакции диапазонов, например {@code TransactionTemplate}
+     * @return число удалённых строк
+     */
+    public long delete(@Nullable Specification<E> specification, int chunkSize,
+                       @NonNull TransactionOperations transactions) {
+        return chunked(specification, chunkSize, transactions, (lower, upper) -> delete(specification, lower, upper));
+    }
+
+    /**
+     * Обновляет строки одним оператором. Должен выполняться в транзакции.
+     *
+     * @param specification условие; {@code null} - все строки
+     * @param assignments   новые значения по именам атрибутов сущности; значение может быть {@code null}
+     * @return число обновлённых строк
+     * @throws IllegalArgumentException если атрибут не найден, является идентификатором или коллекцией
+     */
+    public long update(@Nullable Specification<E> specification, @NonNull Map<String, ?> assignments) {
+        checkAssignments(assignments);
+        return update(specification, assignments, null, null);
+    }
+
+    /**
+     * Обновляет строки по диапазонам идентификаторов.
+     *
+     * @param specification условие; {@code null} - все строки
+     * @param assignments   новые значения по именам атрибутов сущности; значение может быть {@code null}
+     * @param chunkSize     наибольшее число строк одного оператора
+     * @param transactions  транзакции диапазонов, например {@code TransactionTemplate}
+     * @return число обновлённых строк
+     * @throws IllegalArgumentException если атрибут не найден, является идентификатором или коллекцией
+     */
+    public long update(@Nullable Specification<E> specification, @NonNull Map<String, ?> assignments, int chunkSize,
+                       @NonNull TransactionOperations transactions) {
+        checkAssignments(assignments);
+        return chunked(specification, chunkSize, transactions,
+                (lower, upper) -> update(specification, assignments, lower, upper));
+    }
+
+    private long delete(Specification<E> specification, Object lower, Object upper) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaDelete<E> delete = cb.createCriteriaDelete(domainClass);
+        Root<E> root = delete.from(domainClass);
+        delete.where(restriction(cb, delete, root, specification, lower, upper));
+        return entityManager.createQuery(delete).executeUpdate();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private long update(Specification<E> specification, Map<String, ?> assignments, Object lower, Object upper) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<E> update = cb.createCriteriaUpdate(domainClass);
+        Root<E> root = update.from(domainClass);
+        assignments.forEach((name, value) -> {
+            Path path = root.get(name);
+            assign(update, path, value == null ? cb.nullLiteral(path.getJavaType()) : cb.literal(value));
+        });
+        update.where(restriction(cb, update, root, specification, lower, upper));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    /*
+     * Условие оператора: диапазон идентификаторов и спецификация. Если спецификация присоединяет ассоциации,
+     * она строится в подзапросе id in (select x.id from E x ... where ...).
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate[] restriction(CriteriaBuilder cb, CommonAbstractCriteria statement, Root<E> root,
+                                    Specification<E> specification, Object lower, Object upper) {
+        List<Predicate> predicates = range(cb, root, lower, upper);
+        if (specification == null) {
+            return predicates.toArray(Predicate[]::new);
+        }
+
+        CriteriaQuery<E> query = cb.createQuery(domainClass);
+        if (!joins(specification)) {
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+            return predicates.toArray(Predicate[]::new);
+        }
+
+        Subquery subquery = statement.subquery(id.getJavaType());
+        Root<E> row = subquery.from(domainClass);
+        List<Predicate> inner = range(cb, row, lower, upper);
+        Predicate predicate = specification.toPredicate(row, query, cb);
+        if (predicate != null) {
+            inner.add(predicate);
+        }
+        subquery.select(row.get(id)).where(inner.toArray(Predicate[]::new));
+        predicates.add(root.get(id).in(subquery));
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    /*
+     * Строит условие на пробном запросе и проверяет, присоединило ли оно что-нибудь к корню.
+     */
+    private boolean joins(Specification<E> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> probe = cb.createQuery(domainClass);
+        Root<E> root = probe.from(domainClass);
+        specification.toPredicate(root, probe, cb);
+        return !root.getJoins().isEmpty() || !root.getFetches().isEmpty();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Predicate> range(CriteriaBuilder cb, Root<E> root, Object lower, Object upper) {
+        List<Predicate> predicates = new ArrayList<>(2);
+        Path path = root.get(id);
+        if (lower != null) {
+            predicates.add(cb.greaterThan(path, (Comparable) lower));
+        }
+        if (upper != null) {
+            predicates.add(cb.lessThanOrEqualTo(path, (Comparable) upper));
+        }
+        return predicates;
+    }
+
+    /*
+     * Выполняет оператор по диапазонам (lower, upper]: верхняя граница - идентификатор chunkSize-й подходящей
+     * строки после lower; последний диапазон не ограничен сверху.
+     */
+    private long chunked(Specification<E> specification, int chunkSize, TransactionOperations transactions,
+                         Statement statement) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+
+        long total = 0;
+        Object lower = null;
+        while (true) {
+            Object from = lower;
+            Chunk chunk = transactions.execute(status -> {
+                Object upper = upperBound(specification, from, chunkSize);
+                return new Chunk(upper, statement.execute(from, upper));
+            });
+
+            total += chunk.affected;
+            if (chunk.upper == null) {
+                return total;
+            }
+            lower = chunk.upper;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object upperBound(Specification<E> specification, Object lower, int chunkSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object> query = (CriteriaQuery<Object>) cb.createQuery(id.getJavaType());
+        Root<E> root = query.from(domainClass);
+        List<Predicate> predicates = range(cb, root, lower, null);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+
+        query.select(root.get(id)).distinct(true).where(predicates.toArray(Predicate[]::new)).orderBy(cb.asc(root.get(id)));
+        List<Object> ids = entityManager.createQuery(query).setFirstResult(chunkSize - 1).setMaxResults(1).getResultList();
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    private static <Y> void assign(CriteriaUpdate<?> update, Path<Y> path, Expression<? extends Y> value) {
+        update.set(path, value);
+    }
+
+    private void checkAssignments(Map<String, ?> assignments) {
+        if (assignments.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to update");
+        }
+
+        for (String name : assignments.keySet()) {
+            Attribute<? super E, ?> attribute = entity.getAttribute(name);
+            if (attribute.isCollection() || attribute.equals(id)) {
+                throw new IllegalArgumentException("Attribute " + name + " cannot be assigned in a bulk update");
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Statement {
+        long execute(Object lower, Object upper);
+    }
+
+    private record Chunk(Object upper, long affected) {
+    }
+}
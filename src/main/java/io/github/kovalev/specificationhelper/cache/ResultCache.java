@@ -0,0 +1,343 @@
+package io.github.kovalev.specificationhelper.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Кеш результатов запросов репозитория по деревьям спецификаций.
+ *
+ * <p>Подключается через {@code SpecificationHelperRepository.resultCache()}; один экземпляр используется всеми
+ * репозиториями фабрики:</p>
+ * <pre>{@code
+ * public class CachingRepository<T, ID> extends SpecificationHelperRepository<T, ID> {
+ *     private static final ResultCache CACHE = new ResultCache(10_000);
+ *     ...
+ *     @Override
+ *     protected ResultCache resultCache() {
+ *         return CACHE;
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Ключ - {@link Key}: класс сущности, метод репозитория, дерево спецификаций (равенство учитывает форму
+ *     и значения) и аргументы метода ({@code Pageable}, {@code Sort}).</li>
+ *     <li>Запись помнит сущности запроса ({@link TouchedEntityTypes}) и удаляется после фиксации транзакции,
+ *     которая вставила, изменила или удалила сущность одного из этих типов (post-commit события Hibernate,
+ *     см. {@link #attach(EntityManagerFactory)}). Массовые {@code UPDATE}/{@code DELETE} и изменения в обход
+ *     Hibernate событий не вызывают: после них нужен {@link #invalidate(Class)}.</li>
+ *     <li>Результат, загрузка которого началась до фиксации изменения его сущностей, не сохраняется:
+ *     у каждого типа есть счётчик изменений, и запись сохраняется, только если счётчики не изменились.</li>
+ *     <li>Размер ограничен, при переполнении удаляется запись, которая дольше всех не использовалась (LRU).</li>
+ *     <li>Из кеша возвращаются одни и те же экземпляры сущностей, отсоединённые от сессии, в которой они были
+ *     загружены: их нельзя изменять, ленивые ассоциации не загружаются.</li>
+ * </ul>
+ */
+public class ResultCache {
+
+    /*
+     * Слушатель каждой фабрики (по её реестру событий), общий для всех кешей.
+     */
+    private static final Map<EventListenerRegistry, InvalidationListener> LISTENERS = new WeakHashMap<>();
+
+    private final int maximumSize;
+    private final Map<Key, Entry> entries;
+    private final Map<Class<?>, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final Set<EntityManagerFactory> attached = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Конструктор.
+     *
+     * @param maximumSize максимальное число записей; больше нуля
+     * @throws IllegalArgumentException если {@code maximumSize} меньше единицы
+     */
+    public ResultCache(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+
+        this.maximumSize = maximumSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ResultCache.this.maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Подписывает кеш на post-commit события вставки, изменения и удаления сущностей фабрики.
+     * Повторный вызов для той же фабрики ничего не делает.
+     *
+     * @param entityManagerFactory фабрика Hibernate
+     */
+    public void attach(@NonNull EntityManagerFactory entityManagerFactory) {
+        if (!attached.add(entityManagerFactory)) {
+            return;
+        }
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        synchronized (LISTENERS) {
+            InvalidationListener listener = LISTENERS.get(registry);
+            if (listener == null) {
+                listener = new InvalidationListener();
+                registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+                registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+                registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+                LISTENERS.put(registry, listener);
+            }
+            listener.add(this);
+        }
+    }
+
+    /**
+     * Возвращает результат из кеша или загружает и сохраняет его.
+     *
+     * @param key         ключ
+     * @param entityTypes сущности, от которых зависит результат
+     * @param loader      выполнение запроса
+     * @param <R>         тип результата
+     * @return результат
+     */
+    public <R> R get(@NonNull Key key, @NonNull Set<Class<?>> entityTypes, @NonNull Supplier<R> loader) {
+        return get(key, () -> key, entityTypes, loader);
+    }
+
+    /**
+     * Возвращает результат из кеша или загружает и сохраняет его под ключом из {@code storedKey}.
+     *
+     * <p>Поиск идёт по {@code key}, который может ссылаться на изменяемое дерево вызывающего: ключи сравниваются
+     * по значению. {@code storedKey} вызывается только при сохранении записи и должен вернуть равный ключ,
+     * который не изменится, например с деревом после {@code BaseSpecification.freeze()}; попадание в кеш
+     * дерево не копирует.</p>
+     *
+     * @param key         ключ для поиска
+     * @param storedKey   ключ для сохранения; равен {@code key}
+     * @param entityTypes сущности, от которых зависит результат
+     * @param loader      выполнение запроса
+     * @param <R>         тип результата
+     * @return результат
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R get(@NonNull Key key, @NonNull Supplier<Key> storedKey, @NonNull Set<Class<?>> entityTypes,
+                     @NonNull Supplier<R> loader) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                return (R) entry.value;
+            }
+        }
+
+        misses.increment();
+        long[] before = generations(entityTypes);
+        R value = loader.get();
+
+        if (Arrays.equals(before, generations(entityTypes))) {
+            Key stored = storedKey.get();
+            synchronized (entries) {
+                if (Arrays.equals(before, generations(entityTypes))) {
+                    entries.put(stored, new Entry(value, Set.copyOf(entityTypes)));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Удаляет записи, зависящие от сущности класса {@code entityType} или его суперкласса.
+     *
+     * @param entityType класс сущности
+     */
+    public void invalidate(@NonNull Class<?> entityType) {
+        for (Class<?> type = entityType; type != null && type != Object.class; type = type.getSuperclass()) {
+            generations.computeIfAbsent(type, key -> new AtomicLong()).incrementAndGet();
+        }
+
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().dependsOn(entityType)) {
+                    iterator.remove();
+                    invalidations.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (entries) {
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return счётчики попаданий, промахов, вытеснений и инвалидаций и текущий размер
+     */
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), invalidations.sum(), size);
+    }
+
+    /*
+     * Счётчики изменений типов результата; последний элемент - счётчик invalidateAll().
+     */
+    private long[] generations(Set<Class<?>> entityTypes) {
+        long[] result = new long[entityTypes.size() + 1];
+        int i = 0;
+        for (Class<?> type : entityTypes) {
+            AtomicLong counter = generations.get(type);
+            result[i++] = counter == null ? 0 : counter.get();
+        }
+        result[i] = generation.get();
+        return result;
+    }
+
+    /**
+     * Ключ записи.
+     *
+     * @param domainClass   класс сущности репозитория
+     * @param operation     метод репозитория
+     * @param specification дерево спецификаций; у сохраняемого ключа не должно изменяться
+     *                      (см. {@code BaseSpecification.freeze()})
+     * @param arguments     остальные аргументы метода или {@code null}
+     */
+    public record Key(Class<?> domainClass, String operation, Specification<?> specification, Object arguments) {
+    }
+
+    /**
+     * Счётчики кеша.
+     *
+     * @param hits          результат найден в кеше
+     * @param misses        запрос выполнен
+     * @param evictions     записи вытеснены из-за размера
+     * @param invalidations записи удалены из-за изменения сущностей
+     * @param size          текущее число записей
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations, int size) {
+
+        /**
+         * @return доля попаданий или {@code 0}, если обращений не было
+         */
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private record Entry(Object value, Set<Class<?>> entityTypes) {
+
+        private boolean dependsOn(Class<?> entityType) {
+            for (Class<?> type : entityTypes) {
+                if (type.isAssignableFrom(entityType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Инвалидирует кеши после фиксации транзакции, изменившей сущность. Hibernate не допускает двух слушателей
+     * одного класса, поэтому у фабрики один слушатель на все подключённые кеши; кеши хранятся по слабым ссылкам.
+     */
+    private static final class InvalidationListener implements PostCommitInsertEventListener,
+            PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+        private final Set<ResultCache> caches = Collections.newSetFromMap(new WeakHashMap<>());
+
+        private synchronized void add(ResultCache cache) {
+            caches.add(cache);
+        }
+
+        private void invalidate(EntityPersister persister) {
+            List<ResultCache> targets;
+            synchronized (this) {
+                targets = new ArrayList<>(caches);
+            }
+            targets.forEach(cache -> cache.invalidate(persister.getMappedClass()));
+        }
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            invalidate(event.getPersister());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            invalidate(event.getPersister());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            invalidate(event.getPersister());
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+            // транзакция не зафиксирована: данные в базе не изменились
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+            // транзакция не зафиксирована: данные в базе не изменились
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+            // транзакция не зафиксирована: данные в базе не изменились
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.github.kovalev.specificationhelper.cache;
+
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.template.Slot;
+import io.github.kovalev.specificationhelper.utils.Associations;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Сущности, от которых зависит результат запроса по дереву спецификаций: корень, сущности, к которым ведут
+ * пути условий (JOIN, которые строит {@code PathCalculator}), и сущности подзапросов {@link Exists}.
+ */
+public final class TouchedEntityTypes {
+
+    private TouchedEntityTypes() {
+    }
+
+    /**
+     * Собирает классы сущностей запроса.
+     *
+     * @param root          корневая сущность
+     * @param specification дерево спецификаций
+     * @return классы сущностей или {@code null}, если дерево нельзя использовать как ключ кеша: в нём есть
+     * спецификации других классов (равенство лямбд - это равенство ссылок) или слоты шаблона {@link Slot}
+     */
+    public static Set<Class<?>> collect(@NonNull EntityType<?> root, Specification<?> specification) {
+        Set<Class<?>> types = new HashSet<>();
+        types.add(root.getJavaType());
+        return collect(root, specification, types) ? types : null;
+    }
+
+    private static boolean collect(ManagedType<?> scope, Specification<?> specification, Set<Class<?>> types) {
+        if (specification == null) {
+            return true;
+        }
+
+        Class<?> type = specification.getClass();
+        if (type == Empty.class) {
+            return true;
+        } else if (type == And.class || type == Or.class || type == Not.class) {
+            for (Specification<?> child : ((BaseCompositeSpecification<?>) specification).getSpecifications()) {
+                if (!collect(scope, child, types)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (type == Equal.class || type == NotEqual.class) {
+            BaseComparisonSpecification<?> spec = (BaseComparisonSpecification<?>) specification;
+            path(scope, spec.getFieldPath(), types);
+            return value(spec.getValue());
+        } else if (type == Like.class) {
+            Like<?> spec = (Like<?>) specification;
+            path(scope, spec.getFieldPath(), types);
+            return value(spec.getValue());
+        } else if (type == GreaterThanOrEqualTo.class) {
+            GreaterThanOrEqualTo<?, ?> spec = (GreaterThanOrEqualTo<?, ?>) specification;
+            path(scope, spec.getFieldPath(), types);
+            return value(spec.getValue());
+        } else if (type == LessThanOrEqualTo.class) {
+            LessThanOrEqualTo<?, ?> spec = (LessThanOrEqualTo<?, ?>) specification;
+            path(scope, spec.getFieldPath(), types);
+            return value(spec.getValue());
+        } else if (type == Between.class) {
+            Between<?, ?> spec = (Between<?, ?>) specification;
+            path(scope, spec.getFieldPath(), types);
+            return values(spec.getValues());
+        } else if (type == In.class) {
+            In<?, ?> spec = (In<?, ?>) specification;
+            path(scope, spec.getFieldPath(), types);
+            return values(spec.getValues());
+        } else if (type == IsNull.class) {
+            path(scope, ((IsNull<?>) specification).getFieldPath(), types);
+            return true;
+        } else if (type == IsNotNull.class) {
+            path(scope, ((IsNotNull<?>) specification).getFieldPath(), types);
+            return true;
+        } else if (type == Exists.class) {
+            Exists<?, ?> exists = (Exists<?, ?>) specification;
+            Attribute<?, ?>[] attributes = Associations.resolve(scope, exists.getFieldPath());
+            add(attributes, attributes.length, types);
+
+            ManagedType<?> target = Associations.target(attributes[attributes.length - 1]);
+            for (Specification<?> child : exists.getSpecifications()) {
+                if (!collect(target, child, types)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return false;
+    }
+
+    /*
+     * Все атрибуты пути, кроме последнего, - ассоциации; последний добавляется, если это тоже ассоциация.
+     */
+    private static void path(ManagedType<?> scope, FieldPath<?> fieldPath, Set<Class<?>> types) {
+        Attribute<?, ?>[] attributes = Associations.resolve(scope, fieldPath);
+        add(attributes, attributes[attributes.length - 1].isAssociation() ? attributes.length : attributes.length - 1,
+                types);
+    }
+
+    private static void add(Attribute<?, ?>[] attributes, int count, Set<Class<?>> types) {
+        for (int i = 0; i < count; i++) {
+            ManagedType<?> target = Associations.target(attributes[i]);
+            if (target instanceof EntityType<?>) {
+                types.add(target.getJavaType());
+            }
+        }
+    }
+
+    private static boolean value(Object value) {
+        return !(value instanceof Slot<?>);
+    }
+
+    private static boolean values(Collection<?> values) {
+        return values == null || values.stream().noneMatch(Slot.class::isInstance);
+    }
+}
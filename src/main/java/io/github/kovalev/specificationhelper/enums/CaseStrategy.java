@@ -0,0 +1,28 @@
+package io.github.kovalev.specificationhelper.enums;
+
+/**
+ * Способ сравнения строк без учёта регистра ({@code ignoreCase = true})
+ */
+public enum CaseStrategy {
+    /**
+     * lower(col) = lower(?) - использует функциональный индекс по lower(col)
+     */
+    LOWER,
+
+    /**
+     * col ilike ? - в PostgreSQL нативный ILIKE (индекс pg_trgm), в остальных диалектах Hibernate
+     * строит lower(col) like lower(?)
+     */
+    ILIKE,
+
+    /**
+     * col = ? - колонка сама сравнивается без учёта регистра (citext, регистронезависимая collation),
+     * условие использует обычный индекс по col
+     */
+    CASE_INSENSITIVE_COLUMN,
+
+    /**
+     * shadow = lower(?) - сравнение с колонкой, в которой приложение хранит значение в нижнем регистре
+     */
+    SHADOW_COLUMN
+}
@@ -0,0 +1,16 @@
+package io.github.kovalev.specificationhelper.enums;
+
+/**
+ * Способ построения условий на поля коллекций ({@code posts.title})
+ */
+public enum CollectionStrategy {
+    /**
+     * left join коллекции к корню запроса - строка сущности повторяется для каждого элемента коллекции
+     */
+    JOIN,
+
+    /**
+     * exists (select 1 from Post p where p.author = e and ...) - одна строка на сущность
+     */
+    EXISTS
+}
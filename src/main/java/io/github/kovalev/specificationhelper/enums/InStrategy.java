@@ -0,0 +1,27 @@
+package io.github.kovalev.specificationhelper.enums;
+
+/**
+ * Способ передачи списка значений оператора IN
+ */
+public enum InStrategy {
+    /**
+     * выбор по размеру списка: до порога - параметры с дополнением, выше порога - массив
+     * (если диалект его поддерживает), иначе - параметры с дополнением, разбитые на части
+     */
+    AUTO,
+
+    /**
+     * col in (?, ?, ?) - по одному параметру на значение, без дополнения
+     */
+    PARAMETERS,
+
+    /**
+     * col in (?, ?, ?, ?) - число параметров дополняется до степени двойки повтором последнего значения
+     */
+    PADDED_PARAMETERS,
+
+    /**
+     * col = any(?) - один параметр-массив; если диалект не поддерживает массивы, используется PADDED_PARAMETERS
+     */
+    ARRAY
+}
@@ -1,7 +1,7 @@
 package io.github.kovalev.specificationhelper.enums;
 
 /**
- * Настройка wildcard для оператора Like
+ * Настройка wildcard для оператора Like. Во всех режимах, кроме PATTERN, значение экранируется
  */
 public enum LikeMatchMode {
     /**
@@ -22,5 +22,17 @@ public enum LikeMatchMode {
     /**
      * like 'value'
      */
-    NONE
+    NONE,
+
+    /**
+     * like 'value%' через диапазон: col >= 'value' and col < 'valuf' and col like 'value%' - может использовать
+     * B-tree индекс по col при любой collation. Если диапазон небезопасен (см. PrefixRange) или регистр
+     * игнорируется, строится обычный like 'value%'
+     */
+    PREFIX_RANGE,
+
+    /**
+     * like 'value' - значение уже является шаблоном: % и _ не экранируются, экранирование символом \
+     */
+    PATTERN
 }
@@ -0,0 +1,17 @@
+package io.github.kovalev.specificationhelper.enums;
+
+/**
+ * Форма условия перехода к следующей странице при постраничном выводе по ключу
+ */
+public enum SeekForm {
+    /**
+     * (a, b, id) > (?, ?, ?) - сравнение строк; если направления сортировки различаются, используется EXPANDED
+     */
+    ROW_VALUE,
+
+    /**
+     * a >= ? and (a > ? or a = ? and b > ? or a = ? and b = ? and id > ?) - для диалектов без сравнения строк
+     * и сортировки в разных направлениях
+     */
+    EXPANDED
+}
@@ -0,0 +1,121 @@
+package io.github.kovalev.specificationhelper.exists;
+
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.optimizer.SpecificationOptimizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Проверяет, есть ли строки, удовлетворяющие спецификации, не считая и не загружая их.
+ *
+ * <p>{@code count(spec) > 0} перебирает все подходящие строки. Здесь запрос выбирает константу без сортировки
+ * и {@code fetch}, и база останавливается на первой подходящей строке:</p>
+ * <pre>{@code
+ * boolean taken = new ExistsExecutor<>(entityManager, User.class).exists(new Equal<>("email", email));
+ * // select 1 from User e where e.email = ? fetch first 1 rows only
+ * }</pre>
+ *
+ * <p>Несколько спецификаций проверяются одним запросом, каждая - своим подзапросом {@code exists}:</p>
+ * <pre>{@code
+ * List<Boolean> found = executor.exists(List.of(new Equal<>("email", email), new Equal<>("username", name)));
+ * // select exists (select 1 from User e where e.email = ?), exists (select 1 from User e where e.username = ?)
+ * }</pre>
+ *
+ * <p>Деревья упрощаются {@link SpecificationOptimizer}; одиночная проверка компилируется {@link HqlCompiler},
+ * если это возможно, иначе запрос строится через Criteria API.</p>
+ *
+ * @param <E> тип сущности
+ */
+public class ExistsExecutor<E> {
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final HqlCompiler compiler;
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     */
+    public ExistsExecutor(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.compiler = new HqlCompiler(entityManager);
+    }
+
+    /**
+     * @param specification условие; {@code null} - любая строка
+     * @return {@code true}, если есть хотя бы одна подходящая строка
+     */
+    public boolean exists(@Nullable Specification<E> specification) {
+        Specification<E> optimized = optimizer.optimize(specification);
+        Optional<CompiledQuery> compiled = compiler.compile(domainClass, optimized);
+        TypedQuery<Integer> query = compiled.isPresent()
+                ? compiled.get().bind(entityManager.createQuery(compiled.get().existsHql(), Integer.class))
+                : criteriaQuery(optimized);
+        return !query.setMaxResults(1).getResultList().isEmpty();
+    }
+
+    /**
+     * Проверяет спецификации одним запросом.
+     *
+     * @param specifications условия; элемент {@code null} - любая строка
+     * @return результаты проверок в порядке {@code specifications}
+     */
+    public List<Boolean> exists(@NonNull List<? extends Specification<E>> specifications) {
+        if (specifications.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        List<Selection<?>> selections = new ArrayList<>(specifications.size());
+        for (Specification<E> specification : specifications) {
+            Subquery<Integer> subquery = query.subquery(Integer.class);
+            Root<E> root = subquery.from(domainClass);
+            subquery.select(cb.literal(1));
+            Specification<E> optimized = optimizer.optimize(specification);
+            Predicate predicate = optimized == null ? null : optimized.toPredicate(root, query, cb);
+            if (predicate != null) {
+                subquery.where(predicate);
+            }
+            selections.add(cb.exists(subquery));
+        }
+        query.multiselect(selections);
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        List<Boolean> result = new ArrayList<>(specifications.size());
+        for (int i = 0; i < specifications.size(); i++) {
+            result.add(row.get(i, Boolean.class));
+        }
+        return result;
+    }
+
+    private TypedQuery<Integer> criteriaQuery(Specification<E> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Integer> query = cb.createQuery(Integer.class);
+        Root<E> root = query.from(domainClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query.select(cb.literal(1)));
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.kovalev.specificationhelper.facet;
+
+import io.github.kovalev.specificationhelper.optimizer.SpecificationOptimizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaPredicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Считает число сущностей для набора фасетов одним запросом.
+ *
+ * <p>Вместо отдельного {@code count(and(base, facet))} на каждый фасет все условия фасетов строятся на одном
+ * корне запроса и попадают в агрегаты одной выборки по базовому условию:</p>
+ * <pre>{@code
+ * Map<String, Long> counts = new FacetCounter<>(entityManager, User.class).count(
+ *         new Like<>("email", "@gmail"),
+ *         Map.of("java", new Equal<>("posts.title", "java"),
+ *                "recent", new GreaterThanOrEqualTo<>("createdAt", weekAgo)));
+ * // select count(e.id) filter (where p.title = ?), count(e.id) filter (where e.createdAt >= ?)
+ * // from User e left join e.posts p where e.email like ?
+ * }</pre>
+ * <p>Hibernate выводит {@code count(...) filter (where ...)} на PostgreSQL и
+ * {@code count(case when ... then ... end)} на базах без {@code FILTER}.</p>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Пути фасетов разрешаются через {@code PathCalculator}, поэтому одинаковые ассоциации присоединяются
+ *     один раз на весь запрос.</li>
+ *     <li>Результат - число сущностей, а не строк. Если базовое условие или фасеты присоединяют коллекцию,
+ *     строки сущности размножаются, и каждый фасет считается как
+ *     {@code count(distinct case when ... then e.id end)}.</li>
+ *     <li>Деревья упрощаются {@link SpecificationOptimizer}; фасет {@code null} или без условия
+ *     получает число сущностей базового условия.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+public class FacetCounter<E> {
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final SingularAttribute<? super E, ?> id;
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     * @throws IllegalArgumentException если у сущности составной идентификатор
+     */
+    public FacetCounter(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        EntityType<E> entity = entityManager.getMetamodel().entity(domainClass);
+        if (!entity.hasSingleIdAttribute()) {
+            throw new IllegalArgumentException("Entity " + entity.getName() + " has no single id attribute");
+        }
+        this.id = entity.getId(entity.getIdType().getJavaType());
+    }
+
+    /**
+     * Считает фасеты одним запросом.
+     *
+     * @param base   базовое условие; {@code null} - все строки
+     * @param facets условия фасетов по именам
+     * @return число сущностей, удовлетворяющих базовому условию и условию фасета, по именам фасетов в порядке
+     * {@code facets}
+     */
+    public Map<String, Long> count(@Nullable Specification<E> base,
+                                   @NonNull Map<String, ? extends Specification<E>> facets) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (facets.isEmpty()) {
+            return counts;
+        }
+
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(domainClass);
+        Predicate restriction = toPredicate(base, root, query, cb);
+        if (restriction != null) {
+            query.where(restriction);
+        }
+
+        List<Predicate> predicates = new ArrayList<>(facets.size());
+        facets.values().forEach(facet -> predicates.add(toPredicate(facet, root, query, cb)));
+
+        // агрегаты выбираются после построения всех условий: только тогда известны все JOIN запроса
+        boolean distinct = joinsCollection(root);
+        Path<?> key = root.get(id);
+        query.multiselect(predicates.stream()
+                .<Selection<?>>map(predicate -> aggregate(cb, key, predicate, distinct))
+                .toList());
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        int i = 0;
+        for (String name : facets.keySet()) {
+            counts.put(name, row.get(i++, Long.class));
+        }
+        return counts;
+    }
+
+    private Predicate toPredicate(Specification<E> specification, Root<E> root, CriteriaQuery<?> query,
+                                  HibernateCriteriaBuilder cb) {
+        Specification<E> optimized = optimizer.optimize(specification);
+        return optimized == null ? null : optimized.toPredicate(root, query, cb);
+    }
+
+    private static Expression<Long> aggregate(HibernateCriteriaBuilder cb, Path<?> key, Predicate predicate,
+                                              boolean distinct) {
+        if (distinct) {
+            return cb.countDistinct(predicate == null ? key : cb.selectCase().when(predicate, key));
+        }
+        return predicate == null ? cb.count(key) : cb.count(key, (JpaPredicate) predicate);
+    }
+
+    private static boolean joinsCollection(From<?, ?> from) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().isCollection() || joinsCollection(join)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
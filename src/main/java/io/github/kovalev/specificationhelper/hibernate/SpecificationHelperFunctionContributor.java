@@ -0,0 +1,48 @@
+package io.github.kovalev.specificationhelper.hibernate;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.CockroachDialect;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Регистрирует в Hibernate функции, которые используются спецификациями библиотеки.
+ *
+ * <p>Подключается автоматически через {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ * Функции регистрируются только для диалектов, которые их поддерживают, поэтому наличие функции
+ * в реестре ({@code SqmFunctionRegistry}) и служит признаком поддержки.</p>
+ *
+ * <ul>
+ *     <li>{@value #IN_ARRAY}{@code (col, array)} &rarr; {@code (col = any(array))} - проверка вхождения
+ *     в параметр-массив. В отличие от {@code array_contains}, который Hibernate для PostgreSQL рендерит
+ *     как {@code array @> array[col]}, колонка остаётся слева от оператора и может использовать индекс.</li>
+ * </ul>
+ */
+public class SpecificationHelperFunctionContributor implements FunctionContributor {
+
+    /**
+     * Имя функции {@code (col = any(array))}.
+     */
+    public static final String IN_ARRAY = "specification_helper_in_array";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        if (supportsAnyArray(functionContributions.getDialect())) {
+            functionContributions.getFunctionRegistry().registerPattern(
+                    IN_ARRAY,
+                    "(?1 = any(?2))",
+                    functionContributions.getTypeConfiguration().getBasicTypeRegistry()
+                            .resolve(StandardBasicTypes.BOOLEAN)
+            );
+        }
+    }
+
+    private static boolean supportsAnyArray(Dialect dialect) {
+        return dialect instanceof PostgreSQLDialect
+                || dialect instanceof CockroachDialect
+                || dialect instanceof H2Dialect;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.kovalev.specificationhelper.hql;
+
+import jakarta.persistence.Query;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Результат компиляции дерева спецификаций в HQL (см. {@link HqlCompiler}).
+ *
+ * <p>Текст запроса зависит только от формы дерева (операторы, пути, флаги, размеры списков IN после дополнения),
+ * а значения передаются именованными параметрами {@code :p0}, {@code :p1}, ... в порядке обхода дерева.
+ * Поэтому одинаковые по форме деревья дают одинаковые строки HQL, и Hibernate берёт разобранный запрос
+ * и его SQL из кеша планов, а не транслирует их заново.</p>
+ */
+@Getter
+public final class CompiledQuery {
+
+    private final String from;
+    private final String where;
+    private final List<Object> parameters;
+
+    /**
+     * Конструктор.
+     *
+     * @param from       сущность с псевдонимом {@value HqlCompiler#ROOT} и необходимыми {@code left join}
+     * @param where      условие или {@code null}, если спецификации не дали ни одного условия
+     * @param parameters значения параметров {@code :p0}, {@code :p1}, ...
+     */
+    public CompiledQuery(String from, String where, List<Object> parameters) {
+        this.from = from;
+        this.where = where;
+        this.parameters = List.copyOf(parameters);
+    }
+
+    /**
+     * @return {@code select e from ... where ...}
+     */
+    public String selectHql() {
+        return selectHql("");
+    }
+
+    /**
+     * @param orderBy сортировка в виде {@code " order by ..."} или пустая строка
+     * @return {@code select e from ... where ... order by ...}
+     */
+    public String selectHql(String orderBy) {
+        return "select " + HqlCompiler.ROOT + " from " + from + whereClause() + orderBy;
+    }
+
+    /**
+     * Запрос на подсчёт строк {@link #selectHql()}.
+     *
+     * <p>{@code count(*)} не читает идентификатор сущности и не проверяет его на {@code null}: строки запроса
+     * с {@code left join} те же, а PostgreSQL может посчитать их по любому индексу условия (index-only scan).</p>
+     *
+     * @return {@code select count(*) from ... where ...}
+     */
+    public String countHql() {
+        return "select count(*) from " + from + whereClause();
+    }
+
+    /**
+     * Запрос на проверку существования строк {@link #selectHql()}: выполняется с {@code setMaxResults(1)},
+     * не сортирует и не загружает сущность.
+     *
+     * @return {@code select 1 from ... where ...}
+     */
+    public String existsHql() {
+        return "select 1 from " + from + whereClause();
+    }
+
+    /**
+     * Устанавливает значения параметров в запрос, созданный из {@link #selectHql()}, {@link #countHql()}
+     * или {@link #existsHql()}.
+     *
+     * @param query запрос
+     * @param <Q>   тип запроса
+     * @return тот же запрос
+     */
+    public <Q extends Query> Q bind(Q query) {
+        for (int i = 0; i < parameters.size(); i++) {
+            query.setParameter(HqlCompiler.PARAMETER_PREFIX + i, parameters.get(i));
+        }
+        return query;
+    }
+
+    private String whereClause() {
+        return where == null ? "" : " where " + where;
+    }
+}
@@ -0,0 +1,605 @@
+package io.github.kovalev.specificationhelper.hql;
+
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.hibernate.SpecificationHelperFunctionContributor;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.template.Slot;
+import io.github.kovalev.specificationhelper.utils.Associations;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.DayRange;
+import io.github.kovalev.specificationhelper.utils.InClause;
+import io.github.kovalev.specificationhelper.utils.LikePattern;
+import io.github.kovalev.specificationhelper.utils.PrefixRange;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.IdentifiableType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.Metamodel;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Компилятор дерева спецификаций в параметризованный HQL.
+ *
+ * <p>Каждый вызов {@code findAll(spec)} через Criteria API строит новый граф объектов запроса, а Hibernate
+ * не кеширует планы Criteria-запросов: трансляция SQM в SQL выполняется заново на каждый вызов. Строка HQL,
+ * напротив, служит ключом кеша планов, поэтому компилятор строит HQL, в котором от значений зависят только
+ * параметры {@code :p0}, {@code :p1}, ... (см. {@link CompiledQuery}).</p>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Компилируются спецификации библиотеки ({@link And}, {@link Or}, {@link Not}, {@link Equal},
+ *     {@link NotEqual}, {@link Like}, {@link In}, {@link Between}, {@link GreaterThanOrEqualTo},
+ *     {@link LessThanOrEqualTo}, {@link IsNull}, {@link IsNotNull}, {@link Exists}, {@link Empty}); условие совпадает с тем,
+ *     которое строит их {@code toPredicate}.</li>
+ *     <li>Спецификации других классов, в том числе наследники перечисленных и лямбды, не компилируются:
+ *     {@link #compile(Class, Specification)} возвращает пустой {@link Optional}, и запрос строится через Criteria API.</li>
+ *     <li>Вложенные пути ({@code posts.comments.text}) присоединяются через {@code left join} с псевдонимами
+ *     {@code j0}, {@code j1}, ... - по одному JOIN на префикс пути, как и в {@code JoinRegistry}.</li>
+ *     <li>{@link Exists} компилируется в {@code exists (select 1 from Post s0 where s0.author = e and ...)}
+ *     с псевдонимами {@code s0}, {@code s1}, ...; JOIN внутри подзапроса принадлежат подзапросу.</li>
+ *     <li>Имена атрибутов проверяются по метамодели, поэтому в текст запроса попадают только существующие атрибуты.</li>
+ *     <li>Вместо значения может стоять слот шаблона {@link Slot}: в параметры попадает {@link ParameterSlot}, и запрос
+ *     компилируется один раз для шаблона ({@code SpecificationTemplate}). Слот {@link In} передаётся одним
+ *     параметром-массивом ({@code specification_helper_in_array}), поэтому размер коллекции не меняет запрос.</li>
+ * </ul>
+ */
+public class HqlCompiler {
+
+    /**
+     * Псевдоним корневой сущности.
+     */
+    public static final String ROOT = "e";
+
+    /**
+     * Префикс имён параметров.
+     */
+    public static final String PARAMETER_PREFIX = "p";
+
+    private static final String JOIN_PREFIX = "j";
+
+    private static final String SUBQUERY_PREFIX = "s";
+
+    private static final UnaryOperator<Object> IGNORE_CASE_LOWER = value -> value.toString().toLowerCase();
+
+    private final EntityManager entityManager;
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}, по метамодели которого проверяются пути
+     */
+    public HqlCompiler(@NonNull EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Компилирует спецификацию в HQL.
+     *
+     * @param domainClass   класс сущности
+     * @param specification спецификация; {@code null} означает запрос без условия
+     * @param <E>           тип сущности
+     * @return скомпилированный запрос или пустой {@link Optional}, если дерево содержит неизвестную спецификацию
+     */
+    public <E> Optional<CompiledQuery> compile(@NonNull Class<E> domainClass, Specification<E> specification) {
+        Compilation compilation = new Compilation(entityManager.getMetamodel().entity(domainClass));
+        try {
+            String where = compilation.predicate(specification);
+            return Optional.of(new CompiledQuery(compilation.from.toString(), where, compilation.parameters));
+        } catch (NotCompilableException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return метамодель, по которой компилируются запросы
+     */
+    public Metamodel getMetamodel() {
+        return entityManager.getMetamodel();
+    }
+
+    /**
+     * Компилирует сортировку в HQL.
+     *
+     * <p>Поддерживаются собственные атрибуты сущности (без точки в имени) и {@link Sort.Order#isIgnoreCase()}
+     * для строк; вложенные свойства и явный порядок {@code null} не компилируются.</p>
+     *
+     * @param domainClass класс сущности
+     * @param sort        сортировка
+     * @return {@code " order by ..."}, пустая строка для {@link Sort#unsorted()}
+     * или пустой {@link Optional}, если сортировку нельзя скомпилировать
+     */
+    public Optional<String> orderBy(@NonNull Class<?> domainClass, @NonNull Sort sort) {
+        if (sort.isUnsorted()) {
+            return Optional.of("");
+        }
+
+        EntityType<?> entity = entityManager.getMetamodel().entity(domainClass);
+        List<String> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (order.getProperty().contains(".") || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                return Optional.empty();
+            }
+
+            Attribute<?, ?> attribute = entity.getAttribute(order.getProperty());
+            String path = ROOT + "." + attribute.getName();
+            if (order.isIgnoreCase() && attribute.getJavaType() == String.class) {
+                path = "lower(" + path + ")";
+            }
+            orders.add(path + (order.isAscending() ? " asc" : " desc"));
+        }
+
+        return Optional.of(" order by " + String.join(", ", orders));
+    }
+
+    /**
+     * Состояние компиляции одного запроса или подзапроса: JOIN по префиксам путей и значения параметров.
+     *
+     * <p>Подзапрос {@link Exists} компилируется отдельным экземпляром со своим псевдонимом и своими JOIN;
+     * параметры и счётчики псевдонимов общие для всего запроса.</p>
+     */
+    private final class Compilation {
+
+        private final ManagedType<?> entity;
+        private final String alias;
+        private final StringBuilder from;
+        private final Map<String, Join> joins = new HashMap<>();
+        private final List<Object> parameters;
+        private final int[] aliases;
+
+        private Compilation(EntityType<?> entity) {
+            this.entity = entity;
+            this.alias = ROOT;
+            this.from = new StringBuilder(entity.getName()).append(' ').append(ROOT);
+            this.parameters = new ArrayList<>();
+            this.aliases = new int[2];
+        }
+
+        private Compilation(Compilation parent, ManagedType<?> entity, String alias, String from) {
+            this.entity = entity;
+            this.alias = alias;
+            this.from = new StringBuilder(from);
+            this.parameters = parent.parameters;
+            this.aliases = parent.aliases;
+        }
+
+        private String predicate(Specification<?> specification) {
+            if (specification == null) {
+                return null;
+            }
+
+            Class<?> type = specification.getClass();
+            if (type == Empty.class) {
+                return null;
+            } else if (type == And.class || type == Or.class) {
+                return composite((BaseCompositeSpecification<?>) specification);
+            } else if (type == Not.class) {
+                String inner = composite((BaseCompositeSpecification<?>) specification);
+                return inner == null ? null : "not (" + inner + ")";
+            } else if (type == Equal.class || type == NotEqual.class) {
+                return comparison((BaseComparisonSpecification<?>) specification, type == Equal.class);
+            } else if (type == GreaterThanOrEqualTo.class) {
+                GreaterThanOrEqualTo<?, ?> spec = (GreaterThanOrEqualTo<?, ?>) specification;
+                return bound(spec.getFields(), spec.getValue(), true);
+            } else if (type == LessThanOrEqualTo.class) {
+                LessThanOrEqualTo<?, ?> spec = (LessThanOrEqualTo<?, ?>) specification;
+                return bound(spec.getFields(), spec.getValue(), false);
+            } else if (type == Between.class) {
+                return between((Between<?, ?>) specification);
+            } else if (type == Like.class) {
+                return like((Like<?>) specification);
+            } else if (type == In.class) {
+                return in((In<?, ?>) specification);
+            } else if (type == IsNull.class) {
+                return path(((IsNull<?>) specification).getFields()).hql + " is null";
+            } else if (type == IsNotNull.class) {
+                return path(((IsNotNull<?>) specification).getFields()).hql + " is not null";
+            } else if (type == Exists.class) {
+                return exists((Exists<?, ?>) specification);
+            }
+
+            throw new NotCompilableException();
+        }
+
+        /*
+         * Как и BaseCompositeSpecification: And в режиме AND и Or в режиме OR разворачиваются,
+         * дети без условия пропускаются, единственное условие не оборачивается.
+         */
+        private String composite(BaseCompositeSpecification<?> specification) {
+            List<String> predicates = new ArrayList<>();
+            collect(specification, specification.getMode(), predicates);
+
+            if (predicates.isEmpty()) {
+                return null;
+            }
+
+            if (predicates.size() == 1) {
+                return predicates.get(0);
+            }
+
+            String operator = specification.getMode() == CompositionMode.AND ? " and " : " or ";
+            return "(" + String.join(operator, predicates) + ")";
+        }
+
+        private void collect(BaseCompositeSpecification<?> specification, CompositionMode mode, List<String> out) {
+            for (Specification<?> child : specification.getSpecifications()) {
+                Class<?> type = child == null ? null : child.getClass();
+                if (mode == CompositionMode.AND && type == And.class || mode == CompositionMode.OR && type == Or.class) {
+                    collect((BaseCompositeSpecification<?>) child, mode, out);
+                    continue;
+                }
+
+                String predicate = predicate(child);
+                if (predicate != null) {
+                    out.add(predicate);
+                }
+            }
+        }
+
+        private String comparison(BaseComparisonSpecification<?> specification, boolean equal) {
+            Path path = path(specification.getFields());
+            Object value = specification.getValue();
+
+            if (value == null) {
+                return switch (specification.getNullHandling()) {
+                    case IGNORE -> null;
+                    case USE_IS_NULL -> path.hql + (equal ? " is null" : " is not null");
+                };
+            }
+
+            String operator = equal ? " = " : " <> ";
+            if (isString(value)) {
+                return specification.isIgnoreCase()
+                        ? ignoreCase(specification.getFields(), specification.getCaseSettings(), path, value, equal)
+                        : path.hql + operator + parameter(value, Object::toString);
+            }
+
+            if (isDay(path.javaType, value)) {
+                String start = parameter(value, date -> DayRange.startOf(path.javaType, (LocalDate) date));
+                String end = parameter(value, date -> DayRange.startOf(path.javaType, ((LocalDate) date).plusDays(1)));
+                return equal
+                        ? "(" + path.hql + " >= " + start + " and " + path.hql + " < " + end + ")"
+                        : "(" + path.hql + " < " + start + " or " + path.hql + " >= " + end + ")";
+            }
+
+            return path.plain(value).hql + operator + parameter(value);
+        }
+
+        private String bound(List<String> fields, Object value, boolean lower) {
+            if (!new CheckValue(value).nonNull()) {
+                return null;
+            }
+
+            Path path = path(fields);
+            if (isDay(path.javaType, value)) {
+                return lower
+                        ? path.hql + " >= " + parameter(value, date -> DayRange.startOf(path.javaType, (LocalDate) date))
+                        : path.hql + " < "
+                        + parameter(value, date -> DayRange.startOf(path.javaType, ((LocalDate) date).plusDays(1)));
+            }
+
+            return path.plain(value).hql + (lower ? " >= " : " <= ") + parameter(value);
+        }
+
+        /*
+         * Повторяет Between.specification(): один край диапазона - одно сравнение, оба - их конъюнкция.
+         */
+        private String between(Between<?, ?> specification) {
+            List<?> values = specification.getValues();
+            if (!new CheckValue(values).nonNull() || values.size() < 2 && values.stream().allMatch(v -> v == null)) {
+                return null;
+            }
+
+            List<String> fields = specification.getFields();
+            String from = bound(fields, values.get(0), true);
+            String to = bound(fields, values.get(1), false);
+
+            if (from == null || to == null) {
+                return from == null ? to : from;
+            }
+
+            return "(" + from + " and " + to + ")";
+        }
+
+        private String like(Like<?> specification) {
+            if (!new CheckValue(specification.getValue()).nonNull()) {
+                return null;
+            }
+
+            Path plain = path(specification.getFields()).plain(specification.getValue());
+            String path = plain.asString();
+
+            String literal = specification.getLiteral();
+            if (literal != null) {
+                return specification.isIgnoreCase()
+                        ? ignoreCase(specification.getFields(), specification.getCaseSettings(), plain, literal, true)
+                        : path + " = " + parameter(literal);
+            }
+
+            if (specification.isPrefixRange(plain.javaType)) {
+                String prefix = (String) specification.getValue();
+                return "(" + path + " >= " + parameter(prefix) + " and " + path + " < "
+                        + parameter(PrefixRange.successor(prefix)) + " and " + path + " like "
+                        + pattern(specification, false) + " escape '\\')";
+            }
+
+            if (!specification.isIgnoreCase()) {
+                return path + " like " + pattern(specification, false) + " escape '\\'";
+            }
+
+            CaseSettings settings = specification.getCaseSettings();
+            return switch (settings.getStrategy()) {
+                case LOWER -> "lower(" + path + ") like " + pattern(specification, true) + " escape '\\'";
+                case ILIKE -> path + " ilike " + pattern(specification, false) + " escape '\\'";
+                case CASE_INSENSITIVE_COLUMN -> path + " like " + pattern(specification, false) + " escape '\\'";
+                case SHADOW_COLUMN -> shadow(specification.getFields(), settings).asString() + " like "
+                        + pattern(specification, true) + " escape '\\'";
+            };
+        }
+
+        /*
+         * Шаблон Like или, для слота, преобразование значения в шаблон при связывании.
+         */
+        private String pattern(Like<?> specification, boolean lower) {
+            if (specification.getValue() instanceof Slot<?> slot) {
+                return parameter(slot, lower
+                        ? value -> specification.patternFor(value).toLowerCase()
+                        : specification::patternFor);
+            }
+            return parameter(lower ? specification.lowerPattern() : specification.pattern());
+        }
+
+        /*
+         * Повторяет IgnoreCaseClause.compare().
+         */
+        private String ignoreCase(List<String> fields, CaseSettings settings, Path path, Object value, boolean equal) {
+            String operator = equal ? " = " : " <> ";
+            return switch (settings.getStrategy()) {
+                case LOWER -> "lower(" + path.asString() + ")" + operator + parameter(value, IGNORE_CASE_LOWER);
+                case ILIKE -> path.asString() + (equal ? " ilike " : " not ilike ")
+                        + parameter(value, str -> LikePattern.escape(str.toString())) + " escape '\\'";
+                case CASE_INSENSITIVE_COLUMN -> path.hql + operator + parameter(value, Object::toString);
+                case SHADOW_COLUMN -> shadow(fields, settings).hql + operator + parameter(value, IGNORE_CASE_LOWER);
+            };
+        }
+
+        private Path shadow(List<String> fields, CaseSettings settings) {
+            List<String> shadow = new ArrayList<>(fields);
+            shadow.set(shadow.size() - 1, settings.getShadowField());
+            return path(shadow);
+        }
+
+        private String in(In<?, ?> specification) {
+            if (!new CheckValue(specification.getValues()).nonNull()) {
+                return null;
+            }
+
+            Path path = path(specification.getFields());
+            if (specification.getValues().stream().anyMatch(Slot.class::isInstance)) {
+                return inSlot(specification, path);
+            }
+
+            InClause clause = new InClause(specification.getSettings());
+
+            if (specification.getSettings().getStrategy() == InStrategy.PARAMETERS) {
+                return path.hql + " in " + parameter(specification.getValues());
+            }
+
+            List<Object> values = InClause.distinct(specification.getValues());
+            Object array = clause.strategy(entityManager.getCriteriaBuilder(), path.javaType, values.size())
+                    == InStrategy.ARRAY ? InClause.toArray(path.javaType, values) : null;
+            if (array != null) {
+                return SpecificationHelperFunctionContributor.IN_ARRAY + "(" + path.hql + ", " + parameter(array) + ")";
+            }
+
+            List<String> chunks = new ArrayList<>();
+            for (List<Object> chunk : clause.paddedChunks(entityManager.getCriteriaBuilder(), values)) {
+                List<String> names = new ArrayList<>(chunk.size());
+                chunk.forEach(value -> names.add(parameter(value)));
+                chunks.add(path.hql + " in (" + String.join(", ", names) + ")");
+            }
+
+            return chunks.size() == 1 ? chunks.get(0) : "(" + String.join(" or ", chunks) + ")";
+        }
+
+        /*
+         * Слот IN - коллекция любого размера, поэтому форма запроса не зависит от значения только с массивом:
+         * коллекция преобразуется в массив при связывании. Если массив недоступен, тип слота не совпадает
+         * с типом элементов или IN явно задан параметрами, шаблон выполняется через Criteria API.
+         */
+        private String inSlot(In<?, ?> specification, Path path) {
+            Slot<?> slot = (Slot<?>) specification.getValues().iterator().next();
+            Class<?> elementType = InClause.arrayElementType(entityManager.getCriteriaBuilder(), path.javaType);
+            InStrategy strategy = specification.getSettings().getStrategy();
+            if (!slot.isCollection() || elementType == null || !elementType.isAssignableFrom(slot.getParam().getType())
+                    || strategy == InStrategy.PARAMETERS || strategy == InStrategy.PADDED_PARAMETERS) {
+                throw new NotCompilableException();
+            }
+
+            return SpecificationHelperFunctionContributor.IN_ARRAY + "(" + path.hql + ", "
+                    + parameter(slot, value -> InClause.toArray(path.javaType, new ArrayList<>((Collection<?>) value)))
+                    + ")";
+        }
+
+        /*
+         * Как и Exists.specification(): коллекция с mappedBy связывается через обратный атрибут,
+         * остальные пути - через коррелированный путь от псевдонима внешнего запроса.
+         */
+        private String exists(Exists<?, ?> specification) {
+            Attribute<?, ?>[] attributes = Associations.resolve(entity, specification.getFieldPath());
+            ManagedType<?> target = Associations.target(attributes[attributes.length - 1]);
+            if (!(target instanceof EntityType<?> targetEntity)) {
+                throw new NotCompilableException();
+            }
+
+            String subqueryAlias = SUBQUERY_PREFIX + aliases[1]++;
+            String mappedBy = attributes.length == 1 ? Associations.mappedBy(attributes[0]) : null;
+
+            Compilation subquery;
+            List<String> predicates = new ArrayList<>();
+            if (mappedBy != null) {
+                subquery = new Compilation(this, target, subqueryAlias, targetEntity.getName() + " " + subqueryAlias);
+                predicates.add(subqueryAlias + "." + mappedBy + " = " + alias);
+            } else {
+                subquery = new Compilation(this, target, subqueryAlias,
+                        alias + "." + String.join(".", specification.getFields()) + " " + subqueryAlias);
+            }
+
+            for (Specification<?> child : specification.getSpecifications()) {
+                String predicate = subquery.predicate(child);
+                if (predicate != null) {
+                    predicates.add(predicate);
+                }
+            }
+
+            return "exists (select 1 from " + subquery.from
+                    + (predicates.isEmpty() ? "" : " where " + String.join(" and ", predicates)) + ")";
+        }
+
+        /*
+         * Путь из одного поля - атрибут корня, иначе все поля, кроме последнего, присоединяются
+         * через left join: по одному JOIN на префикс пути, как в PathCalculator. Идентификатор сущности,
+         * на которую ссылается внешний ключ (author.id), читается из внешнего ключа без JOIN.
+         */
+        private Path path(List<String> fields) {
+            String current = alias;
+            ManagedType<?> type = entity;
+            String prefix = "";
+
+            for (int i = 0; i < fields.size() - 1; i++) {
+                Attribute<?, ?> attribute = type.getAttribute(fields.get(i));
+                prefix = prefix + "." + attribute.getName();
+
+                Attribute<?, ?> id = i == fields.size() - 2 ? foreignKeyId(attribute, fields.get(i + 1)) : null;
+                if (id != null) {
+                    return new Path(current + "." + attribute.getName() + "." + id.getName(), id.getJavaType());
+                }
+
+                String parent = current;
+                Join join = joins.computeIfAbsent(prefix, key -> {
+                    String joinAlias = JOIN_PREFIX + aliases[0]++;
+                    from.append(" left join ").append(parent).append('.').append(attribute.getName())
+                            .append(' ').append(joinAlias);
+                    return new Join(joinAlias, Associations.target(attribute));
+                });
+
+                current = join.alias;
+                type = join.type;
+            }
+
+            Attribute<?, ?> attribute = type.getAttribute(fields.get(fields.size() - 1));
+            return new Path(current + "." + attribute.getName(), attribute.getJavaType());
+        }
+
+        private String parameter(Object value) {
+            return parameter(value, UnaryOperator.identity());
+        }
+
+        /*
+         * Значение добавляется преобразованным; вместо слота добавляется ParameterSlot с тем же преобразованием.
+         */
+        private String parameter(Object value, UnaryOperator<Object> transform) {
+            parameters.add(value instanceof Slot<?> slot ? new ParameterSlot(slot.getParam(), transform) : transform.apply(value));
+            return ":" + PARAMETER_PREFIX + (parameters.size() - 1);
+        }
+    }
+
+    /*
+     * Идентификатор связанной сущности, если attribute - владеющая сторона однозначной ассоциации (внешний ключ
+     * в таблице текущей сущности), а field - имя этого идентификатора.
+     */
+    private static Attribute<?, ?> foreignKeyId(Attribute<?, ?> attribute, String field) {
+        if (!(attribute instanceof SingularAttribute<?, ?> singular) || !singular.isAssociation()
+                || Associations.mappedBy(attribute) != null
+                || !(singular.getType() instanceof IdentifiableType<?> target) || !target.hasSingleIdAttribute()) {
+            return null;
+        }
+
+        for (SingularAttribute<?, ?> candidate : target.getSingularAttributes()) {
+            if (candidate.isId() && candidate.getName().equals(field)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Строка или слот строкового типа.
+     */
+    private static boolean isString(Object value) {
+        return value instanceof CharSequence
+                || value instanceof Slot<?> slot && CharSequence.class.isAssignableFrom(slot.getParam().getType());
+    }
+
+    /*
+     * DayRange.supports() для значения или слота типа LocalDate.
+     */
+    private static boolean isDay(Class<?> javaType, Object value) {
+        return value instanceof Slot<?> slot
+                ? slot.getParam().getType() == LocalDate.class && DayRange.supports(javaType, LocalDate.EPOCH)
+                : DayRange.supports(javaType, value);
+    }
+
+    private record Join(String alias, ManagedType<?> type) {
+    }
+
+    private record Path(String hql, Class<?> javaType) {
+
+        /**
+         * {@code Expressions.get} оборачивает атрибут в {@code DATE(...)}, если значение - {@link LocalDate},
+         * а атрибут - нет. Такое условие не компилируется.
+         */
+        private Path plain(Object value) {
+            if (value instanceof LocalDate && javaType != LocalDate.class) {
+                throw new NotCompilableException();
+            }
+            return this;
+        }
+
+        /**
+         * {@code Expression.as(String.class)}: для строкового атрибута приведение не требуется.
+         */
+        private String asString() {
+            return javaType == String.class ? hql : "cast(" + hql + " as String)";
+        }
+    }
+
+    /**
+     * Дерево содержит спецификацию, которую нельзя выразить в HQL.
+     */
+    private static final class NotCompilableException extends RuntimeException {
+
+        private NotCompilableException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.kovalev.specificationhelper.hql;
+
+import io.github.kovalev.specificationhelper.utils.Param;
+import lombok.Getter;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Параметр скомпилированного шаблона, значение которого подставляется при связывании.
+ *
+ * <p>{@link HqlCompiler} помещает его в {@link CompiledQuery#getParameters()} вместо значения, если в дереве
+ * вместо значения стоит слот шаблона. Преобразование повторяет то, что компилятор сделал бы со значением:
+ * нижний регистр для {@code lower(col) = ?}, шаблон {@code LIKE}, начало дня для полуинтервала даты.</p>
+ */
+@Getter
+public final class ParameterSlot {
+
+    private final Param<?> param;
+    private final UnaryOperator<Object> transform;
+
+    ParameterSlot(Param<?> param, UnaryOperator<Object> transform) {
+        this.param = param;
+        this.transform = transform;
+    }
+
+    /**
+     * @param value значение слота
+     * @return значение параметра запроса
+     */
+    public Object resolve(Object value) {
+        return transform.apply(value);
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.kovalev.specificationhelper.keyset;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Курсор {@link KeysetPagination}: значения ключей последней строки страницы.
+ *
+ * <p>Курсор приходит от клиента, поэтому значения хранятся текстом ({@code длина:значение} подряд, Base64 URL)
+ * и разбираются по типам атрибутов ключа, а не десериализацией Java.</p>
+ */
+final class KeysetCursor {
+
+    private static final Map<Class<?>, Function<String, Object>> PARSERS = new HashMap<>();
+
+    static {
+        PARSERS.put(String.class, value -> value);
+        PARSERS.put(Long.class, Long::valueOf);
+        PARSERS.put(long.class, Long::valueOf);
+        PARSERS.put(Integer.class, Integer::valueOf);
+        PARSERS.put(int.class, Integer::valueOf);
+        PARSERS.put(Short.class, Short::valueOf);
+        PARSERS.put(short.class, Short::valueOf);
+        PARSERS.put(Byte.class, Byte::valueOf);
+        PARSERS.put(byte.class, Byte::valueOf);
+        PARSERS.put(Double.class, Double::valueOf);
+        PARSERS.put(double.class, Double::valueOf);
+        PARSERS.put(Float.class, Float::valueOf);
+        PARSERS.put(float.class, Float::valueOf);
+        PARSERS.put(Boolean.class, Boolean::valueOf);
+        PARSERS.put(boolean.class, Boolean::valueOf);
+        PARSERS.put(Character.class, value -> value.charAt(0));
+        PARSERS.put(char.class, value -> value.charAt(0));
+        PARSERS.put(BigDecimal.class, BigDecimal::new);
+        PARSERS.put(BigInteger.class, BigInteger::new);
+        PARSERS.put(UUID.class, UUID::fromString);
+        PARSERS.put(LocalDate.class, LocalDate::parse);
+        PARSERS.put(LocalDateTime.class, LocalDateTime::parse);
+        PARSERS.put(LocalTime.class, LocalTime::parse);
+        PARSERS.put(Instant.class, Instant::parse);
+        PARSERS.put(OffsetDateTime.class, OffsetDateTime::parse);
+        PARSERS.put(ZonedDateTime.class, ZonedDateTime::parse);
+    }
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * @param type тип атрибута ключа
+     * @return {@code true}, если значение такого типа можно передать в курсоре
+     */
+    static boolean supports(Class<?> type) {
+        return type.isEnum() || PARSERS.containsKey(type);
+    }
+
+    /**
+     * @param values значения ключей; не {@code null}
+     * @return курсор
+     */
+    static String encode(Object[] values) {
+        StringBuilder text = new StringBuilder();
+        for (Object value : values) {
+            String formatted = value instanceof Enum<?> constant ? constant.name() : value.toString();
+            text.append(formatted.length()).append(':').append(formatted);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor курсор из {@link #encode(Object[])}
+     * @param types  типы атрибутов ключа
+     * @return значения ключей
+     * @throws IllegalArgumentException если курсор повреждён или создан для другого ключа
+     */
+    static Object[] decode(String cursor, Class<?>[] types) {
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Object[] values = new Object[types.length];
+            int position = 0;
+            for (int i = 0; i < types.length; i++) {
+                int colon = text.indexOf(':', position);
+                int start = colon + 1;
+                int end = start + Integer.parseInt(text, position, colon, 10);
+                values[i] = parse(text.substring(start, end), types[i]);
+                position = end;
+            }
+
+            if (position != text.length()) {
+                throw new IllegalArgumentException("Keyset cursor has more values than keys");
+            }
+            return values;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid keyset cursor: " + cursor, e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parse(String value, Class<?> type) {
+        return type.isEnum() ? Enum.valueOf((Class) type, value) : PARSERS.get(type).apply(value);
+    }
+}
@@ -0,0 +1,286 @@
+package io.github.kovalev.specificationhelper.keyset;
+
+import io.github.kovalev.specificationhelper.enums.SeekForm;
+import io.github.kovalev.specificationhelper.utils.Associations;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.PathCalculator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.hibernate.query.sqm.tree.expression.SqmExpression;
+import org.hibernate.query.sqm.tree.expression.SqmTuple;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Постраничный вывод по ключу (keyset, seek): следующая страница начинается после ключа последней строки
+ * предыдущей, а не после {@code OFFSET} строк.
+ *
+ * <p>{@code findAll(spec, PageRequest.of(5000, 50))} читает и отбрасывает 250 000 строк, и каждая следующая
+ * страница медленнее предыдущей. Условие {@code (created_at, id) > (?, ?)} с индексом по
+ * {@code (created_at, id)} начинает сканирование индекса сразу с нужной строки, поэтому время страницы
+ * не зависит от её номера:</p>
+ * <pre>{@code
+ * KeysetPagination<User> pagination = new KeysetPagination<>(entityManager, User.class, Sort.by("createdAt"));
+ * KeysetSlice<User> page = pagination.next(spec, null, 50);
+ * while (page.hasNext()) {
+ *     page = pagination.next(spec, page.nextCursor(), 50);
+ * }
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Пути сортировки ({@code author.username}) строятся через {@link PathCalculator} и переиспользуют
+ *     JOIN спецификации. Пути не могут проходить через коллекции: строка сущности должна быть одна.</li>
+ *     <li>Если идентификатора сущности нет среди ключей, он добавляется последним ключом с направлением
+ *     последней сортировки: ключ должен однозначно определять строку.</li>
+ *     <li>Значения ключей читаются из результата запроса вместе с сущностью. Колонки ключа должны быть
+ *     {@code NOT NULL}: сравнение с {@code null} не пропускает ни одной строки, и курсор для такой строки
+ *     не создаётся.</li>
+ *     <li>Курсор - непрозрачная строка для клиента; значения в нём разбираются по типам атрибутов ключа.
+ *     Курсор другого ключа или повреждённый курсор - {@link IllegalArgumentException}.</li>
+ *     <li>{@link SeekForm#ROW_VALUE} строит сравнение строк Hibernate: на PostgreSQL оно выполняется как
+ *     {@code (a, b) > (?, ?)}, на диалектах без сравнения строк Hibernate раскрывает его сам. Если направления
+ *     сортировки различаются или запрос строится не Hibernate, используется {@link SeekForm#EXPANDED}.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+public class KeysetPagination<E> {
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final List<Key> keys;
+    private final Class<?>[] types;
+    private final SeekForm seekForm;
+
+    /**
+     * Конструктор с {@link SeekForm#ROW_VALUE}.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     * @param sort          ключ: свойства сортировки по порядку
+     */
+    public KeysetPagination(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass, @NonNull Sort sort) {
+        this(entityManager, domainClass, sort, SeekForm.ROW_VALUE);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     * @param sort          ключ: свойства сортировки по порядку
+     * @param seekForm      форма условия перехода к следующей странице
+     * @throws IllegalArgumentException если свойство проходит через коллекцию, не является простым атрибутом,
+     *                                  его тип нельзя передать в курсоре или сортировка задаёт {@code ignoreCase}
+     *                                  или порядок {@code null}
+     */
+    public KeysetPagination(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass, @NonNull Sort sort,
+                            @NonNull SeekForm seekForm) {
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+
+        EntityType<E> entity = entityManager.getMetamodel().entity(domainClass);
+        SingularAttribute<?, ?> id = idAttribute(entity);
+        List<Key> keys = new ArrayList<>();
+        boolean ascending = true;
+        boolean identified = false;
+
+        for (Sort.Order order : sort) {
+            if (order.isIgnoreCase() || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                throw new IllegalArgumentException("Keyset order " + order + " must not ignore case or order nulls");
+            }
+
+            FieldPath<?> fieldPath = FieldPath.of(order.getProperty());
+            Attribute<?, ?>[] attributes = Associations.resolve(entity, fieldPath);
+            for (Attribute<?, ?> attribute : attributes) {
+                if (attribute.isCollection()) {
+                    throw new IllegalArgumentException("Keyset path " + fieldPath + " goes through a collection");
+                }
+            }
+
+            Attribute<?, ?> leaf = attributes[attributes.length - 1];
+            if (leaf.isAssociation()) {
+                throw new IllegalArgumentException("Keyset path " + fieldPath + " is not a basic attribute");
+            }
+
+            keys.add(new Key(fieldPath, leaf.getJavaType(), order.isAscending()));
+            ascending = order.isAscending();
+            identified |= attributes.length == 1 && leaf.equals(id);
+        }
+
+        if (!identified) {
+            keys.add(new Key(FieldPath.of(id.getName()), id.getJavaType(), ascending));
+        }
+
+        for (Key key : keys) {
+            if (!KeysetCursor.supports(key.type)) {
+                throw new IllegalArgumentException("Keyset path " + key.fieldPath + " has unsupported type "
+                        + key.type.getName());
+            }
+        }
+
+        this.keys = List.copyOf(keys);
+        this.types = keys.stream().map(Key::type).toArray(Class<?>[]::new);
+        this.seekForm = keys.stream().allMatch(key -> key.ascending == keys.get(0).ascending)
+                ? seekForm
+                : SeekForm.EXPANDED;
+    }
+
+    /**
+     * Возвращает страницу после курсора.
+     *
+     * @param specification условие; {@code null} - все строки
+     * @param cursor        {@link KeysetSlice#nextCursor()} предыдущей страницы или {@code null} для первой
+     * @param size          размер страницы
+     * @return страница и курсор следующей
+     * @throws IllegalArgumentException если {@code size < 1} или курсор повреждён
+     * @throws IllegalStateException    если у последней строки страницы ключ содержит {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public KeysetSlice<E> next(@Nullable Specification<E> specification, @Nullable String cursor, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + size);
+        }
+        Object[] after = cursor == null ? null : KeysetCursor.decode(cursor, types);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(domainClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+
+        List<Expression<?>> paths = new ArrayList<>(keys.size());
+        List<Selection<?>> selections = new ArrayList<>(keys.size() + 1);
+        List<Order> orders = new ArrayList<>(keys.size());
+        selections.add(root);
+        for (Key key : keys) {
+            Expression<?> path = new PathCalculator<E, Object>(root, key.fieldPath).path();
+            paths.add(path);
+            selections.add(path);
+            orders.add(key.ascending ? cb.asc(path) : cb.desc(path));
+        }
+
+        if (after != null) {
+            Predicate seek = seek(cb, paths, after);
+            predicate = predicate == null ? seek : cb.and(predicate, seek);
+        }
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(selections).orderBy(orders);
+
+        List<Tuple> rows = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        int count = Math.min(rows.size(), size);
+        List<E> content = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            content.add((E) rows.get(i).get(0));
+        }
+
+        return new KeysetSlice<>(content, rows.size() > size ? KeysetCursor.encode(values(rows.get(size - 1))) : null);
+    }
+
+    /**
+     * @return ключ: пути и направления, включая добавленный идентификатор
+     */
+    public List<Sort.Order> getKeys() {
+        return keys.stream()
+                .map(key -> key.ascending ? Sort.Order.asc(key.fieldPath.toString()) : Sort.Order.desc(key.fieldPath.toString()))
+                .toList();
+    }
+
+    /**
+     * @return форма условия; {@link SeekForm#EXPANDED}, если направления ключей различаются
+     */
+    public SeekForm getSeekForm() {
+        return seekForm;
+    }
+
+    private Object[] values(Tuple row) {
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.get(i + 1);
+            if (values[i] == null) {
+                throw new IllegalStateException("Keyset path " + keys.get(i).fieldPath + " is null");
+            }
+        }
+        return values;
+    }
+
+    private Predicate seek(CriteriaBuilder cb, List<Expression<?>> paths, Object[] after) {
+        return seekForm == SeekForm.ROW_VALUE && cb instanceof NodeBuilder nodeBuilder
+                ? rowValue(nodeBuilder, paths, after)
+                : expanded(cb, paths, after);
+    }
+
+    /*
+     * (a, b, id) > (?, ?, ?)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate rowValue(NodeBuilder nodeBuilder, List<Expression<?>> paths, Object[] after) {
+        List<SqmExpression<?>> left = new ArrayList<>(paths.size());
+        List<SqmExpression<?>> right = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            left.add((SqmExpression<?>) paths.get(i));
+            right.add((SqmExpression<?>) nodeBuilder.value(after[i]));
+        }
+
+        Expression tuple = new SqmTuple<>(left, nodeBuilder);
+        Expression values = new SqmTuple<>(right, nodeBuilder);
+        return keys.get(0).ascending ? nodeBuilder.greaterThan(tuple, values) : nodeBuilder.lessThan(tuple, values);
+    }
+
+    /*
+     * a >= ? and (a > ? or a = ? and b > ? or ...): первое условие ограничивает сканирование индекса по a,
+     * дизъюнкция задаёт порядок внутри равных a.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate expanded(CriteriaBuilder cb, List<Expression<?>> paths, Object[] after) {
+        List<Predicate> alternatives = new ArrayList<>(paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            List<Predicate> conjunction = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conjunction.add(cb.equal(paths.get(j), after[j]));
+            }
+
+            Expression path = paths.get(i);
+            Comparable value = (Comparable) after[i];
+            conjunction.add(keys.get(i).ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value));
+            alternatives.add(cb.and(conjunction.toArray(Predicate[]::new)));
+        }
+
+        Expression first = paths.get(0);
+        Comparable value = (Comparable) after[0];
+        Predicate range = keys.get(0).ascending ? cb.greaterThanOrEqualTo(first, value) : cb.lessThanOrEqualTo(first, value);
+        return paths.size() == 1 ? alternatives.get(0) : cb.and(range, cb.or(alternatives.toArray(Predicate[]::new)));
+    }
+
+    private static SingularAttribute<?, ?> idAttribute(EntityType<?> entity) {
+        if (entity.hasSingleIdAttribute()) {
+            for (SingularAttribute<?, ?> attribute : entity.getSingularAttributes()) {
+                if (attribute.isId()) {
+                    return attribute;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Entity " + entity.getName() + " has no single id attribute");
+    }
+
+    private record Key(FieldPath<?> fieldPath, Class<?> type, boolean ascending) {
+    }
+}
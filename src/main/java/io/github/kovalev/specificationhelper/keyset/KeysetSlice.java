@@ -0,0 +1,20 @@
+package io.github.kovalev.specificationhelper.keyset;
+
+import java.util.List;
+
+/**
+ * Страница {@link KeysetPagination}.
+ *
+ * @param content    сущности страницы в порядке ключа
+ * @param nextCursor курсор следующей страницы или {@code null}, если страница последняя
+ * @param <E>        тип сущности
+ */
+public record KeysetSlice<E>(List<E> content, String nextCursor) {
+
+    /**
+     * @return {@code true}, если за страницей есть строки
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
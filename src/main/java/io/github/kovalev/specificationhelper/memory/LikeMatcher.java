@@ -0,0 +1,94 @@
+package io.github.kovalev.specificationhelper.memory;
+
+import io.github.kovalev.specificationhelper.utils.LikePattern;
+
+import java.util.Arrays;
+
+/**
+ * Проверка строки по шаблону {@code LIKE ... ESCAPE '\'} без регулярных выражений и без выделения памяти.
+ *
+ * <p>Шаблон разбирается один раз: {@code %} - любая последовательность символов, {@code _} - ровно один символ
+ * (code point, как в PostgreSQL с UTF-8), символ после {@code \} сравнивается буквально. Строка сравнивается
+ * жадным проходом с возвратом к последнему {@code %}.</p>
+ */
+final class LikeMatcher {
+
+    private static final int ANY_ONE = -1;
+    private static final int ANY_MANY = -2;
+
+    private final int[] tokens;
+    private final boolean ignoreCase;
+
+    /**
+     * Конструктор.
+     *
+     * @param pattern    шаблон с экранированием символом {@code \}
+     * @param ignoreCase если {@code true}, символы сравниваются после {@link Character#toLowerCase(int)}
+     */
+    LikeMatcher(String pattern, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+
+        int[] parsed = new int[pattern.length()];
+        int size = 0;
+        for (int i = 0; i < pattern.length(); ) {
+            int codePoint = pattern.codePointAt(i);
+            i += Character.charCount(codePoint);
+
+            if (codePoint == LikePattern.ESCAPE && i < pattern.length()) {
+                codePoint = pattern.codePointAt(i);
+                i += Character.charCount(codePoint);
+                parsed[size++] = ignoreCase ? Character.toLowerCase(codePoint) : codePoint;
+            } else if (codePoint == '%') {
+                // несколько % подряд эквивалентны одному
+                if (size == 0 || parsed[size - 1] != ANY_MANY) {
+                    parsed[size++] = ANY_MANY;
+                }
+            } else if (codePoint == '_') {
+                parsed[size++] = ANY_ONE;
+            } else {
+                parsed[size++] = ignoreCase ? Character.toLowerCase(codePoint) : codePoint;
+            }
+        }
+
+        this.tokens = Arrays.copyOf(parsed, size);
+    }
+
+    /**
+     * @param value строка
+     * @return {@code true}, если строка соответствует шаблону
+     */
+    boolean matches(String value) {
+        int position = 0;
+        int token = 0;
+        int backtrackToken = -1;
+        int backtrackPosition = 0;
+
+        while (position < value.length()) {
+            int codePoint = value.codePointAt(position);
+
+            if (token < tokens.length && tokens[token] == ANY_MANY) {
+                backtrackToken = token++;
+                backtrackPosition = position;
+            } else if (token < tokens.length && (tokens[token] == ANY_ONE || same(codePoint, tokens[token]))) {
+                position += Character.charCount(codePoint);
+                token++;
+            } else if (backtrackToken >= 0) {
+                // % поглощает ещё один символ
+                backtrackPosition += Character.charCount(value.codePointAt(backtrackPosition));
+                position = backtrackPosition;
+                token = backtrackToken + 1;
+            } else {
+                return false;
+            }
+        }
+
+        while (token < tokens.length && tokens[token] == ANY_MANY) {
+            token++;
+        }
+        return token == tokens.length;
+    }
+
+    private boolean same(int codePoint, int token) {
+        return (ignoreCase ? Character.toLowerCase(codePoint) : codePoint) == token;
+    }
+}
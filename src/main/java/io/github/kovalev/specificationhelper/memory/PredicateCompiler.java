@@ -0,0 +1,773 @@
+package io.github.kovalev.specificationhelper.memory;
+
+import io.github.kovalev.specificationhelper.enums.CaseStrategy;
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.template.Slot;
+import io.github.kovalev.specificationhelper.utils.Associations;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.DayRange;
+import io.github.kovalev.specificationhelper.utils.InClause;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Member;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Компилятор дерева спецификаций в {@link Predicate} над объектами сущностей.
+ *
+ * <p>Позволяет фильтровать кеш сущностей в памяти теми же деревьями, которые выполняются в базе:</p>
+ * <pre>{@code
+ * Predicate<User> active = new PredicateCompiler(entityManager).compile(User.class, spec).orElseThrow();
+ * List<User> result = cached.stream().filter(active).toList();
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Компилируются те же спецификации, что и в {@code HqlCompiler}; для лямбд, наследников, слотов
+ *     шаблона {@link Slot} и сравнений, которые Criteria API строит через {@code DATE(...)},
+ *     {@link #compile(Class, Specification)} возвращает пустой {@link Optional}.</li>
+ *     <li>Условия вычисляются в трёхзначной логике SQL: сравнение с {@code null} даёт UNKNOWN, {@code NOT UNKNOWN}
+ *     остаётся UNKNOWN, сущность подходит, только если условие TRUE. {@link NullHandling}, {@link CheckValue},
+ *     полуинтервалы {@link DayRange}, {@code null} в {@link In} и односторонний {@link Between} обрабатываются
+ *     так же, как при построении запроса.</li>
+ *     <li>Путь через коллекцию ({@code posts.title}) в запросе присоединяется через {@code left join}: сущность
+ *     подходит, если условие TRUE хотя бы для одной комбинации элементов присоединённых коллекций (пустая
+ *     коллекция даёт одну строку из {@code null}). {@link Exists} проверяет элементы коллекции по отдельности.
+ *     Коллекции должны быть загружены.</li>
+ *     <li>Ассоциации сравниваются по идентификатору, как в SQL.</li>
+ *     <li>Строки сравниваются по кодам символов (как с collation {@code C}), {@code lower} и стратегии
+ *     {@link CaseSettings} без учёта регистра сравнивают символы после {@link Character#toLowerCase(int)};
+ *     {@link CaseStrategy#CASE_INSENSITIVE_COLUMN} считается колонкой без учёта регистра.</li>
+ *     <li>Атрибуты читаются через {@link PropertyAccessor}. Если в пути нет коллекций, проверка не выделяет
+ *     память (кроме упаковки примитивных атрибутов и приведения не строковых атрибутов к строке для {@link Like}).</li>
+ * </ul>
+ */
+public class PredicateCompiler {
+
+    private static final int FALSE = 0;
+    private static final int TRUE = 1;
+    private static final int UNKNOWN = 2;
+
+    private static final Set<Class<?>> TEXT_TYPES = Set.of(String.class, Character.class, Integer.class, Long.class,
+            Short.class, Byte.class, BigInteger.class, BigDecimal.class, UUID.class, Boolean.class);
+
+    private static final Set<Class<?>> VALUE_EQUALS_TYPES = Set.of(String.class, Character.class, Integer.class,
+            Long.class, Short.class, Byte.class, BigInteger.class, UUID.class, Boolean.class, LocalDate.class,
+            LocalDateTime.class, LocalTime.class);
+
+    private final EntityManager entityManager;
+    private final Map<Member, Function<Object, Object>> accessors = new ConcurrentHashMap<>();
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}, по метамодели которого разбираются пути
+     */
+    public PredicateCompiler(@NonNull EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Компилирует спецификацию в предикат.
+     *
+     * @param domainClass   класс сущности
+     * @param specification спецификация; {@code null} означает предикат, которому соответствует любая сущность
+     * @param <E>           тип сущности
+     * @return предикат или пустой {@link Optional}, если дерево содержит спецификацию, которую нельзя вычислить
+     * в памяти
+     */
+    public <E> Optional<Predicate<E>> compile(@NonNull Class<E> domainClass, Specification<E> specification) {
+        try {
+            Scope scope = new Scope(entityManager.getMetamodel().entity(domainClass));
+            Scope.Matcher matcher = scope.matcher(scope.condition(specification));
+            return Optional.of(matcher::matches);
+        } catch (NotCompilableException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Условие в трёхзначной логике.
+     */
+    @FunctionalInterface
+    private interface Condition {
+
+        /**
+         * @param root строка запроса: сущность
+         * @param rows текущие элементы присоединённых коллекций; {@code null}, если коллекций нет
+         * @return {@code TRUE}, {@code FALSE} или {@code UNKNOWN}
+         */
+        int test(Object root, Object[] rows);
+    }
+
+    /**
+     * Запрос или подзапрос {@link Exists}: сущность, пути к атрибутам и присоединённые коллекции.
+     */
+    private final class Scope {
+
+        private final ManagedType<?> entity;
+        private final List<CollectionJoin> joins = new ArrayList<>();
+        private final Map<String, CollectionJoin> joinsByPrefix = new HashMap<>();
+
+        private Scope(ManagedType<?> entity) {
+            this.entity = entity;
+        }
+
+        private Matcher matcher(Condition condition) {
+            return new Matcher(condition, joins.toArray(new CollectionJoin[0]));
+        }
+
+        private Condition condition(Specification<?> specification) {
+            if (specification == null) {
+                return null;
+            }
+
+            Class<?> type = specification.getClass();
+            if (type == Empty.class) {
+                return null;
+            } else if (type == And.class || type == Or.class) {
+                return composite((BaseCompositeSpecification<?>) specification);
+            } else if (type == Not.class) {
+                Condition inner = composite((BaseCompositeSpecification<?>) specification);
+                return inner == null ? null : (root, rows) -> not(inner.test(root, rows));
+            } else if (type == Equal.class || type == NotEqual.class) {
+                return comparison((BaseComparisonSpecification<?>) specification, type == Equal.class);
+            } else if (type == GreaterThanOrEqualTo.class) {
+                GreaterThanOrEqualTo<?, ?> spec = (GreaterThanOrEqualTo<?, ?>) specification;
+                return bound(spec.getFields(), spec.getValue(), true);
+            } else if (type == LessThanOrEqualTo.class) {
+                LessThanOrEqualTo<?, ?> spec = (LessThanOrEqualTo<?, ?>) specification;
+                return bound(spec.getFields(), spec.getValue(), false);
+            } else if (type == Between.class) {
+                return between((Between<?, ?>) specification);
+            } else if (type == Like.class) {
+                return like((Like<?>) specification);
+            } else if (type == In.class) {
+                return in((In<?, ?>) specification);
+            } else if (type == IsNull.class) {
+                Path path = path(((IsNull<?>) specification).getFields());
+                return (root, rows) -> path.read(root, rows) == null ? TRUE : FALSE;
+            } else if (type == IsNotNull.class) {
+                Path path = path(((IsNotNull<?>) specification).getFields());
+                return (root, rows) -> path.read(root, rows) != null ? TRUE : FALSE;
+            } else if (type == Exists.class) {
+                return exists((Exists<?, ?>) specification);
+            }
+
+            throw new NotCompilableException();
+        }
+
+        /*
+         * Как и BaseCompositeSpecification: And в режиме AND и Or в режиме OR разворачиваются,
+         * дети без условия пропускаются, единственное условие не оборачивается.
+         */
+        private Condition composite(BaseCompositeSpecification<?> specification) {
+            List<Condition> conditions = new ArrayList<>();
+            collect(specification, specification.getMode(), conditions);
+
+            if (conditions.isEmpty()) {
+                return null;
+            }
+
+            if (conditions.size() == 1) {
+                return conditions.get(0);
+            }
+
+            Condition[] children = conditions.toArray(new Condition[0]);
+            if (specification.getMode() == CompositionMode.AND) {
+                return (root, rows) -> {
+                    int result = TRUE;
+                    for (Condition child : children) {
+                        int value = child.test(root, rows);
+                        if (value == FALSE) {
+                            return FALSE;
+                        }
+                        if (value == UNKNOWN) {
+                            result = UNKNOWN;
+                        }
+                    }
+                    return result;
+                };
+            }
+
+            return (root, rows) -> {
+                int result = FALSE;
+                for (Condition child : children) {
+                    int value = child.test(root, rows);
+                    if (value == TRUE) {
+                        return TRUE;
+                    }
+                    if (value == UNKNOWN) {
+                        result = UNKNOWN;
+                    }
+                }
+                return result;
+            };
+        }
+
+        private void collect(BaseCompositeSpecification<?> specification, CompositionMode mode, List<Condition> out) {
+            for (Specification<?> child : specification.getSpecifications()) {
+                Class<?> type = child == null ? null : child.getClass();
+                if (mode == CompositionMode.AND && type == And.class || mode == CompositionMode.OR && type == Or.class) {
+                    collect((BaseCompositeSpecification<?>) child, mode, out);
+                    continue;
+                }
+
+                Condition condition = condition(child);
+                if (condition != null) {
+                    out.add(condition);
+                }
+            }
+        }
+
+        private Condition comparison(BaseComparisonSpecification<?> specification, boolean equal) {
+            Path path = path(specification.getFields());
+            Object value = specification.getValue();
+
+            if (value == null) {
+                return switch (specification.getNullHandling()) {
+                    case IGNORE -> null;
+                    case USE_IS_NULL -> equal
+                            ? (root, rows) -> path.read(root, rows) == null ? TRUE : FALSE
+                            : (root, rows) -> path.read(root, rows) != null ? TRUE : FALSE;
+                };
+            }
+
+            checkValue(value);
+            if (value instanceof CharSequence str) {
+                if (specification.isIgnoreCase()) {
+                    return ignoreCase(specification.getFields(), specification.getCaseSettings(), path,
+                            str.toString(), equal);
+                }
+                if (path.javaType != String.class) {
+                    throw new NotCompilableException();
+                }
+                String string = str.toString();
+                return (root, rows) -> {
+                    Object actual = path.read(root, rows);
+                    return actual == null ? UNKNOWN : bool(string.equals(actual) == equal);
+                };
+            }
+
+            if (DayRange.supports(path.javaType, value)) {
+                Comparable<?> start = DayRange.startOf(path.javaType, (LocalDate) value);
+                Comparable<?> end = DayRange.startOf(path.javaType, ((LocalDate) value).plusDays(1));
+                return (root, rows) -> {
+                    Object actual = path.read(root, rows);
+                    if (actual == null) {
+                        return UNKNOWN;
+                    }
+                    boolean within = compare(actual, start) >= 0 && compare(actual, end) < 0;
+                    return bool(within == equal);
+                };
+            }
+
+            Object operand = path.plain(value).operand(value);
+            return (root, rows) -> {
+                Object actual = path.read(root, rows);
+                return actual == null ? UNKNOWN : bool(same(actual, operand) == equal);
+            };
+        }
+
+        private Condition bound(List<String> fields, Object value, boolean lower) {
+            if (!new CheckValue(value).nonNull()) {
+                return null;
+            }
+
+            checkValue(value);
+            Path path = path(fields);
+            if (DayRange.supports(path.javaType, value)) {
+                Comparable<?> start = lower
+                        ? DayRange.startOf(path.javaType, (LocalDate) value)
+                        : DayRange.startOf(path.javaType, ((LocalDate) value).plusDays(1));
+                return (root, rows) -> {
+                    Object actual = path.read(root, rows);
+                    return actual == null ? UNKNOWN : bool(lower ? compare(actual, start) >= 0 : compare(actual, start) < 0);
+                };
+            }
+
+            if (path.association) {
+                throw new NotCompilableException();
+            }
+            Object operand = path.plain(value).operand(value);
+            return (root, rows) -> {
+                Object actual = path.read(root, rows);
+                return actual == null ? UNKNOWN : bool(lower ? compare(actual, operand) >= 0 : compare(actual, operand) <= 0);
+            };
+        }
+
+        /*
+         * Повторяет Between.specification(): один край диапазона - одно сравнение, оба - их конъюнкция.
+         */
+        private Condition between(Between<?, ?> specification) {
+            List<?> values = specification.getValues();
+            if (!new CheckValue(values).nonNull() || values.size() < 2 && values.stream().allMatch(v -> v == null)) {
+                return null;
+            }
+
+            List<String> fields = specification.getFields();
+            Condition from = bound(fields, values.get(0), true);
+            Condition to = bound(fields, values.get(1), false);
+
+            if (from == null || to == null) {
+                return from == null ? to : from;
+            }
+
+            return (root, rows) -> {
+                int first = from.test(root, rows);
+                return first == FALSE ? FALSE : and(first, to.test(root, rows));
+            };
+        }
+
+        private Condition like(Like<?> specification) {
+            if (!new CheckValue(specification.getValue()).nonNull()) {
+                return null;
+            }
+
+            checkValue(specification.getValue());
+            Path path = path(specification.getFields()).plain(specification.getValue()).text();
+
+            String literal = specification.getLiteral();
+            if (literal != null) {
+                return specification.isIgnoreCase()
+                        ? ignoreCase(specification.getFields(), specification.getCaseSettings(), path, literal, true)
+                        : (root, rows) -> {
+                            String actual = path.readText(root, rows);
+                            return actual == null ? UNKNOWN : bool(literal.equals(actual));
+                        };
+            }
+
+            // диапазон PREFIX_RANGE следует из like 'prefix%' для префиксов, к которым он применяется
+            CaseSettings settings = specification.getCaseSettings();
+            boolean shadow = settings != null && settings.getStrategy() == CaseStrategy.SHADOW_COLUMN;
+            Path target = shadow ? shadow(specification.getFields(), settings).text() : path;
+            LikeMatcher matcher = shadow
+                    ? new LikeMatcher(specification.lowerPattern(), false)
+                    : new LikeMatcher(specification.pattern(), specification.isIgnoreCase());
+
+            return (root, rows) -> {
+                String actual = target.readText(root, rows);
+                return actual == null ? UNKNOWN : bool(matcher.matches(actual));
+            };
+        }
+
+        /*
+         * Повторяет IgnoreCaseClause.compare(): LOWER, ILIKE и колонка без учёта регистра сравнивают строки
+         * без учёта регистра, теневая колонка сравнивается со значением в нижнем регистре.
+         */
+        private Condition ignoreCase(List<String> fields, CaseSettings settings, Path path, String value, boolean equal) {
+            if (settings.getStrategy() == CaseStrategy.SHADOW_COLUMN) {
+                Path shadow = shadow(fields, settings).text();
+                String lower = value.toLowerCase();
+                return (root, rows) -> {
+                    String actual = shadow.readText(root, rows);
+                    return actual == null ? UNKNOWN : bool(lower.equals(actual) == equal);
+                };
+            }
+
+            Path text = path.text();
+            return (root, rows) -> {
+                String actual = text.readText(root, rows);
+                return actual == null ? UNKNOWN : bool(equalsIgnoreCase(actual, value) == equal);
+            };
+        }
+
+        private Path shadow(List<String> fields, CaseSettings settings) {
+            List<String> shadow = new ArrayList<>(fields);
+            shadow.set(shadow.size() - 1, settings.getShadowField());
+            return path(shadow);
+        }
+
+        /*
+         * Как и InClause: null и повторы отбрасываются, для значения вне списка при null в атрибуте - UNKNOWN.
+         */
+        private Condition in(In<?, ?> specification) {
+            if (!new CheckValue(specification.getValues()).nonNull()) {
+                return null;
+            }
+
+            Path path = path(specification.getFields());
+            List<Object> values = new ArrayList<>();
+            for (Object value : InClause.distinct(specification.getValues())) {
+                checkValue(value);
+                values.add(path.plain(value).operand(value));
+            }
+
+            Class<?> boxed = box(path.javaType);
+            if (path.association
+                    || hasValueEquals(boxed) && values.stream().allMatch(value -> value.getClass() == boxed)) {
+                Set<Object> set = new HashSet<>(values);
+                return (root, rows) -> {
+                    Object actual = path.read(root, rows);
+                    return actual == null ? UNKNOWN : bool(set.contains(actual));
+                };
+            }
+
+            Object[] array = values.toArray();
+            return (root, rows) -> {
+                Object actual = path.read(root, rows);
+                if (actual == null) {
+                    return UNKNOWN;
+                }
+                for (Object value : array) {
+                    if (same(actual, value)) {
+                        return TRUE;
+                    }
+                }
+                return FALSE;
+            };
+        }
+
+        /*
+         * Как и Exists.specification(): элементы пути от сущности, хотя бы один из которых удовлетворяет
+         * вложенным спецификациям. EXISTS не бывает UNKNOWN.
+         */
+        private Condition exists(Exists<?, ?> specification) {
+            Attribute<?, ?>[] attributes = Associations.resolve(entity, specification.getFieldPath());
+            ManagedType<?> target = Associations.target(attributes[attributes.length - 1]);
+            if (!(target instanceof EntityType<?>)) {
+                throw new NotCompilableException();
+            }
+
+            Scope subquery = new Scope(target);
+            Matcher matcher = subquery.matcher(subquery.composite(new And<>(specification.getSpecifications())));
+
+            Function<Object, Object>[] getters = getters(attributes);
+            boolean[] plural = new boolean[attributes.length];
+            for (int i = 0; i < attributes.length; i++) {
+                plural[i] = attributes[i] instanceof PluralAttribute<?, ?, ?>;
+            }
+
+            return (root, rows) -> bool(anyMatch(root, 0, getters, plural, matcher));
+        }
+
+        private boolean anyMatch(Object current, int index, Function<Object, Object>[] getters, boolean[] plural,
+                                 Matcher matcher) {
+            if (current == null) {
+                return false;
+            }
+            if (index == getters.length) {
+                return matcher.matches(current);
+            }
+
+            Object value = getters[index].apply(current);
+            if (!plural[index]) {
+                return anyMatch(value, index + 1, getters, plural, matcher);
+            }
+
+            for (Object element : elements(value)) {
+                if (anyMatch(element, index + 1, getters, plural, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /*
+         * Путь из одного поля - атрибут сущности. Однозначные ассоциации читаются по цепочке (left join
+         * однозначной ассоциации - это null для отсутствующей связи), коллекции присоединяются по одной
+         * на префикс пути, как в JoinRegistry.
+         */
+        private Path path(List<String> fields) {
+            int source = -1;
+            List<Function<Object, Object>> chain = new ArrayList<>();
+            ManagedType<?> type = entity;
+            String prefix = "";
+
+            for (int i = 0; i < fields.size() - 1; i++) {
+                Attribute<?, ?> attribute = type.getAttribute(fields.get(i));
+                prefix = prefix + "." + attribute.getName();
+
+                if (attribute instanceof PluralAttribute<?, ?, ?>) {
+                    int parent = source;
+                    Function<Object, Object>[] owner = toArray(chain);
+                    CollectionJoin join = joinsByPrefix.computeIfAbsent(prefix, key -> {
+                        CollectionJoin created = new CollectionJoin(joins.size(), parent, owner, accessor(attribute));
+                        joins.add(created);
+                        return created;
+                    });
+                    source = join.index;
+                    chain.clear();
+                } else {
+                    chain.add(accessor(attribute));
+                }
+                type = Associations.target(attribute);
+            }
+
+            Attribute<?, ?> attribute = type.getAttribute(fields.get(fields.size() - 1));
+            if (attribute instanceof PluralAttribute<?, ?, ?>
+                    || attribute.getPersistentAttributeType() == Attribute.PersistentAttributeType.EMBEDDED) {
+                throw new NotCompilableException();
+            }
+
+            chain.add(accessor(attribute));
+            return new Path(source, toArray(chain), attribute.getJavaType(), attribute.isAssociation(),
+                    entityManager.getEntityManagerFactory().getPersistenceUnitUtil());
+        }
+
+        private Function<Object, Object>[] getters(Attribute<?, ?>[] attributes) {
+            List<Function<Object, Object>> getters = new ArrayList<>(attributes.length);
+            for (Attribute<?, ?> attribute : attributes) {
+                getters.add(accessor(attribute));
+            }
+            return toArray(getters);
+        }
+
+        /**
+         * Проверка сущности: перебор комбинаций элементов присоединённых коллекций.
+         */
+        private final class Matcher {
+
+            private final Condition condition;
+            private final CollectionJoin[] joins;
+
+            private Matcher(Condition condition, CollectionJoin[] joins) {
+                this.condition = condition;
+                this.joins = joins;
+            }
+
+            private boolean matches(Object root) {
+                if (condition == null) {
+                    return true;
+                }
+                if (joins.length == 0) {
+                    return condition.test(root, null) == TRUE;
+                }
+                return assign(root, new Object[joins.length], 0);
+            }
+
+            private boolean assign(Object root, Object[] rows, int index) {
+                if (index == joins.length) {
+                    return condition.test(root, rows) == TRUE;
+                }
+
+                CollectionJoin join = joins[index];
+                Object owner = read(join.source < 0 ? root : rows[join.source], join.owner);
+                Collection<?> elements = owner == null ? List.of() : elements(join.collection.apply(owner));
+
+                if (elements.isEmpty()) {
+                    rows[index] = null;
+                    return assign(root, rows, index + 1);
+                }
+
+                for (Object element : elements) {
+                    rows[index] = element;
+                    if (assign(root, rows, index + 1)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+
+    private Function<Object, Object> accessor(Attribute<?, ?> attribute) {
+        return accessors.computeIfAbsent(attribute.getJavaMember(), PropertyAccessor::of);
+    }
+
+    private static Object read(Object current, Function<Object, Object>[] chain) {
+        for (Function<Object, Object> getter : chain) {
+            if (current == null) {
+                return null;
+            }
+            current = getter.apply(current);
+        }
+        return current;
+    }
+
+    private static Collection<?> elements(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        return value instanceof Map<?, ?> map ? map.values() : (Collection<?>) value;
+    }
+
+    /*
+     * Значение спецификации, которое нельзя сравнить в памяти так же, как в запросе.
+     */
+    private static void checkValue(Object value) {
+        if (value instanceof Slot<?>) {
+            throw new NotCompilableException();
+        }
+    }
+
+    private static int not(int value) {
+        return value == UNKNOWN ? UNKNOWN : value == TRUE ? FALSE : TRUE;
+    }
+
+    private static int and(int first, int second) {
+        if (first == FALSE || second == FALSE) {
+            return FALSE;
+        }
+        return first == UNKNOWN || second == UNKNOWN ? UNKNOWN : TRUE;
+    }
+
+    private static int bool(boolean value) {
+        return value ? TRUE : FALSE;
+    }
+
+    /*
+     * Равенство в SQL: числа сравниваются по значению (1 = 1.0), остальные - через compareTo или equals.
+     */
+    private static boolean same(Object actual, Object value) {
+        if (actual instanceof Number || actual instanceof Comparable<?> && actual.getClass() == value.getClass()) {
+            return compare(actual, value) == 0;
+        }
+        return actual.equals(value);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compare(Object actual, Object value) {
+        if (actual instanceof Number number && value instanceof Number other && actual.getClass() != value.getClass()) {
+            return decimal(number).compareTo(decimal(other));
+        }
+        return ((Comparable) actual).compareTo(value);
+    }
+
+    private static BigDecimal decimal(Number number) {
+        return number instanceof BigDecimal decimal ? decimal : new BigDecimal(number.toString());
+    }
+
+    /*
+     * lower(a) = lower(b) посимвольно.
+     */
+    private static boolean equalsIgnoreCase(String actual, String value) {
+        if (actual.length() != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < actual.length(); i++) {
+            if (Character.toLowerCase(actual.charAt(i)) != Character.toLowerCase(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * equals совпадает с равенством SQL: у BigDecimal equals учитывает масштаб (15.75 и 15.7500),
+     * у Double и Float различает 0.0 и -0.0, такие значения сравниваются через same().
+     */
+    private static boolean hasValueEquals(Class<?> type) {
+        return VALUE_EQUALS_TYPES.contains(type) || type.isEnum();
+    }
+
+    private static Class<?> box(Class<?> type) {
+        return type.isPrimitive() ? MethodType.methodType(type).wrap().returnType() : type;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object>[] toArray(List<Function<Object, Object>> functions) {
+        return functions.toArray((Function<Object, Object>[]) new Function<?, ?>[0]);
+    }
+
+    /**
+     * Коллекция, присоединённая к запросу: {@code source} - строка, от которой начинается путь
+     * ({@code -1} - сущность), {@code owner} - однозначные ассоциации до владельца коллекции.
+     */
+    private record CollectionJoin(int index, int source, Function<Object, Object>[] owner,
+                                  Function<Object, Object> collection) {
+    }
+
+    /**
+     * Путь к атрибуту: строка, от которой он начинается, и геттеры по порядку.
+     *
+     * @param association атрибут - ассоциация: вместо сущности читается её идентификатор
+     */
+    private record Path(int source, Function<Object, Object>[] chain, Class<?> javaType, boolean association,
+                        PersistenceUnitUtil util) {
+
+        private Object read(Object root, Object[] rows) {
+            Object value = PredicateCompiler.read(source < 0 ? root : rows[source], chain);
+            return value != null && association ? util.getIdentifier(value) : value;
+        }
+
+        private String readText(Object root, Object[] rows) {
+            Object value = read(root, rows);
+            if (value == null || value instanceof String) {
+                return (String) value;
+            }
+            return value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        }
+
+        /**
+         * {@code Expressions.get} оборачивает атрибут в {@code DATE(...)}, если значение - {@link LocalDate},
+         * а атрибут - нет. Такое условие не компилируется.
+         */
+        private Path plain(Object value) {
+            if (value instanceof LocalDate && javaType != LocalDate.class) {
+                throw new NotCompilableException();
+            }
+            return this;
+        }
+
+        /**
+         * {@code Expression.as(String.class)}: приводятся только типы, строковое представление которых
+         * в Java совпадает с SQL ({@link BigDecimal} - без экспоненты).
+         */
+        private Path text() {
+            if (association || !TEXT_TYPES.contains(box(javaType))) {
+                throw new NotCompilableException();
+            }
+            return this;
+        }
+
+        /**
+         * @return значение для сравнения с атрибутом: для ассоциации - идентификатор сущности
+         */
+        private Object operand(Object value) {
+            return association && javaType.isInstance(value) ? util.getIdentifier(value) : value;
+        }
+    }
+
+    /**
+     * Дерево содержит спецификацию, которую нельзя вычислить в памяти.
+     */
+    private static final class NotCompilableException extends RuntimeException {
+
+        private NotCompilableException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.kovalev.specificationhelper.memory;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * Чтение атрибута сущности по {@link jakarta.persistence.metamodel.Attribute#getJavaMember()}.
+ *
+ * <p>Если у поля есть геттер, читается геттер: прокси Hibernate инициализируется при вызове геттера,
+ * а поля прокси пусты. Геттер превращается в {@link Function} через {@link LambdaMetafactory}, поэтому вызов
+ * не отличается от обычного вызова метода и встраивается JIT. Если класс лямбды создать нельзя (нет доступа
+ * к классу сущности), а также для полей без геттера используется {@link MethodHandle}.</p>
+ */
+final class PropertyAccessor {
+
+    private static final MethodType GENERIC = MethodType.methodType(Object.class, Object.class);
+
+    private PropertyAccessor() {
+    }
+
+    /**
+     * @param member поле или геттер атрибута
+     * @return функция, которая возвращает значение атрибута объекта
+     * @throws IllegalStateException если к полю или методу нет доступа
+     */
+    static Function<Object, Object> of(Member member) {
+        Class<?> owner = member.getDeclaringClass();
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            Method getter = member instanceof Method method ? method : getter(owner, (Field) member);
+            if (getter == null) {
+                return invoker(lookup.unreflectGetter((Field) member));
+            }
+
+            MethodHandle handle = lookup.unreflect(getter);
+            Function<Object, Object> lambda = lambda(lookup, handle, owner);
+            return lambda != null ? lambda : invoker(handle);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot access " + member, e);
+        }
+    }
+
+    private static Method getter(Class<?> owner, Field field) {
+        String suffix = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        for (String name : new String[]{"get" + suffix, "is" + suffix}) {
+            try {
+                Method method = owner.getDeclaredMethod(name);
+                if (method.getReturnType() == field.getType()) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // геттера с таким именем нет
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambda(MethodHandles.Lookup lookup, MethodHandle handle, Class<?> owner) {
+        try {
+            Class<?> result = MethodType.methodType(handle.type().returnType()).wrap().returnType();
+            CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+                    GENERIC, handle, MethodType.methodType(result, owner));
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    private static Function<Object, Object> invoker(MethodHandle handle) {
+        MethodHandle generic = handle.asType(GENERIC);
+        return target -> {
+            try {
+                return (Object) generic.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
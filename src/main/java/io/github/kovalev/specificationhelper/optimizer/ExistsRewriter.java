@@ -0,0 +1,234 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.Associations;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Переписывает условия на поля коллекций в коррелированные подзапросы {@link Exists}.
+ *
+ * <p>Условие на {@code posts.title} присоединяет коллекцию к корню запроса, и пользователь с тысячей постов
+ * даёт тысячу строк. После переписывания условия на коллекцию проверяются подзапросом:</p>
+ * <pre>{@code
+ * and(username = 'a', posts.title = 'x', posts.content like '%y%', posts.comments.text = 'z')
+ * // username = 'a' and exists (select 1 from Post p where p.author = u
+ * //     and p.title = 'x' and p.content like '%y%'
+ * //     and exists (select 1 from Comment c where c.post = p and c.text = 'z'))
+ * }</pre>
+ *
+ * <p><b>Правила:</b></p>
+ * <ul>
+ *     <li>Переписываются спецификации библиотеки с путём, проходящим через коллекцию ({@link Equal},
+ *     {@link NotEqual}, {@link Like}, {@link In}, {@link Between}, {@link GreaterThanOrEqualTo},
+ *     {@link LessThanOrEqualTo}, {@link IsNull}, {@link IsNotNull}). Ключ группы - путь до первой коллекции
+ *     включительно ({@code posts}, {@code author.posts}), условие в подзапросе получает остаток пути.</li>
+ *     <li>Соседние условия одного {@link And} или {@link Or} с одинаковым ключом объединяются в один подзапрос
+ *     тем же оператором: как и общий JOIN, условия AND относятся к одному элементу коллекции. Коллекции
+ *     в остатке пути ({@code comments.text}) переписываются во вложенный подзапрос.</li>
+ *     <li>{@code Not}, {@link Exists}, лямбды и наследники спецификаций не изменяются: под отрицанием
+ *     {@code not exists} означал бы другое условие, чем {@code not} над JOIN.</li>
+ * </ul>
+ *
+ * <p>Условия из разных подзапросов (например, из разных уровней дерева) могут выполняться для разных элементов
+ * коллекции, а условие {@code posts.title is null} не выполняется для сущности без элементов - в отличие
+ * от {@code left join}, который даёт для неё строку с {@code null}.</p>
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ExistsRewriter {
+
+    /**
+     * Переписывает условия на поля коллекций в {@link Exists}.
+     *
+     * @param entity        сущность, от которой строится запрос
+     * @param specification спецификация; может быть {@code null}
+     * @param <E>           тип сущности
+     * @return новое дерево или та же спецификация, если переписывать нечего
+     */
+    public <E> Specification<E> rewrite(@NonNull EntityType<E> entity, Specification<E> specification) {
+        return rewrite((ManagedType<?>) entity, specification);
+    }
+
+    private Specification rewrite(ManagedType<?> type, Specification specification) {
+        if (specification == null) {
+            return null;
+        }
+
+        Class<?> specificationType = specification.getClass();
+        if (specificationType == And.class || specificationType == Or.class) {
+            return composite(type, (BaseCompositeSpecification) specification);
+        }
+
+        Integer collection = collectionIndex(type, specification);
+        return collection == null
+                ? specification
+                : exists(type, CompositionMode.AND, List.of(specification), collection);
+    }
+
+    private Specification composite(ManagedType<?> type, BaseCompositeSpecification specification) {
+        CompositionMode mode = specification.getMode();
+        List<Object> children = new ArrayList<>();
+        Map<FieldPath, List<Specification>> groups = new LinkedHashMap<>();
+        Map<FieldPath, Integer> collections = new LinkedHashMap<>();
+        boolean changed = false;
+
+        for (Specification child : (List<Specification>) specification.getSpecifications()) {
+            Integer collection = collectionIndex(type, child);
+            if (collection == null) {
+                Specification rewritten = rewrite(type, child);
+                changed |= rewritten != child;
+                children.add(rewritten);
+                continue;
+            }
+
+            FieldPath key = pathOf(child).subPath(0, collection + 1);
+            if (!groups.containsKey(key)) {
+                // место подзапроса - место первого условия группы
+                groups.put(key, new ArrayList<>());
+                collections.put(key, collection);
+                children.add(key);
+            }
+            groups.get(key).add(child);
+            changed = true;
+        }
+
+        if (!changed) {
+            return specification;
+        }
+
+        List<Specification> result = new ArrayList<>(children.size());
+        for (Object child : children) {
+            result.add(child instanceof FieldPath key
+                    ? exists(type, mode, groups.get(key), collections.get(key))
+                    : (Specification) child);
+        }
+
+        if (result.size() == 1) {
+            return result.get(0);
+        }
+        return mode == CompositionMode.AND ? new And(result) : new Or(result);
+    }
+
+    /*
+     * Условия группы получают путь после коллекции и строятся от её элемента; коллекции в остатке пути
+     * переписываются рекурсивно.
+     */
+    private Specification exists(ManagedType<?> type, CompositionMode mode, List<Specification> group,
+                                 int collection) {
+        FieldPath path = pathOf(group.get(0));
+        FieldPath key = path.subPath(0, collection + 1);
+        ManagedType<?> element = Associations.target(Associations.resolve(type, key)[collection]);
+
+        List<Specification> rebased = new ArrayList<>(group.size());
+        for (Specification specification : group) {
+            FieldPath full = pathOf(specification);
+            rebased.add(rebase(specification, full.subPath(collection + 1, full.size())));
+        }
+
+        Specification inner = rebased.size() == 1
+                ? rebased.get(0)
+                : mode == CompositionMode.AND ? new And(rebased) : new Or(rebased);
+        return new Exists<>(key, List.of(rewrite(element, inner)));
+    }
+
+    /**
+     * @return индекс первой коллекции в пути, если она не последнее поле, или {@code null},
+     * если спецификацию переписывать не нужно
+     */
+    private static Integer collectionIndex(ManagedType<?> type, Specification specification) {
+        FieldPath path = pathOf(specification);
+        if (path == null || path.size() < 2) {
+            return null;
+        }
+
+        Attribute<?, ?>[] attributes;
+        try {
+            attributes = Associations.resolve(type, path);
+        } catch (IllegalArgumentException e) {
+            // неверный путь - ошибка будет получена при построении запроса, как и без переписывания
+            return null;
+        }
+
+        for (int i = 0; i < attributes.length - 1; i++) {
+            if (attributes[i] instanceof PluralAttribute<?, ?, ?>) {
+                return Associations.target(attributes[i]) instanceof EntityType<?> ? i : null;
+            }
+        }
+        return null;
+    }
+
+    private static FieldPath pathOf(Specification specification) {
+        Class<?> type = specification == null ? null : specification.getClass();
+        if (type == Equal.class || type == NotEqual.class) {
+            return ((BaseComparisonSpecification) specification).getFieldPath();
+        } else if (type == Like.class) {
+            return ((Like) specification).getFieldPath();
+        } else if (type == In.class) {
+            return ((In) specification).getFieldPath();
+        } else if (type == Between.class) {
+            return ((Between) specification).getFieldPath();
+        } else if (type == GreaterThanOrEqualTo.class) {
+            return ((GreaterThanOrEqualTo) specification).getFieldPath();
+        } else if (type == LessThanOrEqualTo.class) {
+            return ((LessThanOrEqualTo) specification).getFieldPath();
+        } else if (type == IsNull.class) {
+            return ((IsNull) specification).getFieldPath();
+        } else if (type == IsNotNull.class) {
+            return ((IsNotNull) specification).getFieldPath();
+        }
+        return null;
+    }
+
+    /**
+     * Копия спецификации с другим путём: остальные параметры не изменяются.
+     */
+    private static Specification rebase(Specification specification, FieldPath path) {
+        Class<?> type = specification.getClass();
+        if (type == Equal.class) {
+            Equal equal = (Equal) specification;
+            return new Equal<>(path, equal.getValue(), equal.getNullHandling(), equal.getCaseSettings());
+        } else if (type == NotEqual.class) {
+            NotEqual notEqual = (NotEqual) specification;
+            return new NotEqual<>(path, notEqual.getValue(), notEqual.getNullHandling(), notEqual.getCaseSettings());
+        } else if (type == Like.class) {
+            Like like = (Like) specification;
+            return new Like<>(path, like.getValue(), like.getLikeMatchMode(), like.getCaseSettings());
+        } else if (type == In.class) {
+            In in = (In) specification;
+            return new In<>(path, in.getValues(), in.getSettings());
+        } else if (type == Between.class) {
+            return new Between<>(path, ((Between) specification).getValues());
+        } else if (type == GreaterThanOrEqualTo.class) {
+            return new GreaterThanOrEqualTo<>(path, ((GreaterThanOrEqualTo) specification).getValue());
+        } else if (type == LessThanOrEqualTo.class) {
+            return new LessThanOrEqualTo<>(path, ((LessThanOrEqualTo) specification).getValue());
+        } else if (type == IsNull.class) {
+            return new IsNull<>(path);
+        }
+        return new IsNotNull<>(path);
+    }
+}
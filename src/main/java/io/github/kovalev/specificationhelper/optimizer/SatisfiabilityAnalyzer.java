@@ -0,0 +1,342 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Статический анализ выполнимости дерева спецификаций.
+ *
+ * <p>{@link #isUnsatisfiable(Specification)} возвращает {@code true}, только если доказано, что условие
+ * не выполняется ни для одной строки, и запрос можно не отправлять в базу. Анализ консервативный:
+ * всё, что не удалось разобрать (лямбды, {@code Not}, {@code Like}, сравнения без учёта регистра), считается
+ * выполнимым.</p>
+ *
+ * <p>Под AND для каждого поля собираются ограничения, противоречие находится, если:</p>
+ * <ul>
+ *     <li>поле одновременно {@code is null} и {@code is not null} (любое сравнение со значением
+ *     подразумевает {@code is not null});</li>
+ *     <li>пересечение значений {@link Equal} и {@link In} пусто или все оставшиеся значения
+ *     исключены {@link NotEqual}: {@code id = 1 and id = 2}, {@code id in (1, 2) and id in (3)};</li>
+ *     <li>нижняя граница ({@link GreaterThanOrEqualTo}, {@link Between}) больше верхней
+ *     ({@link LessThanOrEqualTo}, {@link Between}) или значения равенства лежат вне границ.</li>
+ * </ul>
+ *
+ * <p>{@link Or} противоречив, если противоречивы все его условия вместе с остальными условиями AND. Значения сравниваются только в пределах
+ * одного класса; поле, для которого встретились значения разных классов, проверяется только на {@code null}.
+ * Числа сравниваются по значению ({@code 1.0 = 1.00}), границы проверяются только для чисел и дат. Строки
+ * проверяются только на {@code null}: их равенство и порядок определяет collation столбца.</p>
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SatisfiabilityAnalyzer {
+
+    /**
+     * Максимальное число ветвей, на которые раскрываются {@link Or} под AND.
+     */
+    private static final int MAX_BRANCHES = 64;
+
+    /**
+     * Проверяет, что спецификация заведомо не выполняется ни для одной строки.
+     *
+     * @param specification спецификация; может быть {@code null}
+     * @return {@code true}, если доказано противоречие
+     */
+    public boolean isUnsatisfiable(Specification<?> specification) {
+        return specification != null && isUnsatisfiable(List.of(specification), new int[]{MAX_BRANCHES});
+    }
+
+    /**
+     * Проверяет конъюнкцию спецификаций. Вложенные {@link And} разворачиваются, первый {@link Or} раскрывается:
+     * {@code x and (a or b)} противоречиво, если противоречивы и {@code x and a}, и {@code x and b}.
+     *
+     * @param budget оставшееся число проверяемых ветвей; когда оно исчерпано, условие считается выполнимым
+     */
+    private boolean isUnsatisfiable(List<? extends Specification<?>> conjunction, int[] budget) {
+        if (--budget[0] < 0) {
+            return false;
+        }
+
+        List<Specification<?>> leaves = new ArrayList<>();
+        List<Specification<?>> disjunctions = new ArrayList<>();
+        flatten(conjunction, leaves, disjunctions);
+
+        Map<FieldPath<?>, Constraint> constraints = new HashMap<>();
+        for (Specification<?> leaf : leaves) {
+            FieldPath<?> path = path(leaf);
+            if (path != null && constraints.computeIfAbsent(path, key -> new Constraint()).add(leaf)) {
+                return true;
+            }
+        }
+
+        if (disjunctions.isEmpty()) {
+            return false;
+        }
+
+        List<? extends Specification<?>> alternatives = ((Or<?>) disjunctions.get(0)).getSpecifications();
+        List<Specification<?>> rest = new ArrayList<>(leaves);
+        rest.addAll(disjunctions.subList(1, disjunctions.size()));
+
+        for (Specification<?> alternative : alternatives) {
+            List<Specification<?>> branch = new ArrayList<>(rest);
+            branch.add(alternative);
+            if (!isUnsatisfiable(branch, budget)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void flatten(List<? extends Specification<?>> conjunction, List<Specification<?>> leaves,
+                                List<Specification<?>> disjunctions) {
+        for (Specification<?> specification : conjunction) {
+            if (specification == null) {
+                continue;
+            }
+
+            Class<?> type = specification.getClass();
+            if (type == And.class) {
+                flatten(((And<?>) specification).getSpecifications(), leaves, disjunctions);
+            } else if (type == Or.class) {
+                // пустой Or не даёт условия
+                if (!((Or<?>) specification).getSpecifications().isEmpty()) {
+                    disjunctions.add(specification);
+                }
+            } else {
+                leaves.add(specification);
+            }
+        }
+    }
+
+    private static FieldPath<?> path(Specification<?> specification) {
+        if (specification instanceof BaseComparisonSpecification<?> comparison) {
+            return comparison.getFieldPath();
+        } else if (specification instanceof GreaterThanOrEqualTo<?, ?> gte) {
+            return gte.getFieldPath();
+        } else if (specification instanceof LessThanOrEqualTo<?, ?> lte) {
+            return lte.getFieldPath();
+        } else if (specification instanceof Between<?, ?> between) {
+            return between.getFieldPath();
+        } else if (specification instanceof In<?, ?> in) {
+            return in.getFieldPath();
+        } else if (specification instanceof Like<?> like) {
+            return like.getFieldPath();
+        } else if (specification instanceof IsNull<?> isNull) {
+            return isNull.getFieldPath();
+        } else if (specification instanceof IsNotNull<?> isNotNull) {
+            return isNotNull.getFieldPath();
+        }
+        return null;
+    }
+
+    /**
+     * Ограничения одного поля под AND.
+     */
+    private static final class Constraint {
+
+        private boolean isNull;
+        private boolean notNull;
+        private Set<Object> allowed;
+        private final Set<Object> excluded = new HashSet<>();
+        private Comparable lower;
+        private Comparable upper;
+        private Class<?> valueType;
+        private boolean mixedTypes;
+
+        /**
+         * @return {@code true}, если после добавления ограничения найдено противоречие
+         */
+        private boolean add(Specification<?> specification) {
+            Class<?> type = specification.getClass();
+
+            if (type == IsNull.class) {
+                isNull = true;
+            } else if (type == IsNotNull.class) {
+                notNull = true;
+            } else if (type == Like.class) {
+                notNull = notNull || new CheckValue(((Like<?>) specification).getValue()).nonNull();
+            } else if (type == Equal.class || type == NotEqual.class) {
+                comparison((BaseComparisonSpecification<?>) specification, type == Equal.class);
+            } else if (type == In.class) {
+                in(((In<?, ?>) specification).getValues());
+            } else if (type == GreaterThanOrEqualTo.class) {
+                lower(((GreaterThanOrEqualTo<?, ?>) specification).getValue());
+            } else if (type == LessThanOrEqualTo.class) {
+                upper(((LessThanOrEqualTo<?, ?>) specification).getValue());
+            } else if (type == Between.class) {
+                List<?> values = ((Between<?, ?>) specification).getValues();
+                if (values != null && values.size() >= 2) {
+                    lower(values.get(0));
+                    upper(values.get(1));
+                }
+            }
+
+            return isContradiction();
+        }
+
+        private void comparison(BaseComparisonSpecification<?> comparison, boolean equal) {
+            Object value = comparison.getValue();
+
+            if (value == null) {
+                if (comparison.getNullHandling() == NullHandling.USE_IS_NULL) {
+                    isNull = isNull || equal;
+                    notNull = notNull || !equal;
+                }
+                return;
+            }
+
+            notNull = true;
+            // LocalDate может означать диапазон дня, строка без учёта регистра - не точное значение
+            if (comparison.isIgnoreCase() || value instanceof LocalDate || !accept(value)) {
+                return;
+            }
+
+            if (equal) {
+                restrict(Set.of(normalize(value)));
+            } else {
+                excluded.add(normalize(value));
+            }
+        }
+
+        private void in(Collection<?> values) {
+            if (!new CheckValue(values).nonNull()) {
+                return;
+            }
+
+            notNull = true;
+            Set<Object> set = new HashSet<>();
+            for (Object value : values) {
+                if (value != null) {
+                    if (!accept(value)) {
+                        return;
+                    }
+                    set.add(normalize(value));
+                }
+            }
+            restrict(set);
+        }
+
+        private void lower(Object value) {
+            if (new CheckValue(value).nonNull()) {
+                notNull = true;
+                if (isOrdered(value) && accept(value) && (lower == null || lower.compareTo(value) < 0)) {
+                    lower = (Comparable) value;
+                }
+            }
+        }
+
+        private void upper(Object value) {
+            if (new CheckValue(value).nonNull()) {
+                notNull = true;
+                if (isOrdered(value) && accept(value) && (upper == null || upper.compareTo(value) > 0)) {
+                    upper = (Comparable) value;
+                }
+            }
+        }
+
+        private void restrict(Set<Object> values) {
+            if (allowed == null) {
+                allowed = new HashSet<>(values);
+            } else {
+                allowed.retainAll(values);
+            }
+        }
+
+        /*
+         * Значения сравниваются только в пределах одного класса. Строки не сравниваются: равенство и порядок
+         * определяет collation столбца (citext, регистронезависимые и национальные правила), а не String.equals
+         * и String.compareTo.
+         */
+        private boolean accept(Object value) {
+            if (value instanceof CharSequence || value instanceof Character) {
+                return false;
+            }
+
+            Class<?> type = normalize(value).getClass();
+            if (valueType == null) {
+                valueType = type;
+            } else if (valueType != type) {
+                mixedTypes = true;
+            }
+            return !mixedTypes;
+        }
+
+        private boolean isContradiction() {
+            if (isNull && notNull) {
+                return true;
+            }
+
+            if (mixedTypes) {
+                return false;
+            }
+
+            if (lower != null && upper != null && lower.compareTo(upper) > 0) {
+                return true;
+            }
+
+            if (allowed == null) {
+                return false;
+            }
+
+            return allowed.stream().noneMatch(value -> !excluded.contains(value) && inBounds(value));
+        }
+
+        private boolean inBounds(Object value) {
+            if (!isOrdered(value)) {
+                return true;
+            }
+            Comparable comparable = (Comparable) value;
+            return (lower == null || lower.compareTo(comparable) <= 0)
+                    && (upper == null || upper.compareTo(comparable) >= 0);
+        }
+
+        /*
+         * Порядок Java совпадает с порядком базы только для чисел и дат: UUID, перечисления и строки
+         * сравниваются в базе иначе.
+         */
+        private static boolean isOrdered(Object value) {
+            return value instanceof Number && value instanceof Comparable
+                    || value instanceof Temporal && value instanceof Comparable
+                    || value instanceof Date;
+        }
+
+        /*
+         * Равные в SQL числа должны быть равны по equals: 1.0 и 1.00, 0.0 и -0.0.
+         */
+        private static Object normalize(Object value) {
+            if (value instanceof BigDecimal decimal) {
+                return decimal.stripTrailingZeros();
+            } else if (value instanceof Double number && number == 0) {
+                return 0.0d;
+            } else if (value instanceof Float number && number == 0) {
+                return 0.0f;
+            }
+            return Objects.requireNonNull(value);
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.InSettings;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Оптимизатор дерева спецификаций.
+ *
+ * <p>Возвращает новое дерево с тем же условием, но более коротким SQL; исходное дерево не изменяется.
+ * Применяются следующие преобразования:</p>
+ * <ul>
+ *     <li>спецификации, которые не дают условия ({@link Empty}, {@code Equal(field, null)} с
+ *     {@link NullHandling#IGNORE}, {@code Like}/{@code In}/{@code Between}/сравнения без значения), удаляются;</li>
+ *     <li>вложенные {@link And} в {@link And} и {@link Or} в {@link Or} разворачиваются,
+ *     а составная спецификация с одним условием заменяется этим условием;</li>
+ *     <li>повторяющиеся условия (по {@code equals}) удаляются;</li>
+ *     <li>под OR равенства и {@link In} по одному полю объединяются в один {@link In}:
+ *     {@code x = 1 or x = 2 or x in (3)} &rarr; {@code x in (1, 2, 3)} (значения одного класса);</li>
+ *     <li>под AND границы {@link GreaterThanOrEqualTo}, {@link LessThanOrEqualTo} и {@link Between}
+ *     по одному полю пересекаются: {@code x >= 1 and x >= 5 and x <= 9} &rarr; {@code x between 5 and 9}
+ *     (только числа и даты одного класса: порядок строк задаёт collation столбца);</li>
+ *     <li>{@link Not} вносится внутрь, если все условия под ним можно инвертировать без {@code NOT}:
+ *     {@code not(x = 1)} &rarr; {@code x <> 1}, {@code not(x is null)} &rarr; {@code x is not null},
+ *     {@code not(not(a))} &rarr; {@code a}, {@code not(a and b)} &rarr; {@code not a or not b} (закон де Моргана).</li>
+ * </ul>
+ *
+ * <p>Спецификации других классов (наследники, лямбды) переносятся в результат без изменений.</p>
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SpecificationOptimizer {
+
+    /**
+     * Оптимизирует дерево спецификаций.
+     *
+     * @param specification спецификация; может быть {@code null}
+     * @param <E>           тип сущности
+     * @return оптимизированная спецификация; {@link Empty}, если дерево не даёт условия;
+     * {@code null}, если передан {@code null}
+     */
+    public <E> Specification<E> optimize(Specification<E> specification) {
+        if (specification == null) {
+            return null;
+        }
+
+        Specification<E> result = rewrite(specification);
+        return result == null ? new Empty<>() : result;
+    }
+
+    /**
+     * @return оптимизированная спецификация или {@code null}, если спецификация не даёт условия
+     */
+    private Specification rewrite(Specification specification) {
+        if (specification == null || isNoop(specification)) {
+            return null;
+        }
+
+        Class<?> type = specification.getClass();
+        if (type == And.class || type == Or.class) {
+            BaseCompositeSpecification composite = (BaseCompositeSpecification) specification;
+            List<Specification> children = children(composite.getMode(), composite.getSpecifications());
+            return combine(composite.getMode(), children);
+        }
+
+        if (type == Not.class) {
+            return not((Not) specification);
+        }
+
+        return specification;
+    }
+
+    private Specification not(Not not) {
+        CompositionMode mode = not.getMode();
+        List<Specification> children = children(mode, not.getSpecifications());
+
+        if (children.isEmpty()) {
+            return null;
+        }
+
+        List<Specification> negated = new ArrayList<>(children.size());
+        for (Specification child : children) {
+            Specification negation = negate(child);
+            if (negation == null) {
+                return new Not(mode, children);
+            }
+            negated.add(negation);
+        }
+
+        // not(a and b) = not a or not b, not(a or b) = not a and not b
+        return rewrite(combine(mode == CompositionMode.AND ? CompositionMode.OR : CompositionMode.AND, negated));
+    }
+
+    /**
+     * Оптимизирует, разворачивает и объединяет вложенные спецификации составной спецификации.
+     */
+    private List<Specification> children(CompositionMode mode, Collection<Specification> specifications) {
+        Set<Specification> children = new LinkedHashSet<>();
+
+        for (Specification specification : specifications) {
+            Specification child = rewrite(specification);
+            if (child == null) {
+                continue;
+            }
+
+            if (isSameMode(mode, child)) {
+                children.addAll(((BaseCompositeSpecification) child).getSpecifications());
+            } else {
+                children.add(child);
+            }
+        }
+
+        return mode == CompositionMode.OR
+                ? mergeEqualities(new ArrayList<>(children))
+                : mergeRanges(new ArrayList<>(children));
+    }
+
+    private static Specification combine(CompositionMode mode, List<Specification> children) {
+        if (children.isEmpty()) {
+            return null;
+        }
+
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+
+        return mode == CompositionMode.AND ? new And(children) : new Or(children);
+    }
+
+    /**
+     * {@code x = a or x = b or x in (c)} &rarr; {@code x in (a, b, c)}.
+     */
+    private static List<Specification> mergeEqualities(List<Specification> children) {
+        Map<EqualityKey, List<Specification>> groups = new LinkedHashMap<>();
+        for (Specification child : children) {
+            EqualityKey key = equalityKey(child);
+            if (key != null) {
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(child);
+            }
+        }
+
+        List<Specification> result = new ArrayList<>(children.size());
+        for (Specification child : children) {
+            EqualityKey key = equalityKey(child);
+            List<Specification> group = key == null ? null : groups.get(key);
+
+            if (group == null || group.size() < 2 || settingsOf(group) == null) {
+                result.add(child);
+            } else if (group.get(0) == child) {
+                result.add(toIn(key.path(), group));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * {@code x >= a and x >= b and x <= c} &rarr; {@code x between max(a, b) and c}.
+     */
+    private static List<Specification> mergeRanges(List<Specification> children) {
+        Map<FieldPath, Range> ranges = new LinkedHashMap<>();
+        for (Specification child : children) {
+            FieldPath path = rangePath(child);
+            if (path != null) {
+                ranges.computeIfAbsent(path, key -> new Range()).add(child);
+            }
+        }
+
+        List<Specification> result = new ArrayList<>(children.size());
+        for (Specification child : children) {
+            FieldPath path = rangePath(child);
+            Range range = path == null ? null : ranges.get(path);
+
+            if (range == null || !range.isMergeable()) {
+                result.add(child);
+            } else if (range.first == child) {
+                result.add(range.toSpecification(path));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Инвертирует условие без {@code NOT}.
+     *
+     * @return инвертированная спецификация или {@code null}, если такой нет
+     */
+    private static Specification negate(Specification specification) {
+        Class<?> type = specification.getClass();
+
+        if (type == Equal.class) {
+            Equal equal = (Equal) specification;
+            return new NotEqual(equal.getFieldPath(), equal.getValue(), equal.getNullHandling(), equal.getCaseSettings());
+        } else if (type == NotEqual.class) {
+            NotEqual notEqual = (NotEqual) specification;
+            return new Equal(notEqual.getFieldPath(), notEqual.getValue(), notEqual.getNullHandling(),
+                    notEqual.getCaseSettings());
+        } else if (type == IsNull.class) {
+            return new IsNotNull(((IsNull) specification).getFieldPath());
+        } else if (type == IsNotNull.class) {
+            return new IsNull(((IsNotNull) specification).getFieldPath());
+        } else if (type == Not.class) {
+            Not not = (Not) specification;
+            return combine(not.getMode(), new ArrayList<>(not.getSpecifications()));
+        }
+
+        return null;
+    }
+
+    /**
+     * Проверяет, что спецификация не даёт условия (её {@code toPredicate} возвращает {@code null}).
+     */
+    private static boolean isNoop(Specification specification) {
+        Class<?> type = specification.getClass();
+
+        if (type == Empty.class) {
+            return true;
+        } else if (type == Equal.class || type == NotEqual.class) {
+            BaseComparisonSpecification comparison = (BaseComparisonSpecification) specification;
+            return comparison.getValue() == null && comparison.getNullHandling() == NullHandling.IGNORE;
+        } else if (type == GreaterThanOrEqualTo.class) {
+            return !new CheckValue(((GreaterThanOrEqualTo) specification).getValue()).nonNull();
+        } else if (type == LessThanOrEqualTo.class) {
+            return !new CheckValue(((LessThanOrEqualTo) specification).getValue()).nonNull();
+        } else if (type == Like.class) {
+            return !new CheckValue(((Like) specification).getValue()).nonNull();
+        } else if (type == In.class) {
+            return !new CheckValue(((In) specification).getValues()).nonNull();
+        } else if (type == Between.class) {
+            return !new CheckValue(((Between) specification).getValues()).nonNull();
+        }
+
+        return false;
+    }
+
+    private static boolean isSameMode(CompositionMode mode, Specification specification) {
+        return mode == CompositionMode.AND && specification.getClass() == And.class
+                || mode == CompositionMode.OR && specification.getClass() == Or.class;
+    }
+
+    /**
+     * Ключ равенства, которое можно объединить в {@link In}: точное сравнение с непустым значением.
+     * {@link LocalDate} пропускается - для атрибута с датой и временем это диапазон дня, а не равенство.
+     * Объединяются только значения одного класса: {@code x = 1 or x = 2L} не превращается в {@code In}
+     * со значениями разных типов.
+     */
+    private static EqualityKey equalityKey(Specification specification) {
+        if (specification.getClass() == Equal.class) {
+            Equal equal = (Equal) specification;
+            Object value = equal.getValue();
+            return value != null && !equal.isIgnoreCase() && !(value instanceof LocalDate)
+                    ? new EqualityKey(equal.getFieldPath(), valueClass(value))
+                    : null;
+        }
+
+        if (specification.getClass() == In.class) {
+            In in = (In) specification;
+            Class<?> valueClass = null;
+            for (Object value : (Collection<?>) in.getValues()) {
+                if (value == null) {
+                    continue;
+                }
+                if (valueClass != null && valueClass != valueClass(value)) {
+                    return null;
+                }
+                valueClass = valueClass(value);
+            }
+            return valueClass == null ? null : new EqualityKey(in.getFieldPath(), valueClass);
+        }
+
+        return null;
+    }
+
+    private static Class<?> valueClass(Object value) {
+        return value instanceof CharSequence ? String.class : value.getClass();
+    }
+
+    /**
+     * @return настройки {@link In} группы или {@code null}, если в группе есть {@link In} с разными настройками
+     */
+    private static InSettings settingsOf(List<Specification> group) {
+        InSettings settings = null;
+        for (Specification specification : group) {
+            if (specification instanceof In in) {
+                if (settings != null && !settings.equals(in.getSettings())) {
+                    return null;
+                }
+                settings = in.getSettings();
+            }
+        }
+        return settings == null ? InSettings.DEFAULT : settings;
+    }
+
+    private static In toIn(FieldPath path, List<Specification> group) {
+        Set<Object> values = new LinkedHashSet<>();
+        for (Specification specification : group) {
+            if (specification instanceof In in) {
+                values.addAll(in.getValues());
+            } else {
+                Object value = ((Equal) specification).getValue();
+                values.add(value instanceof CharSequence str ? str.toString() : value);
+            }
+        }
+        return new In(path, new ArrayList<>(values), settingsOf(group));
+    }
+
+    private static FieldPath rangePath(Specification specification) {
+        Class<?> type = specification.getClass();
+
+        if (type == GreaterThanOrEqualTo.class) {
+            return ((GreaterThanOrEqualTo) specification).getFieldPath();
+        } else if (type == LessThanOrEqualTo.class) {
+            return ((LessThanOrEqualTo) specification).getFieldPath();
+        } else if (type == Between.class && ((Between) specification).getValues().size() >= 2) {
+            return ((Between) specification).getFieldPath();
+        }
+
+        return null;
+    }
+
+    private record EqualityKey(FieldPath path, Class<?> valueClass) {
+    }
+
+    /**
+     * Границы одного поля, собранные из условий под AND.
+     */
+    private static final class Range {
+
+        private Specification first;
+        private int count;
+        private Comparable lower;
+        private Comparable upper;
+        private boolean comparable = true;
+
+        private void add(Specification specification) {
+            if (first == null) {
+                first = specification;
+            }
+            count++;
+
+            if (specification instanceof GreaterThanOrEqualTo gte) {
+                lower(gte.getValue());
+            } else if (specification instanceof LessThanOrEqualTo lte) {
+                upper(lte.getValue());
+            } else {
+                List values = ((Between) specification).getValues();
+                lower(values.get(0));
+                upper(values.get(1));
+            }
+        }
+
+        private void lower(Object value) {
+            if (accept(value, lower)) {
+                lower = lower == null || lower.compareTo(value) < 0 ? (Comparable) value : lower;
+            }
+        }
+
+        private void upper(Object value) {
+            if (accept(value, upper)) {
+                upper = upper == null || upper.compareTo(value) > 0 ? (Comparable) value : upper;
+            }
+        }
+
+        /*
+         * Граница без значения (null, пустая строка) не даёт условия. Сравниваются только значения одного класса,
+         * порядок которого в Java совпадает с порядком базы: числа и даты. Порядок строк задаёт collation
+         * столбца, UUID и перечисления база тоже сравнивает иначе.
+         */
+        private boolean accept(Object value, Comparable current) {
+            if (!new CheckValue(value).nonNull()) {
+                return false;
+            }
+
+            Object other = current != null ? current : lower != null ? lower : upper;
+            if (!isOrdered(value) || other != null && other.getClass() != value.getClass()) {
+                comparable = false;
+                return false;
+            }
+            return true;
+        }
+
+        private static boolean isOrdered(Object value) {
+            return value instanceof Number && value instanceof Comparable
+                    || value instanceof Temporal && value instanceof Comparable
+                    || value instanceof Date;
+        }
+
+        private boolean isMergeable() {
+            return count > 1 && comparable;
+        }
+
+        private Specification toSpecification(FieldPath path) {
+            if (lower != null && upper != null) {
+                return new Between(path, List.of(lower, upper));
+            }
+            return lower != null ? new GreaterThanOrEqualTo(path, lower) : new LessThanOrEqualTo(path, upper);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.kovalev.specificationhelper.repository;
+
+import io.github.kovalev.specificationhelper.cache.TouchedEntityTypes;
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.memory.PredicateCompiler;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.InClause;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Дерево спецификаций, которое выбирает сущности по идентификатору: {@code Equal("id", x)} или
+ * {@code In("id", ids)}, возможно, в AND с условиями на собственные атрибуты сущности.
+ *
+ * <p>Такие сущности можно взять из контекста персистентности или кеша второго уровня, а остальные условия
+ * проверить в памяти через {@link PredicateCompiler}.</p>
+ *
+ * @param <E> тип сущности
+ */
+final class IdentifierLookup<E> {
+
+    private final List<Object> ids;
+    private final Predicate<E> residual;
+
+    private IdentifierLookup(List<Object> ids, Predicate<E> residual) {
+        this.ids = ids;
+        this.residual = residual;
+    }
+
+    /**
+     * Разбирает дерево.
+     *
+     * @param entity        сущность
+     * @param specification упрощённое дерево спецификаций
+     * @param compiler      компилятор остальных условий
+     * @param <E>           тип сущности
+     * @return разбор или {@code null}, если дерево - не выборка по идентификатору, значения не того типа,
+     * а остальные условия нельзя проверить в памяти без загрузки ассоциаций
+     */
+    @SuppressWarnings("unchecked")
+    static <E> IdentifierLookup<E> of(EntityType<E> entity, Specification<E> specification, PredicateCompiler compiler) {
+        if (specification == null || !entity.hasSingleIdAttribute()) {
+            return null;
+        }
+
+        SingularAttribute<? super E, ?> id = entity.getId(entity.getIdType().getJavaType());
+        List<Specification<E>> children = isConjunction(specification)
+                ? new ArrayList<>(((BaseCompositeSpecification<E>) specification).getSpecifications())
+                : new ArrayList<>(List.of(specification));
+
+        for (int i = 0; i < children.size(); i++) {
+            List<Object> ids = ids(id, children.get(i));
+            if (ids == null) {
+                continue;
+            }
+
+            children.remove(i);
+            if (children.isEmpty()) {
+                return new IdentifierLookup<>(ids, null);
+            }
+
+            Specification<E> rest = new And<>(children);
+            if (!Set.of(entity.getJavaType()).equals(TouchedEntityTypes.collect(entity, rest))) {
+                return null;
+            }
+            Optional<Predicate<E>> residual = compiler.compile(entity.getJavaType(), rest);
+            return residual.map(predicate -> new IdentifierLookup<>(ids, predicate)).orElse(null);
+        }
+        return null;
+    }
+
+    /**
+     * @return идентификаторы без повторов и {@code null}
+     */
+    List<Object> getIds() {
+        return ids;
+    }
+
+    /**
+     * @param entity найденная сущность
+     * @return {@code true}, если сущность удовлетворяет остальным условиям дерева
+     */
+    boolean test(E entity) {
+        return residual == null || residual.test(entity);
+    }
+
+    private static boolean isConjunction(Specification<?> specification) {
+        return (specification.getClass() == And.class || specification.getClass() == Or.class)
+                && ((BaseCompositeSpecification<?>) specification).getMode() == CompositionMode.AND;
+    }
+
+    /*
+     * Значения условия, если это Equal или In без учёта регистра на атрибут-идентификатор с непустыми
+     * значениями его типа.
+     */
+    private static List<Object> ids(SingularAttribute<?, ?> id, Specification<?> specification) {
+        Class<?> type = MethodType.methodType(id.getJavaType()).wrap().returnType();
+        List<Object> values;
+        if (specification.getClass() == Equal.class) {
+            Equal<?> equal = (Equal<?>) specification;
+            if (!isId(id, equal.getFields()) || equal.isIgnoreCase() || equal.getValue() == null) {
+                return null;
+            }
+            values = List.of(equal.getValue());
+        } else if (specification.getClass() == In.class) {
+            In<?, ?> in = (In<?, ?>) specification;
+            if (!isId(id, in.getFields()) || !new CheckValue(in.getValues()).nonNull()) {
+                return null;
+            }
+            values = InClause.distinct(in.getValues());
+        } else {
+            return null;
+        }
+
+        return !values.isEmpty() && values.stream().allMatch(type::isInstance) ? values : null;
+    }
+
+    private static boolean isId(SingularAttribute<?, ?> id, List<String> fields) {
+        return fields.size() == 1 && fields.get(0).equals(id.getName());
+    }
+}
@@ -0,0 +1,466 @@
+package io.github.kovalev.specificationhelper.repository;
+
+import io.github.kovalev.specificationhelper.bulk.BulkExecutor;
+import io.github.kovalev.specificationhelper.cache.ResultCache;
+import io.github.kovalev.specificationhelper.cache.TouchedEntityTypes;
+import io.github.kovalev.specificationhelper.enums.CollectionStrategy;
+import io.github.kovalev.specificationhelper.exists.ExistsExecutor;
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.memory.PredicateCompiler;
+import io.github.kovalev.specificationhelper.optimizer.ExistsRewriter;
+import io.github.kovalev.specificationhelper.optimizer.SatisfiabilityAnalyzer;
+import io.github.kovalev.specificationhelper.optimizer.SpecificationOptimizer;
+import io.github.kovalev.specificationhelper.specifications.BaseSpecification;
+import io.github.kovalev.specificationhelper.template.BoundSpecification;
+import io.github.kovalev.specificationhelper.template.SpecificationTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.CrudMethodMetadata;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Базовый класс репозиториев, выполняющий спецификации как скомпилированный HQL (см. {@link HqlCompiler}).
+ *
+ * <p>Подключается для всех репозиториев приложения:</p>
+ * <pre>{@code
+ * @EnableJpaRepositories(repositoryBaseClass = SpecificationHelperRepository.class)
+ * }</pre>
+ *
+ * <p>Переопределяет построение запросов {@link SimpleJpaRepository}, поэтому методы
+ * {@code JpaSpecificationExecutor} ({@code findAll(spec)}, {@code findAll(spec, sort)}, {@code findAll(spec, pageable)},
+ * {@code findOne(spec)}, {@code count(spec)}) работают без изменений в вызывающем коде: одинаковые по форме
+ * деревья спецификаций дают одну и ту же строку HQL, и Hibernate переиспользует план из кеша.</p>
+ *
+ * <p>Перед компиляцией дерево спецификаций упрощается {@link SpecificationOptimizer}. Если
+ * {@link SatisfiabilityAnalyzer} доказывает, что условие противоречиво ({@code id = 1 and id = 2}),
+ * методы {@code JpaSpecificationExecutor} возвращают пустой результат, не обращаясь к базе.</p>
+ *
+ * <p>Условия на поля коллекций по умолчанию присоединяют коллекцию через {@code left join}. Если
+ * {@link #collectionStrategy()} возвращает {@link CollectionStrategy#EXISTS}, они переписываются
+ * в коррелированные подзапросы (см. {@link ExistsRewriter}), и запрос возвращает одну строку на сущность:</p>
+ * <pre>{@code
+ * public class ExistsRepository<T, ID> extends SpecificationHelperRepository<T, ID> {
+ *     ...
+ *     @Override
+ *     protected CollectionStrategy collectionStrategy() {
+ *         return CollectionStrategy.EXISTS;
+ *     }
+ * }
+ * }</pre>
+ *
+ * <p>Спецификация, связанная из {@link SpecificationTemplate}, компилируется один раз для шаблона, а при каждом
+ * вызове в запрос подставляются только значения слотов. Дерево шаблона компилируется как есть:
+ * {@link #collectionStrategy()} к нему не применяется, подзапросы задаются явно через {@code Exists}.</p>
+ *
+ * <p>Запрос на подсчёт для {@code findAll(spec, pageable)} и {@code count(spec)} строится отдельно от запроса
+ * страницы: без сортировки, {@code fetch} и блокировки, с JOIN только для путей, на которые ссылаются условия.
+ * Если страница заполнена не полностью, общее число строк известно без подсчёта, и запрос на подсчёт
+ * не выполняется. Для условий на коллекции с {@link CollectionStrategy#EXISTS} подсчёт идёт без JOIN
+ * коллекций и без {@code count(distinct ...)}.</p>
+ *
+ * <p>Если {@link #resultCache()} возвращает {@link ResultCache}, результаты {@code findAll}, {@code findOne},
+ * {@code count} и {@code exists} кешируются по дереву спецификаций и аргументам и удаляются после фиксации
+ * изменений сущностей запроса. Списки из кеша неизменяемые.</p>
+ *
+ * <p>{@code exists(spec)} выполняет скомпилированный {@code select 1 from ... where ...} с {@code setMaxResults(1)}:
+ * база останавливается на первой подходящей строке, сущность не загружается. Проверка нескольких спецификаций
+ * одним запросом - {@link ExistsExecutor}.</p>
+ *
+ * <p>{@code delete(spec)} выполняется одним оператором {@code DELETE} через {@link BulkExecutor}: условия
+ * с путями через ассоциации переносятся в подзапрос по идентификатору, потому что {@code DELETE} не может
+ * содержать JOIN.</p>
+ *
+ * <p>Если {@link #identifierLookup()} возвращает {@code true}, {@code findAll(spec)} и {@code findOne(spec)}
+ * для деревьев вида {@code Equal("id", x)} или {@code In("id", ids)} (возможно, в AND с условиями на собственные
+ * атрибуты сущности) берут сущности через {@code Session.find} и {@code byMultipleIds}: из контекста
+ * персистентности, кеша второго уровня и только недостающие - из базы. Остальные условия проверяются в памяти
+ * ({@link PredicateCompiler}), строки сравниваются по кодам символов, а не по collation базы.</p>
+ *
+ * <p>Если спецификацию или сортировку нельзя скомпилировать, а также для методов с {@code @Lock},
+ * {@code @EntityGraph} или комментарием запроса используется стандартное построение через Criteria API.</p>
+ *
+ * @param <T>  тип сущности
+ * @param <ID> тип идентификатора
+ */
+public class SpecificationHelperRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+
+    private static final int MULTI_LOAD_BATCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final HqlCompiler compiler;
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+    private final SatisfiabilityAnalyzer analyzer = new SatisfiabilityAnalyzer();
+    private final ExistsRewriter existsRewriter = new ExistsRewriter();
+    private final BulkExecutor<T> bulkExecutor;
+    private final PredicateCompiler predicateCompiler;
+
+    /**
+     * Конструктор, вызываемый Spring Data.
+     *
+     * @param entityInformation метаданные сущности
+     * @param entityManager     {@link EntityManager}
+     */
+    public SpecificationHelperRepository(@NonNull JpaEntityInformation<T, ?> entityInformation,
+                                         @NonNull EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityManager = entityManager;
+        this.compiler = new HqlCompiler(entityManager);
+        this.predicateCompiler = new PredicateCompiler(entityManager);
+        this.bulkExecutor = entityInformation.hasCompositeId()
+                ? null
+                : new BulkExecutor<>(entityManager, entityInformation.getJavaType());
+    }
+
+    @Override
+    @NonNull
+    public List<T> findAll(@Nullable Specification<T> spec) {
+        Specification<T> optimized = optimize(spec);
+        if (isUnsatisfiable(optimized)) {
+            return List.of();
+        }
+
+        IdentifierLookup<T> lookup = identifierLookup(optimized);
+        return lookup != null
+                ? findByIdentifiers(lookup)
+                : cached("findAll", spec, null, () -> super.findAll(optimized));
+    }
+
+    @Override
+    @NonNull
+    public Page<T> findAll(@Nullable Specification<T> spec, @NonNull Pageable pageable) {
+        Specification<T> optimized = optimize(spec);
+        return isUnsatisfiable(optimized)
+                ? new PageImpl<>(List.of(), pageable, 0)
+                : cached("findAllPage", spec, pageable, () -> super.findAll(optimized, pageable));
+    }
+
+    @Override
+    @NonNull
+    public List<T> findAll(@Nullable Specification<T> spec, @NonNull Sort sort) {
+        Specification<T> optimized = optimize(spec);
+        return isUnsatisfiable(optimized)
+                ? List.of()
+                : cached("findAllSorted", spec, sort, () -> super.findAll(optimized, sort));
+    }
+
+    @Override
+    @NonNull
+    public Optional<T> findOne(@Nullable Specification<T> spec) {
+        Specification<T> optimized = optimize(spec);
+        if (isUnsatisfiable(optimized)) {
+            return Optional.empty();
+        }
+
+        IdentifierLookup<T> lookup = identifierLookup(optimized);
+        return lookup != null && lookup.getIds().size() == 1
+                ? findByIdentifiers(lookup).stream().findFirst()
+                : cached("findOne", spec, null, () -> super.findOne(optimized));
+    }
+
+    @Override
+    public long count(@Nullable Specification<T> spec) {
+        Specification<T> optimized = optimize(spec);
+        return isUnsatisfiable(optimized) ? 0 : cached("count", spec, null, () -> super.count(optimized));
+    }
+
+    @Override
+    public boolean exists(@NonNull Specification<T> spec) {
+        Specification<T> optimized = optimize(spec);
+        return !isUnsatisfiable(optimized) && cached("exists", spec, null, () -> existsQuery(optimized));
+    }
+
+    @Override
+    public long delete(@Nullable Specification<T> spec) {
+        Specification<T> optimized = optimize(spec);
+        if (isUnsatisfiable(optimized)) {
+            return 0;
+        }
+
+        long deleted = bulkExecutor == null
+                ? super.delete(optimized)
+                : bulkExecutor.delete(prepare(optimized, getDomainClass()));
+        ResultCache cache = resultCache();
+        if (cache != null && deleted > 0) {
+            // массовое удаление не вызывает событий сущностей
+            afterCommit(() -> cache.invalidate(getDomainClass()));
+        }
+        return deleted;
+    }
+
+    @Override
+    @NonNull
+    protected <S extends T> TypedQuery<S> getQuery(@Nullable Specification<S> spec, @NonNull Class<S> domainClass,
+                                                   @NonNull Sort sort) {
+        spec = prepare(spec, domainClass);
+        Optional<CompiledQuery> compiled = compile(spec, domainClass);
+        Optional<String> orderBy = compiler.orderBy(domainClass, sort);
+
+        if (compiled.isEmpty() || orderBy.isEmpty()) {
+            return super.getQuery(spec, domainClass, sort);
+        }
+
+        TypedQuery<S> query = entityManager.createQuery(compiled.get().selectHql(orderBy.get()), domainClass);
+        applyLockMode(query);
+        getQueryHints().withFetchGraphs(entityManager).forEach(query::setHint);
+        return compiled.get().bind(query);
+    }
+
+    @Override
+    @NonNull
+    protected <S extends T> TypedQuery<Long> getCountQuery(@Nullable Specification<S> spec,
+                                                           @NonNull Class<S> domainClass) {
+        spec = prepare(spec, domainClass);
+        Optional<CompiledQuery> compiled = compile(spec, domainClass);
+
+        if (compiled.isEmpty()) {
+            return super.getCountQuery(spec, domainClass);
+        }
+
+        // как и SimpleJpaRepository, без блокировки: PostgreSQL не допускает FOR UPDATE с агрегатами
+        TypedQuery<Long> query = entityManager.createQuery(compiled.get().countHql(), Long.class);
+        getQueryHintsForCount().forEach(query::setHint);
+        return compiled.get().bind(query);
+    }
+
+    /**
+     * Способ построения условий на поля коллекций для всех запросов репозитория.
+     *
+     * @return {@link CollectionStrategy#JOIN}; наследники могут вернуть {@link CollectionStrategy#EXISTS}
+     */
+    protected CollectionStrategy collectionStrategy() {
+        return CollectionStrategy.JOIN;
+    }
+
+    /**
+     * Кеш результатов методов {@code JpaSpecificationExecutor}.
+     *
+     * @return {@code null} - результаты не кешируются; наследники могут вернуть общий для репозиториев
+     * {@link ResultCache}
+     */
+    protected ResultCache resultCache() {
+        return null;
+    }
+
+    /**
+     * Выбирает ли {@code findAll(spec)} и {@code findOne(spec)} сущности по идентификатору без запроса.
+     *
+     * @return {@code false}; наследники могут вернуть {@code true}
+     */
+    protected boolean identifierLookup() {
+        return false;
+    }
+
+    /**
+     * Упрощает дерево спецификаций и, для {@link CollectionStrategy#EXISTS}, переписывает условия
+     * на коллекции в подзапросы. Дерево, уже упрощённое в публичном методе репозитория, повторно
+     * не оптимизируется.
+     *
+     * @param spec        спецификация
+     * @param domainClass класс сущности
+     * @param <S>         тип сущности
+     * @return спецификация для построения запроса
+     */
+    protected <S extends T> Specification<S> prepare(@Nullable Specification<S> spec, @NonNull Class<S> domainClass) {
+        Specification<S> optimized = tree(spec);
+        return collectionStrategy() == CollectionStrategy.EXISTS
+                ? existsRewriter.rewrite(entityManager.getMetamodel().entity(domainClass), optimized)
+                : optimized;
+    }
+
+    /**
+     * Компилирует спецификацию, если метод репозитория не требует возможностей,
+     * которые применяются только к Criteria-запросу.
+     *
+     * @param spec        спецификация
+     * @param domainClass класс сущности
+     * @param <S>         тип сущности
+     * @return скомпилированный запрос или пустой {@link Optional}
+     */
+    protected <S extends T> Optional<CompiledQuery> compile(@Nullable Specification<S> spec,
+                                                          @NonNull Class<S> domainClass) {
+        CrudMethodMetadata metadata = getRepositoryMethodMetadata();
+        if (metadata != null && (metadata.getComment() != null || metadata.getEntityGraph().isPresent())) {
+            return Optional.empty();
+        }
+
+        if (spec instanceof BoundSpecification<S> bound && bound.getTemplate().getDomainClass() == domainClass) {
+            return bound.compile(compiler);
+        }
+        return compiler.compile(domainClass, spec);
+    }
+
+    /**
+     * Проверяет, что условие спецификации заведомо противоречиво и запрос можно не выполнять.
+     *
+     * @param spec спецификация
+     * @return {@code true}, если доказано, что ни одна строка не подходит
+     */
+    protected boolean isUnsatisfiable(@Nullable Specification<?> spec) {
+        return spec != null && analyzer.isUnsatisfiable(tree(spec));
+    }
+
+    /*
+     * Оптимизатор обходит всё дерево, поэтому публичные методы упрощают его один раз и передают результат
+     * анализатору, поиску по идентификатору и SimpleJpaRepository; prepare и isUnsatisfiable узнают такое
+     * дерево по обёртке Optimized.
+     */
+    private Specification<T> optimize(@Nullable Specification<T> spec) {
+        return spec == null ? null : new Optimized<>(optimizer.optimize(spec));
+    }
+
+    private <S> Specification<S> tree(@Nullable Specification<S> spec) {
+        return spec instanceof Optimized<S> optimized ? optimized.spec() : optimizer.optimize(spec);
+    }
+
+    /*
+     * Результат берётся из кеша, если кеш включён, дерево состоит из спецификаций библиотеки, метод не требует
+     * блокировки или графа сущностей, а текущая транзакция (если она есть) только читает: в пишущей транзакции
+     * запрос должен видеть её незафиксированные изменения. Сохраняемые списки копируются в неизменяемые,
+     * без кеша возвращается список SimpleJpaRepository.
+     */
+    private <R> R cached(String operation, @Nullable Specification<T> spec, @Nullable Object arguments,
+                         Supplier<R> query) {
+        ResultCache cache = resultCache();
+        if (cache == null || !isCacheable()) {
+            return query.get();
+        }
+
+        Set<Class<?>> entityTypes = TouchedEntityTypes.collect(entityManager.getMetamodel().entity(getDomainClass()),
+                spec);
+        if (entityTypes == null) {
+            return query.get();
+        }
+
+        cache.attach(entityManager.getEntityManagerFactory());
+        // ключи сравниваются по значению: дерево вызывающего копируется, только когда запись сохраняется
+        return cache.get(new ResultCache.Key(getDomainClass(), operation, spec, arguments),
+                () -> new ResultCache.Key(getDomainClass(), operation,
+                        spec instanceof BaseSpecification<T> base ? base.freeze() : spec, arguments),
+                entityTypes, () -> immutable(query.get()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R immutable(R value) {
+        return value instanceof List<?> list ? (R) List.copyOf(list) : value;
+    }
+
+    private boolean isCacheable() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return !hasQueryMetadata();
+    }
+
+    private boolean hasQueryMetadata() {
+        CrudMethodMetadata metadata = getRepositoryMethodMetadata();
+        return metadata != null && (metadata.getLockModeType() != null || metadata.getComment() != null
+                || metadata.getEntityGraph().isPresent());
+    }
+
+    /*
+     * select 1 from ... where ... с setMaxResults(1): без сортировки, fetch и загрузки сущности.
+     * С блокировкой запрос строится SimpleJpaRepository.
+     */
+    private boolean existsQuery(Specification<T> spec) {
+        Specification<T> prepared = prepare(spec, getDomainClass());
+        Optional<CompiledQuery> compiled = compile(prepared, getDomainClass());
+        CrudMethodMetadata metadata = getRepositoryMethodMetadata();
+        if (compiled.isEmpty() || metadata != null && metadata.getLockModeType() != null) {
+            return super.exists(prepared);
+        }
+
+        TypedQuery<Integer> query = entityManager.createQuery(compiled.get().existsHql(), Integer.class);
+        return !compiled.get().bind(query).setMaxResults(1).getResultList().isEmpty();
+    }
+
+    private IdentifierLookup<T> identifierLookup(@Nullable Specification<T> spec) {
+        return identifierLookup() && spec != null && !hasQueryMetadata()
+                ? IdentifierLookup.of(entityManager.getMetamodel().entity(getDomainClass()), tree(spec),
+                predicateCompiler)
+                : null;
+    }
+
+    /*
+     * Session.find и multiLoad сначала проверяют контекст персистентности и кеш второго уровня
+     * и обращаются к базе только за недостающими сущностями.
+     */
+    private List<T> findByIdentifiers(IdentifierLookup<T> lookup) {
+        Session session = entityManager.unwrap(Session.class);
+        List<Object> ids = lookup.getIds();
+        List<T> found = ids.size() == 1
+                ? Collections.singletonList(session.find(getDomainClass(), ids.get(0)))
+                : session.byMultipleIds(getDomainClass())
+                .enableSessionCheck(true)
+                .enableOrderedReturn(false)
+                .withBatchSize(Math.min(ids.size(), MULTI_LOAD_BATCH_SIZE))
+                .multiLoad(ids);
+
+        List<T> result = new ArrayList<>(found.size());
+        for (T entity : found) {
+            if (entity != null && lookup.test(entity)) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /*
+     * Упрощённое дерево. SimpleJpaRepository сам строит Criteria-запрос в exists и delete, поэтому обёртка
+     * делегирует toPredicate.
+     */
+    private record Optimized<S>(Specification<S> spec) implements Specification<S> {
+
+        @Override
+        public Predicate toPredicate(@NonNull Root<S> root, @Nullable CriteriaQuery<?> query,
+                                     @NonNull CriteriaBuilder criteriaBuilder) {
+            return spec.toPredicate(root, query, criteriaBuilder);
+        }
+    }
+
+    private void applyLockMode(TypedQuery<?> query) {
+        CrudMethodMetadata metadata = getRepositoryMethodMetadata();
+        LockModeType lockModeType = metadata == null ? null : metadata.getLockModeType();
+        if (lockModeType != null) {
+            query.setLockMode(lockModeType);
+        }
+    }
+}
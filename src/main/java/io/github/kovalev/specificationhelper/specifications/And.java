@@ -1,10 +1,10 @@
 package io.github.kovalev.specificationhelper.specifications;
 
 
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -18,13 +18,13 @@ import java.util.List;
  * <ul>
  *     <li>Поддерживает добавление спецификаций через метод {@link #add(Specification)}.</li>
  *     <li>Если список спецификаций пуст, возвращается пустая спецификация {@link Empty}.</li>
+ *     <li>Вложенные {@code And} разворачиваются, а все предикаты объединяются одним {@code cb.and(...)}
+ *     (см. {@link BaseCompositeSpecification}).</li>
  * </ul>
  *
  * @param <E> тип сущности
  */
-public class And<E> implements CustomSpecification<E> {
-
-    private final List<Specification<E>> specifications = new ArrayList<>();
+public class And<E> extends BaseCompositeSpecification<E> {
 
     /**
      * Конструктор.
@@ -33,7 +33,7 @@ public class And<E> implements CustomSpecification<E> {
      */
     @SafeVarargs
     public And(@NonNull Specification<E>... specifications) {
-        this.specifications.addAll(Arrays.asList(specifications));
+        this(Arrays.asList(specifications));
     }
 
     /**
@@ -42,7 +42,11 @@ public class And<E> implements CustomSpecification<E> {
      * @param specifications спецификации
      */
     public And(@NonNull Collection<Specification<E>> specifications) {
-        this.specifications.addAll(specifications);
+        super(CompositionMode.AND, specifications);
+    }
+
+    private And(Collection<Specification<E>> specifications, boolean frozen) {
+        super(CompositionMode.AND, specifications, frozen);
     }
 
     /**
@@ -52,12 +56,23 @@ public class And<E> implements CustomSpecification<E> {
      *
      * @param specification спецификация для добавления; не может быть {@code null}
      * @return текущий объект {@code And<E>} для поддержки цепочки вызовов
+     * @throws UnsupportedOperationException если спецификация заморожена ({@link #freeze()})
      */
     public And<E> add(@NonNull Specification<E> specification) {
-        specifications.add(specification);
+        append(specification);
         return this;
     }
 
+    @Override
+    public And<E> freeze() {
+        return (And<E>) super.freeze();
+    }
+
+    @Override
+    protected And<E> frozenCopy(List<Specification<E>> specifications) {
+        return new And<>(specifications, true);
+    }
+
     /**
      * Возвращает спецификацию "И".
      *
@@ -65,8 +80,10 @@ public class And<E> implements CustomSpecification<E> {
      */
     @Override
     public Specification<E> specification() {
-        return specifications.stream()
-                .reduce(Specification::and)
-                .orElseGet(Empty::new);
+        if (specifications.isEmpty()) {
+            return new Empty<>();
+        }
+
+        return this::compose;
     }
 }
@@ -2,21 +2,28 @@ package io.github.kovalev.specificationhelper.specifications;
 
 
 import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import io.github.kovalev.specificationhelper.utils.DayRange;
 import io.github.kovalev.specificationhelper.utils.Expressions;
-import io.github.kovalev.specificationhelper.utils.FieldsParser;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
 import io.github.kovalev.specificationhelper.utils.PathCalculator;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
+import lombok.AccessLevel;
+import lombok.Getter;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -34,20 +41,28 @@ import java.util.Objects;
  * <p><b>Пример:</b><br>
  * {@code LocalDateTime truncated = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);}</p>
  *
+ * <p><b>Сравнение {@link LocalDate} с датой и временем:</b><br>
+ * Если значение - {@link LocalDate}, а атрибут хранит локальные дату и время, сравнение строится
+ * как полуинтервал {@link DayRange} ({@code col >= d AND col < d + 1}), чтобы можно было использовать индекс.</p>
+ *
  * <p><b>Особенности работы со строками:</b><br>
  * Если значение является {@link CharSequence}, поддерживается игнорирование регистра
- * через флаг {@code ignoreCase} и использование вспомогательного класса {@link Expressions} для корректного построения предикатов.</p>
+ * через флаг {@code ignoreCase} и использование вспомогательного класса {@link Expressions} для корректного построения предикатов.
+ * Способ сравнения без учёта регистра задаётся {@link CaseSettings} (по умолчанию {@link CaseSettings#DEFAULT}).</p>
  *
  * @param <E> тип сущности
  */
-public abstract class BaseComparisonSpecification<E> implements CustomSpecification<E> {
+@Getter
+public abstract class BaseComparisonSpecification<E> extends BaseSpecification<E> {
 
     protected static final boolean DEFAULT_IGNORE_CASE = false;
 
     protected final transient Object value;
-    protected final String[] fields;
+    protected final FieldPath<?> fieldPath;
     protected final NullHandling nullHandling;
     protected final boolean ignoreCase;
+    protected final CaseSettings caseSettings;
+    @Getter(AccessLevel.NONE)
     protected final transient Expressions expressions;
 
     /**
@@ -60,18 +75,54 @@ public abstract class BaseComparisonSpecification<E> implements CustomSpecificat
      */
     protected BaseComparisonSpecification(@NonNull String fields, Object value,
                                           @NonNull NullHandling nullHandling, boolean ignoreCase) {
+        this(FieldPath.of(fields), value, nullHandling, ignoreCase);
+    }
+
+    /**
+     * Конструктор базовой спецификации сравнения.
+     *
+     * @param value        значение для сравнения; может быть {@code null}
+     * @param nullHandling способ обработки {@code null} значений
+     * @param ignoreCase   если {@code true}, игнорируется регистр для строк
+     * @param fieldPath    путь к полю; не может быть {@code null}
+     */
+    protected BaseComparisonSpecification(@NonNull FieldPath<? super E> fieldPath, Object value,
+                                          @NonNull NullHandling nullHandling, boolean ignoreCase) {
+        this(fieldPath, value, nullHandling, ignoreCase ? CaseSettings.DEFAULT : null);
+    }
+
+    /**
+     * Конструктор базовой спецификации сравнения строк без учёта регистра.
+     *
+     * @param value        значение для сравнения; может быть {@code null}
+     * @param nullHandling способ обработки {@code null} значений
+     * @param caseSettings способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param fieldPath    путь к полю; не может быть {@code null}
+     */
+    protected BaseComparisonSpecification(@NonNull FieldPath<? super E> fieldPath, Object value,
+                                          @NonNull NullHandling nullHandling, CaseSettings caseSettings) {
         this.value = value;
         this.nullHandling = Objects.requireNonNull(nullHandling);
-        this.ignoreCase = ignoreCase;
-        this.fields = new FieldsParser().parse(fields);
+        this.ignoreCase = caseSettings != null;
+        this.caseSettings = caseSettings;
+        this.fieldPath = fieldPath;
         this.expressions = new Expressions();
     }
 
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
+    }
+
     /**
      * Возвращает JPA {@link Specification} для текущей сравниваемой сущности.
      *
      * <p>Если значение {@code null}, вызывается {@link #handleNull(CriteriaBuilder, Path)}.
      * Если значение является строкой, вызывается {@link #resolveCase(CriteriaBuilder, Path, Expressions, String)}.
+     * Если значение - {@link LocalDate}, а атрибут хранит дату и время, вызывается
+     * {@link #createDayPredicate(CriteriaBuilder, Path, DayRange)}.
      * Для остальных типов создаётся предикат через {@link #createPredicate(CriteriaBuilder, Expression, Object)}.</p>
      *
      * @return спецификация JPA Criteria API
@@ -79,7 +130,7 @@ public abstract class BaseComparisonSpecification<E> implements CustomSpecificat
     @Override
     public Specification<E> specification() {
         return (root, query, cb) -> {
-            Path<Object> path = new PathCalculator<>(root, fields).path();
+            Path<Object> path = new PathCalculator<>(root, fieldPath).path();
 
             if (value == null) {
                 return handleNull(cb, path);
@@ -89,11 +140,31 @@ public abstract class BaseComparisonSpecification<E> implements CustomSpecificat
                 return resolveCase(cb, path, expressions, String.valueOf(str));
             }
 
+            if (DayRange.supports(path, value)) {
+                return createDayPredicate(cb, path, new DayRange(path, (LocalDate) value));
+            }
+
             Expression<?> expression = expressions.get(cb, path, value);
             return createPredicate(cb, expression, value);
         };
     }
 
+    /**
+     * Создаёт предикат для сравнения {@link LocalDate} с атрибутом, хранящим дату и время.
+     *
+     * <p>По умолчанию сравнивает {@code DATE(col)} со значением через
+     * {@link #createPredicate(CriteriaBuilder, Expression, Object)}; наследники переопределяют метод,
+     * чтобы использовать полуинтервал {@code range}.</p>
+     *
+     * @param cb    {@link CriteriaBuilder} для создания предиката
+     * @param path  путь к полю
+     * @param range полуинтервал дня, соответствующего значению
+     * @return предикат для JPA Criteria API
+     */
+    protected Predicate createDayPredicate(CriteriaBuilder cb, Path<Object> path, DayRange range) {
+        return createPredicate(cb, expressions.get(cb, path, value), value);
+    }
+
     /**
      * Создаёт предикат для сравнения значения с полем.
      *
@@ -124,4 +195,18 @@ public abstract class BaseComparisonSpecification<E> implements CustomSpecificat
      */
     protected abstract Predicate resolveCase(CriteriaBuilder criteriaBuilder, Path<Object> path,
                                              Expressions expressions, String str);
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames()).add(nullHandling).add(ignoreCase);
+        if (caseSettings != null) {
+            fingerprint.add(caseSettings.getStrategy()).add(caseSettings.getShadowField());
+        }
+        describeValueType(fingerprint, value);
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath, value, nullHandling, ignoreCase, caseSettings};
+    }
 }
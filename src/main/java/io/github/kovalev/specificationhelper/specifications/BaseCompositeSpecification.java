@@ -0,0 +1,268 @@
+package io.github.kovalev.specificationhelper.specifications;
+
+
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Базовый абстрактный класс для составных спецификаций ({@link And}, {@link Or}, {@link Not}).
+ *
+ * <p>Вместо цепочки {@code Specification::and}/{@code Specification::or}, которая превращается
+ * в левостороннее бинарное дерево предикатов, предикаты всех вложенных спецификаций собираются
+ * в один массив и объединяются одним вызовом {@code cb.and(...)}/{@code cb.or(...)}.</p>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Вложенные составные спецификации с тем же режимом объединения (And в And, Or в Or)
+ *     разворачиваются в общий список без рекурсии.</li>
+ *     <li>{@code null} и {@link Empty} среди вложенных спецификаций пропускаются,
+ *     как и вложенные спецификации, вернувшие {@code null} вместо предиката.</li>
+ *     <li>Если не осталось ни одного предиката, возвращается {@code null} (условие не добавляется);
+ *     единственный предикат возвращается без обёртки.</li>
+ *     <li>Отпечаток формы и {@code equals}/{@code hashCode} учитывают режим и вложенные спецификации по порядку
+ *     (см. {@link BaseSpecification}); {@code add(...)} сбрасывает вычисленные значения.</li>
+ *     <li>{@link #freeze()} возвращает копию с неизменяемым списком: однотипные вложенные составные спецификации
+ *     развёрнуты, {@code null} и {@link Empty} удалены, вложенные спецификации заморожены. {@code add(...)}
+ *     для такой копии выбрасывает {@link UnsupportedOperationException}.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+public abstract class BaseCompositeSpecification<E> extends BaseSpecification<E> {
+
+    protected final List<Specification<E>> specifications;
+    protected final CompositionMode mode;
+    private final boolean frozen;
+
+    /**
+     * Конструктор базовой составной спецификации.
+     *
+     * @param mode           режим объединения вложенных спецификаций (AND/OR)
+     * @param specifications вложенные спецификации
+     */
+    protected BaseCompositeSpecification(@NonNull CompositionMode mode,
+                                         @NonNull Collection<Specification<E>> specifications) {
+        this(mode, specifications, false);
+    }
+
+    /**
+     * Конструктор базовой составной спецификации.
+     *
+     * @param mode           режим объединения вложенных спецификаций (AND/OR)
+     * @param specifications вложенные спецификации
+     * @param frozen         если {@code true}, список вложенных спецификаций неизменяемый
+     */
+    protected BaseCompositeSpecification(@NonNull CompositionMode mode,
+                                         @NonNull Collection<Specification<E>> specifications, boolean frozen) {
+        this.mode = Objects.requireNonNull(mode);
+        this.specifications = frozen
+                ? Collections.unmodifiableList(new ArrayList<>(specifications))
+                : new ArrayList<>(specifications);
+        this.frozen = frozen;
+    }
+
+    /**
+     * @return вложенные спецификации (только для чтения)
+     */
+    public List<Specification<E>> getSpecifications() {
+        return frozen ? specifications : Collections.unmodifiableList(specifications);
+    }
+
+    /**
+     * @return {@code true}, если спецификация получена через {@link #freeze()}
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return неизменяемая копия или {@code this}, если спецификация уже заморожена
+     */
+    @Override
+    public BaseCompositeSpecification<E> freeze() {
+        if (frozen) {
+            return this;
+        }
+
+        BaseCompositeSpecification<E> copy = frozenCopy(flatten());
+        copy.shape();
+        copy.hashCode();
+        return copy;
+    }
+
+    /**
+     * Создаёт замороженную спецификацию того же типа и режима.
+     *
+     * @param specifications развёрнутые и замороженные вложенные спецификации
+     * @return спецификация с неизменяемым списком
+     */
+    protected abstract BaseCompositeSpecification<E> frozenCopy(List<Specification<E>> specifications);
+
+    /**
+     * @return режим объединения вложенных спецификаций
+     */
+    public CompositionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Добавляет вложенную спецификацию и сбрасывает вычисленные отпечаток и хеш.
+     *
+     * @param specification спецификация
+     * @throws UnsupportedOperationException если спецификация заморожена
+     */
+    protected void append(@NonNull Specification<E> specification) {
+        if (frozen) {
+            throw new UnsupportedOperationException("frozen specification cannot be modified");
+        }
+        specifications.add(specification);
+        invalidate();
+    }
+
+    /**
+     * Строит один предикат из всех вложенных спецификаций согласно режиму {@link #mode}.
+     *
+     * @param root  корень запроса
+     * @param query запрос
+     * @param cb    {@link CriteriaBuilder} для создания предиката
+     * @return объединённый предикат или {@code null}, если вложенные спецификации не дали ни одного предиката
+     */
+    protected Predicate compose(Root<E> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate[] predicates = collect(root, query, cb);
+
+        if (predicates.length == 0) {
+            return null;
+        }
+
+        if (predicates.length == 1) {
+            return predicates[0];
+        }
+
+        return switch (mode) {
+            case AND -> cb.and(predicates);
+            case OR -> cb.or(predicates);
+        };
+    }
+
+    /**
+     * Обходит вложенные спецификации в глубину и собирает их предикаты в массив.
+     *
+     * <p>Обход выполняется через явный стек итераторов, поэтому глубина вложенности
+     * однотипных составных спецификаций не влияет на глубину стека вызовов.</p>
+     *
+     * @param root  корень запроса
+     * @param query запрос
+     * @param cb    {@link CriteriaBuilder} для создания предикатов
+     * @return массив непустых предикатов в порядке следования спецификаций
+     */
+    private Predicate[] collect(Root<E> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        List<Predicate> predicates = new ArrayList<>(specifications.size());
+        Deque<Iterator<Specification<E>>> stack = new ArrayDeque<>();
+        stack.push(specifications.iterator());
+
+        while (!stack.isEmpty()) {
+            Iterator<Specification<E>> iterator = stack.peek();
+            if (!iterator.hasNext()) {
+                stack.pop();
+                continue;
+            }
+
+            Specification<E> specification = iterator.next();
+            if (specification == null || specification instanceof Empty) {
+                continue;
+            }
+
+            if (isFlattenable(specification)) {
+                stack.push(((BaseCompositeSpecification<E>) specification).specifications.iterator());
+                continue;
+            }
+
+            Predicate predicate = specification.toPredicate(root, query, cb);
+            if (predicate != null) {
+                predicates.add(predicate);
+            }
+        }
+
+        return predicates.toArray(new Predicate[0]);
+    }
+
+    /**
+     * Разворачивает однотипные вложенные составные спецификации так же, как {@link #collect}, и замораживает
+     * остальные.
+     *
+     * @return вложенные спецификации без {@code null} и {@link Empty}
+     */
+    private List<Specification<E>> flatten() {
+        List<Specification<E>> result = new ArrayList<>(specifications.size());
+        Deque<Iterator<Specification<E>>> stack = new ArrayDeque<>();
+        stack.push(specifications.iterator());
+
+        while (!stack.isEmpty()) {
+            Iterator<Specification<E>> iterator = stack.peek();
+            if (!iterator.hasNext()) {
+                stack.pop();
+                continue;
+            }
+
+            Specification<E> specification = iterator.next();
+            if (specification == null || specification instanceof Empty) {
+                continue;
+            }
+
+            if (isFlattenable(specification)) {
+                stack.push(((BaseCompositeSpecification<E>) specification).specifications.iterator());
+                continue;
+            }
+
+            result.add(frozen(specification));
+        }
+
+        return result;
+    }
+
+    /**
+     * Проверяет, можно ли развернуть вложенную спецификацию в текущий список.
+     *
+     * <p>Разворачиваются только {@link And} при режиме AND и {@link Or} при режиме OR:
+     * их собственные предикаты объединяются тем же оператором.</p>
+     *
+     * @param specification вложенная спецификация
+     * @return {@code true}, если предикаты вложенной спецификации можно добавить напрямую
+     */
+    private boolean isFlattenable(Specification<E> specification) {
+        return switch (mode) {
+            case AND -> specification instanceof And;
+            case OR -> specification instanceof Or;
+        };
+    }
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(mode).add(specifications.size());
+        for (Specification<E> specification : specifications) {
+            fingerprint.add(shapeOf(specification));
+        }
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{mode, specifications};
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.kovalev.specificationhelper.specifications;
+
+
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Arrays;
+
+/**
+ * Базовый абстрактный класс спецификаций библиотеки: отпечаток формы и сравнение по значению.
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>{@link #shape()} - отпечаток формы: класс спецификации, путь к полю, флаги
+ *     ({@code ignoreCase}, {@code NullHandling}, {@code LikeMatchMode}, ...), типы значений и формы вложенных
+ *     спецификаций, но не сами значения. Деревья, отличающиеся только значениями, имеют одинаковый отпечаток.</li>
+ *     <li>{@link #equals(Object)}/{@link #hashCode()} учитывают и форму, и значения.</li>
+ *     <li>Отпечаток и хеш вычисляются один раз и хранятся в спецификации; составные спецификации
+ *     сбрасывают их при {@code add(...)}.</li>
+ *     <li>{@link #freeze()} возвращает неизменяемое дерево с заранее вычисленными отпечатком и хешем, которое
+ *     можно построить один раз (например, в статическом поле) и использовать из разных потоков.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+public abstract class BaseSpecification<E> implements CustomSpecification<E> {
+
+    private transient volatile long shape;
+    private transient int hash;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long shape() {
+        long result = shape;
+        if (result == 0) {
+            Fingerprint fingerprint = new Fingerprint().add(getClass());
+            describeShape(fingerprint);
+            result = fingerprint.get();
+            shape = result;
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает неизменяемую спецификацию, которую можно использовать одновременно из разных потоков.
+     *
+     * <p>Отпечаток формы и хеш вычисляются сразу. Листовая спецификация не изменяется после создания (путь
+     * разобран, шаблон {@code Like} построен в конструкторе), поэтому возвращается она сама; составные
+     * спецификации и спецификации с коллекциями значений возвращают неизменяемую копию.</p>
+     *
+     * @return неизменяемая спецификация
+     */
+    public BaseSpecification<E> freeze() {
+        shape();
+        hashCode();
+        return this;
+    }
+
+    /**
+     * Добавляет в отпечаток всё, что определяет форму спецификации (класс уже добавлен).
+     *
+     * @param fingerprint построитель отпечатка
+     */
+    protected abstract void describeShape(Fingerprint fingerprint);
+
+    /**
+     * Возвращает состояние спецификации для {@link #equals(Object)} и {@link #hashCode()}:
+     * поля, флаги, значения и вложенные спецификации.
+     *
+     * @return компоненты состояния; массивы сравниваются поэлементно
+     */
+    protected abstract Object[] components();
+
+    /**
+     * Сбрасывает вычисленные отпечаток и хеш после изменения спецификации.
+     */
+    protected void invalidate() {
+        shape = 0;
+        hash = 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        BaseSpecification<?> other = (BaseSpecification<?>) o;
+        return hashCode() == other.hashCode() && Arrays.deepEquals(components(), other.components());
+    }
+
+    @Override
+    public int hashCode() {
+        int result = hash;
+        if (result == 0) {
+            result = 31 * getClass().getName().hashCode() + Arrays.deepHashCode(components());
+            hash = result;
+        }
+        return result;
+    }
+
+    /**
+     * Возвращает отпечаток формы вложенной спецификации.
+     *
+     * @param specification спецификация; может быть {@code null}
+     * @return {@link CustomSpecification#shape()}; для других спецификаций (например, лямбд) - отпечаток,
+     * уникальный для экземпляра; {@code 0} для {@code null}
+     */
+    protected static long shapeOf(Specification<?> specification) {
+        if (specification == null) {
+            return 0;
+        }
+
+        return specification instanceof CustomSpecification<?> custom
+                ? custom.shape()
+                : new Fingerprint().add(specification.getClass()).add(System.identityHashCode(specification)).get();
+    }
+
+    /**
+     * Замораживает вложенную спецификацию (см. {@link #freeze()}).
+     *
+     * @param specification спецификация
+     * @param <E>           тип сущности
+     * @return неизменяемая копия для спецификаций библиотеки; другие спецификации (например, лямбды)
+     * возвращаются без изменений
+     */
+    protected static <E> Specification<E> frozen(Specification<E> specification) {
+        return specification instanceof BaseSpecification<E> base ? base.freeze() : specification;
+    }
+
+    /**
+     * Добавляет в отпечаток тип значения: от него зависит построенное условие (строка, дата, {@code null}).
+     *
+     * @param fingerprint построитель отпечатка
+     * @param value       значение
+     */
+    protected static void describeValueType(Fingerprint fingerprint, Object value) {
+        fingerprint.add(value == null ? null : value.getClass());
+    }
+}
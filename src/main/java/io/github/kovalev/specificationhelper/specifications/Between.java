@@ -2,9 +2,14 @@ package io.github.kovalev.specificationhelper.specifications;
 
 
 import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import lombok.Getter;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
@@ -17,16 +22,19 @@ import java.util.Objects;
  * <ul>
  *     <li>Если одно из значений {@code null}, используется {@link GreaterThanOrEqualTo} или {@link LessThanOrEqualTo}.</li>
  *     <li>Если оба значения {@code null}, возвращается пустая спецификация {@link Empty}.</li>
+ *     <li>Диапазон {@link java.time.LocalDate} для атрибута с датой и временем превращается
+ *     в полуинтервал {@code col >= from AND col < to + 1 день}.</li>
  * </ul>
  *
  * @param <E> тип сущности
  * @param <C> тип значения для сравнения
  */
+@Getter
 public class Between<E, C extends Comparable<? super C>>
-        implements CustomSpecification<E> {
+        extends BaseSpecification<E> {
 
     private final transient List<C> values;
-    private final String fields;
+    private final FieldPath<?> fieldPath;
 
     /**
      * Конструктор.
@@ -35,8 +43,25 @@ public class Between<E, C extends Comparable<? super C>>
      * @param fields имена полей сущности, для которых применяется диапазон; не может быть {@code null}
      */
     public Between(@NonNull String fields, List<C> values) {
+        this(FieldPath.of(fields), values);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param values    список значений диапазона: {@code values.get(0)} = from, {@code values.get(1)} = to
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public Between(@NonNull FieldPath<? super E> fieldPath, List<C> values) {
         this.values = values;
-        this.fields = fields;
+        this.fieldPath = fieldPath;
+    }
+
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
     }
 
     /**
@@ -47,6 +72,7 @@ public class Between<E, C extends Comparable<? super C>>
      * @return спецификация JPA Criteria API для условия BETWEEN
      */
     @Override
+    @SuppressWarnings("unchecked")
     public Specification<E> specification() {
         if (new CheckValue(values).nonNull()) {
             if (values.size() < 2 && values.stream().allMatch(Objects::isNull)) {
@@ -56,17 +82,49 @@ public class Between<E, C extends Comparable<? super C>>
             C from = values.get(0);
             C to = values.get(1);
 
+            FieldPath<E> path = (FieldPath<E>) fieldPath;
             if (from != null && to == null) {
-                return new GreaterThanOrEqualTo<E, C>(fields, from).specification();
+                return new GreaterThanOrEqualTo<E, C>(path, from).specification();
             } else if (from == null && to != null) {
-                return new LessThanOrEqualTo<E, C>(fields, to).specification();
+                return new LessThanOrEqualTo<E, C>(path, to).specification();
             }
 
-            return new And<E>(new GreaterThanOrEqualTo<>(fields, from), new LessThanOrEqualTo<>(fields, to))
+            return new And<E>(new GreaterThanOrEqualTo<>(path, from), new LessThanOrEqualTo<>(path, to))
                     .specification();
         }
 
         return new Empty<>();
     }
-}
 
+    /**
+     * {@inheritDoc}
+     *
+     * @return копия с неизменяемой копией значений
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Between<E, C> freeze() {
+        Between<E, C> copy = new Between<>((FieldPath<? super E>) fieldPath,
+                values == null ? null : Collections.unmodifiableList(new ArrayList<>(values)));
+        copy.shape();
+        copy.hashCode();
+        return copy;
+    }
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames()).add(new CheckValue(values).nonNull());
+        if (values != null) {
+            fingerprint.add(values.size());
+            for (C v : values) {
+                fingerprint.add(new CheckValue(v).nonNull());
+                describeValueType(fingerprint, v);
+            }
+        }
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath, values};
+    }
+}
@@ -1,5 +1,7 @@
 package io.github.kovalev.specificationhelper.specifications;
 
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import io.github.kovalev.specificationhelper.utils.JoinRegistry;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
@@ -13,10 +15,23 @@ public interface CustomSpecification<E> extends Specification<E> {
 
     Specification<E> specification();
 
+    /**
+     * Возвращает 64-битный отпечаток формы спецификации: одинаковый для спецификаций,
+     * отличающихся только значениями (см. {@link BaseSpecification}).
+     *
+     * <p>Реализация по умолчанию не знает устройства спецификации и поэтому уникальна для каждого экземпляра
+     * (и не сохраняется между запусками).</p>
+     *
+     * @return отпечаток формы
+     */
+    default long shape() {
+        return new Fingerprint().add(getClass()).add(System.identityHashCode(this)).get();
+    }
+
     @Override
     @Nullable
     default Predicate toPredicate(@NonNull Root<E> root, CriteriaQuery<?> query, @NonNull CriteriaBuilder cb) {
-        return specification().toPredicate(root, query, cb);
+        return JoinRegistry.scoped(() -> specification().toPredicate(root, query, cb));
     }
 
 }
@@ -1,5 +1,6 @@
 package io.github.kovalev.specificationhelper.specifications;
 
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
 import org.springframework.data.jpa.domain.Specification;
 
 import static org.springframework.data.jpa.domain.Specification.where;
@@ -10,7 +11,7 @@ import static org.springframework.data.jpa.domain.Specification.where;
  *
  * @param <E> тип сущности
  */
-public class Empty<E> implements CustomSpecification<E> {
+public class Empty<E> extends BaseSpecification<E> {
 
   /**
    * Возвращает пустую спецификацию.
@@ -21,4 +22,14 @@ public class Empty<E> implements CustomSpecification<E> {
   public Specification<E> specification() {
     return where(null);
   }
-}
\ No newline at end of file
+
+  @Override
+  protected void describeShape(Fingerprint fingerprint) {
+    // форма определяется только классом
+  }
+
+  @Override
+  protected Object[] components() {
+    return new Object[0];
+  }
+}
@@ -2,13 +2,19 @@ package io.github.kovalev.specificationhelper.specifications;
 
 
 import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import io.github.kovalev.specificationhelper.utils.DayRange;
 import io.github.kovalev.specificationhelper.utils.Expressions;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.IgnoreCaseClause;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.lang.NonNull;
 
+import java.util.Objects;
+
 /**
  * Спецификация для проверки равенства значений полей.
  *
@@ -18,7 +24,7 @@ import org.springframework.lang.NonNull;
  * <p><b>Особенности реализации:</b></p>
  * <ul>
  *     <li>Генерирует SQL-условие с оператором {@code =}.</li>
- *     <li>Поддерживает регистронезависимое сравнение строк (при {@code ignoreCase = true}).</li>
+ *     <li>Поддерживает регистронезависимое сравнение строк (при {@code ignoreCase = true} или с {@link CaseSettings}).</li>
  *     <li>Обработка {@code null}-значений согласно {@link NullHandling}.</li>
  * </ul>
  *
@@ -30,27 +36,66 @@ public class Equal<E> extends BaseComparisonSpecification<E> {
         super(fields, value, NullHandling.IGNORE, DEFAULT_IGNORE_CASE);
     }
 
+    public Equal(@NonNull FieldPath<? super E> fieldPath, Object value) {
+        super(fieldPath, value, NullHandling.IGNORE, DEFAULT_IGNORE_CASE);
+    }
+
     public Equal(@NonNull String fields, Object value, NullHandling nullHandling) {
         super(fields, value, nullHandling, DEFAULT_IGNORE_CASE);
     }
 
+    public Equal(@NonNull FieldPath<? super E> fieldPath, Object value, NullHandling nullHandling) {
+        super(fieldPath, value, nullHandling, DEFAULT_IGNORE_CASE);
+    }
+
     public Equal(@NonNull String fields, Object value, boolean ignoreCase) {
         super(fields, value, NullHandling.IGNORE, ignoreCase);
     }
 
+    public Equal(@NonNull FieldPath<? super E> fieldPath, Object value, boolean ignoreCase) {
+        super(fieldPath, value, NullHandling.IGNORE, ignoreCase);
+    }
+
     public Equal(@NonNull String fields, Object value, NullHandling nullHandling, boolean ignoreCase) {
         super(fields, value, nullHandling, ignoreCase);
     }
 
+    public Equal(@NonNull FieldPath<? super E> fieldPath, Object value, NullHandling nullHandling, boolean ignoreCase) {
+        super(fieldPath, value, nullHandling, ignoreCase);
+    }
+
+    public Equal(@NonNull String fields, Object value, @NonNull CaseSettings caseSettings) {
+        super(FieldPath.of(fields), value, NullHandling.IGNORE, Objects.requireNonNull(caseSettings));
+    }
+
+    public Equal(@NonNull FieldPath<? super E> fieldPath, Object value, @NonNull CaseSettings caseSettings) {
+        super(fieldPath, value, NullHandling.IGNORE, Objects.requireNonNull(caseSettings));
+    }
+
+    public Equal(@NonNull String fields, Object value, @NonNull NullHandling nullHandling,
+                 @NonNull CaseSettings caseSettings) {
+        super(FieldPath.of(fields), value, nullHandling, Objects.requireNonNull(caseSettings));
+    }
+
+    public Equal(@NonNull FieldPath<? super E> fieldPath, Object value, @NonNull NullHandling nullHandling,
+                 CaseSettings caseSettings) {
+        super(fieldPath, value, nullHandling, caseSettings);
+    }
+
     @Override
     protected Predicate createPredicate(CriteriaBuilder cb, Expression<?> expression, Object value) {
         return cb.equal(expression, value);
     }
 
+    @Override
+    protected Predicate createDayPredicate(CriteriaBuilder cb, Path<Object> path, DayRange range) {
+        return range.within(cb);
+    }
+
     @Override
     protected Predicate resolveCase(CriteriaBuilder cb, Path<Object> path, Expressions expressions, String str) {
         return ignoreCase
-                ? cb.equal(expressions.toLower(cb, path), str.toLowerCase())
+                ? new IgnoreCaseClause(caseSettings).compare(cb, path, str, true)
                 : cb.equal(path, str);
     }
 
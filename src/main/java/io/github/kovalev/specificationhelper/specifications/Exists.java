@@ -0,0 +1,189 @@
+package io.github.kovalev.specificationhelper.specifications;
+
+
+import io.github.kovalev.specificationhelper.utils.Associations;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.ManagedType;
+import lombok.Getter;
+import lombok.val;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Спецификация "EXISTS": у сущности есть связанная сущность, удовлетворяющая всем вложенным спецификациям.
+ *
+ * <p>Условие на поле коллекции ({@code posts.title}) через {@code PathCalculator} присоединяет коллекцию
+ * к корню запроса: строка сущности повторяется для каждого подходящего элемента, нужен {@code DISTINCT},
+ * а запрос на подсчёт страницы считает строки JOIN. {@code Exists} проверяет коллекцию коррелированным
+ * подзапросом, и в основном запросе остаётся одна строка на сущность:</p>
+ * <pre>{@code
+ * new Exists<User, Post>("posts", new Equal<>("title", "Hello"), new IsNotNull<>("content"));
+ * // exists (select 1 from Post p where p.author = u and p.title = ? and p.content is not null)
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Вложенные спецификации строятся от связанной сущности {@code J} и объединяются через AND, поэтому
+ *     все условия относятся к одному элементу коллекции, как и при общем JOIN.</li>
+ *     <li>Если путь - одна коллекция с {@code mappedBy}, подзапрос связывается с корнем через обратный атрибут
+ *     ({@code p.author = u}); иначе путь присоединяется к корню внутри подзапроса.</li>
+ *     <li>Без вложенных условий (или если все они пустые) проверяется только наличие связанной сущности.</li>
+ *     <li>Путь может вести и к однозначной ассоциации ({@code author}) - подзапрос тогда эквивалентен
+ *     {@code INNER JOIN}.</li>
+ * </ul>
+ *
+ * <p>Переписать условия на коллекции в {@code Exists} для всего дерева можно через
+ * {@code ExistsRewriter}.</p>
+ *
+ * @param <E> тип сущности
+ * @param <J> тип связанной сущности
+ */
+@Getter
+public class Exists<E, J> extends BaseSpecification<E> {
+
+    private final FieldPath<?> fieldPath;
+    private final List<Specification<J>> specifications;
+
+    /**
+     * Конструктор.
+     *
+     * @param fields         путь к связанной сущности или коллекции; не может быть {@code null}
+     * @param specifications условия на связанную сущность
+     */
+    @SafeVarargs
+    public Exists(@NonNull String fields, @NonNull Specification<J>... specifications) {
+        this(FieldPath.of(fields), Arrays.asList(specifications));
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param fieldPath      путь к связанной сущности или коллекции; не может быть {@code null}
+     * @param specifications условия на связанную сущность
+     */
+    @SafeVarargs
+    public Exists(@NonNull FieldPath<? super E> fieldPath, @NonNull Specification<J>... specifications) {
+        this(fieldPath, Arrays.asList(specifications));
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param fields         путь к связанной сущности или коллекции; не может быть {@code null}
+     * @param specifications условия на связанную сущность
+     */
+    public Exists(@NonNull String fields, @NonNull Collection<Specification<J>> specifications) {
+        this(FieldPath.of(fields), specifications);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param fieldPath      путь к связанной сущности или коллекции; не может быть {@code null}
+     * @param specifications условия на связанную сущность
+     */
+    public Exists(@NonNull FieldPath<? super E> fieldPath, @NonNull Collection<Specification<J>> specifications) {
+        this.fieldPath = fieldPath;
+        this.specifications = Collections.unmodifiableList(new ArrayList<>(specifications));
+    }
+
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
+    }
+
+    /**
+     * Возвращает спецификацию "EXISTS" для JPA Criteria API.
+     *
+     * @return спецификация с коррелированным подзапросом
+     */
+    @Override
+    public Specification<E> specification() {
+        return (root, query, cb) -> {
+            val attributes = Associations.resolve(root.getModel(), fieldPath);
+            val subquery = query.subquery(Integer.class);
+            Root<J> element = subquery.from(elementType(attributes[attributes.length - 1]));
+
+            Predicate correlation = correlate(root, subquery, element, attributes, cb);
+            Predicate inner = new And<>(specifications).toPredicate(element, query, cb);
+
+            subquery.select(cb.literal(1))
+                    .where(inner == null ? correlation : cb.and(correlation, inner));
+            return cb.exists(subquery);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<J> elementType(Attribute<?, ?> attribute) {
+        ManagedType<?> target = Associations.target(attribute);
+        if (!(target instanceof EntityType<?>)) {
+            throw new IllegalArgumentException("Path " + fieldPath + " does not lead to an entity");
+        }
+        return (Class<J>) target.getJavaType();
+    }
+
+    /*
+     * p.author = u, если у коллекции есть обратный атрибут, иначе u2 = u join u2.path x ... where x = p.
+     */
+    private Predicate correlate(Root<E> root, Subquery<?> subquery, Root<J> element, Attribute<?, ?>[] attributes,
+                                CriteriaBuilder cb) {
+        String mappedBy = attributes.length == 1 ? Associations.mappedBy(attributes[0]) : null;
+        if (mappedBy != null) {
+            return cb.equal(element.get(mappedBy), root);
+        }
+
+        From<?, ?> from = subquery.correlate(root);
+        for (Attribute<?, ?> attribute : attributes) {
+            from = from.join(attribute.getName());
+        }
+        return cb.equal(from, element);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return копия с замороженными вложенными спецификациями
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Exists<E, J> freeze() {
+        List<Specification<J>> frozen = new ArrayList<>(specifications.size());
+        for (Specification<J> specification : specifications) {
+            frozen.add(frozen(specification));
+        }
+
+        Exists<E, J> copy = new Exists<>((FieldPath<? super E>) fieldPath, frozen);
+        copy.shape();
+        copy.hashCode();
+        return copy;
+    }
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames()).add(specifications.size());
+        for (Specification<J> specification : specifications) {
+            fingerprint.add(shapeOf(specification));
+        }
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath, specifications};
+    }
+}
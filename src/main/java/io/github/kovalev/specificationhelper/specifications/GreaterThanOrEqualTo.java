@@ -2,14 +2,20 @@ package io.github.kovalev.specificationhelper.specifications;
 
 
 import io.github.kovalev.specificationhelper.utils.CheckValue;
+import io.github.kovalev.specificationhelper.utils.DayRange;
 import io.github.kovalev.specificationhelper.utils.Expressions;
-import io.github.kovalev.specificationhelper.utils.FieldsParser;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
 import io.github.kovalev.specificationhelper.utils.PathCalculator;
 import jakarta.persistence.criteria.Expression;
+import lombok.Getter;
 import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+import java.time.LocalDate;
+import java.util.List;
+
 /**
  * Спецификация для сравнения значений полей с использованием оператора {@code >=}.
  *
@@ -19,16 +25,19 @@ import org.springframework.lang.NonNull;
  * <ul>
  *     <li>Если {@code value} равен {@code null}, возвращается пустая спецификация {@link Empty}.</li>
  *     <li>Поддерживаются любые типы, реализующие {@link Comparable}.</li>
+ *     <li>{@link LocalDate} для атрибута с датой и временем сравнивается с границей дня
+ *     {@link DayRange} без обёртки колонки в функцию.</li>
  * </ul>
  *
  * @param <E> тип сущности
  * @param <C> тип значения для сравнения
  */
+@Getter
 public class GreaterThanOrEqualTo<E, C extends Comparable<? super C>>
-        implements CustomSpecification<E> {
+        extends BaseSpecification<E> {
 
     private final transient C value;
-    private final String[] fields;
+    private final FieldPath<?> fieldPath;
 
     /**
      * Конструктор.
@@ -37,8 +46,25 @@ public class GreaterThanOrEqualTo<E, C extends Comparable<? super C>>
      * @param fields имена полей сущности, к которым применяется условие; не может быть {@code null}
      */
     public GreaterThanOrEqualTo(@NonNull String fields, C value) {
+        this(FieldPath.of(fields), value);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param value     значение для сравнения; если {@code null}, спецификация будет пустой
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public GreaterThanOrEqualTo(@NonNull FieldPath<? super E> fieldPath, C value) {
         this.value = value;
-        this.fields = new FieldsParser().parse(fields);
+        this.fieldPath = fieldPath;
+    }
+
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
     }
 
     /**
@@ -53,7 +79,11 @@ public class GreaterThanOrEqualTo<E, C extends Comparable<? super C>>
     public Specification<E> specification() {
         if (new CheckValue(value).nonNull()) {
             return (root, query, cb) -> {
-                val path = new PathCalculator<>(root, fields).path();
+                val path = new PathCalculator<>(root, fieldPath).path();
+                if (DayRange.supports(path, value)) {
+                    return new DayRange(path, (LocalDate) value).from(cb);
+                }
+
                 val expression = (Expression<C>) new Expressions().get(cb, path, value);
                 return cb.greaterThanOrEqualTo(expression, value);
             };
@@ -61,4 +91,15 @@ public class GreaterThanOrEqualTo<E, C extends Comparable<? super C>>
 
         return new Empty<>();
     }
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames()).add(new CheckValue(value).nonNull());
+        describeValueType(fingerprint, value);
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath, value};
+    }
 }
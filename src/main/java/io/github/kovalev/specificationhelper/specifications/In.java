@@ -1,14 +1,23 @@
 package io.github.kovalev.specificationhelper.specifications;
 
 
+import io.github.kovalev.specificationhelper.enums.InStrategy;
 import io.github.kovalev.specificationhelper.utils.CheckValue;
-import io.github.kovalev.specificationhelper.utils.FieldsParser;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import io.github.kovalev.specificationhelper.utils.InClause;
+import io.github.kovalev.specificationhelper.utils.InSettings;
 import io.github.kovalev.specificationhelper.utils.PathCalculator;
+import lombok.Getter;
 import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Спецификация "IN" для поиска значений в указанном наборе полей.
@@ -18,23 +27,91 @@ import java.util.Collection;
  *
  * <p>Если коллекция {@code values} пустая или {@code null}, возвращается пустая спецификация {@link Empty}.</p>
  *
+ * <p>Способ передачи значений выбирается по размеру списка (см. {@link InClause}, {@link InSettings}):
+ * по умолчанию небольшие списки передаются параметрами, дополненными до степени двойки,
+ * а большие - одним параметром-массивом {@code col = any(?)}.</p>
+ *
  * @param <E> тип сущности
  * @param <I> тип значения для сравнения (элементы коллекции)
  */
-public class In<E, I> implements CustomSpecification<E> {
+@Getter
+public class In<E, I> extends BaseSpecification<E> {
 
     private final transient Collection<I> values;
-    private final String[] fields;
+    private final FieldPath<?> fieldPath;
+    private final InSettings settings;
 
     /**
-     * Конструктор.
+     * Конструктор с настройками по умолчанию ({@link InSettings#DEFAULT}).
      *
      * @param values  коллекция значений для поиска; может быть {@code null} или пустой
      * @param fields  имена полей сущности, по которым выполняется поиск; не может быть {@code null}
      */
     public In(@NonNull String fields, Collection<I> values) {
+        this(fields, values, InSettings.DEFAULT);
+    }
+
+    /**
+     * Конструктор с настройками по умолчанию ({@link InSettings#DEFAULT}).
+     *
+     * @param values    коллекция значений для поиска; может быть {@code null} или пустой
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public In(@NonNull FieldPath<? super E> fieldPath, Collection<I> values) {
+        this(fieldPath, values, InSettings.DEFAULT);
+    }
+
+    /**
+     * Конструктор со способом передачи значений.
+     *
+     * @param values   коллекция значений для поиска; может быть {@code null} или пустой
+     * @param strategy способ передачи значений
+     * @param fields   имена полей сущности, по которым выполняется поиск; не может быть {@code null}
+     */
+    public In(@NonNull String fields, Collection<I> values, @NonNull InStrategy strategy) {
+        this(fields, values, InSettings.DEFAULT.withStrategy(strategy));
+    }
+
+    /**
+     * Конструктор со способом передачи значений.
+     *
+     * @param values    коллекция значений для поиска; может быть {@code null} или пустой
+     * @param strategy  способ передачи значений
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public In(@NonNull FieldPath<? super E> fieldPath, Collection<I> values, @NonNull InStrategy strategy) {
+        this(fieldPath, values, InSettings.DEFAULT.withStrategy(strategy));
+    }
+
+    /**
+     * Полный конструктор.
+     *
+     * @param values   коллекция значений для поиска; может быть {@code null} или пустой
+     * @param settings настройки построения IN
+     * @param fields   имена полей сущности, по которым выполняется поиск; не может быть {@code null}
+     */
+    public In(@NonNull String fields, Collection<I> values, @NonNull InSettings settings) {
+        this(FieldPath.of(fields), values, settings);
+    }
+
+    /**
+     * Полный конструктор.
+     *
+     * @param values    коллекция значений для поиска; может быть {@code null} или пустой
+     * @param settings  настройки построения IN
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public In(@NonNull FieldPath<? super E> fieldPath, Collection<I> values, @NonNull InSettings settings) {
         this.values = values;
-        this.fields = new FieldsParser().parse(fields);
+        this.fieldPath = fieldPath;
+        this.settings = Objects.requireNonNull(settings);
+    }
+
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
     }
 
     /**
@@ -49,11 +126,40 @@ public class In<E, I> implements CustomSpecification<E> {
     public Specification<E> specification() {
         if (new CheckValue(values).nonNull()) {
             return (root, query, cb) -> {
-                val path = new PathCalculator<E, Collection<I>>(root, fields).path();
-                return cb.in(path).value(values);
+                val path = new PathCalculator<E, Collection<I>>(root, fieldPath).path();
+                return new InClause(settings).predicate(cb, path, values);
             };
         }
 
         return new Empty<>();
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return копия с неизменяемой копией значений
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public In<E, I> freeze() {
+        In<E, I> copy = new In<>((FieldPath<? super E>) fieldPath, values == null ? null : Collections.unmodifiableList(new ArrayList<>(values)),
+                settings);
+        copy.shape();
+        copy.hashCode();
+        return copy;
+    }
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames())
+                .add(new CheckValue(values).nonNull())
+                .add(settings.getStrategy())
+                .add(settings.getPaddingThreshold())
+                .add(settings.getChunkSize());
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath, values, settings};
+    }
 }
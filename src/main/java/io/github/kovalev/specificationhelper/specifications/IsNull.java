@@ -1,12 +1,16 @@
 package io.github.kovalev.specificationhelper.specifications;
 
 
-import io.github.kovalev.specificationhelper.utils.FieldsParser;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
 import io.github.kovalev.specificationhelper.utils.PathCalculator;
+import lombok.Getter;
 import lombok.val;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+import java.util.List;
+
 /**
  * Спецификация "IS NULL" для проверки отсутствия значения в поле.
  *
@@ -14,9 +18,10 @@ import org.springframework.lang.NonNull;
  *
  * @param <E> тип сущности
  */
-public class IsNull<E> implements CustomSpecification<E> {
+@Getter
+public class IsNull<E> extends BaseSpecification<E> {
 
-    private final String[] fields;
+    private final FieldPath<?> fieldPath;
 
     /**
      * Конструктор.
@@ -24,7 +29,23 @@ public class IsNull<E> implements CustomSpecification<E> {
      * @param fields имена полей сущности, для которых проверяется значение {@code null}; не может быть {@code null}
      */
     public IsNull(@NonNull String fields) {
-        this.fields = new FieldsParser().parse(fields);
+        this(FieldPath.of(fields));
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public IsNull(@NonNull FieldPath<? super E> fieldPath) {
+        this.fieldPath = fieldPath;
+    }
+
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
     }
 
     /**
@@ -35,8 +56,18 @@ public class IsNull<E> implements CustomSpecification<E> {
     @Override
     public Specification<E> specification() {
         return (root, query, cb) -> {
-            val path = new PathCalculator<>(root, fields).path();
+            val path = new PathCalculator<>(root, fieldPath).path();
             return cb.isNull(path);
         };
     }
-}
\ No newline at end of file
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames());
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath};
+    }
+}
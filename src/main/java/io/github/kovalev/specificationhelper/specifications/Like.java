@@ -2,35 +2,61 @@ package io.github.kovalev.specificationhelper.specifications;
 
 
 import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.template.Slot;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
 import io.github.kovalev.specificationhelper.utils.CheckValue;
 import io.github.kovalev.specificationhelper.utils.Expressions;
-import io.github.kovalev.specificationhelper.utils.FieldsParser;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Fingerprint;
+import io.github.kovalev.specificationhelper.utils.IgnoreCaseClause;
+import io.github.kovalev.specificationhelper.utils.LikePattern;
 import io.github.kovalev.specificationhelper.utils.PathCalculator;
+import io.github.kovalev.specificationhelper.utils.PrefixRange;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
+import lombok.AccessLevel;
+import lombok.Getter;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
  * Спецификация "LIKE" для поиска строковых значений с шаблонами.
  *
- * <p>Поддерживает игнорирование регистра ({@code ignoreCase}) и режим подстановки символов
- * ({@link LikeMatchMode}).</p>
+ * <p>Поддерживает игнорирование регистра ({@code ignoreCase}, способ сравнения - {@link CaseSettings})
+ * и режим подстановки символов ({@link LikeMatchMode}). Режим {@link LikeMatchMode#PREFIX_RANGE} ищет по префиксу
+ * через диапазон {@link PrefixRange}, который может использовать B-tree индекс.</p>
+ *
+ * <p>Значение сравнивается буквально: {@code %}, {@code _} и {@code \} в нём экранируются ({@link LikePattern}),
+ * подстановочные символы добавляет только режим. Готовый шаблон передаётся в режиме {@link LikeMatchMode#PATTERN}.
+ * Если в шаблоне не осталось спецификаторов ({@link LikeMatchMode#NONE}, {@link LikeMatchMode#PATTERN} без
+ * {@code %} и {@code _}), строится сравнение на равенство.</p>
  *
  * <p>Если значение {@code null}, возвращается пустая спецификация {@link Empty}.</p>
  *
  * @param <E> тип сущности
  */
-public class Like<E> implements CustomSpecification<E> {
+@Getter
+public class Like<E> extends BaseSpecification<E> {
 
     private static final boolean DEFAULT_IGNORE_CASE = false;
 
     private final transient Object value;
-    private final String[] fields;
+    private final FieldPath<?> fieldPath;
     private final boolean ignoreCase;
+    private final CaseSettings caseSettings;
     private final LikeMatchMode likeMatchMode;
+    @Getter(AccessLevel.NONE)
+    private final String pattern;
+    @Getter(AccessLevel.NONE)
+    private final String lowerPattern;
+    /**
+     * Значение для сравнения на равенство, если в шаблоне нет спецификаторов, иначе {@code null}.
+     */
+    private final String literal;
+    @Getter(AccessLevel.NONE)
     private final transient Expressions expressions;
 
     /**
@@ -44,6 +70,17 @@ public class Like<E> implements CustomSpecification<E> {
         this(fields, value, LikeMatchMode.BOTH, DEFAULT_IGNORE_CASE);
     }
 
+    /**
+     * Конструктор со значением и полями.
+     * Использует режим {@link LikeMatchMode#BOTH} и регистр не игнорируется.
+     *
+     * @param value     значение для поиска; может быть {@code null}
+     * @param fieldPath путь к полю; не может быть {@code null}
+     */
+    public Like(@NonNull FieldPath<? super E> fieldPath, Object value) {
+        this(fieldPath, value, LikeMatchMode.BOTH, DEFAULT_IGNORE_CASE);
+    }
+
     /**
      * Конструктор со значением, флагом игнорирования регистра и полями.
      *
@@ -55,6 +92,17 @@ public class Like<E> implements CustomSpecification<E> {
         this(fields, value, LikeMatchMode.BOTH, ignoreCase);
     }
 
+    /**
+     * Конструктор со значением, флагом игнорирования регистра и полями.
+     *
+     * @param value      значение для поиска; может быть {@code null}
+     * @param ignoreCase если {@code true}, поиск игнорирует регистр
+     * @param fieldPath  путь к полю; не может быть {@code null}
+     */
+    public Like(@NonNull FieldPath<? super E> fieldPath, Object value, boolean ignoreCase) {
+        this(fieldPath, value, LikeMatchMode.BOTH, ignoreCase);
+    }
+
     /**
      * Конструктор со значением, режимом шаблона и полями.
      *
@@ -66,6 +114,17 @@ public class Like<E> implements CustomSpecification<E> {
         this(fields, value, likeMatchMode, DEFAULT_IGNORE_CASE);
     }
 
+    /**
+     * Конструктор со значением, режимом шаблона и полями.
+     *
+     * @param value         значение для поиска; может быть {@code null}
+     * @param likeMatchMode режим добавления подстановочных символов
+     * @param fieldPath     путь к полю; не может быть {@code null}
+     */
+    public Like(@NonNull FieldPath<? super E> fieldPath, Object value, @NonNull LikeMatchMode likeMatchMode) {
+        this(fieldPath, value, likeMatchMode, DEFAULT_IGNORE_CASE);
+    }
+
     /**
      * Полный конструктор.
      *
@@ -75,11 +134,86 @@ public class Like<E> implements CustomSpecification<E> {
      * @param fields        имена полей сущности; не может быть {@code null}
      */
     public Like(@NonNull String fields, Object value, @NonNull LikeMatchMode likeMatchMode, boolean ignoreCase) {
+        this(FieldPath.of(fields), value, likeMatchMode, ignoreCase);
+    }
+
+    /**
+     * Полный конструктор.
+     *
+     * @param value         значение для поиска; может быть {@code null}
+     * @param likeMatchMode режим добавления подстановочных символов
+     * @param ignoreCase    если {@code true}, поиск игнорирует регистр
+     * @param fieldPath     путь к полю; не может быть {@code null}
+     */
+    public Like(@NonNull FieldPath<? super E> fieldPath, Object value, @NonNull LikeMatchMode likeMatchMode, boolean ignoreCase) {
+        this(fieldPath, value, likeMatchMode, ignoreCase ? CaseSettings.DEFAULT : null);
+    }
+
+    /**
+     * Конструктор поиска без учёта регистра.
+     * Использует режим {@link LikeMatchMode#BOTH}.
+     *
+     * @param value        значение для поиска; может быть {@code null}
+     * @param caseSettings способ сравнения без учёта регистра
+     * @param fields       имена полей сущности; не может быть {@code null}
+     */
+    public Like(@NonNull String fields, Object value, @NonNull CaseSettings caseSettings) {
+        this(FieldPath.of(fields), value, LikeMatchMode.BOTH, Objects.requireNonNull(caseSettings));
+    }
+
+    /**
+     * Конструктор поиска без учёта регистра.
+     * Использует режим {@link LikeMatchMode#BOTH}.
+     *
+     * @param value        значение для поиска; может быть {@code null}
+     * @param caseSettings способ сравнения без учёта регистра
+     * @param fieldPath    путь к полю; не может быть {@code null}
+     */
+    public Like(@NonNull FieldPath<? super E> fieldPath, Object value, @NonNull CaseSettings caseSettings) {
+        this(fieldPath, value, LikeMatchMode.BOTH, Objects.requireNonNull(caseSettings));
+    }
+
+    /**
+     * Конструктор поиска без учёта регистра с режимом шаблона.
+     *
+     * @param value         значение для поиска; может быть {@code null}
+     * @param likeMatchMode режим добавления подстановочных символов
+     * @param caseSettings  способ сравнения без учёта регистра
+     * @param fields        имена полей сущности; не может быть {@code null}
+     */
+    public Like(@NonNull String fields, Object value, @NonNull LikeMatchMode likeMatchMode,
+                @NonNull CaseSettings caseSettings) {
+        this(FieldPath.of(fields), value, likeMatchMode, Objects.requireNonNull(caseSettings));
+    }
+
+    /**
+     * Конструктор поиска без учёта регистра с режимом шаблона.
+     *
+     * @param value         значение для поиска; может быть {@code null}
+     * @param likeMatchMode режим добавления подстановочных символов
+     * @param caseSettings  способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param fieldPath     путь к полю; не может быть {@code null}
+     */
+    public Like(@NonNull FieldPath<? super E> fieldPath, Object value, @NonNull LikeMatchMode likeMatchMode,
+                CaseSettings caseSettings) {
         this.value = value;
         this.likeMatchMode = Objects.requireNonNull(likeMatchMode);
-        this.ignoreCase = ignoreCase;
-        this.fields = new FieldsParser().parse(fields);
+        this.ignoreCase = caseSettings != null;
+        this.caseSettings = caseSettings;
+        this.fieldPath = fieldPath;
         this.expressions = new Expressions();
+        this.pattern = value == null || value instanceof Slot ? null : buildPattern(String.valueOf(value), likeMatchMode);
+        this.lowerPattern = pattern == null || caseSettings == null ? pattern : pattern.toLowerCase();
+        this.literal = pattern != null && (likeMatchMode == LikeMatchMode.NONE || likeMatchMode == LikeMatchMode.PATTERN)
+                ? LikePattern.literal(pattern)
+                : null;
+    }
+
+    /**
+     * @return имена полей пути
+     */
+    public List<String> getFields() {
+        return fieldPath.getNames();
     }
 
     /**
@@ -95,13 +229,22 @@ public class Like<E> implements CustomSpecification<E> {
     public Specification<E> specification() {
         if (new CheckValue(value).nonNull()) {
             return (root, query, cb) -> {
-                Path<Object> path = new PathCalculator<>(root, fields).path();
-                Expression<String> stringExpression = expressions.get(cb, path, value).as(String.class);
+                Path<Object> path = new PathCalculator<>(root, fieldPath).path();
+                Expression<String> stringExpression = IgnoreCaseClause.asString(expressions.get(cb, path, value));
 
-                String pattern = applyWildcards(String.valueOf(value));
+                if (literal != null) {
+                    return ignoreCase
+                            ? new IgnoreCaseClause(caseSettings).compare(cb, path, literal, true)
+                            : cb.equal(stringExpression, literal);
+                }
 
                 if (ignoreCase) {
-                    return cb.like(expressions.toLower(cb, stringExpression), pattern.toLowerCase(), '\\');
+                    return new IgnoreCaseClause(caseSettings).like(cb, path, stringExpression, pattern, lowerPattern);
+                }
+
+                if (isPrefixRange(path.getJavaType())) {
+                    return cb.and(new PrefixRange(stringExpression, (String) value).within(cb),
+                            cb.like(stringExpression, pattern, '\\'));
                 }
 
                 return cb.like(stringExpression, pattern, '\\');
@@ -112,17 +255,71 @@ public class Like<E> implements CustomSpecification<E> {
     }
 
     /**
-     * Применяет подстановочные символы к значению в зависимости от {@link LikeMatchMode}.
+     * Проверяет, строится ли условие через диапазон {@link PrefixRange}.
+     *
+     * @param javaType тип атрибута
+     * @return {@code true} для режима {@link LikeMatchMode#PREFIX_RANGE} без игнорирования регистра,
+     * если префикс можно заменить на диапазон
+     */
+    public boolean isPrefixRange(Class<?> javaType) {
+        return likeMatchMode == LikeMatchMode.PREFIX_RANGE && !ignoreCase && PrefixRange.supports(javaType, value);
+    }
+
+    /**
+     * Возвращает шаблон LIKE: экранированное значение с подстановочными символами в зависимости
+     * от {@link LikeMatchMode}. Шаблон строится один раз в конструкторе.
+     *
+     * @return шаблон с экранированием символом {@code \}; {@code null}, если значение {@code null}
+     */
+    public String pattern() {
+        return pattern;
+    }
+
+    /**
+     * @return {@link #pattern()} в нижнем регистре, если регистр игнорируется, иначе {@link #pattern()}
+     */
+    public String lowerPattern() {
+        return lowerPattern;
+    }
+
+    /**
+     * Строит шаблон для другого значения по режиму этой спецификации (для значений слотов {@link Slot}).
      *
-     * @param value исходное значение
-     * @return значение с подстановочными символами
+     * @param value значение; не может быть {@code null}
+     * @return шаблон с экранированием символом {@code \}, без приведения к нижнему регистру
      */
-    private String applyWildcards(String value) {
+    public String patternFor(Object value) {
+        return buildPattern(String.valueOf(value), likeMatchMode);
+    }
+
+    private static String buildPattern(String value, LikeMatchMode likeMatchMode) {
+        if (likeMatchMode == LikeMatchMode.PATTERN) {
+            return value;
+        }
+
+        String escaped = LikePattern.escape(value);
         return switch (likeMatchMode) {
-            case BOTH -> "%" + value + "%";
-            case START_ONLY -> "%" + value;
-            case END_ONLY -> value + "%";
-            case NONE -> value;
+            case BOTH -> "%" + escaped + "%";
+            case START_ONLY -> "%" + escaped;
+            case END_ONLY, PREFIX_RANGE -> escaped + "%";
+            case NONE, PATTERN -> escaped;
         };
     }
+
+    @Override
+    protected void describeShape(Fingerprint fingerprint) {
+        fingerprint.add(fieldPath.getNames())
+                .add(new CheckValue(value).nonNull())
+                .add(ignoreCase)
+                .add(likeMatchMode);
+        if (caseSettings != null) {
+            fingerprint.add(caseSettings.getStrategy()).add(caseSettings.getShadowField());
+        }
+        describeValueType(fingerprint, value);
+    }
+
+    @Override
+    protected Object[] components() {
+        return new Object[]{fieldPath, value, ignoreCase, caseSettings, likeMatchMode};
+    }
 }
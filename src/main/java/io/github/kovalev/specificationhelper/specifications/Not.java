@@ -5,11 +5,9 @@ import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Спецификация "NOT" для инверсии условия вложенной спецификации.
@@ -20,14 +18,14 @@ import java.util.Objects;
  * <ul>
  *     <li>Поддерживает добавление спецификации через метод {@link #add(Specification)}.</li>
  *     <li>Если вложенная спецификация пустая, возвращается пустая спецификация {@link Empty}.</li>
+ *     <li>Предикаты вложенных спецификаций объединяются одним {@code cb.and(...)}/{@code cb.or(...)}
+ *     в зависимости от режима; вложенные {@code And} (режим AND) и {@code Or} (режим OR) разворачиваются
+ *     (см. {@link BaseCompositeSpecification}).</li>
  * </ul>
  *
  * @param <E> тип сущности
  */
-public class Not<E> implements CustomSpecification<E> {
-
-    private final List<Specification<E>> specifications = new ArrayList<>();
-    private final CompositionMode mode;
+public class Not<E> extends BaseCompositeSpecification<E> {
 
     /**
      * Конструктор по умолчанию (режим AND).
@@ -66,8 +64,11 @@ public class Not<E> implements CustomSpecification<E> {
      * @param specifications спецификации
      */
     public Not(@NonNull CompositionMode mode, @NonNull Collection<Specification<E>> specifications) {
-        this.mode = Objects.requireNonNull(mode);
-        this.specifications.addAll(specifications);
+        super(mode, specifications);
+    }
+
+    private Not(CompositionMode mode, Collection<Specification<E>> specifications, boolean frozen) {
+        super(mode, specifications, frozen);
     }
 
     /**
@@ -77,12 +78,23 @@ public class Not<E> implements CustomSpecification<E> {
      *
      * @param specification спецификация для добавления; не может быть {@code null}
      * @return текущий объект {@code Not<E>} для поддержки цепочки вызовов
+     * @throws UnsupportedOperationException если спецификация заморожена ({@link #freeze()})
      */
     public Not<E> add(@NonNull Specification<E> specification) {
-        specifications.add(specification);
+        append(specification);
         return this;
     }
 
+    @Override
+    public Not<E> freeze() {
+        return (Not<E>) super.freeze();
+    }
+
+    @Override
+    protected Not<E> frozenCopy(List<Specification<E>> specifications) {
+        return new Not<>(mode, specifications, true);
+    }
+
     /**
      * Возвращает спецификацию "НЕ".
      *
@@ -90,15 +102,12 @@ public class Not<E> implements CustomSpecification<E> {
      */
     @Override
     public Specification<E> specification() {
-        return specifications.stream()
-                .reduce(mode == CompositionMode.AND ? Specification::and : Specification::or)
-                .map(this::safeNot)
-                .orElseGet(Empty::new);
-    }
+        if (specifications.isEmpty()) {
+            return new Empty<>();
+        }
 
-    private Specification<E> safeNot(Specification<E> spec) {
         return (root, query, cb) -> {
-            Predicate inner = spec.toPredicate(root, query, cb);
+            Predicate inner = compose(root, query, cb);
             return inner != null ? cb.not(inner) : null;
         };
     }
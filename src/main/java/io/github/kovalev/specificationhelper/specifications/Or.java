@@ -1,9 +1,9 @@
 package io.github.kovalev.specificationhelper.specifications;
 
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -17,13 +17,13 @@ import java.util.List;
  * <ul>
  *     <li>Поддерживает добавление спецификаций через метод {@link #add(Specification)}.</li>
  *     <li>Если список спецификаций пуст, возвращается пустая спецификация {@link Empty}.</li>
+ *     <li>Вложенные {@code Or} разворачиваются, а все предикаты объединяются одним {@code cb.or(...)}
+ *     (см. {@link BaseCompositeSpecification}).</li>
  * </ul>
  *
  * @param <E> тип сущности
  */
-public class Or<E> implements CustomSpecification<E> {
-
-    private final List<Specification<E>> specifications = new ArrayList<>();
+public class Or<E> extends BaseCompositeSpecification<E> {
 
     /**
      * Конструктор.
@@ -32,7 +32,7 @@ public class Or<E> implements CustomSpecification<E> {
      */
     @SafeVarargs
     public Or(@NonNull Specification<E>... specifications) {
-        this.specifications.addAll(Arrays.asList(specifications));
+        this(Arrays.asList(specifications));
     }
 
     /**
@@ -41,7 +41,11 @@ public class Or<E> implements CustomSpecification<E> {
      * @param specifications коллекция спецификаций для объединения через OR
      */
     public Or(@NonNull Collection<Specification<E>> specifications) {
-        this.specifications.addAll(specifications);
+        super(CompositionMode.OR, specifications);
+    }
+
+    private Or(Collection<Specification<E>> specifications, boolean frozen) {
+        super(CompositionMode.OR, specifications, frozen);
     }
 
     /**
@@ -51,12 +55,23 @@ public class Or<E> implements CustomSpecification<E> {
      *
      * @param specification спецификация для добавления; не может быть {@code null}
      * @return текущий объект {@code Or<E>} для поддержки цепочки вызовов
+     * @throws UnsupportedOperationException если спецификация заморожена ({@link #freeze()})
      */
     public Or<E> add(@NonNull Specification<E> specification) {
-        specifications.add(specification);
+        append(specification);
         return this;
     }
 
+    @Override
+    public Or<E> freeze() {
+        return (Or<E>) super.freeze();
+    }
+
+    @Override
+    protected Or<E> frozenCopy(List<Specification<E>> specifications) {
+        return new Or<>(specifications, true);
+    }
+
     /**
      * Возвращает спецификацию "ИЛИ".
      *
@@ -66,8 +81,10 @@ public class Or<E> implements CustomSpecification<E> {
      */
     @Override
     public Specification<E> specification() {
-        return specifications.stream()
-                .reduce(Specification::or)
-                .orElseGet(Empty::new);
+        if (specifications.isEmpty()) {
+            return new Empty<>();
+        }
+
+        return this::compose;
     }
 }
\ No newline at end of file
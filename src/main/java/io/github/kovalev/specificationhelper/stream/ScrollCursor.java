@@ -0,0 +1,75 @@
+package io.github.kovalev.specificationhelper.stream;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+
+/**
+ * Открытый курсор {@link StreamingExecutor}: строки {@link ScrollableResults} и освобождение контекста
+ * персистентности от выданных сущностей.
+ *
+ * @param <E> тип сущности
+ */
+final class ScrollCursor<E> implements AutoCloseable {
+
+    private final ScrollableResults<E> results;
+    private final Session session;
+    private final int clearEvery;
+    private E current;
+    private long rows;
+    private boolean closed;
+
+    ScrollCursor(ScrollableResults<E> results, EntityManager entityManager, int clearEvery) {
+        this.results = results;
+        this.session = entityManager.unwrap(Session.class);
+        this.clearEvery = clearEvery;
+    }
+
+    /**
+     * Переходит к следующей строке. Перед переходом предыдущая сущность отсоединяется, если её загрузил курсор
+     * (только для чтения); сущности, которые уже были в контексте до потока, остаются в нём. Если
+     * {@code clearEvery > 0} и выдано кратное ему число строк, контекст сохраняется ({@code flush})
+     * и очищается. Курсор закрывается после последней строки и при ошибке.
+     *
+     * @return следующая сущность или {@code null}, если строк больше нет
+     */
+    E next() {
+        if (closed) {
+            return null;
+        }
+
+        try {
+            release();
+            if (!results.next()) {
+                close();
+                return null;
+            }
+
+            rows++;
+            current = results.get();
+            return current;
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            current = null;
+            results.close();
+        }
+    }
+
+    private void release() {
+        if (clearEvery > 0 && rows > 0 && rows % clearEvery == 0) {
+            session.flush();
+            session.clear();
+        } else if (current != null && session.contains(current) && session.isReadOnly(current)) {
+            session.detach(current);
+        }
+        current = null;
+    }
+}
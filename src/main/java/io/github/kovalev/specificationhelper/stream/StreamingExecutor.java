@@ -0,0 +1,292 @@
+package io.github.kovalev.specificationhelper.stream;
+
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.optimizer.SpecificationOptimizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.ScrollMode;
+import org.hibernate.query.Query;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Выполняет спецификацию курсором {@link org.hibernate.ScrollableResults} и выдаёт сущности по одной,
+ * не загружая весь результат в память.
+ *
+ * <p>{@code findAll(spec)} строит список из всех строк, и все сущности остаются в контексте персистентности
+ * до конца транзакции. Здесь драйвер получает строки порциями по {@code fetchSize}, сущности загружаются
+ * только для чтения (без снимков для проверки изменений) и отсоединяются от контекста, когда поток переходит
+ * к следующей строке, поэтому память не зависит от размера результата:</p>
+ * <pre>{@code
+ * try (Stream<User> users = new StreamingExecutor<>(entityManager, User.class).stream(spec)) {
+ *     users.forEach(reconciliation::check);
+ * }
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Поток нужно читать внутри транзакции: драйвер PostgreSQL использует курсор на сервере только
+ *     при выключенном autocommit и {@code fetchSize > 0}, иначе читает весь результат сразу.</li>
+ *     <li>Отсоединяются только сущности, загруженные потоком: сущность, которая уже была в контексте
+ *     до потока, выдаётся тем же экземпляром и остаётся в контексте. Ленивые ассоциации выданных сущностей
+ *     после перехода к следующей строке не загружаются, изменения выданных сущностей не сохраняются.</li>
+ *     <li>Ассоциации, загружаемые вместе с сущностью ({@code EAGER}), остаются в контексте; чтобы освободить
+ *     и их, задайте {@code clearEvery}: каждые {@code clearEvery} строк изменения контекста сохраняются
+ *     ({@code flush}), и контекст очищается целиком, включая сущности вызывающего кода.</li>
+ *     <li>Курсор закрывается после последней строки, при ошибке и при {@link Stream#close()}; поток, который
+ *     читается не до конца, нужно закрыть (try-with-resources).</li>
+ *     <li>Дерево спецификаций упрощается {@link SpecificationOptimizer} и компилируется {@link HqlCompiler},
+ *     если это возможно; иначе запрос строится через Criteria API.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+public class StreamingExecutor<E> {
+
+    /**
+     * Число строк, которое драйвер получает за одно обращение к серверу, по умолчанию.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+    private final Class<E> domainClass;
+    private final int fetchSize;
+    private final int clearEvery;
+    private final HqlCompiler compiler;
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+
+    /**
+     * Конструктор с {@link #DEFAULT_FETCH_SIZE} без очистки контекста.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     */
+    public StreamingExecutor(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass) {
+        this(entityManager, domainClass, DEFAULT_FETCH_SIZE, 0);
+    }
+
+    /**
+     * Конструктор.
+     *
+     * @param entityManager {@link EntityManager}
+     * @param domainClass   класс сущности
+     * @param fetchSize     число строк, которое драйвер получает за одно обращение к серверу
+     * @param clearEvery    через сколько выданных строк контекст персистентности сохраняется и очищается;
+     *                      {@code 0} - не очищается, отсоединяются только выданные сущности
+     * @throws IllegalArgumentException если {@code fetchSize < 1} или {@code clearEvery < 0}
+     */
+    public StreamingExecutor(@NonNull EntityManager entityManager, @NonNull Class<E> domainClass, int fetchSize,
+                             int clearEvery) {
+        if (fetchSize < 1 || clearEvery < 0) {
+            throw new IllegalArgumentException("Invalid fetch size " + fetchSize + " or clear interval " + clearEvery);
+        }
+
+        this.entityManager = entityManager;
+        this.domainClass = domainClass;
+        this.fetchSize = fetchSize;
+        this.clearEvery = clearEvery;
+        this.compiler = new HqlCompiler(entityManager);
+    }
+
+    /**
+     * @param specification условие; {@code null} - все строки
+     * @return поток сущностей; курсор открывается при выполнении первой операции потока
+     */
+    public Stream<E> stream(@Nullable Specification<E> specification) {
+        return stream(specification, Sort.unsorted());
+    }
+
+    /**
+     * @param specification условие; {@code null} - все строки
+     * @param sort          сортировка
+     * @return поток сущностей; курсор открывается при выполнении первой операции потока
+     */
+    public Stream<E> stream(@Nullable Specification<E> specification, @NonNull Sort sort) {
+        CursorSpliterator spliterator = new CursorSpliterator(specification, sort);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Возвращает издателя сущностей с обратным давлением: строки читаются из курсора, только когда
+     * подписчик запросил их через {@link Flow.Subscription#request(long)}.
+     *
+     * <p>Каждая подписка открывает свой курсор при первом запросе. Сущности выдаются в потоке, который вызвал
+     * {@code request}: контекст персистентности не потокобезопасен, поэтому запрашивать строки нужно из потока
+     * транзакции. {@link Flow.Subscription#cancel()} закрывает курсор.</p>
+     *
+     * @param specification условие; {@code null} - все строки
+     * @param sort          сортировка
+     * @return издатель сущностей
+     */
+    public Flow.Publisher<E> publisher(@Nullable Specification<E> specification, @NonNull Sort sort) {
+        return subscriber -> subscriber.onSubscribe(new ScrollSubscription(subscriber, specification, sort));
+    }
+
+    /**
+     * @param specification условие; {@code null} - все строки
+     * @return издатель сущностей (см. {@link #publisher(Specification, Sort)})
+     */
+    public Flow.Publisher<E> publisher(@Nullable Specification<E> specification) {
+        return publisher(specification, Sort.unsorted());
+    }
+
+    private ScrollCursor<E> open(Specification<E> specification, Sort sort) {
+        @SuppressWarnings("unchecked")
+        Query<E> query = query(optimizer.optimize(specification), sort).unwrap(Query.class);
+        query.setFetchSize(fetchSize);
+        query.setReadOnly(true);
+        return new ScrollCursor<>(query.scroll(ScrollMode.FORWARD_ONLY), entityManager, clearEvery);
+    }
+
+    private TypedQuery<E> query(Specification<E> specification, Sort sort) {
+        Optional<CompiledQuery> compiled = compiler.compile(domainClass, specification);
+        Optional<String> orderBy = compiler.orderBy(domainClass, sort);
+        if (compiled.isPresent() && orderBy.isPresent()) {
+            return compiled.get().bind(entityManager.createQuery(compiled.get().selectHql(orderBy.get()), domainClass));
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(domainClass);
+        Root<E> root = query.from(domainClass);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query);
+    }
+
+    /*
+     * Курсор открывается при первом tryAdvance, а не при создании потока.
+     */
+    private final class CursorSpliterator extends Spliterators.AbstractSpliterator<E> {
+
+        private final Specification<E> specification;
+        private final Sort sort;
+        private ScrollCursor<E> cursor;
+
+        private CursorSpliterator(Specification<E> specification, Sort sort) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.specification = specification;
+            this.sort = sort;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (cursor == null) {
+                cursor = open(specification, sort);
+            }
+
+            E entity = cursor.next();
+            if (entity == null) {
+                return false;
+            }
+            action.accept(entity);
+            return true;
+        }
+
+        private void close() {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /*
+     * Подписка выдаёт строки в цикле внутри request: вложенный request из onNext только увеличивает запрос,
+     * поэтому глубина стека не растёт.
+     */
+    private final class ScrollSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super E> subscriber;
+        private final Specification<E> specification;
+        private final Sort sort;
+        private ScrollCursor<E> cursor;
+        private long demand;
+        private boolean emitting;
+        private boolean done;
+
+        private ScrollSubscription(Flow.Subscriber<? super E> subscriber, Specification<E> specification, Sort sort) {
+            this.subscriber = subscriber;
+            this.specification = specification;
+            this.sort = sort;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done) {
+                return;
+            }
+            if (n <= 0) {
+                fail(new IllegalArgumentException("Requested " + n + " elements, expected a positive number"));
+                return;
+            }
+
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            if (emitting) {
+                return;
+            }
+
+            emitting = true;
+            try {
+                while (demand > 0 && !done) {
+                    if (cursor == null) {
+                        cursor = open(specification, sort);
+                    }
+
+                    E entity = cursor.next();
+                    if (entity == null) {
+                        done = true;
+                        subscriber.onComplete();
+                        return;
+                    }
+                    demand--;
+                    subscriber.onNext(entity);
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+            } finally {
+                emitting = false;
+                if (done) {
+                    closeCursor();
+                }
+            }
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+            if (!emitting) {
+                closeCursor();
+            }
+        }
+
+        private void fail(Throwable error) {
+            done = true;
+            closeCursor();
+            subscriber.onError(error);
+        }
+
+        private void closeCursor() {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.kovalev.specificationhelper.template;
+
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Шаблон спецификации, связанный со значениями слотов (см. {@link SpecificationTemplate#bind(Object...)}).
+ *
+ * <p>{@code SpecificationHelperRepository} выполняет её как скомпилированный запрос шаблона с подставленными
+ * значениями. В остальных случаях {@link #toPredicate(Root, CriteriaQuery, CriteriaBuilder)} строит дерево
+ * со значениями вместо слотов и его предикат через Criteria API.</p>
+ *
+ * @param <E> тип сущности
+ */
+public final class BoundSpecification<E> implements Specification<E> {
+
+    private final SpecificationTemplate<E> template;
+    private final Object[] values;
+
+    BoundSpecification(SpecificationTemplate<E> template, Object[] values) {
+        this.template = template;
+        this.values = values;
+    }
+
+    /**
+     * @return шаблон
+     */
+    public SpecificationTemplate<E> getTemplate() {
+        return template;
+    }
+
+    /**
+     * @return значения слотов в порядке {@link SpecificationTemplate#getParams()}
+     */
+    public List<Object> getValues() {
+        return List.of(values);
+    }
+
+    /**
+     * Возвращает запрос шаблона со значениями слотов.
+     *
+     * @param compiler компилятор
+     * @return запрос или пустой {@link Optional}, если шаблон нельзя скомпилировать
+     */
+    public Optional<CompiledQuery> compile(@NonNull HqlCompiler compiler) {
+        return template.compile(compiler, values);
+    }
+
+    @Override
+    public Predicate toPredicate(@NonNull Root<E> root, CriteriaQuery<?> query, @NonNull CriteriaBuilder cb) {
+        return template.materialize(values).toPredicate(root, query, cb);
+    }
+
+    @Override
+    public String toString() {
+        return template.getParams() + " = " + List.of(values);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.kovalev.specificationhelper.template;
+
+import io.github.kovalev.specificationhelper.utils.Param;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Слот {@link Param} на месте значения спецификации.
+ *
+ * <p>Создаётся только фабриками {@link SpecificationTemplate} ({@code equal}, {@code gte}, {@code in}, ...), поэтому
+ * спецификация со слотом не может появиться вне шаблона. {@link Comparable} нужен только для того, чтобы слот
+ * прошёл ограничение типа значения {@code GreaterThanOrEqualTo}, {@code LessThanOrEqualTo} и {@code Between};
+ * значения слотов не сравниваются.</p>
+ *
+ * @param <T> тип значения
+ */
+@Getter
+@EqualsAndHashCode
+public final class Slot<T> implements Comparable<Slot<?>> {
+
+    private final Param<T> param;
+    private final boolean collection;
+
+    Slot(Param<T> param, boolean collection) {
+        this.param = param;
+        this.collection = collection;
+    }
+
+    @Override
+    public int compareTo(Slot<?> other) {
+        return param.getName().compareTo(other.param.getName());
+    }
+
+    @Override
+    public String toString() {
+        return param.toString();
+    }
+}
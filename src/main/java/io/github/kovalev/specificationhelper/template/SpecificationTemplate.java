@@ -0,0 +1,629 @@
+package io.github.kovalev.specificationhelper.template;
+
+import io.github.kovalev.specificationhelper.hql.CompiledQuery;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.hql.ParameterSlot;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.BaseComparisonSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseCompositeSpecification;
+import io.github.kovalev.specificationhelper.specifications.BaseSpecification;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.InSettings;
+import io.github.kovalev.specificationhelper.utils.Param;
+import jakarta.persistence.metamodel.Metamodel;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Шаблон спецификации: дерево, в котором вместо значений стоят именованные слоты {@link Param}.
+ *
+ * <p>Шаблон создаётся один раз (например, в статическом поле), а для каждого запроса связывается
+ * со значениями; связывание создаёт только {@link BoundSpecification} с массивом значений. Условия со слотами
+ * создаются фабриками шаблона ({@link #equal}, {@link #like}, {@link #gte}, {@link #in}, ...) и объединяются
+ * обычными {@link And}, {@link Or}, {@link Not} и {@link Exists}:</p>
+ * <pre>{@code
+ * static final SpecificationTemplate<Post> BY_AUTHOR = new SpecificationTemplate<>(Post.class, new And<>(
+ *         equal("author.email", param("email", String.class)),
+ *         gte("createdAt", param("from", LocalDateTime.class))));
+ *
+ * postRepository.findAll(BY_AUTHOR.bind("alice@example.com", from));
+ * }</pre>
+ *
+ * <p><b>Особенности:</b></p>
+ * <ul>
+ *     <li>Дерево замораживается ({@link BaseSpecification#freeze()}): пути разобраны, отпечатки вычислены.</li>
+ *     <li>{@code SpecificationHelperRepository} компилирует шаблон в HQL один раз (см. {@link HqlCompiler})
+ *     и при каждом вызове только подставляет значения в параметры, поэтому все вызовы дают одну строку HQL
+ *     и один план в кеше Hibernate.</li>
+ *     <li>Значения слотов не могут быть {@code null} и должны иметь тип слота: форма запроса не зависит
+ *     от значений. Значение слота {@link #in} - непустая коллекция элементов этого типа; она передаётся одним
+ *     параметром-массивом, поэтому коллекции разного размера дают тот же запрос. Один слот можно использовать
+ *     в нескольких местах дерева.</li>
+ *     <li>Если шаблон нельзя скомпилировать (лямбды в дереве, слот {@link #in} без поддержки массивов в диалекте,
+ *     методы репозитория с {@code @EntityGraph}), а также вне {@code SpecificationHelperRepository},
+ *     {@link BoundSpecification} строит дерево с подставленными значениями и предикат через Criteria API.</li>
+ * </ul>
+ *
+ * @param <E> тип сущности
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class SpecificationTemplate<E> {
+
+    private final Class<E> domainClass;
+    private final Specification<E> specification;
+    private final List<Param<?>> params;
+    private final boolean[] collections;
+    private final Map<String, Integer> indexes;
+    private volatile Compiled compiled;
+
+    /**
+     * Конструктор.
+     *
+     * @param domainClass   класс сущности
+     * @param specification дерево спецификаций со слотами
+     * @throws IllegalArgumentException если слоты с одним именем имеют разные типы или используются и как значение,
+     *                                  и как коллекция {@link #in}, либо {@link Param} передан в спецификацию
+     *                                  напрямую, а не через фабрику шаблона
+     */
+    public SpecificationTemplate(@NonNull Class<E> domainClass, @NonNull Specification<E> specification) {
+        this.domainClass = domainClass;
+        this.specification = specification instanceof BaseSpecification<E> base ? base.freeze() : specification;
+
+        Map<String, Slot<?>> found = new LinkedHashMap<>();
+        collect(this.specification, found);
+        this.params = found.values().stream().<Param<?>>map(Slot::getParam).toList();
+        this.collections = new boolean[params.size()];
+        this.indexes = new LinkedHashMap<>();
+        int index = 0;
+        for (Slot<?> slot : found.values()) {
+            collections[index] = slot.isCollection();
+            indexes.put(slot.getParam().getName(), index++);
+        }
+    }
+
+    /**
+     * Создаёт слот для значения.
+     *
+     * @param name имя слота
+     * @param type тип значения
+     * @param <T>  тип значения
+     * @return слот
+     */
+    public static <T> Param<T> param(@NonNull String name, @NonNull Class<T> type) {
+        return Param.of(name, type);
+    }
+
+    /**
+     * Условие {@link Equal} со слотом.
+     *
+     * @param fields имена полей через точку
+     * @param param  слот
+     * @param <E>    тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> equal(@NonNull String fields, @NonNull Param<?> param) {
+        return equal(FieldPath.of(fields), param, null);
+    }
+
+    /**
+     * Условие {@link Equal} со слотом.
+     *
+     * @param fields       имена полей через точку
+     * @param param        слот
+     * @param caseSettings способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param <E>          тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> equal(@NonNull String fields, @NonNull Param<?> param,
+                                             CaseSettings caseSettings) {
+        return equal(FieldPath.of(fields), param, caseSettings);
+    }
+
+    /**
+     * Условие {@link Equal} со слотом.
+     *
+     * @param fieldPath путь к полю
+     * @param param     слот
+     * @param <E>       тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> equal(@NonNull FieldPath<? super E> fieldPath, @NonNull Param<?> param) {
+        return equal(fieldPath, param, null);
+    }
+
+    /**
+     * Условие {@link Equal} со слотом.
+     *
+     * @param fieldPath    путь к полю
+     * @param param        слот
+     * @param caseSettings способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param <E>          тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> equal(@NonNull FieldPath<? super E> fieldPath, @NonNull Param<?> param,
+                                             CaseSettings caseSettings) {
+        return new Equal<>(fieldPath, slot(param), NullHandling.IGNORE, caseSettings);
+    }
+
+    /**
+     * Условие {@link NotEqual} со слотом.
+     *
+     * @param fields имена полей через точку
+     * @param param  слот
+     * @param <E>    тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> notEqual(@NonNull String fields, @NonNull Param<?> param) {
+        return notEqual(FieldPath.of(fields), param, null);
+    }
+
+    /**
+     * Условие {@link NotEqual} со слотом.
+     *
+     * @param fields       имена полей через точку
+     * @param param        слот
+     * @param caseSettings способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param <E>          тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> notEqual(@NonNull String fields, @NonNull Param<?> param,
+                                                CaseSettings caseSettings) {
+        return notEqual(FieldPath.of(fields), param, caseSettings);
+    }
+
+    /**
+     * Условие {@link NotEqual} со слотом.
+     *
+     * @param fieldPath путь к полю
+     * @param param     слот
+     * @param <E>       тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> notEqual(@NonNull FieldPath<? super E> fieldPath, @NonNull Param<?> param) {
+        return notEqual(fieldPath, param, null);
+    }
+
+    /**
+     * Условие {@link NotEqual} со слотом.
+     *
+     * @param fieldPath    путь к полю
+     * @param param        слот
+     * @param caseSettings способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param <E>          тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> notEqual(@NonNull FieldPath<? super E> fieldPath, @NonNull Param<?> param,
+                                                CaseSettings caseSettings) {
+        return new NotEqual<>(fieldPath, slot(param), NullHandling.IGNORE, caseSettings);
+    }
+
+    /**
+     * Условие {@link Like} ({@link LikeMatchMode#BOTH}) со слотом.
+     *
+     * @param fields имена полей через точку
+     * @param param  слот
+     * @param <E>    тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> like(@NonNull String fields, @NonNull Param<? extends CharSequence> param) {
+        return like(FieldPath.of(fields), param, LikeMatchMode.BOTH, null);
+    }
+
+    /**
+     * Условие {@link Like} со слотом.
+     *
+     * @param fields        имена полей через точку
+     * @param param         слот
+     * @param likeMatchMode режим шаблона
+     * @param caseSettings  способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param <E>           тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> like(@NonNull String fields, @NonNull Param<? extends CharSequence> param,
+                                            @NonNull LikeMatchMode likeMatchMode, CaseSettings caseSettings) {
+        return like(FieldPath.of(fields), param, likeMatchMode, caseSettings);
+    }
+
+    /**
+     * Условие {@link Like} ({@link LikeMatchMode#BOTH}) со слотом.
+     *
+     * @param fieldPath путь к полю
+     * @param param     слот
+     * @param <E>       тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> like(@NonNull FieldPath<? super E> fieldPath,
+                                            @NonNull Param<? extends CharSequence> param) {
+        return like(fieldPath, param, LikeMatchMode.BOTH, null);
+    }
+
+    /**
+     * Условие {@link Like} со слотом.
+     *
+     * @param fieldPath     путь к полю
+     * @param param         слот
+     * @param likeMatchMode режим шаблона
+     * @param caseSettings  способ сравнения без учёта регистра; {@code null} - регистр учитывается
+     * @param <E>           тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> like(@NonNull FieldPath<? super E> fieldPath,
+                                            @NonNull Param<? extends CharSequence> param,
+                                            @NonNull LikeMatchMode likeMatchMode, CaseSettings caseSettings) {
+        return new Like<>(fieldPath, slot(param), likeMatchMode, caseSettings);
+    }
+
+    /**
+     * Условие {@link GreaterThanOrEqualTo} со слотом.
+     *
+     * @param fields имена полей через точку
+     * @param param  слот
+     * @param <E>    тип сущности
+     * @param <C>    тип значения
+     * @return спецификация для шаблона
+     */
+    public static <E, C extends Comparable<? super C>> Specification<E> gte(@NonNull String fields,
+                                                                            @NonNull Param<C> param) {
+        return gte(FieldPath.of(fields), param);
+    }
+
+    /**
+     * Условие {@link GreaterThanOrEqualTo} со слотом.
+     *
+     * @param fieldPath путь к полю
+     * @param param     слот
+     * @param <E>       тип сущности
+     * @param <C>       тип значения
+     * @return спецификация для шаблона
+     */
+    public static <E, C extends Comparable<? super C>> Specification<E> gte(@NonNull FieldPath<? super E> fieldPath,
+                                                                            @NonNull Param<C> param) {
+        return new GreaterThanOrEqualTo(fieldPath, slot(param));
+    }
+
+    /**
+     * Условие {@link LessThanOrEqualTo} со слотом.
+     *
+     * @param fields имена полей через точку
+     * @param param  слот
+     * @param <E>    тип сущности
+     * @param <C>    тип значения
+     * @return спецификация для шаблона
+     */
+    public static <E, C extends Comparable<? super C>> Specification<E> lte(@NonNull String fields,
+                                                                            @NonNull Param<C> param) {
+        return lte(FieldPath.of(fields), param);
+    }
+
+    /**
+     * Условие {@link LessThanOrEqualTo} со слотом.
+     *
+     * @param fieldPath путь к полю
+     * @param param     слот
+     * @param <E>       тип сущности
+     * @param <C>       тип значения
+     * @return спецификация для шаблона
+     */
+    public static <E, C extends Comparable<? super C>> Specification<E> lte(@NonNull FieldPath<? super E> fieldPath,
+                                                                            @NonNull Param<C> param) {
+        return new LessThanOrEqualTo(fieldPath, slot(param));
+    }
+
+    /**
+     * Условие {@link Between} со слотами границ.
+     *
+     * @param fields имена полей через точку
+     * @param from   слот нижней границы
+     * @param to     слот верхней границы
+     * @param <E>    тип сущности
+     * @param <C>    тип значения
+     * @return спецификация для шаблона
+     */
+    public static <E, C extends Comparable<? super C>> Specification<E> between(@NonNull String fields,
+                                                                                @NonNull Param<C> from,
+                                                                                @NonNull Param<C> to) {
+        return between(FieldPath.of(fields), from, to);
+    }
+
+    /**
+     * Условие {@link Between} со слотами границ.
+     *
+     * @param fieldPath путь к полю
+     * @param from      слот нижней границы
+     * @param to        слот верхней границы
+     * @param <E>       тип сущности
+     * @param <C>       тип значения
+     * @return спецификация для шаблона
+     */
+    public static <E, C extends Comparable<? super C>> Specification<E> between(
+            @NonNull FieldPath<? super E> fieldPath, @NonNull Param<C> from, @NonNull Param<C> to) {
+        return new Between(fieldPath, List.of(slot(from), slot(to)));
+    }
+
+    /**
+     * Условие {@link In} со слотом: значение слота - непустая коллекция элементов типа слота.
+     *
+     * @param fields имена полей через точку
+     * @param param  слот; тип слота - тип элементов коллекции
+     * @param <E>    тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> in(@NonNull String fields, @NonNull Param<?> param) {
+        return in(FieldPath.of(fields), param, InSettings.DEFAULT);
+    }
+
+    /**
+     * Условие {@link In} со слотом: значение слота - непустая коллекция элементов типа слота.
+     *
+     * @param fieldPath путь к полю
+     * @param param     слот; тип слота - тип элементов коллекции
+     * @param settings  настройки построения IN для Criteria API
+     * @param <E>       тип сущности
+     * @return спецификация для шаблона
+     */
+    public static <E> Specification<E> in(@NonNull FieldPath<? super E> fieldPath, @NonNull Param<?> param,
+                                          @NonNull InSettings settings) {
+        return new In<>(fieldPath, List.of(new Slot<>(param, true)), settings);
+    }
+
+    /**
+     * Связывает шаблон со значениями слотов.
+     *
+     * @param values значения в порядке первого появления слотов в дереве (см. {@link #getParams()});
+     *               массив не копируется
+     * @return спецификация со значениями
+     * @throws IllegalArgumentException если число значений не совпадает с числом слотов, значение {@code null}
+     *                                  или не соответствует типу слота, коллекция слота {@link #in} пуста
+     */
+    public BoundSpecification<E> bind(@NonNull Object... values) {
+        if (values.length != params.size()) {
+            throw new IllegalArgumentException("expected " + params.size() + " values for " + params
+                    + ", got " + values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            Param<?> param = params.get(i);
+            boolean valid = collections[i]
+                    ? values[i] instanceof Collection<?> collection && !collection.isEmpty()
+                    && collection.stream().allMatch(param.getType()::isInstance)
+                    : param.getType().isInstance(values[i]);
+            if (!valid) {
+                throw new IllegalArgumentException("value " + values[i] + " is not a "
+                        + (collections[i] ? "non-empty collection of " : "") + param.getType().getName()
+                        + " for " + param);
+            }
+        }
+        return new BoundSpecification<>(this, values);
+    }
+
+    /**
+     * Связывает шаблон со значениями слотов по именам.
+     *
+     * @param values значения по именам слотов
+     * @return спецификация со значениями
+     * @throws IllegalArgumentException если значение слота не задано, {@code null} или не соответствует типу
+     */
+    public BoundSpecification<E> bind(@NonNull Map<String, ?> values) {
+        Object[] array = new Object[params.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(params.get(i).getName());
+        }
+        return bind(array);
+    }
+
+    /**
+     * @return класс сущности
+     */
+    public Class<E> getDomainClass() {
+        return domainClass;
+    }
+
+    /**
+     * @return замороженное дерево со слотами
+     */
+    public Specification<E> getSpecification() {
+        return specification;
+    }
+
+    /**
+     * @return слоты в порядке первого появления в дереве
+     */
+    public List<Param<?>> getParams() {
+        return params;
+    }
+
+    /**
+     * Компилирует шаблон (один раз для метамодели) и подставляет значения в параметры.
+     *
+     * @param compiler компилятор
+     * @param values   значения слотов
+     * @return запрос со значениями или пустой {@link Optional}, если шаблон нельзя скомпилировать
+     */
+    Optional<CompiledQuery> compile(HqlCompiler compiler, Object[] values) {
+        Compiled current = compiled;
+        if (current == null || current.metamodel != compiler.getMetamodel()) {
+            current = new Compiled(compiler.getMetamodel(), compiler.compile(domainClass, specification).orElse(null),
+                    indexes);
+            compiled = current;
+        }
+
+        if (current.query == null) {
+            return Optional.empty();
+        }
+
+        List<Object> parameters = current.query.getParameters();
+        Object[] resolved = new Object[parameters.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            resolved[i] = current.slots[i] < 0
+                    ? parameters.get(i)
+                    : ((ParameterSlot) parameters.get(i)).resolve(values[current.slots[i]]);
+        }
+        return Optional.of(new CompiledQuery(current.query.getFrom(), current.query.getWhere(), Arrays.asList(resolved)));
+    }
+
+    /**
+     * Строит дерево, в котором слоты заменены значениями.
+     *
+     * @param values значения слотов
+     * @return спецификация для Criteria API
+     */
+    Specification<E> materialize(Object[] values) {
+        return substitute(specification, values);
+    }
+
+    private Specification substitute(Specification specification, Object[] values) {
+        Class<?> type = specification == null ? null : specification.getClass();
+        if (type == And.class) {
+            return new And(substituteAll(((And) specification).getSpecifications(), values));
+        } else if (type == Or.class) {
+            return new Or(substituteAll(((Or) specification).getSpecifications(), values));
+        } else if (type == Not.class) {
+            Not not = (Not) specification;
+            return new Not(not.getMode(), substituteAll(not.getSpecifications(), values));
+        } else if (type == Equal.class || type == NotEqual.class) {
+            BaseComparisonSpecification comparison = (BaseComparisonSpecification) specification;
+            Object value = value(comparison.getValue(), values);
+            return type == Equal.class
+                    ? new Equal(comparison.getFieldPath(), value, comparison.getNullHandling(), comparison.getCaseSettings())
+                    : new NotEqual(comparison.getFieldPath(), value, comparison.getNullHandling(), comparison.getCaseSettings());
+        } else if (type == Like.class) {
+            Like like = (Like) specification;
+            return new Like(like.getFieldPath(), value(like.getValue(), values), like.getLikeMatchMode(),
+                    like.getCaseSettings());
+        } else if (type == GreaterThanOrEqualTo.class) {
+            GreaterThanOrEqualTo gte = (GreaterThanOrEqualTo) specification;
+            return new GreaterThanOrEqualTo(gte.getFieldPath(), (Comparable) value(gte.getValue(), values));
+        } else if (type == LessThanOrEqualTo.class) {
+            LessThanOrEqualTo lte = (LessThanOrEqualTo) specification;
+            return new LessThanOrEqualTo(lte.getFieldPath(), (Comparable) value(lte.getValue(), values));
+        } else if (type == Between.class) {
+            Between between = (Between) specification;
+            return new Between(between.getFieldPath(), valuesOf(between.getValues(), values));
+        } else if (type == In.class) {
+            In in = (In) specification;
+            Collection<?> collection = in.getValues();
+            return new In(in.getFieldPath(), isSlot(collection) ? (Collection) value(collection.iterator().next(), values)
+                    : collection, in.getSettings());
+        } else if (type == Exists.class) {
+            Exists exists = (Exists) specification;
+            return new Exists(exists.getFieldPath(), substituteAll(exists.getSpecifications(), values));
+        }
+        return specification;
+    }
+
+    private List<Specification> substituteAll(List<Specification> specifications, Object[] values) {
+        List<Specification> result = new ArrayList<>(specifications.size());
+        for (Specification specification : specifications) {
+            result.add(substitute(specification, values));
+        }
+        return result;
+    }
+
+    private List<Object> valuesOf(Collection<?> collection, Object[] values) {
+        if (collection == null) {
+            return null;
+        }
+
+        List<Object> result = new ArrayList<>(collection.size());
+        for (Object value : collection) {
+            result.add(value(value, values));
+        }
+        return result;
+    }
+
+    private Object value(Object value, Object[] values) {
+        return value instanceof Slot<?> slot ? values[indexes.get(slot.getParam().getName())] : value;
+    }
+
+    private static <T> Slot<T> slot(Param<T> param) {
+        return new Slot<>(Objects.requireNonNull(param), false);
+    }
+
+    private static boolean isSlot(Collection<?> values) {
+        return values != null && values.size() == 1 && values.iterator().next() instanceof Slot<?> slot
+                && slot.isCollection();
+    }
+
+    private static void collect(Specification<?> specification, Map<String, Slot<?>> found) {
+        if (specification instanceof BaseCompositeSpecification<?> composite) {
+            composite.getSpecifications().forEach(child -> collect(child, found));
+        } else if (specification instanceof Exists<?, ?> exists) {
+            exists.getSpecifications().forEach(child -> collect(child, found));
+        } else if (specification instanceof BaseComparisonSpecification<?> comparison) {
+            add(comparison.getValue(), found);
+        } else if (specification instanceof Like<?> like) {
+            add(like.getValue(), found);
+        } else if (specification instanceof GreaterThanOrEqualTo<?, ?> gte) {
+            add(gte.getValue(), found);
+        } else if (specification instanceof LessThanOrEqualTo<?, ?> lte) {
+            add(lte.getValue(), found);
+        } else if (specification instanceof Between<?, ?> between && between.getValues() != null) {
+            between.getValues().forEach(value -> add(value, found));
+        } else if (specification instanceof In<?, ?> in && in.getValues() != null) {
+            in.getValues().forEach(value -> add(value, found));
+        }
+    }
+
+    private static void add(Object value, Map<String, Slot<?>> found) {
+        if (value instanceof Param<?> param) {
+            throw new IllegalArgumentException("param " + param + " must be declared through a SpecificationTemplate"
+                    + " factory (equal, like, gte, in, ...)");
+        }
+
+        if (value instanceof Slot<?> slot) {
+            Param<?> param = slot.getParam();
+            Slot<?> existing = found.putIfAbsent(param.getName(), slot);
+            if (existing != null && (existing.getParam().getType() != param.getType()
+                    || existing.isCollection() != slot.isCollection())) {
+                throw new IllegalArgumentException("param " + param + " is declared as "
+                        + describe(existing) + " and " + describe(slot));
+            }
+        }
+    }
+
+    private static String describe(Slot<?> slot) {
+        return (slot.isCollection() ? "collection of " : "") + slot.getParam().getType().getName();
+    }
+
+    /**
+     * Скомпилированный шаблон: для каждого параметра запроса - номер слота или -1 для константы.
+     */
+    private static final class Compiled {
+
+        private final Metamodel metamodel;
+        private final CompiledQuery query;
+        private final int[] slots;
+
+        private Compiled(Metamodel metamodel, CompiledQuery query, Map<String, Integer> indexes) {
+            this.metamodel = metamodel;
+            this.query = query;
+            this.slots = new int[query == null ? 0 : query.getParameters().size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = query.getParameters().get(i) instanceof ParameterSlot slot
+                        ? indexes.get(slot.getParam().getName())
+                        : -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.ManagedType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
+import jakarta.persistence.metamodel.Type;
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+
+/**
+ * Навигация по ассоциациям метамодели: атрибуты пути, их целевые типы и обратная сторона связи.
+ */
+public final class Associations {
+
+    private Associations() {
+    }
+
+    /**
+     * Находит атрибуты пути, начиная с типа {@code type}.
+     *
+     * @param type      тип, от которого начинается путь
+     * @param fieldPath путь; если он создан из атрибутов, они используются без поиска по имени
+     * @return атрибуты пути по порядку
+     * @throws IllegalArgumentException если атрибут не найден или промежуточный атрибут не является ассоциацией
+     */
+    public static Attribute<?, ?>[] resolve(@NonNull ManagedType<?> type, @NonNull FieldPath<?> fieldPath) {
+        Attribute<?, ?>[] attributes = new Attribute<?, ?>[fieldPath.size()];
+        ManagedType<?> current = type;
+
+        for (int i = 0; i < attributes.length; i++) {
+            Attribute<?, ?> attribute = fieldPath.getAttribute(i);
+            attributes[i] = attribute != null ? attribute : current.getAttribute(fieldPath.name(i));
+            if (i < attributes.length - 1) {
+                current = target(attributes[i]);
+            }
+        }
+
+        return attributes;
+    }
+
+    /**
+     * Возвращает тип, на который указывает ассоциация: тип элемента коллекции или связанной сущности.
+     *
+     * @param attribute атрибут
+     * @return управляемый тип (сущность или встроенный объект)
+     * @throws IllegalArgumentException если атрибут указывает на базовый тип
+     */
+    public static ManagedType<?> target(@NonNull Attribute<?, ?> attribute) {
+        Type<?> type = attribute instanceof PluralAttribute<?, ?, ?> plural
+                ? plural.getElementType()
+                : ((SingularAttribute<?, ?>) attribute).getType();
+
+        if (type instanceof ManagedType<?> managedType) {
+            return managedType;
+        }
+
+        throw new IllegalArgumentException("Attribute " + attribute.getName() + " is not an association");
+    }
+
+    /**
+     * Возвращает имя атрибута на стороне связанной сущности, который ссылается обратно на владельца коллекции:
+     * для {@code @OneToMany(mappedBy = "author") List<Post> posts} - {@code author}.
+     *
+     * @param attribute атрибут ассоциации
+     * @return имя однозначного обратного атрибута или {@code null}, если связь однонаправленная
+     * или обратная сторона - коллекция ({@code @ManyToMany})
+     */
+    public static String mappedBy(@NonNull Attribute<?, ?> attribute) {
+        Member member = attribute.getJavaMember();
+        if (!(member instanceof AnnotatedElement element)) {
+            return null;
+        }
+
+        OneToMany oneToMany = element.getAnnotation(OneToMany.class);
+        if (oneToMany != null) {
+            return oneToMany.mappedBy().isEmpty() ? null : oneToMany.mappedBy();
+        }
+
+        OneToOne oneToOne = element.getAnnotation(OneToOne.class);
+        return oneToOne == null || oneToOne.mappedBy().isEmpty() ? null : oneToOne.mappedBy();
+    }
+}
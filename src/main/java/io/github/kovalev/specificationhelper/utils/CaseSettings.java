@@ -0,0 +1,71 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import io.github.kovalev.specificationhelper.enums.CaseStrategy;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Неизменяемые настройки сравнения строк без учёта регистра (см. {@link IgnoreCaseClause}).
+ *
+ * <p>Задаются при создании спецификации, поэтому способ сравнения выбирается один раз, а не при построении
+ * каждого запроса:</p>
+ * <pre>{@code
+ * new Equal<>("email", email, CaseSettings.CASE_INSENSITIVE_COLUMN);       // email citext
+ * new Like<>("title", text, CaseSettings.ILIKE);
+ * new Equal<>("username", name, CaseSettings.shadowColumn("usernameLower"));
+ * }</pre>
+ *
+ * <ul>
+ *     <li>{@code strategy} - способ сравнения, по умолчанию {@link CaseStrategy#LOWER};</li>
+ *     <li>{@code shadowField} - для {@link CaseStrategy#SHADOW_COLUMN}: имя атрибута той же сущности,
+ *     что и сравниваемое поле, в котором хранится значение в нижнем регистре.</li>
+ * </ul>
+ */
+@Getter
+@EqualsAndHashCode
+public final class CaseSettings {
+
+    /**
+     * {@code lower(col) = lower(?)}.
+     */
+    public static final CaseSettings LOWER = new CaseSettings(CaseStrategy.LOWER, null);
+
+    /**
+     * {@code col ilike ?}.
+     */
+    public static final CaseSettings ILIKE = new CaseSettings(CaseStrategy.ILIKE, null);
+
+    /**
+     * {@code col = ?} для колонок, которые сравниваются без учёта регистра.
+     */
+    public static final CaseSettings CASE_INSENSITIVE_COLUMN = new CaseSettings(CaseStrategy.CASE_INSENSITIVE_COLUMN, null);
+
+    /**
+     * Настройки по умолчанию ({@code ignoreCase = true} без явных настроек): {@link #LOWER}.
+     */
+    public static final CaseSettings DEFAULT = LOWER;
+
+    private final CaseStrategy strategy;
+    private final String shadowField;
+
+    private CaseSettings(CaseStrategy strategy, String shadowField) {
+        this.strategy = strategy;
+        this.shadowField = shadowField;
+    }
+
+    /**
+     * Сравнение с колонкой, в которой хранится значение в нижнем регистре.
+     *
+     * @param shadowField имя атрибута той же сущности, что и сравниваемое поле
+     * @return настройки {@link CaseStrategy#SHADOW_COLUMN}
+     */
+    public static CaseSettings shadowColumn(@NonNull String shadowField) {
+        if (Objects.requireNonNull(shadowField).isBlank() || shadowField.contains(".")) {
+            throw new IllegalArgumentException("shadowField must be an attribute name: " + shadowField);
+        }
+        return new CaseSettings(CaseStrategy.SHADOW_COLUMN, shadowField);
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * Полуинтервал {@code [начало дня, начало следующего дня)} для сравнения {@link LocalDate}
+ * с колонкой, хранящей дату и время.
+ *
+ * <p>Вместо {@code DATE(col) = :date}, которое не может использовать B-tree индекс по {@code col},
+ * строятся условия вида {@code col >= :start AND col < :end}:</p>
+ * <ul>
+ *     <li>{@code =} &rarr; {@code col >= start(d) AND col < start(d + 1)}</li>
+ *     <li>{@code <>} &rarr; {@code col < start(d) OR col >= start(d + 1)}</li>
+ *     <li>{@code >=} &rarr; {@code col >= start(d)}</li>
+ *     <li>{@code <=} &rarr; {@code col < start(d + 1)}</li>
+ * </ul>
+ *
+ * <p>Переписывание применяется только к атрибутам, которые по метамодели хранят локальные дату и время
+ * ({@link LocalDateTime}, {@link Date}, {@link Timestamp}): для них результат совпадает с {@code DATE(col)}.
+ * Типы с часовым поясом ({@code Instant}, {@code OffsetDateTime}, {@code ZonedDateTime}) не переписываются,
+ * так как {@code DATE(col)} для них зависит от часового пояса сессии БД.</p>
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DayRange {
+
+    private static final Set<Class<?>> LOCAL_DATE_TIME_TYPES = Set.of(LocalDateTime.class, Date.class, Timestamp.class);
+
+    private final Expression path;
+    private final Comparable start;
+    private final Comparable end;
+
+    /**
+     * Конструктор.
+     *
+     * @param path путь к атрибуту с датой и временем
+     * @param date дата
+     */
+    public DayRange(Expression<?> path, LocalDate date) {
+        this.path = path;
+        this.start = startOf(path.getJavaType(), date);
+        this.end = startOf(path.getJavaType(), date.plusDays(1));
+    }
+
+    /**
+     * Проверяет, можно ли заменить сравнение даты на полуинтервал.
+     *
+     * @param path  путь к атрибуту
+     * @param value значение для сравнения
+     * @return {@code true}, если значение - {@link LocalDate}, а атрибут хранит локальные дату и время
+     */
+    public static boolean supports(Expression<?> path, Object value) {
+        return supports(path.getJavaType(), value);
+    }
+
+    /**
+     * Проверяет, можно ли заменить сравнение даты на полуинтервал.
+     *
+     * @param javaType тип атрибута
+     * @param value    значение для сравнения
+     * @return {@code true}, если значение - {@link LocalDate}, а атрибут хранит локальные дату и время
+     */
+    public static boolean supports(Class<?> javaType, Object value) {
+        return value instanceof LocalDate && LOCAL_DATE_TIME_TYPES.contains(javaType);
+    }
+
+    /**
+     * Возвращает начало дня в типе атрибута.
+     *
+     * <p>{@link Timestamp#valueOf(LocalDateTime)} интерпретирует дату в часовом поясе JVM - так же, как JDBC
+     * сохраняет {@link Date}/{@link Timestamp} в колонку TIMESTAMP, поэтому границы совпадают с {@code DATE(col)}.</p>
+     *
+     * @param javaType тип атрибута ({@link LocalDateTime}, {@link Date} или {@link Timestamp})
+     * @param date     дата
+     * @return {@link LocalDateTime} для атрибута {@link LocalDateTime}, иначе {@link Timestamp}
+     */
+    public static Comparable<?> startOf(Class<?> javaType, LocalDate date) {
+        LocalDateTime startOfDay = date.atStartOfDay();
+        return javaType == LocalDateTime.class ? startOfDay : Timestamp.valueOf(startOfDay);
+    }
+
+    /**
+     * @param cb {@link CriteriaBuilder}
+     * @return {@code col >= start(d)}
+     */
+    public Predicate from(CriteriaBuilder cb) {
+        return cb.greaterThanOrEqualTo(path, start);
+    }
+
+    /**
+     * @param cb {@link CriteriaBuilder}
+     * @return {@code col < start(d + 1)}
+     */
+    public Predicate to(CriteriaBuilder cb) {
+        return cb.lessThan(path, end);
+    }
+
+    /**
+     * @param cb {@link CriteriaBuilder}
+     * @return {@code col >= start(d) AND col < start(d + 1)}
+     */
+    public Predicate within(CriteriaBuilder cb) {
+        return cb.and(from(cb), to(cb));
+    }
+
+    /**
+     * @param cb {@link CriteriaBuilder}
+     * @return {@code col < start(d) OR col >= start(d + 1)}
+     */
+    public Predicate outside(CriteriaBuilder cb) {
+        return cb.or(cb.lessThan(path, start), cb.greaterThanOrEqualTo(path, end));
+    }
+}
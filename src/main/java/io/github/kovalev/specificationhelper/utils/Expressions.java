@@ -8,8 +8,20 @@ import java.util.Objects;
 
 public final class Expressions {
 
+    /**
+     * Возвращает выражение для сравнения атрибута со значением.
+     *
+     * <p>Для {@link LocalDate} колонка оборачивается в {@code DATE(...)}, если только атрибут
+     * сам не является {@link LocalDate} (нативная колонка DATE, функция не нужна). Для колонок с датой
+     * и временем предпочтительнее полуинтервал {@link DayRange}, который не мешает использованию индекса.</p>
+     *
+     * @param cb    {@link CriteriaBuilder}
+     * @param path  путь к атрибуту
+     * @param value значение для сравнения
+     * @return выражение для сравнения
+     */
     public Expression<?> get(CriteriaBuilder cb, Expression<?> path, Object value) {
-        if (Objects.requireNonNull(value) instanceof LocalDate) {
+        if (Objects.requireNonNull(value) instanceof LocalDate && path.getJavaType() != LocalDate.class) {
             return cb.function("DATE", LocalDate.class, path);
         }
 
@@ -17,6 +29,6 @@ public final class Expressions {
     }
 
     public Expression<String> toLower(CriteriaBuilder cb, Expression<?> path) {
-        return cb.lower(path.as(String.class));
+        return cb.lower(IgnoreCaseClause.asString(path));
     }
 }
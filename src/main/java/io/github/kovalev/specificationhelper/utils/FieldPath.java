@@ -0,0 +1,210 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.springframework.lang.NonNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Неизменяемый путь к полю сущности, разобранный один раз.
+ *
+ * <p>Создаётся из строки через точку ({@code "posts.title"}) или из цепочки атрибутов статической метамодели:</p>
+ * <pre>{@code
+ * FieldPath<User> title = FieldPath.of(User_.posts, Post_.title);
+ * new Equal<>(title, "Hello");
+ * }</pre>
+ *
+ * <ul>
+ *     <li>Путь из атрибутов проверяется при создании: каждый следующий атрибут должен принадлежать типу,
+ *     на который указывает предыдущий. Ошибка в пути обнаруживается сразу, а не при выполнении запроса.</li>
+ *     <li>{@link PathCalculator} переходит по такому пути через атрибуты, без поиска по имени.</li>
+ *     <li>Пути из строк кешируются, повторный {@link #of(String)} не разбирает строку заново.</li>
+ * </ul>
+ *
+ * <p>Атрибуты метамодели заполняются при создании {@code EntityManagerFactory}, поэтому пути из атрибутов
+ * следует создавать после запуска контекста.</p>
+ *
+ * @param <E> тип сущности, от которой начинается путь
+ */
+public final class FieldPath<E> {
+
+    private static final int CACHE_LIMIT = 1024;
+    private static final Map<String, FieldPath<?>> CACHE = new ConcurrentHashMap<>();
+
+    private final List<String> names;
+    private final Attribute<?, ?>[] attributes;
+
+    private FieldPath(String[] names, Attribute<?, ?>[] attributes) {
+        this.names = List.of(names);
+        this.attributes = attributes;
+    }
+
+    /**
+     * Создаёт путь из строки через точку.
+     *
+     * @param fields имена полей через точку; не может быть {@code null} или пустой строкой
+     * @param <E>    тип сущности
+     * @return путь
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> FieldPath<E> of(@NonNull String fields) {
+        FieldPath<?> path = fields == null ? null : CACHE.get(fields);
+        if (path == null) {
+            path = new FieldPath<>(new FieldsParser().parse(fields), null);
+            if (CACHE.size() < CACHE_LIMIT) {
+                CACHE.putIfAbsent(fields, path);
+            }
+        }
+        return (FieldPath<E>) path;
+    }
+
+    /**
+     * Создаёт путь из цепочки атрибутов метамодели.
+     *
+     * @param first первый атрибут, объявленный в сущности {@code E}
+     * @param next  атрибуты связанных сущностей или встроенных объектов
+     * @param <E>   тип сущности
+     * @return путь
+     * @throws IllegalArgumentException если атрибут {@code null} (метамодель ещё не заполнена)
+     *                                  или не принадлежит типу предыдущего атрибута
+     */
+    public static <E> FieldPath<E> of(@NonNull Attribute<E, ?> first, @NonNull Attribute<?, ?>... next) {
+        Attribute<?, ?>[] attributes = new Attribute<?, ?>[next.length + 1];
+        attributes[0] = requireAttribute(first, 0);
+        for (int i = 0; i < next.length; i++) {
+            attributes[i + 1] = requireAttribute(next[i], i + 1);
+            checkChain(attributes[i], attributes[i + 1]);
+        }
+
+        String[] names = new String[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            names[i] = attributes[i].getName();
+        }
+        return new FieldPath<>(names, attributes);
+    }
+
+    /**
+     * Продолжает путь из атрибутов следующим атрибутом.
+     *
+     * @param attribute атрибут типа, на который указывает путь
+     * @return новый путь
+     * @throws IllegalStateException    если путь создан из строки
+     * @throws IllegalArgumentException если атрибут не принадлежит типу последнего атрибута пути
+     */
+    public FieldPath<E> then(@NonNull Attribute<?, ?> attribute) {
+        if (attributes == null) {
+            throw new IllegalStateException("path " + this + " is not built from metamodel attributes");
+        }
+
+        Attribute<?, ?>[] extended = Arrays.copyOf(attributes, attributes.length + 1);
+        extended[attributes.length] = requireAttribute(attribute, attributes.length);
+        checkChain(attributes[attributes.length - 1], attribute);
+
+        String[] extendedNames = names.toArray(new String[names.size() + 1]);
+        extendedNames[names.size()] = attribute.getName();
+        return new FieldPath<>(extendedNames, extended);
+    }
+
+    /**
+     * Возвращает часть пути, как {@link java.util.List#subList(int, int)}.
+     *
+     * <p>Например, для {@code posts.comments.text}: {@code subPath(0, 1)} - {@code posts},
+     * {@code subPath(1, 3)} - {@code comments.text} (путь от сущности {@code Post}).</p>
+     *
+     * @param from индекс первого поля (включительно)
+     * @param to   индекс последнего поля (не включительно)
+     * @param <X>  тип сущности, от которой начинается часть пути
+     * @return часть пути; атрибуты сохраняются, если путь создан из них
+     * @throws IllegalArgumentException если часть пути пустая или выходит за границы пути
+     */
+    @SuppressWarnings("unchecked")
+    public <X> FieldPath<X> subPath(int from, int to) {
+        if (from < 0 || to > names.size() || from >= to) {
+            throw new IllegalArgumentException("invalid sub path [" + from + ", " + to + ") of " + this);
+        }
+
+        if (from == 0 && to == names.size()) {
+            return (FieldPath<X>) this;
+        }
+
+        return new FieldPath<>(names.subList(from, to).toArray(String[]::new),
+                attributes == null ? null : Arrays.copyOfRange(attributes, from, to));
+    }
+
+    /**
+     * Путь может быть общим для многих спецификаций (пути из строк кешируются), поэтому список неизменяемый.
+     *
+     * @return имена полей пути
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @param index номер поля в пути
+     * @return имя поля
+     */
+    public String name(int index) {
+        return names.get(index);
+    }
+
+    /**
+     * @param index номер поля в пути
+     * @return атрибут метамодели или {@code null}, если путь создан из строки
+     */
+    public Attribute<?, ?> getAttribute(int index) {
+        return attributes == null ? null : attributes[index];
+    }
+
+    /**
+     * @return {@code true}, если путь создан из атрибутов метамодели
+     */
+    public boolean isResolved() {
+        return attributes != null;
+    }
+
+    /**
+     * @return число полей в пути
+     */
+    public int size() {
+        return names.size();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof FieldPath<?> other && names.equals(other.names);
+    }
+
+    @Override
+    public int hashCode() {
+        return names.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return String.join(".", names);
+    }
+
+    private static Attribute<?, ?> requireAttribute(Attribute<?, ?> attribute, int index) {
+        if (attribute == null) {
+            throw new IllegalArgumentException("attribute " + index + " is null; is the metamodel initialized?");
+        }
+        return attribute;
+    }
+
+    private static void checkChain(Attribute<?, ?> previous, Attribute<?, ?> next) {
+        Class<?> target = previous instanceof PluralAttribute<?, ?, ?> plural
+                ? plural.getElementType().getJavaType()
+                : previous.getJavaType();
+
+        if (!next.getDeclaringType().getJavaType().isAssignableFrom(target)) {
+            throw new IllegalArgumentException("attribute " + next.getName() + " of "
+                    + next.getDeclaringType().getJavaType().getName() + " does not belong to "
+                    + target.getName() + " (" + previous.getName() + ")");
+        }
+    }
+}
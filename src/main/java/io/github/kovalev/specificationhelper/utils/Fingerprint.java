@@ -0,0 +1,113 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Построитель 64-битного отпечатка (FNV-1a с финальным перемешиванием MurmurHash3 {@code fmix64}).
+ *
+ * <p>Результат зависит только от последовательности добавленных значений, а не от адресов объектов
+ * или {@code hashCode()}, поэтому одинаков в разных запусках JVM. Строки добавляются вместе с длиной,
+ * так что {@code add("ab").add("c")} и {@code add("a").add("bc")} различаются.</p>
+ */
+public final class Fingerprint {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private long hash = OFFSET_BASIS;
+
+    /**
+     * @param value значение; {@code null} отличается от пустой строки
+     * @return этот же построитель
+     */
+    public Fingerprint add(String value) {
+        if (value == null) {
+            return add(-1L);
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        add(bytes.length);
+        for (byte b : bytes) {
+            mix(b & 0xff);
+        }
+        return this;
+    }
+
+    /**
+     * @param value значение
+     * @return этот же построитель
+     */
+    public Fingerprint add(long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            mix((int) (value >>> (i * Byte.SIZE)) & 0xff);
+        }
+        return this;
+    }
+
+    /**
+     * @param value значение
+     * @return этот же построитель
+     */
+    public Fingerprint add(boolean value) {
+        mix(value ? 1 : 0);
+        return this;
+    }
+
+    /**
+     * @param value значение; добавляется имя константы
+     * @return этот же построитель
+     */
+    public Fingerprint add(Enum<?> value) {
+        return add(value == null ? null : value.name());
+    }
+
+    /**
+     * @param type тип; добавляется полное имя класса
+     * @return этот же построитель
+     */
+    public Fingerprint add(Class<?> type) {
+        return add(type == null ? null : type.getName());
+    }
+
+    /**
+     * @param values значения
+     * @return этот же построитель
+     */
+    public Fingerprint add(String... values) {
+        add(values.length);
+        for (String value : values) {
+            add(value);
+        }
+        return this;
+    }
+
+    /**
+     * @param values значения; отпечаток тот же, что у {@link #add(String...)} с теми же значениями
+     * @return этот же построитель
+     */
+    public Fingerprint add(List<String> values) {
+        add(values.size());
+        for (String value : values) {
+            add(value);
+        }
+        return this;
+    }
+
+    /**
+     * @return отпечаток
+     */
+    public long get() {
+        long h = hash;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private void mix(int b) {
+        hash = (hash ^ b) * PRIME;
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+/**
+ * Построение сравнений строк без учёта регистра по {@link CaseSettings}.
+ *
+ * <p>{@code lower(cast(col as string))} не может использовать обычный индекс по {@code col} и вычисляется
+ * для каждой строки. Поэтому способ сравнения задаётся явно:</p>
+ * <ul>
+ *     <li>{@code LOWER} - {@code lower(col) = ?}, значение приводится к нижнему регистру в Java;
+ *     для строковых атрибутов {@code cast} не добавляется, и условие совпадает с индексом по {@code lower(col)};</li>
+ *     <li>{@code ILIKE} - {@code col ilike ?}; для равенства спецификаторы шаблона в значении экранируются.
+ *     Если {@link CriteriaBuilder} не от Hibernate, используется {@code LOWER};</li>
+ *     <li>{@code CASE_INSENSITIVE_COLUMN} - {@code col = ?} без функций, значение не изменяется;</li>
+ *     <li>{@code SHADOW_COLUMN} - {@code shadow = ?} со значением в нижнем регистре.</li>
+ * </ul>
+ */
+@RequiredArgsConstructor
+public class IgnoreCaseClause {
+
+    private static final char ESCAPE = LikePattern.ESCAPE;
+
+    private final CaseSettings settings;
+
+    /**
+     * Строит {@code =} или {@code <>} без учёта регистра.
+     *
+     * @param cb    {@link CriteriaBuilder}
+     * @param path  путь к полю
+     * @param value значение
+     * @param equal {@code true} для {@code =}, {@code false} для {@code <>}
+     * @return предикат
+     */
+    public Predicate compare(CriteriaBuilder cb, Path<?> path, String value, boolean equal) {
+        return switch (settings.getStrategy()) {
+            case LOWER -> lowerCompare(cb, path, value, equal);
+            case ILIKE -> cb instanceof HibernateCriteriaBuilder hcb
+                    ? ilike(hcb, asString(path), LikePattern.escape(value), equal)
+                    : lowerCompare(cb, path, value, equal);
+            case CASE_INSENSITIVE_COLUMN -> equal ? cb.equal(path, value) : cb.notEqual(path, value);
+            case SHADOW_COLUMN -> equal
+                    ? cb.equal(shadow(path), value.toLowerCase())
+                    : cb.notEqual(shadow(path), value.toLowerCase());
+        };
+    }
+
+    /**
+     * Строит {@code like} без учёта регистра.
+     *
+     * @param cb           {@link CriteriaBuilder}
+     * @param path         путь к полю
+     * @param expression   строковое выражение поля
+     * @param pattern      шаблон с экранированием символом {@code \}
+     * @param lowerPattern шаблон в нижнем регистре
+     * @return предикат
+     */
+    public Predicate like(CriteriaBuilder cb, Path<?> path, Expression<String> expression, String pattern,
+                          String lowerPattern) {
+        return switch (settings.getStrategy()) {
+            case LOWER -> cb.like(cb.lower(expression), lowerPattern, ESCAPE);
+            case ILIKE -> cb instanceof HibernateCriteriaBuilder hcb
+                    ? hcb.ilike(expression, pattern, ESCAPE)
+                    : cb.like(cb.lower(expression), lowerPattern, ESCAPE);
+            case CASE_INSENSITIVE_COLUMN -> cb.like(expression, pattern, ESCAPE);
+            case SHADOW_COLUMN -> cb.like(asString(shadow(path)), lowerPattern, ESCAPE);
+        };
+    }
+
+    /**
+     * Приводит выражение к строке; для строкового атрибута приведение не добавляется.
+     *
+     * @param expression выражение
+     * @return строковое выражение
+     */
+    @SuppressWarnings("unchecked")
+    public static Expression<String> asString(Expression<?> expression) {
+        return expression.getJavaType() == String.class
+                ? (Expression<String>) expression
+                : expression.as(String.class);
+    }
+
+    private static Predicate lowerCompare(CriteriaBuilder cb, Path<?> path, String value, boolean equal) {
+        Expression<String> lower = cb.lower(asString(path));
+        return equal ? cb.equal(lower, value.toLowerCase()) : cb.notEqual(lower, value.toLowerCase());
+    }
+
+    private static Predicate ilike(HibernateCriteriaBuilder cb, Expression<String> expression, String pattern,
+                                   boolean equal) {
+        return equal ? cb.ilike(expression, pattern, ESCAPE) : cb.notIlike(expression, pattern, ESCAPE);
+    }
+
+    private Path<?> shadow(Path<?> path) {
+        return path.getParentPath().get(settings.getShadowField());
+    }
+}
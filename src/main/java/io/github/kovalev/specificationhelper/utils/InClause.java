@@ -0,0 +1,238 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.hibernate.SpecificationHelperFunctionContributor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.sqm.NodeBuilder;
+import org.springframework.lang.NonNull;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Построение оператора IN с учётом размера списка значений (см. {@link InSettings}).
+ *
+ * <p>Каждый новый размер списка при передаче по одному параметру на значение - это новый текст SQL:
+ * отдельная запись в кеше планов Hibernate и отдельный prepared statement в PostgreSQL, а на десятках тысяч
+ * значений запрос упирается в лимит параметров драйвера. Поэтому:</p>
+ * <ul>
+ *     <li>небольшие списки передаются параметрами, число которых дополняется до степени двойки повтором
+ *     последнего значения - для списков до N значений получается не больше {@code log2(N) + 1} вариантов SQL;</li>
+ *     <li>списки больше порога передаются одним параметром-массивом {@code col = any(?)}
+ *     (см. {@link SpecificationHelperFunctionContributor#IN_ARRAY}) - текст SQL не зависит от размера;</li>
+ *     <li>если массив недоступен (диалект, тип атрибута или значение, которое нельзя привести к нему),
+ *     список разбивается на части
+ *     {@code col in (...) or col in (...)}, каждая из которых не превышает лимит диалекта.</li>
+ * </ul>
+ *
+ * <p>{@code null} и повторяющиеся значения отбрасываются: на результат IN они не влияют.</p>
+ */
+@RequiredArgsConstructor
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class InClause {
+
+    private static final Map<Class<?>, Class<?>> ARRAY_ELEMENT_TYPES = Map.of(
+            String.class, String.class,
+            UUID.class, UUID.class,
+            Long.class, Long.class,
+            long.class, Long.class,
+            Integer.class, Integer.class,
+            int.class, Integer.class,
+            BigDecimal.class, BigDecimal.class,
+            LocalDate.class, LocalDate.class,
+            LocalDateTime.class, LocalDateTime.class
+    );
+
+    @NonNull
+    private final InSettings settings;
+
+    /**
+     * Строит предикат IN.
+     *
+     * @param cb     {@link CriteriaBuilder}
+     * @param path   выражение атрибута
+     * @param values значения
+     * @return предикат IN; если среди значений нет ни одного не-{@code null}, ложный предикат
+     */
+    public Predicate predicate(CriteriaBuilder cb, Expression<?> path, Collection<?> values) {
+        if (settings.getStrategy() == InStrategy.PARAMETERS) {
+            return ((CriteriaBuilder.In) cb.in(path)).value(values);
+        }
+
+        List<Object> distinct = distinct(values);
+
+        if (distinct.isEmpty()) {
+            return cb.disjunction();
+        }
+
+        Object array = strategy(cb, path.getJavaType(), distinct.size()) == InStrategy.ARRAY
+                ? toArray(path.getJavaType(), distinct)
+                : null;
+        if (array != null) {
+            return cb.isTrue(cb.function(
+                    SpecificationHelperFunctionContributor.IN_ARRAY, Boolean.class,
+                    path, ((NodeBuilder) cb).value(array)
+            ));
+        }
+
+        List<Predicate> chunks = paddedChunks(cb, distinct).stream()
+                .map(chunk -> {
+                    CriteriaBuilder.In in = cb.in(path);
+                    chunk.forEach(in::value);
+                    return (Predicate) in;
+                })
+                .toList();
+
+        return chunks.size() == 1 ? chunks.get(0) : cb.or(chunks.toArray(new Predicate[0]));
+    }
+
+    /**
+     * Определяет способ передачи значений для списка заданного размера.
+     *
+     * @param cb       {@link CriteriaBuilder}
+     * @param javaType тип атрибута
+     * @param size     размер списка без {@code null} и повторов
+     * @return {@link InStrategy#ARRAY} или {@link InStrategy#PADDED_PARAMETERS}
+     */
+    public InStrategy strategy(CriteriaBuilder cb, Class<?> javaType, int size) {
+        boolean array = switch (settings.getStrategy()) {
+            case ARRAY -> true;
+            case AUTO -> size > settings.getPaddingThreshold();
+            default -> false;
+        };
+
+        return array && supportsArray(cb, javaType) ? InStrategy.ARRAY : InStrategy.PADDED_PARAMETERS;
+    }
+
+    /**
+     * Разбивает список на части не длиннее допустимого для одного {@code IN (...)}
+     * и дополняет каждую часть до степени двойки повтором её последнего значения.
+     *
+     * @param cb     {@link CriteriaBuilder}
+     * @param values значения без {@code null} и повторов
+     * @return части списка
+     */
+    public List<List<Object>> paddedChunks(CriteriaBuilder cb, List<Object> values) {
+        int chunkSize = chunkSize(cb);
+        List<List<Object>> chunks = new ArrayList<>(values.size() / chunkSize + 1);
+
+        for (int from = 0; from < values.size(); from += chunkSize) {
+            List<Object> chunk = new ArrayList<>(values.subList(from, Math.min(from + chunkSize, values.size())));
+            Object last = chunk.get(chunk.size() - 1);
+            for (int i = chunk.size(), size = paddedSize(chunk.size()); i < size; i++) {
+                chunk.add(last);
+            }
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    /**
+     * @param values значения
+     * @return значения без {@code null} и повторов в исходном порядке
+     */
+    public static List<Object> distinct(Collection<?> values) {
+        List<Object> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        distinct.removeIf(Objects::isNull);
+        return distinct;
+    }
+
+    /**
+     * Создаёт массив для передачи одним параметром. Числа приводятся к типу элементов без потери значения
+     * ({@code Integer} для атрибута {@code Long}), как это делает Hibernate для отдельных параметров.
+     *
+     * @param javaType тип атрибута
+     * @param values   значения
+     * @return массив с типом элементов, соответствующим атрибуту, или {@code null}, если значение нельзя
+     * привести к типу элементов (тогда значения передаются параметрами)
+     */
+    public static Object toArray(Class<?> javaType, List<Object> values) {
+        Class<?> elementType = ARRAY_ELEMENT_TYPES.get(javaType);
+        Object array = Array.newInstance(elementType, values.size());
+        for (int i = 0; i < values.size(); i++) {
+            Object element = convert(elementType, values.get(i));
+            if (element == null) {
+                return null;
+            }
+            Array.set(array, i, element);
+        }
+        return array;
+    }
+
+    /*
+     * Значение с типом элемента массива или null, если точное приведение невозможно.
+     */
+    private static Object convert(Class<?> elementType, Object value) {
+        if (elementType.isInstance(value)) {
+            return value;
+        }
+
+        try {
+            if (elementType == String.class) {
+                return value instanceof CharSequence str ? str.toString() : null;
+            } else if (elementType == Long.class && isIntegral(value)) {
+                return new BigDecimal(value.toString()).longValueExact();
+            } else if (elementType == Integer.class && isIntegral(value)) {
+                return new BigDecimal(value.toString()).intValueExact();
+            } else if (elementType == BigDecimal.class && value instanceof Number) {
+                return new BigDecimal(value.toString());
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger;
+    }
+
+    /**
+     * Тип элементов массива для атрибута.
+     *
+     * @param cb       {@link CriteriaBuilder}
+     * @param javaType тип атрибута
+     * @return тип элементов или {@code null}, если значения нельзя передать массивом (диалект или тип атрибута)
+     */
+    public static Class<?> arrayElementType(CriteriaBuilder cb, Class<?> javaType) {
+        return supportsArray(cb, javaType) ? ARRAY_ELEMENT_TYPES.get(javaType) : null;
+    }
+
+    private int chunkSize(CriteriaBuilder cb) {
+        int limit = cb instanceof NodeBuilder nodeBuilder
+                ? nodeBuilder.getSessionFactory().getJdbcServices().getDialect().getInExpressionCountLimit()
+                : 0;
+
+        return limit > 0 ? Math.min(settings.getChunkSize(), Integer.highestOneBit(limit)) : settings.getChunkSize();
+    }
+
+    private static boolean supportsArray(CriteriaBuilder cb, Class<?> javaType) {
+        return ARRAY_ELEMENT_TYPES.containsKey(javaType)
+                && cb instanceof NodeBuilder nodeBuilder
+                && nodeBuilder.getQueryEngine().getSqmFunctionRegistry()
+                .findFunctionDescriptor(SpecificationHelperFunctionContributor.IN_ARRAY) != null;
+    }
+
+    /**
+     * @param size размер списка
+     * @return ближайшая степень двойки, не меньшая {@code size}
+     */
+    static int paddedSize(int size) {
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+}
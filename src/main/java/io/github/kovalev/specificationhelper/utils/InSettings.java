@@ -0,0 +1,83 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Неизменяемые настройки построения оператора IN (см. {@link InClause}).
+ *
+ * <ul>
+ *     <li>{@code strategy} - способ передачи значений, по умолчанию {@link InStrategy#AUTO};</li>
+ *     <li>{@code paddingThreshold} - максимальный размер списка, который в режиме {@link InStrategy#AUTO}
+ *     передаётся параметрами с дополнением до степени двойки; списки больше порога передаются массивом;</li>
+ *     <li>{@code chunkSize} - максимальное число параметров в одном {@code IN (...)}, если массив недоступен:
+ *     длинный список разбивается на {@code col in (...) or col in (...)}. Округляется вниз до степени двойки
+ *     и дополнительно ограничивается лимитом диалекта ({@code Dialect#getInExpressionCountLimit()}).</li>
+ * </ul>
+ */
+@Getter
+@EqualsAndHashCode
+public final class InSettings {
+
+    /**
+     * Настройки по умолчанию: {@link InStrategy#AUTO}, порог 128, части по 512 параметров.
+     */
+    public static final InSettings DEFAULT = new InSettings(InStrategy.AUTO, 128, 512);
+
+    private final InStrategy strategy;
+    private final int paddingThreshold;
+    private final int chunkSize;
+
+    /**
+     * Конструктор.
+     *
+     * @param strategy         способ передачи значений
+     * @param paddingThreshold максимальный размер списка для параметров с дополнением в режиме {@link InStrategy#AUTO}
+     * @param chunkSize        максимальное число параметров в одном {@code IN (...)}; больше нуля
+     */
+    public InSettings(@NonNull InStrategy strategy, int paddingThreshold, int chunkSize) {
+        if (paddingThreshold < 0) {
+            throw new IllegalArgumentException("paddingThreshold must not be negative: " + paddingThreshold);
+        }
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.strategy = Objects.requireNonNull(strategy);
+        this.paddingThreshold = paddingThreshold;
+        this.chunkSize = Integer.highestOneBit(chunkSize);
+    }
+
+    /**
+     * Возвращает копию настроек с другим способом передачи значений.
+     *
+     * @param strategy способ передачи значений
+     * @return новые настройки
+     */
+    public InSettings withStrategy(@NonNull InStrategy strategy) {
+        return new InSettings(strategy, paddingThreshold, chunkSize);
+    }
+
+    /**
+     * Возвращает копию настроек с другим порогом для параметров с дополнением.
+     *
+     * @param paddingThreshold максимальный размер списка для параметров с дополнением
+     * @return новые настройки
+     */
+    public InSettings withPaddingThreshold(int paddingThreshold) {
+        return new InSettings(strategy, paddingThreshold, chunkSize);
+    }
+
+    /**
+     * Возвращает копию настроек с другим размером части.
+     *
+     * @param chunkSize максимальное число параметров в одном {@code IN (...)}
+     * @return новые настройки
+     */
+    public InSettings withChunkSize(int chunkSize) {
+        return new InSettings(strategy, paddingThreshold, chunkSize);
+    }
+}
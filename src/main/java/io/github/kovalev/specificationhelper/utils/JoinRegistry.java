@@ -0,0 +1,89 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Реестр JOIN, созданных при построении одного запроса.
+ *
+ * <p>Реестр открывается на время вызова {@code toPredicate} корневой спецификации
+ * (см. {@link #scoped(Supplier)}) и общий для всех вложенных спецификаций дерева.
+ * Каждый JOIN хранится по паре "родительский {@link From} + имя атрибута", что эквивалентно ключу
+ * по префиксу пути ({@code posts}, {@code posts.comments}, ...): поэтому каждая ассоциация
+ * присоединяется ровно один раз, а повторный поиск выполняется за O(1) без обхода
+ * {@code getJoins()}/{@code getFetches()}.</p>
+ *
+ * <p>Разные корни (например, запрос на выборку и запрос на подсчёт в {@code findAll(spec, pageable)},
+ * корни подзапросов) хранятся раздельно, так как ключом служит идентичность объекта {@link From}.</p>
+ */
+public final class JoinRegistry {
+
+    private static final ThreadLocal<JoinRegistry> CURRENT = new ThreadLocal<>();
+
+    private final Map<From<?, ?>, Map<String, Join<?, ?>>> joins = new IdentityHashMap<>();
+
+    private JoinRegistry() {
+    }
+
+    /**
+     * Выполняет построение предиката внутри области действия реестра.
+     *
+     * <p>Если реестр уже открыт выше по стеку (вложенная спецификация), используется он;
+     * иначе открывается новый и закрывается после завершения {@code supplier}.</p>
+     *
+     * @param supplier построение предиката
+     * @param <T>      тип результата
+     * @return результат {@code supplier}
+     */
+    public static <T> T scoped(Supplier<T> supplier) {
+        if (CURRENT.get() != null) {
+            return supplier.get();
+        }
+
+        CURRENT.set(new JoinRegistry());
+        try {
+            return supplier.get();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Возвращает реестр текущего построения запроса.
+     *
+     * @return реестр или {@code null}, если построение выполняется вне {@link #scoped(Supplier)}
+     */
+    public static JoinRegistry current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Возвращает зарегистрированный JOIN атрибута.
+     *
+     * @param from      родительский корень или JOIN
+     * @param attribute имя атрибута
+     * @param <X>       тип родительской сущности
+     * @return JOIN или {@code null}, если атрибут ещё не присоединялся
+     */
+    @SuppressWarnings("unchecked")
+    public <X> Join<X, ?> get(From<?, X> from, String attribute) {
+        Map<String, Join<?, ?>> children = joins.get(from);
+        return children != null ? (Join<X, ?>) children.get(attribute) : null;
+    }
+
+    /**
+     * Регистрирует JOIN атрибута.
+     *
+     * @param from      родительский корень или JOIN
+     * @param attribute имя атрибута
+     * @param join      JOIN атрибута
+     */
+    public void put(From<?, ?> from, String attribute, Join<?, ?> join) {
+        joins.computeIfAbsent(from, f -> new HashMap<>()).put(attribute, join);
+    }
+}
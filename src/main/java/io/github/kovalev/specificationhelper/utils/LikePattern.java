@@ -0,0 +1,64 @@
+package io.github.kovalev.specificationhelper.utils;
+
+/**
+ * Экранирование значений для {@code LIKE ... ESCAPE '\'}.
+ *
+ * <p>Значение пользователя сравнивается буквально: {@code 50%} ищет строки с {@code 50%}, а не все строки,
+ * начинающиеся с {@code 50}. Спецификаторы {@code %} и {@code _} и сам символ экранирования {@code \}
+ * экранируются, подстановочные символы режима {@code LikeMatchMode} добавляются после экранирования.</p>
+ */
+public final class LikePattern {
+
+    /**
+     * Символ экранирования, который передаётся в {@code LIKE ... ESCAPE}.
+     */
+    public static final char ESCAPE = '\\';
+
+    private LikePattern() {
+    }
+
+    /**
+     * Экранирует спецификаторы шаблона {@code %}, {@code _} и символ экранирования {@code \}.
+     *
+     * @param value значение
+     * @return значение, которое {@code like ... escape '\'} сравнивает буквально
+     */
+    public static String escape(String value) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                if (escaped == null) {
+                    escaped = new StringBuilder(value.length() + 8).append(value, 0, i);
+                }
+                escaped.append(ESCAPE);
+            }
+            if (escaped != null) {
+                escaped.append(c);
+            }
+        }
+        return escaped == null ? value : escaped.toString();
+    }
+
+    /**
+     * Возвращает строку, которой соответствует шаблон без спецификаторов.
+     *
+     * @param pattern шаблон с экранированием символом {@code \}
+     * @return шаблон без экранирования или {@code null}, если в нём есть неэкранированные {@code %} или {@code _}
+     * (шаблону соответствует больше одной строки)
+     */
+    public static String literal(String pattern) {
+        StringBuilder literal = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '%' || c == '_') {
+                return null;
+            }
+            if (c == ESCAPE && i + 1 < pattern.length()) {
+                c = pattern.charAt(++i);
+            }
+            literal.append(c);
+        }
+        return literal.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.lang.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Именованный слот значения в шаблоне спецификации (см. {@code SpecificationTemplate}).
+ *
+ * <p>Передаётся в фабрики {@code SpecificationTemplate} ({@code equal}, {@code like}, {@code gte}, {@code lte},
+ * {@code between}, {@code in}); значение подставляется при {@code SpecificationTemplate.bind(...)}. Тип слота
+ * определяет условие так же, как тип значения: строка (регистр, шаблон {@code LIKE}), {@link java.time.LocalDate}
+ * для колонки с датой и временем (полуинтервал дня). Для {@code in} это тип элементов коллекции.</p>
+ *
+ * @param <T> тип значения
+ */
+@Getter
+@EqualsAndHashCode
+public final class Param<T> {
+
+    private final String name;
+    private final Class<T> type;
+
+    private Param(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Создаёт слот.
+     *
+     * @param name имя слота; не может быть {@code null} или пустой строкой
+     * @param type тип значения; не может быть {@code null}
+     * @param <T>  тип значения
+     * @return слот
+     */
+    public static <T> Param<T> of(@NonNull String name, @NonNull Class<T> type) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("param name must not be empty");
+        }
+        return new Param<>(name, Objects.requireNonNull(type));
+    }
+
+    @Override
+    public String toString() {
+        return ":" + name;
+    }
+}
@@ -7,56 +7,130 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.CollectionAttribute;
+import jakarta.persistence.metamodel.ListAttribute;
+import jakarta.persistence.metamodel.MapAttribute;
+import jakarta.persistence.metamodel.SetAttribute;
+import jakarta.persistence.metamodel.SingularAttribute;
 import org.springframework.lang.NonNull;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 public class PathCalculator<E, P> {
 
     private final Root<E> root;
-    private final String[] fields;
+    private final List<String> fields;
+    private final FieldPath<?> fieldPath;
 
     public PathCalculator(@NonNull Root<E> root, @NonNull String... fields) {
         this.root = root;
-        this.fields = fields;
+        this.fields = Arrays.asList(fields);
+        this.fieldPath = null;
+    }
+
+    /**
+     * Путь из атрибутов метамодели проходится через атрибуты, без поиска по имени.
+     */
+    public PathCalculator(@NonNull Root<E> root, @NonNull FieldPath<?> fieldPath) {
+        this.root = root;
+        this.fields = fieldPath.getNames();
+        this.fieldPath = fieldPath.isResolved() ? fieldPath : null;
     }
 
     public Path<P> path() {
-        if (fields.length == 1) {
-            return root.get(fields[0]);
+        if (fields.size() == 1) {
+            return get(root, 0);
         }
 
-        Join<?, ?> join = getOrCreateJoin(root, fields[0]);
+        Join<?, ?> join = getOrCreateJoin(root, 0);
 
-        if (fields.length == 2) {
-            return join.get(fields[1]);
+        if (fields.size() == 2) {
+            return get(join, 1);
         }
 
-        for (int i = 1; i < fields.length - 1; i++) {
-            join = getOrCreateJoin(join, fields[i]);
+        for (int i = 1; i < fields.size() - 1; i++) {
+            join = getOrCreateJoin(join, i);
         }
 
-        return join.get(fields[fields.length - 1]);
+        return get(join, fields.size() - 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Path<P> get(From<?, ?> from, int index) {
+        return attribute(index) instanceof SingularAttribute singular
+                ? from.get(singular)
+                : from.get(fields.get(index));
+    }
+
+    private Attribute<?, ?> attribute(int index) {
+        return fieldPath == null ? null : fieldPath.getAttribute(index);
+    }
+
+    /*
+     * Если построение выполняется внутри JoinRegistry.scoped (любая CustomSpecification),
+     * JOIN ищется в реестре текущего запроса за O(1) и создаётся не более одного раза на путь.
+     */
+    private <X> Join<X, ?> getOrCreateJoin(From<?, X> rootOrJoin, int index) {
+        String attribute = fields.get(index);
+        JoinRegistry registry = JoinRegistry.current();
+        if (registry == null) {
+            return findOrCreateJoin(rootOrJoin, attribute, attribute(index));
+        }
+
+        Join<X, ?> join = registry.get(rootOrJoin, attribute);
+        if (join == null) {
+            join = findOrCreateJoin(rootOrJoin, attribute, attribute(index));
+            registry.put(rootOrJoin, attribute, join);
+        }
+
+        return join;
     }
 
     /*
      * rootOrJoin.getFetches - коллекция жадных JOIN. Таких, где fetchType.EAGER
      * rootOrJoin.getJoins - коллекция основных JOIN, добавленных в ручную при построении запроса
      * rootOrJoin.join - создает новый JOIN в коллекции joins
+     *
+     * Существующий LEFT FETCH переиспользуется как JOIN (в Hibernate fetch-узел одновременно является Join),
+     * чтобы не присоединять ту же ассоциацию повторно.
      */
-    private <X> Join<X, ?> getOrCreateJoin(From<?, X> rootOrJoin, String attribute) {
+    @SuppressWarnings("unchecked")
+    private <X> Join<X, ?> findOrCreateJoin(From<?, X> rootOrJoin, String attribute, Attribute<?, ?> handle) {
         Optional<Fetch<X, ?>> fetch = rootOrJoin.getFetches().stream()
                 .filter(f -> f.getAttribute().getName().equals(attribute) && f.getJoinType() == JoinType.LEFT)
                 .findFirst();
 
         if (fetch.isPresent()) {
-            return rootOrJoin.join(attribute, fetch.get().getJoinType());
+            return fetch.get() instanceof Join<?, ?> fetchJoin
+                    ? (Join<X, ?>) fetchJoin
+                    : rootOrJoin.join(attribute, fetch.get().getJoinType());
         }
 
         Optional<Join<X, ?>> join = rootOrJoin.getJoins().stream()
                 .filter(j -> j.getAttribute().getName().equals(attribute) && j.getJoinType() == JoinType.LEFT)
                 .findFirst();
 
-        return join.orElseGet(() -> rootOrJoin.join(attribute, JoinType.LEFT));
+        return join.orElseGet(() -> handle == null
+                ? rootOrJoin.join(attribute, JoinType.LEFT)
+                : join(rootOrJoin, handle));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <X> Join<X, ?> join(From<?, X> rootOrJoin, Attribute<?, ?> attribute) {
+        if (attribute instanceof SingularAttribute singular) {
+            return rootOrJoin.join(singular, JoinType.LEFT);
+        } else if (attribute instanceof SetAttribute set) {
+            return rootOrJoin.join(set, JoinType.LEFT);
+        } else if (attribute instanceof ListAttribute list) {
+            return rootOrJoin.join(list, JoinType.LEFT);
+        } else if (attribute instanceof MapAttribute map) {
+            return rootOrJoin.join(map, JoinType.LEFT);
+        } else if (attribute instanceof CollectionAttribute collection) {
+            return rootOrJoin.join(collection, JoinType.LEFT);
+        }
+        return rootOrJoin.join(attribute.getName(), JoinType.LEFT);
     }
-}
+}
\ No newline at end of file
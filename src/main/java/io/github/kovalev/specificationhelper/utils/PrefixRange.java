@@ -0,0 +1,104 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Полуинтервал {@code [prefix, successor(prefix))} для поиска строк по префиксу.
+ *
+ * <p>В PostgreSQL с collation, отличной от {@code C}, условие {@code col LIKE 'abc%'} не может использовать
+ * B-tree индекс по {@code col}. Диапазон {@code col >= 'abc' AND col < 'abd'} может, поэтому префиксный
+ * поиск строится как {@code col >= 'abc' AND col < 'abd' AND col LIKE 'abc%'}: диапазон ограничивает
+ * сканирование индекса, а {@code LIKE} отбрасывает строки, которые попали в диапазон только из-за правил
+ * сортировки ({@code 'abC'} в {@code en_US}).</p>
+ *
+ * <p>Лингвистические collation сравнивают строки не по кодам символов: знаки препинания и пробелы
+ * игнорируются на первом уровне, {@code 'é'} сортируется рядом с {@code 'e'}. Для таких префиксов часть
+ * совпадений может оказаться вне диапазона, поэтому переписывание применяется только к префиксам из латинских
+ * букв и цифр ASCII, у которых последний символ не {@code 'z'}, {@code 'Z'} или {@code '9'}
+ * (см. {@link #supports(Class, Object)}). Остальные префиксы ищутся обычным {@code LIKE}.</p>
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PrefixRange {
+
+    private final Expression path;
+    private final String from;
+    private final String to;
+
+    /**
+     * Конструктор.
+     *
+     * @param path   путь к строковому атрибуту
+     * @param prefix префикс, для которого {@link #supports(Class, Object)} вернул {@code true}
+     */
+    public PrefixRange(Expression<String> path, String prefix) {
+        this.path = path;
+        this.from = prefix;
+        this.to = successor(prefix);
+    }
+
+    /**
+     * Проверяет, можно ли заменить {@code LIKE 'prefix%'} на диапазон.
+     *
+     * @param javaType тип атрибута
+     * @param value    префикс
+     * @return {@code true}, если атрибут строковый, а префикс - непустая строка из латинских букв и цифр ASCII,
+     * которая не заканчивается на {@code 'z'}, {@code 'Z'} или {@code '9'}
+     */
+    public static boolean supports(Class<?> javaType, Object value) {
+        if (javaType != String.class || !(value instanceof String prefix) || prefix.isEmpty()) {
+            return false;
+        }
+
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9')) {
+                return false;
+            }
+        }
+
+        char last = prefix.charAt(prefix.length() - 1);
+        return last != 'z' && last != 'Z' && last != '9';
+    }
+
+    /**
+     * Возвращает наименьшую строку, которая при сравнении по кодам символов больше всех строк
+     * с префиксом {@code prefix}.
+     *
+     * <ul>
+     *     <li>Увеличивается последний символ (code point): {@code "abc"} &rarr; {@code "abd"};</li>
+     *     <li>суррогатные коды пропускаются: после {@code U+D7FF} идёт {@code U+E000}, суррогатная пара
+     *     увеличивается целиком ({@code U+1F600} &rarr; {@code U+1F601});</li>
+     *     <li>символ {@link Character#MAX_CODE_POINT} увеличить нельзя: он отбрасывается и увеличивается
+     *     предыдущий.</li>
+     * </ul>
+     *
+     * @param prefix префикс
+     * @return следующая строка или {@code null}, если префикс пустой или состоит только из
+     * {@link Character#MAX_CODE_POINT} (верхней границы нет)
+     */
+    public static String successor(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int codePoint = prefix.codePointBefore(end);
+            int start = end - Character.charCount(codePoint);
+
+            if (codePoint < Character.MAX_CODE_POINT) {
+                int next = codePoint + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : codePoint + 1;
+                return new StringBuilder(start + 2).append(prefix, 0, start).appendCodePoint(next).toString();
+            }
+
+            end = start;
+        }
+        return null;
+    }
+
+    /**
+     * @param cb {@link CriteriaBuilder}
+     * @return {@code col >= prefix AND col < successor(prefix)}
+     */
+    public Predicate within(CriteriaBuilder cb) {
+        return cb.and(cb.greaterThanOrEqualTo(path, from), cb.lessThan(path, to));
+    }
+}
@@ -2,6 +2,7 @@ package io.github.kovalev.specificationhelper;
 
 
 import io.github.kovalev.specificationhelper.configuration.TestConfig;
+import io.github.kovalev.specificationhelper.domain.compiled.CompiledUserRepository;
 import io.github.kovalev.specificationhelper.domain.jpa.ComparableRepository;
 import io.github.kovalev.specificationhelper.domain.jpa.UserRepository;
 import io.github.kovalev.specificationhelper.testutils.TransactionalExecutor;
@@ -44,6 +45,8 @@ public abstract class DatabaseTest {
     @Autowired
     protected ComparableRepository comparableRepository;
     @Autowired
+    protected CompiledUserRepository compiledUserRepository;
+    @Autowired
     protected UserGenerator userGenerator;
     @Autowired
     protected TransactionalExecutor transactionalExecutor;
@@ -1,11 +1,23 @@
 package io.github.kovalev.specificationhelper;
 
+import io.github.kovalev.specificationhelper.domain.compiled.CompiledUserRepository;
+import io.github.kovalev.specificationhelper.domain.jpa.UserRepository;
+import io.github.kovalev.specificationhelper.repository.SpecificationHelperRepository;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
+@EnableJpaRepositories(basePackageClasses = UserRepository.class)
 public class TestApplication {
     public static void main(String[] args) {
         SpringApplication.run(TestApplication.class, args);
     }
-}
\ No newline at end of file
+
+    @Configuration
+    @EnableJpaRepositories(basePackageClasses = CompiledUserRepository.class,
+            repositoryBaseClass = SpecificationHelperRepository.class)
+    static class CompiledRepositories {
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.kovalev.specificationhelper.bulk;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkExecutorTest extends DatabaseTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void joinedPathsMoveToSubquery() {
+        List<User> users = userGenerator.list(3);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user" + i);
+        }
+        Post post = new Post();
+        post.setTitle("java");
+        post.setContent("content");
+        post.setAuthor(users.get(0));
+        post.setCreatedAt(LocalDateTime.now());
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            entityManager.persist(post);
+        });
+
+        BulkExecutor<User> executor = new BulkExecutor<>(entityManager, User.class);
+        long updated = transactionalExecutor.executeWithInNewTransaction(
+                () -> executor.update(new Equal<>(User_.POSTS + "." + Post_.TITLE, "java"), Map.of(User_.EMAIL, "java@")));
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findById(users.get(0).getId())).get().extracting(User::getEmail).isEqualTo("java@");
+
+        // пользователи без постов: left join posts ... where posts.id is null
+        assertThat(compiledUserRepository.delete(new IsNull<>(User_.POSTS + "." + Post_.ID))).isEqualTo(2);
+        assertThat(userRepository.findAll()).extracting(User::getId).containsExactly(users.get(0).getId());
+
+        long deleted = transactionalExecutor.executeWithInNewTransaction(() -> new BulkExecutor<>(entityManager, Post.class)
+                .delete(new Equal<>(Post_.AUTHOR + "." + User_.USERNAME, "user0")));
+        assertThat(deleted).isEqualTo(1);
+    }
+
+    @Test
+    void chunksCoverAllRows() {
+        List<User> users = userGenerator.list(10);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        BulkExecutor<User> executor = new BulkExecutor<>(entityManager, User.class);
+        TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+
+        Map<String, Object> assignments = new HashMap<>();
+        assignments.put(User_.EMAIL, null);
+        assertThat(executor.update(new Like<>(User_.EMAIL, "@gmail"), assignments, 3, transactions)).isEqualTo(10);
+        assertThat(userRepository.count(new IsNull<>(User_.EMAIL))).isEqualTo(10);
+
+        assertThat(executor.delete(new IsNull<>(User_.EMAIL), 4, transactions)).isEqualTo(10);
+        assertThat(userRepository.count()).isZero();
+        assertThat(executor.delete(null, 4, transactions)).isZero();
+    }
+
+    @Test
+    void invalidAssignmentsAreRejected() {
+        BulkExecutor<User> executor = new BulkExecutor<>(entityManager, User.class);
+
+        assertThatThrownBy(() -> executor.update(null, Map.of(User_.ID, "x"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> executor.update(null, Map.of(User_.POSTS, List.of()))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> executor.update(null, Map.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.kovalev.specificationhelper.cache;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.repository.SpecificationHelperRepository;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResultCacheTest extends DatabaseTest {
+
+    private ResultCache cache;
+    private SpecificationHelperRepository<User, UUID> repository;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResultCache(100);
+        repository = new SpecificationHelperRepository<>(
+                JpaEntityInformationSupport.getEntityInformation(User.class, entityManager), entityManager) {
+            @Override
+            protected ResultCache resultCache() {
+                return cache;
+            }
+        };
+    }
+
+    @Test
+    void resultIsCachedUntilEntityCommit() {
+        List<User> users = userGenerator.list(2);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        Specification<User> specification = new Like<>(User_.EMAIL, "@");
+
+        assertThat(repository.count(specification)).isEqualTo(2);
+        assertThat(repository.count(new Like<>(User_.EMAIL, "@"))).isEqualTo(2);
+        assertThat(repository.findAll(specification, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+        assertThat(repository.findAll(specification, PageRequest.of(0, 1)).getContent()).hasSize(1);
+        assertThat(cache.stats().hits()).isEqualTo(2);
+        assertThat(cache.stats().misses()).isEqualTo(2);
+
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(userGenerator.one()));
+
+        assertThat(cache.stats().size()).isZero();
+        assertThat(repository.count(specification)).isEqualTo(3);
+
+        transactionalExecutor.executeWithInNewTransaction(() -> repository.delete(specification));
+
+        assertThat(repository.count(specification)).isZero();
+    }
+
+    @Test
+    void onlyCachedListsAreImmutable() {
+        List<User> users = userGenerator.list(2);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        Specification<User> specification = new Like<>(User_.EMAIL, "@");
+        SpecificationHelperRepository<User, UUID> uncached = new SpecificationHelperRepository<>(
+                JpaEntityInformationSupport.getEntityInformation(User.class, entityManager), entityManager);
+
+        List<User> found = uncached.findAll(specification);
+        found.remove(0);
+        assertThat(found).hasSize(1);
+
+        List<User> cached = repository.findAll(specification);
+        assertThatThrownBy(() -> cached.remove(0)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(repository.findAll(specification)).hasSize(2);
+    }
+
+    @Test
+    void joinedEntityInvalidatesEntry() {
+        User author = userGenerator.one();
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(author));
+        Specification<User> byTitle = new Equal<>(User_.POSTS + "." + Post_.TITLE, "java");
+        Specification<User> byName = new Equal<>(User_.USERNAME, author.getUsername());
+
+        assertThat(repository.findAll(byTitle)).isEmpty();
+        assertThat(repository.findAll(byName)).extracting(User::getId).containsExactly(author.getId());
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            Post post = new Post();
+            post.setTitle("java");
+            post.setCreatedAt(LocalDateTime.now());
+            post.setAuthor(entityManager.find(User.class, author.getId()));
+            entityManager.persist(post);
+        });
+
+        assertThat(cache.stats().invalidations()).isEqualTo(1);
+        assertThat(repository.findAll(byTitle)).extracting(User::getId).containsExactly(author.getId());
+        assertThat(repository.findAll(byName)).hasSize(1);
+        assertThat(cache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void uncacheableCallsBypassCache() {
+        Specification<User> lambda = (root, query, cb) -> cb.conjunction();
+
+        repository.count(lambda);
+        transactionalExecutor.executeWithInNewTransaction(() -> repository.count(new Like<>(User_.EMAIL, "@")));
+        transactionalExecutor.executeWithInNewTransaction(() -> repository.delete(new Equal<>(User_.USERNAME, "x")));
+
+        assertThat(cache.stats().misses()).isZero();
+        assertThat(cache.stats().size()).isZero();
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ResultCache small = new ResultCache(2);
+        Set<Class<?>> types = Set.of(User.class);
+
+        small.get(key("a"), types, () -> 1);
+        small.get(key("b"), types, () -> 2);
+        small.get(key("a"), types, () -> 0);
+        small.get(key("c"), types, () -> 3);
+
+        assertThat(small.get(key("a"), types, () -> 0)).isEqualTo(1);
+        assertThat(small.get(key("b"), types, () -> 0)).isEqualTo(0);
+        assertThat(small.stats().evictions()).isEqualTo(2);
+    }
+
+    @Test
+    void resultLoadedDuringInvalidationIsNotStored() {
+        Set<Class<?>> types = Set.of(User.class);
+
+        cache.get(key("a"), types, () -> {
+            cache.invalidate(User.class);
+            return 1;
+        });
+
+        assertThat(cache.get(key("a"), types, () -> 2)).isEqualTo(2);
+        assertThat(cache.stats().hitRate()).isZero();
+    }
+
+    @Test
+    void storedKeyIsBuiltOnlyOnMiss() {
+        Set<Class<?>> types = Set.of(User.class);
+        AtomicInteger built = new AtomicInteger();
+        Supplier<ResultCache.Key> storedKey = () -> {
+            built.incrementAndGet();
+            return key("a");
+        };
+
+        cache.get(key("a"), storedKey, types, () -> 1);
+
+        assertThat(cache.get(key("a"), storedKey, types, () -> 2)).isEqualTo(1);
+        assertThat(built).hasValue(1);
+    }
+
+    private static ResultCache.Key key(String value) {
+        return new ResultCache.Key(User.class, "count", new Equal<>(User_.USERNAME, value), null);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.kovalev.specificationhelper.domain.compiled;
+
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.UUID;
+
+public interface CompiledUserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
+}
@@ -0,0 +1,90 @@
+package io.github.kovalev.specificationhelper.exists;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExistsExecutorTest extends DatabaseTest {
+
+    @Test
+    void stopsAtFirstMatchingRow() {
+        List<User> users = userGenerator.list(3);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user" + i);
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            entityManager.persist(post(users.get(0)));
+        });
+        ExistsExecutor<User> executor = new ExistsExecutor<>(entityManager, User.class);
+
+        assertThat(executor.exists(new Like<>(User_.EMAIL, "@gmail"))).isTrue();
+        assertThat(executor.exists(new Equal<>(User_.USERNAME, "nobody"))).isFalse();
+        assertThat(executor.exists(new Equal<>(User_.POSTS + "." + Post_.TITLE, "java"))).isTrue();
+        // лямбда не компилируется в HQL и выполняется через Criteria API
+        assertThat(executor.exists(new Not<>((root, query, cb) -> cb.like(root.get(User_.USERNAME), "user%")))).isFalse();
+        assertThat(executor.exists(List.<Equal<User>>of())).isEmpty();
+    }
+
+    @Test
+    void batchRunsOneStatement() {
+        List<User> users = userGenerator.list(2);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user" + i);
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            entityManager.persist(post(users.get(1)));
+        });
+
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        List<Boolean> found = new ExistsExecutor<>(entityManager, User.class).exists(Arrays.asList(
+                new Equal<>(User_.USERNAME, "user0"),
+                new Equal<>(User_.USERNAME, "nobody"),
+                new Equal<>(User_.POSTS + "." + Post_.TITLE, "java"),
+                new Equal<>(User_.POSTS + "." + Post_.TITLE, "sql"),
+                null));
+        assertThat(found).containsExactly(true, false, true, false, true);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void repositoryExistsSkipsEntityLoading() {
+        List<User> users = userGenerator.list(2);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        assertThat(compiledUserRepository.exists(new Like<>(User_.EMAIL, "@gmail"))).isTrue();
+        assertThat(compiledUserRepository.exists(new Equal<>(User_.EMAIL, "nobody"))).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private static Post post(User author) {
+        Post post = new Post();
+        post.setTitle("java");
+        post.setContent("content");
+        post.setAuthor(author);
+        post.setCreatedAt(LocalDateTime.now());
+        return post;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.kovalev.specificationhelper.facet;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetCounterTest extends DatabaseTest {
+
+    @Test
+    void facetsAreCountedInOneQuery() {
+        List<User> users = userGenerator.list(4);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user" + i);
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            entityManager.persist(post(users.get(0), "java"));
+            entityManager.persist(post(users.get(0), "java"));
+            entityManager.persist(post(users.get(1), "java"));
+            entityManager.persist(post(users.get(1), "sql"));
+        });
+
+        Map<String, Specification<User>> facets = new LinkedHashMap<>();
+        facets.put("java", new Equal<>(User_.POSTS + "." + Post_.TITLE, "java"));
+        facets.put("sql", new Equal<>(User_.POSTS + "." + Post_.TITLE, "sql"));
+        facets.put("first", new In<>(User_.USERNAME, List.of("user0", "user2")));
+        facets.put("all", new Empty<>());
+
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        Map<String, Long> counts = new FacetCounter<>(entityManager, User.class).count(new Like<>(User_.EMAIL, "@gmail"), facets);
+        // у user0 два поста java, но сущность считается один раз
+        assertThat(counts).containsExactly(Map.entry("java", 2L), Map.entry("sql", 1L),
+                Map.entry("first", 2L), Map.entry("all", 4L));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ownAttributesUseFilteredCount() {
+        List<User> users = userGenerator.list(5);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user" + i);
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        FacetCounter<User> counter = new FacetCounter<>(entityManager, User.class);
+
+        Map<String, Long> counts = counter.count(new In<>(User_.USERNAME, List.of("user0", "user1", "user2")),
+                Map.of("user1", new Equal<>(User_.USERNAME, "user1"), "none", new Equal<>(User_.USERNAME, "user4")));
+        assertThat(counts).containsOnly(Map.entry("user1", 1L), Map.entry("none", 0L));
+
+        assertThat(counter.count(null, Map.of("all", new Like<>(User_.EMAIL, "@")))).containsOnly(Map.entry("all", 5L));
+        assertThat(counter.count(null, Map.of())).isEmpty();
+    }
+
+    private static Post post(User author, String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("content");
+        post.setAuthor(author);
+        post.setCreatedAt(LocalDateTime.now());
+        return post;
+    }
+}
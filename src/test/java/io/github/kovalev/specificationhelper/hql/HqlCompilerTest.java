@@ -0,0 +1,183 @@
+package io.github.kovalev.specificationhelper.hql;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.Comment;
+import io.github.kovalev.specificationhelper.domain.entity.Comment_;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HqlCompilerTest extends DatabaseTest {
+
+    private static final String POSTS_TITLE = User_.POSTS + "." + Post_.TITLE;
+    private static final String POSTS_CONTENT = User_.POSTS + "." + Post_.CONTENT;
+
+    @Test
+    void sameShapeGivesSameHql() {
+        val first = compile(new And<>(new Equal<>(User_.USERNAME, "alice"), new Like<>(User_.EMAIL, "a@", true)));
+        val second = compile(new And<>(new Equal<>(User_.USERNAME, "bob"), new Like<>(User_.EMAIL, "b@", true)));
+
+        assertThat(first.selectHql()).isEqualTo(second.selectHql())
+                .isEqualTo("select e from User e where (e.username = :p0 and lower(e.email) like :p1 escape '\\')");
+        assertThat(first.getParameters()).containsExactly("alice", "%a@%");
+        assertThat(second.getParameters()).containsExactly("bob", "%b@%");
+    }
+
+    @Test
+    void caseStrategiesAvoidCast() {
+        assertThat(compile(new Equal<>(User_.USERNAME, "A_b", CaseSettings.ILIKE)).getWhere())
+                .isEqualTo("e.username ilike :p0 escape '\\'");
+        assertThat(compile(new Equal<>(User_.USERNAME, "A_b", CaseSettings.ILIKE)).getParameters())
+                .containsExactly("A\\_b");
+        assertThat(compile(new NotEqual<>(User_.USERNAME, "A", CaseSettings.CASE_INSENSITIVE_COLUMN)).getWhere())
+                .isEqualTo("e.username <> :p0");
+        assertThat(compile(new Like<>(POSTS_TITLE, "A", CaseSettings.shadowColumn(Post_.CONTENT))).getWhere())
+                .isEqualTo("j0.content like :p0 escape '\\'");
+        assertThat(compile(new Equal<>(User_.USERNAME, "A", true)).getWhere()).isEqualTo("lower(e.username) = :p0");
+    }
+
+    @Test
+    void prefixRangeIsIndexRange() {
+        val compiled = compile(new Like<>(User_.USERNAME, "abc", LikeMatchMode.PREFIX_RANGE));
+
+        assertThat(compiled.getWhere())
+                .isEqualTo("(e.username >= :p0 and e.username < :p1 and e.username like :p2 escape '\\')");
+        assertThat(compiled.getParameters()).containsExactly("abc", "abd", "abc%");
+        assertThat(compile(new Like<>(User_.USERNAME, "ab_", LikeMatchMode.PREFIX_RANGE)).getWhere())
+                .isEqualTo("e.username like :p0 escape '\\'");
+    }
+
+    @Test
+    void likeValueIsEscapedAndLiteralIsEquality() {
+        assertThat(compile(new Like<>(User_.EMAIL, "50%_")).getParameters()).containsExactly("%50\\%\\_%");
+        assertThat(compile(new Like<>(User_.USERNAME, "Ab%", LikeMatchMode.NONE)).getWhere())
+                .isEqualTo("e.username = :p0");
+        assertThat(compile(new Like<>(User_.USERNAME, "Ab%", LikeMatchMode.NONE, true)).getParameters())
+                .containsExactly("ab%");
+        assertThat(compile(new Like<>(User_.USERNAME, "Ab%", LikeMatchMode.PATTERN)).getWhere())
+                .isEqualTo("e.username like :p0 escape '\\'");
+    }
+
+    @Test
+    void nestedPathsShareOneJoin() {
+        val compiled = compile(new Or<>(new Equal<>(POSTS_TITLE, "title"), new Like<>(POSTS_CONTENT, "content")));
+
+        assertThat(compiled.getFrom()).isEqualTo("User e left join e.posts j0");
+        assertThat(compiled.getWhere()).isEqualTo("(j0.title = :p0 or j0.content like :p1 escape '\\')");
+    }
+
+    @Test
+    void emptyAndIgnoredChildrenAreSkipped() {
+        val compiled = compile(new And<>(
+                new Empty<>(),
+                new Equal<>(User_.USERNAME, null),
+                new Not<>(CompositionMode.OR, new Equal<>(User_.EMAIL, null, NullHandling.USE_IS_NULL))
+        ));
+
+        assertThat(compiled.getWhere()).isEqualTo("not (e.email is null)");
+        assertThat(compile(new Empty<>()).selectHql()).isEqualTo("select e from User e");
+    }
+
+    @Test
+    void inListIsPadded() {
+        val three = compile(new In<>(User_.ID, List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID())));
+        val four = compile(new In<>(User_.ID, List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                UUID.randomUUID())));
+
+        assertThat(three.getWhere()).isEqualTo(four.getWhere()).isEqualTo("e.id in (:p0, :p1, :p2, :p3)");
+    }
+
+    @Test
+    void localDateOnDatetimeColumnIsDayRange() {
+        val compiled = new HqlCompiler(entityManager).compile(ComparableEntity.class,
+                new Between<>(ComparableEntity_.DATETIME_VALUE, List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))))
+                .orElseThrow();
+
+        assertThat(compiled.getWhere()).isEqualTo("(e.datetimeValue >= :p0 and e.datetimeValue < :p1)");
+        assertThat(compiled.getParameters())
+                .containsExactly(LocalDate.of(2024, 1, 1).atStartOfDay(), LocalDate.of(2024, 2, 1).atStartOfDay());
+    }
+
+    @Test
+    void existsIsCorrelatedSubquery() {
+        val compiled = compile(new And<>(
+                new Equal<>(User_.USERNAME, "a"),
+                new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "x"),
+                        new Exists<Post, Comment>(Post_.COMMENTS, new Equal<>(Comment_.TEXT, "y"))),
+                new Exists<User, Comment>(User_.POSTS + "." + Post_.COMMENTS)
+        ));
+
+        assertThat(compiled.getFrom()).isEqualTo("User e");
+        assertThat(compiled.getWhere()).isEqualTo("(e.username = :p0"
+                + " and exists (select 1 from Post s0 where s0.author = e and s0.title = :p1"
+                + " and exists (select 1 from Comment s1 where s1.post = s0 and s1.text = :p2))"
+                + " and exists (select 1 from e.posts.comments s2))");
+        assertThat(compiled.getParameters()).containsExactly("a", "x", "y");
+    }
+
+    @Test
+    void foreignKeyIdNeedsNoJoin() {
+        UUID id = UUID.randomUUID();
+        val compiled = new HqlCompiler(entityManager).compile(Post.class, new Or<>(
+                new Equal<>(Post_.AUTHOR + "." + User_.ID, id),
+                new Equal<>(Post_.AUTHOR + "." + User_.USERNAME, "a")
+        )).orElseThrow();
+
+        assertThat(compiled.getFrom()).isEqualTo("Post e left join e.author j0");
+        assertThat(compiled.getWhere()).isEqualTo("(e.author.id = :p0 or j0.username = :p1)");
+        assertThat(compiled.countHql()).isEqualTo("select count(*) from " + compiled.getFrom() + " where " + compiled.getWhere());
+        assertThat(compiled.bind(entityManager.createQuery(compiled.countHql(), Long.class)).getSingleResult()).isZero();
+        assertThat(compiled.existsHql()).isEqualTo("select 1 from " + compiled.getFrom() + " where " + compiled.getWhere());
+        assertThat(compiled.bind(entityManager.createQuery(compiled.existsHql(), Integer.class)).getResultList()).isEmpty();
+        assertThat(compile(new Equal<>(User_.POSTS + "." + Post_.ID, id)).getFrom()).isEqualTo("User e left join e.posts j0");
+    }
+
+    @Test
+    void unknownSpecificationIsNotCompiled() {
+        Specification<User> lambda = (root, query, cb) -> cb.isNull(root.get(User_.EMAIL));
+
+        assertThat(new HqlCompiler(entityManager).compile(User.class, new And<>(new Equal<>(User_.USERNAME, "a"), lambda)))
+                .isEmpty();
+    }
+
+    @Test
+    void orderByUsesOnlyOwnAttributes() {
+        val compiler = new HqlCompiler(entityManager);
+
+        assertThat(compiler.orderBy(User.class, Sort.by(Sort.Order.asc(User_.USERNAME).ignoreCase(), Sort.Order.desc(User_.CREATED_AT))))
+                .contains(" order by lower(e.username) asc, e.createdAt desc");
+        assertThat(compiler.orderBy(User.class, Sort.by(POSTS_TITLE))).isEmpty();
+    }
+
+    private CompiledQuery compile(Specification<User> specification) {
+        return new HqlCompiler(entityManager).compile(User.class, specification).orElseThrow();
+    }
+}
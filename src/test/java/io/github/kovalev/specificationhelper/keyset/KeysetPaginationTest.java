@@ -0,0 +1,102 @@
+package io.github.kovalev.specificationhelper.keyset;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.SeekForm;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPaginationTest extends DatabaseTest {
+
+    private final Specification<User> gmail = new Like<>(User_.EMAIL, "@gmail");
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = userGenerator.list(11);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < users.size(); i++) {
+            // повторяющиеся значения ключа: порядок внутри них задаёт идентификатор
+            users.get(i).setCreatedAt(now.plusDays(i / 3));
+            users.get(i).setUsername("user" + (char) ('a' + i % 4));
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+    }
+
+    @Test
+    void pagesMatchSortedQuery() {
+        for (SeekForm seekForm : SeekForm.values()) {
+            for (Sort sort : List.of(Sort.by(User_.CREATED_AT), Sort.by(Sort.Direction.DESC, User_.CREATED_AT),
+                    Sort.by(Sort.Order.asc(User_.USERNAME), Sort.Order.desc(User_.CREATED_AT)))) {
+                KeysetPagination<User> pagination = new KeysetPagination<>(entityManager, User.class, sort, seekForm);
+                Sort keys = Sort.by(pagination.getKeys());
+
+                assertThat(pages(pagination, gmail, 4)).as(seekForm + " " + sort)
+                        .containsExactlyElementsOf(userRepository.findAll(gmail, keys));
+            }
+        }
+    }
+
+    @Test
+    void idIsAddedAndMixedDirectionsAreExpanded() {
+        KeysetPagination<User> descending = new KeysetPagination<>(entityManager, User.class,
+                Sort.by(Sort.Direction.DESC, User_.CREATED_AT));
+        KeysetPagination<User> mixed = new KeysetPagination<>(entityManager, User.class,
+                Sort.by(Sort.Order.asc(User_.USERNAME), Sort.Order.desc(User_.CREATED_AT)));
+
+        assertThat(descending.getKeys()).containsExactly(Sort.Order.desc(User_.CREATED_AT), Sort.Order.desc(User_.ID));
+        assertThat(descending.getSeekForm()).isEqualTo(SeekForm.ROW_VALUE);
+        assertThat(mixed.getSeekForm()).isEqualTo(SeekForm.EXPANDED);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        KeysetPagination<User> pagination = new KeysetPagination<>(entityManager, User.class, Sort.by(User_.CREATED_AT));
+
+        KeysetSlice<User> first = pagination.next(null, null, 10);
+        KeysetSlice<User> last = pagination.next(null, first.nextCursor(), 10);
+
+        assertThat(first.content()).hasSize(10);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.content()).hasSize(1);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(pagination.next(null, null, 11).hasNext()).isFalse();
+    }
+
+    @Test
+    void invalidKeysAndCursorsAreRejected() {
+        KeysetPagination<User> pagination = new KeysetPagination<>(entityManager, User.class, Sort.by(User_.CREATED_AT));
+
+        assertThatThrownBy(() -> pagination.next(null, "not a cursor", 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KeysetPagination<>(entityManager, User.class, Sort.by(User_.POSTS + "." + Post_.TITLE)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new KeysetPagination<>(entityManager, User.class, Sort.by(Sort.Order.asc(User_.USERNAME).ignoreCase())))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new KeysetPagination<>(entityManager, Post.class, Sort.by(Post_.AUTHOR + "." + User_.USERNAME))
+                .next(null, null, 1).content()).isEmpty();
+    }
+
+    private static List<User> pages(KeysetPagination<User> pagination, Specification<User> specification, int size) {
+        List<User> users = new ArrayList<>();
+        KeysetSlice<User> page = pagination.next(specification, null, size);
+        users.addAll(page.content());
+        while (page.hasNext()) {
+            page = pagination.next(specification, page.nextCursor(), size);
+            users.addAll(page.content());
+        }
+        return users;
+    }
+}
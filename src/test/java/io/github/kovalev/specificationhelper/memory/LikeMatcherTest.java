@@ -0,0 +1,29 @@
+package io.github.kovalev.specificationhelper.memory;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikeMatcherTest {
+
+    @Test
+    void wildcardsAndEscapes() {
+        assertThat(new LikeMatcher("%ab_c%", false).matches("xxabXcyy")).isTrue();
+        assertThat(new LikeMatcher("%ab_c%", false).matches("abc")).isFalse();
+        assertThat(new LikeMatcher("a%b%c", false).matches("aXbYbZc")).isTrue();
+        assertThat(new LikeMatcher("a%b%c", false).matches("aXbYbZcd")).isFalse();
+        assertThat(new LikeMatcher("50\\%", false).matches("50%")).isTrue();
+        assertThat(new LikeMatcher("50\\%", false).matches("500")).isFalse();
+        assertThat(new LikeMatcher("a\\\\b", false).matches("a\\b")).isTrue();
+        assertThat(new LikeMatcher("%", false).matches("")).isTrue();
+        assertThat(new LikeMatcher("_", false).matches("")).isFalse();
+    }
+
+    @Test
+    void underscoreMatchesCodePointAndCaseIsFolded() {
+        assertThat(new LikeMatcher("a_b", false).matches("a😀b")).isTrue();
+        assertThat(new LikeMatcher("%ПРИВЕТ%", true).matches("скажи привет")).isTrue();
+        assertThat(new LikeMatcher("%ПРИВЕТ%", false).matches("скажи привет")).isFalse();
+    }
+}
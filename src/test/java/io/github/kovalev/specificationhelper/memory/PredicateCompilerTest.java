@@ -0,0 +1,201 @@
+package io.github.kovalev.specificationhelper.memory;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Comment;
+import io.github.kovalev.specificationhelper.domain.entity.Comment_;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.template.SpecificationTemplate;
+import io.github.kovalev.specificationhelper.utils.Param;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredicateCompilerTest extends DatabaseTest {
+
+    private static final String POSTS_TITLE = User_.POSTS + "." + Post_.TITLE;
+    private static final String POSTS_CONTENT = User_.POSTS + "." + Post_.CONTENT;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        users = userGenerator.list(4);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername(users.get(i).getUsername() + i);
+            users.get(i).setEmail(users.get(i).getUsername() + "@gmail.com");
+            users.get(i).setCreatedAt(LocalDateTime.now().minusDays(i));
+        }
+        users.get(3).setEmail(null);
+
+        Post java = post(users.get(0), "java", "first");
+        Post javaAgain = post(users.get(0), "java", "second");
+        Post go = post(users.get(1), "go", null);
+        Comment comment = new Comment();
+        comment.setText("hi");
+        comment.setAuthor(users.get(0));
+        comment.setPost(go);
+        comment.setCreatedAt(LocalDateTime.now());
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            List.of(java, javaAgain, go, comment).forEach(entityManager::persist);
+        });
+    }
+
+    @Test
+    void comparisonsMatchDatabase() {
+        User first = users.get(0);
+        assertParity(
+                new Equal<>(User_.USERNAME, first.getUsername()),
+                new Equal<>(User_.USERNAME, first.getUsername().toUpperCase(), true),
+                new NotEqual<>(User_.EMAIL, first.getEmail()),
+                new Not<>(new Equal<>(User_.EMAIL, first.getEmail())),
+                new Equal<>(User_.EMAIL, null, NullHandling.USE_IS_NULL),
+                new NotEqual<>(User_.EMAIL, null, NullHandling.USE_IS_NULL),
+                new Equal<>(User_.EMAIL, null),
+                new IsNull<>(User_.EMAIL),
+                new Equal<>(User_.ID, first.getId()),
+                new In<>(User_.ID, Arrays.asList(first.getId(), null, users.get(3).getId())),
+                new Not<>(new In<>(User_.ID, List.of(first.getId()))),
+                new Equal<>(User_.CREATED_AT, LocalDate.now().minusDays(1)),
+                new NotEqual<>(User_.CREATED_AT, LocalDate.now()),
+                new GreaterThanOrEqualTo<>(User_.CREATED_AT, LocalDate.now().minusDays(1)),
+                new LessThanOrEqualTo<>(User_.CREATED_AT, LocalDate.now().minusDays(2)),
+                new Between<>(User_.CREATED_AT, Arrays.asList(null, LocalDateTime.now().minusHours(12))),
+                new GreaterThanOrEqualTo<>(User_.USERNAME, users.get(2).getUsername()),
+                new Or<>(new Equal<>(User_.USERNAME, first.getUsername()), new Not<>(new IsNull<>(User_.EMAIL)))
+        );
+    }
+
+    @Test
+    void likeMatchesDatabase() {
+        User first = users.get(0);
+        assertParity(
+                new Like<>(User_.EMAIL, "@gmail"),
+                new Like<>(User_.EMAIL, "GMAIL.COM", LikeMatchMode.START_ONLY, true),
+                new Like<>(User_.USERNAME, first.getUsername().substring(0, 3), LikeMatchMode.END_ONLY),
+                new Like<>(User_.USERNAME, first.getUsername(), LikeMatchMode.NONE, true),
+                new Like<>(User_.USERNAME, "%_0", LikeMatchMode.PATTERN),
+                new Like<>(User_.USERNAME, "_", LikeMatchMode.BOTH),
+                new Like<>(User_.USERNAME, "user", LikeMatchMode.PREFIX_RANGE),
+                new Not<>(new Like<>(User_.EMAIL, "0@"))
+        );
+    }
+
+    @Test
+    void collectionsMatchDatabase() {
+        assertParity(
+                new Equal<>(POSTS_TITLE, "java"),
+                new Not<>(new Equal<>(POSTS_TITLE, "java")),
+                new And<>(new Equal<>(POSTS_TITLE, "java"), new Equal<>(POSTS_CONTENT, "second")),
+                new IsNull<>(POSTS_CONTENT),
+                new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "java")),
+                new Not<>(new Exists<User, Post>(User_.POSTS)),
+                new Exists<User, Post>(FieldPath.of(User_.posts),
+                        new Exists<Post, Comment>(Post_.COMMENTS, new Equal<>(Comment_.TEXT, "hi")))
+        );
+    }
+
+    @Test
+    void numbersAreComparedByValue() {
+        ComparableEntity entity = new ComparableEntity();
+        entity.setLongValue(5L);
+        entity.setBigDecimalValue(new BigDecimal("1.5000"));
+
+        var compiler = new PredicateCompiler(entityManager);
+        assertThat(compiler.compile(ComparableEntity.class,
+                new Equal<>(ComparableEntity_.BIG_DECIMAL_VALUE, new BigDecimal("1.5"))).orElseThrow().test(entity))
+                .isTrue();
+        assertThat(compiler.compile(ComparableEntity.class,
+                new In<>(ComparableEntity_.LONG_VALUE, List.of(4, 5))).orElseThrow().test(entity)).isTrue();
+        assertThat(compiler.compile(ComparableEntity.class,
+                new LessThanOrEqualTo<>(ComparableEntity_.LONG_VALUE, 4)).orElseThrow().test(entity)).isFalse();
+    }
+
+    @Test
+    void bigDecimalInMatchesDatabase() {
+        ComparableEntity entity = new ComparableEntity();
+        entity.setBigDecimalValue(new BigDecimal("15.75"));
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(entity));
+
+        // колонка DECIMAL(19, 4) возвращает 15.7500
+        Specification<ComparableEntity> specification = new In<>(ComparableEntity_.BIG_DECIMAL_VALUE,
+                List.of(new BigDecimal("15.75"), new BigDecimal("1")));
+        assertThat(comparableRepository.findAll(specification)).hasSize(1);
+        List<ComparableEntity> memory = transactionalExecutor.executeWithInNewTransaction(() -> {
+            var predicate = new PredicateCompiler(entityManager).compile(ComparableEntity.class, specification)
+                    .orElseThrow();
+            return entityManager.createQuery("select c from ComparableEntity c", ComparableEntity.class)
+                    .getResultList().stream().filter(predicate).toList();
+        });
+        assertThat(memory).extracting(ComparableEntity::getBigDecimalValue).containsExactly(new BigDecimal("15.7500"));
+    }
+
+    @Test
+    void unsupportedSpecificationIsNotCompiled() {
+        var compiler = new PredicateCompiler(entityManager);
+        Specification<User> lambda = (root, query, cb) -> cb.conjunction();
+
+        assertThat(compiler.compile(User.class, new And<>(new Equal<>(User_.USERNAME, "a"), lambda))).isEmpty();
+        assertThat(compiler.compile(User.class, SpecificationTemplate.equal(User_.USERNAME, Param.of("name", String.class))))
+                .isEmpty();
+        assertThat(compiler.compile(User.class, new Equal<>(User_.USERNAME, LocalDate.now()))).isEmpty();
+        assertThat(compiler.compile(User.class, null).orElseThrow().test(new User())).isTrue();
+    }
+
+    @SafeVarargs
+    private void assertParity(Specification<User>... specifications) {
+        for (Specification<User> specification : specifications) {
+            Set<UUID> database = userRepository.findAll(specification).stream()
+                    .map(User::getId).collect(Collectors.toSet());
+            Set<UUID> memory = transactionalExecutor.executeWithInNewTransaction(() -> {
+                var predicate = new PredicateCompiler(entityManager).compile(User.class, specification).orElseThrow();
+                return entityManager.createQuery("select u from User u", User.class).getResultList().stream()
+                        .filter(predicate).map(User::getId).collect(Collectors.toSet());
+            });
+
+            assertThat(memory).as(specification.toString()).isEqualTo(database);
+        }
+    }
+
+    private static Post post(User author, String title, String content) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(content);
+        post.setCreatedAt(LocalDateTime.now());
+        post.setAuthor(author);
+        return post;
+    }
+}
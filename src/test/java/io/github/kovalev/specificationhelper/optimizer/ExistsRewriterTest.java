@@ -0,0 +1,103 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Comment;
+import io.github.kovalev.specificationhelper.domain.entity.Comment_;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.CollectionStrategy;
+import io.github.kovalev.specificationhelper.repository.SpecificationHelperRepository;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExistsRewriterTest extends DatabaseTest {
+
+    private static final String POSTS_TITLE = User_.POSTS + "." + Post_.TITLE;
+    private static final String POSTS_CONTENT = User_.POSTS + "." + Post_.CONTENT;
+    private static final String POSTS_COMMENTS_TEXT = User_.POSTS + "." + Post_.COMMENTS + "." + Comment_.TEXT;
+
+    private final ExistsRewriter rewriter = new ExistsRewriter();
+
+    @Test
+    void siblingConditionsShareOneSubquery() {
+        Specification<User> specification = new And<>(
+                new Equal<>(User_.USERNAME, "a"),
+                new Equal<>(POSTS_TITLE, "x"),
+                new Like<>(POSTS_CONTENT, "y"),
+                new Equal<>(POSTS_COMMENTS_TEXT, "z")
+        );
+
+        assertThat(rewrite(specification)).isEqualTo(new And<User>(
+                new Equal<>(User_.USERNAME, "a"),
+                new Exists<User, Post>(User_.POSTS, new And<Post>(
+                        new Equal<>(Post_.TITLE, "x"),
+                        new Like<>(Post_.CONTENT, "y"),
+                        new Exists<Post, Comment>(Post_.COMMENTS, new Equal<>(Comment_.TEXT, "z"))
+                ))
+        ));
+        assertThat(rewrite(new Or<>(new Equal<>(POSTS_TITLE, "x"), new Equal<>(POSTS_TITLE, "y"))))
+                .isEqualTo(new Exists<User, Post>(User_.POSTS, new Or<Post>(
+                        new Equal<>(Post_.TITLE, "x"), new Equal<>(Post_.TITLE, "y"))));
+    }
+
+    @Test
+    void otherConditionsAreNotChanged() {
+        Specification<User> own = new And<>(new Equal<>(User_.USERNAME, "a"), new Equal<>(User_.EMAIL, "b"));
+        Specification<User> negated = new Not<>(new Equal<>(POSTS_TITLE, "x"));
+        Specification<Post> singular = new Equal<>(Post_.AUTHOR + "." + User_.USERNAME, "a");
+
+        assertThat(rewrite(own)).isSameAs(own);
+        assertThat(rewrite(negated)).isSameAs(negated);
+        assertThat(rewriter.rewrite(entityManager.getMetamodel().entity(Post.class), singular)).isSameAs(singular);
+        assertThat(rewrite(null)).isNull();
+    }
+
+    @Test
+    void existsStrategyReturnsOneRowPerEntity() {
+        User author = userGenerator.one();
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(author);
+            for (int i = 0; i < 3; i++) {
+                Post post = new Post();
+                post.setTitle("title");
+                post.setContent("content " + i);
+                post.setCreatedAt(LocalDateTime.now());
+                post.setAuthor(author);
+                entityManager.persist(post);
+            }
+        });
+
+        SpecificationHelperRepository<User, UUID> repository = new SpecificationHelperRepository<>(
+                JpaEntityInformationSupport.getEntityInformation(User.class, entityManager), entityManager) {
+            @Override
+            protected CollectionStrategy collectionStrategy() {
+                return CollectionStrategy.EXISTS;
+            }
+        };
+        Specification<User> specification = new And<>(new Equal<>(POSTS_TITLE, "title"), new Like<>(POSTS_CONTENT, "content"));
+
+        assertThat(userRepository.count(specification)).isEqualTo(3);
+        assertThat(repository.count(specification)).isEqualTo(1);
+        assertThat(repository.findAll(specification, PageRequest.of(0, 10)))
+                .extracting(User::getId).containsExactly(author.getId());
+    }
+
+    private Specification<User> rewrite(Specification<User> specification) {
+        return rewriter.rewrite(entityManager.getMetamodel().entity(User.class), specification);
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SatisfiabilityAnalyzerTest {
+
+    private final SatisfiabilityAnalyzer analyzer = new SatisfiabilityAnalyzer();
+
+    @Test
+    void contradictionsAreDetected() {
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new Equal<>(User_.ID, 1), new Equal<>(User_.ID, 2)))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new IsNull<>(User_.EMAIL), new IsNotNull<>(User_.EMAIL)))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new IsNull<>(User_.EMAIL), new Like<>(User_.EMAIL, "a")))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new Equal<>(User_.EMAIL, null, NullHandling.USE_IS_NULL), new Equal<>(User_.EMAIL, "a")))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new Between<ComparableEntity, Integer>(ComparableEntity_.INT_VALUE, List.of(5, 1))))
+                .isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<ComparableEntity>(
+                new In<>(ComparableEntity_.INT_VALUE, List.of(1, 2)), new In<>(ComparableEntity_.INT_VALUE, List.of(3)))))
+                .isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<ComparableEntity>(
+                new In<>(ComparableEntity_.INT_VALUE, List.of(1, 2)), new NotEqual<>(ComparableEntity_.INT_VALUE, 1),
+                new NotEqual<>(ComparableEntity_.INT_VALUE, 2)))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<ComparableEntity>(
+                new Equal<>(ComparableEntity_.BIG_DECIMAL_VALUE, new BigDecimal("1.0")),
+                new NotEqual<>(ComparableEntity_.BIG_DECIMAL_VALUE, new BigDecimal("1.00"))))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<ComparableEntity>(
+                new Equal<>(ComparableEntity_.INT_VALUE, 10), new LessThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 5)))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new Or<User>(
+                new And<>(new Equal<>(User_.ID, 1), new Equal<>(User_.ID, 2)),
+                new And<>(new IsNull<>(User_.EMAIL), new IsNotNull<>(User_.EMAIL))))).isTrue();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new Equal<>(User_.ID, 1), new Or<>(new Equal<>(User_.ID, 2), new In<>(User_.ID, List.of(3, 4)))))).isTrue();
+    }
+
+    @Test
+    void satisfiableTreesAreNotReported() {
+        assertThat(analyzer.isUnsatisfiable(null)).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new Equal<>(User_.ID, 1), new Equal<>(User_.USERNAME, 2)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new In<>(User_.ID, List.of(1, 2)), new Equal<>(User_.ID, 2)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new Equal<>(User_.EMAIL, null), new IsNull<>(User_.EMAIL)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new Or<User>(
+                new And<>(new Equal<>(User_.ID, 1), new Equal<>(User_.ID, 2)), new IsNull<>(User_.EMAIL)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new Between<ComparableEntity, Integer>(ComparableEntity_.INT_VALUE, List.of(1, 1))))
+                .isFalse();
+        // BigDecimal.equals учитывает масштаб, SQL - нет
+        assertThat(analyzer.isUnsatisfiable(new And<ComparableEntity>(
+                new Equal<>(ComparableEntity_.BIG_DECIMAL_VALUE, new BigDecimal("1.0")),
+                new Equal<>(ComparableEntity_.BIG_DECIMAL_VALUE, new BigDecimal("1.00"))))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<ComparableEntity>(
+                new In<>(ComparableEntity_.BIG_DECIMAL_VALUE, List.of(new BigDecimal("2.50"))),
+                new LessThanOrEqualTo<>(ComparableEntity_.BIG_DECIMAL_VALUE, new BigDecimal("2.5"))))).isFalse();
+    }
+
+    @Test
+    void uncertainConditionsAreConsideredSatisfiable() {
+        Specification<User> lambda = (root, query, cb) -> cb.disjunction();
+
+        // разные регистры, разные классы значений, дата как диапазон дня, отрицание
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new Equal<>(User_.USERNAME, "A", true), new Equal<>(User_.USERNAME, "a", true)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(new Equal<>(User_.ID, 1), new Equal<>(User_.ID, 1L)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new Equal<>(User_.CREATED_AT, LocalDate.of(2024, 1, 1)),
+                new GreaterThanOrEqualTo<>(User_.CREATED_AT, LocalDate.of(2024, 1, 1))))).isFalse();
+        // строки сравнивает collation столбца: 'a' >= 'B' по-разному в C и en_US, 'a' = 'A' в citext
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new GreaterThanOrEqualTo<>(User_.USERNAME, "a"), new LessThanOrEqualTo<>(User_.USERNAME, "B")))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new Equal<>(User_.USERNAME, "a"), new Equal<>(User_.USERNAME, "A")))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<User>(
+                new In<>(User_.USERNAME, List.of("a", "b")), new In<>(User_.USERNAME, List.of("c"))))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new Not<User>(new IsNull<>(User_.EMAIL), new IsNotNull<>(User_.EMAIL)))).isFalse();
+        assertThat(analyzer.isUnsatisfiable(new And<>(lambda, new IsNull<>(User_.EMAIL)))).isFalse();
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Оптимизированное дерево находит те же строки, что и исходное, выполненное через Criteria API.
+ */
+class SpecificationOptimizerDatabaseTest extends DatabaseTest {
+
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+
+    @Test
+    void optimizedUserQueriesFindSameRows() {
+        List<User> users = userGenerator.list(6);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername(users.get(i).getUsername() + i);
+        }
+        users.get(5).setEmail(null);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+
+        assertSameUsers(new Or<>(
+                new Equal<>(User_.USERNAME, users.get(0).getUsername()),
+                new Equal<>(User_.USERNAME, users.get(1).getUsername()),
+                new Or<>(new Equal<>(User_.USERNAME, users.get(1).getUsername()), new IsNull<>(User_.EMAIL))
+        ));
+        assertSameUsers(new Not<>(new NotEqual<>(User_.USERNAME, users.get(2).getUsername()), new IsNull<>(User_.EMAIL)));
+
+        // двойное отрицание убирается; Criteria API Hibernate 6.6 теряет одно из отрицаний сравнения
+        assertThat(userRepository.findAll(optimizer.optimize(
+                new Not<>(new Not<>(new Equal<>(User_.USERNAME, users.get(3).getUsername()))))))
+                .extracting(User::getId)
+                .containsExactly(users.get(3).getId());
+    }
+
+    @Test
+    void optimizedRangesFindSameRows() {
+        List<ComparableEntity> entities = IntStream.range(0, 10).mapToObj(i -> {
+            ComparableEntity entity = new ComparableEntity();
+            entity.setIntValue(i);
+            return entity;
+        }).toList();
+        transactionalExecutor.executeWithInNewTransaction(() -> entities.forEach(entityManager::persist));
+
+        assertSameEntities(new And<>(
+                new GreaterThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 2),
+                new Between<>(ComparableEntity_.INT_VALUE, List.of(1, 8)),
+                new LessThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 6),
+                new LessThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 7)
+        ), 5);
+        assertSameEntities(new And<>(
+                new GreaterThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 7),
+                new LessThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 3)
+        ), 0);
+    }
+
+    private void assertSameUsers(Specification<User> specification) {
+        Specification<User> criteria = (root, query, cb) -> specification.toPredicate(root, query, cb);
+
+        assertThat(userRepository.findAll(optimizer.optimize(specification))).extracting(User::getId)
+                .containsExactlyInAnyOrderElementsOf(userRepository.findAll(criteria).stream().map(User::getId).toList());
+    }
+
+    private void assertSameEntities(Specification<ComparableEntity> specification, int expected) {
+        Specification<ComparableEntity> criteria = (root, query, cb) -> specification.toPredicate(root, query, cb);
+
+        assertThat(comparableRepository.findAll(optimizer.optimize(specification))).extracting(ComparableEntity::getId)
+                .hasSize(expected)
+                .containsExactlyInAnyOrderElementsOf(comparableRepository.findAll(criteria).stream()
+                        .map(ComparableEntity::getId).toList());
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.kovalev.specificationhelper.optimizer;
+
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpecificationOptimizerTest {
+
+    private final SpecificationOptimizer optimizer = new SpecificationOptimizer();
+
+    @Test
+    void emptyAndNoopSpecificationsAreFolded() {
+        assertThat(optimizer.<User>optimize(null)).isNull();
+        assertThat(optimizer.optimize(new And<User>(new Empty<>(), new Equal<>(User_.EMAIL, null), new Like<>(User_.EMAIL, ""))))
+                .isEqualTo(new Empty<User>());
+        assertThat(optimizer.optimize(new Or<User>(new Empty<>(), new IsNull<>(User_.EMAIL))))
+                .isEqualTo(new IsNull<User>(User_.EMAIL));
+    }
+
+    @Test
+    void nestedCompositesAreFlattenedAndDeduplicated() {
+        Specification<User> specification = new And<>(
+                new IsNull<>(User_.EMAIL),
+                new And<>(new IsNotNull<>(User_.USERNAME), new IsNull<>(User_.EMAIL)),
+                new Or<>(new IsNull<>(User_.CREATED_AT))
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(new And<User>(
+                new IsNull<>(User_.EMAIL), new IsNotNull<>(User_.USERNAME), new IsNull<>(User_.CREATED_AT)));
+    }
+
+    @Test
+    void equalitiesOnSamePathAreMergedIntoIn() {
+        Specification<User> specification = new Or<>(
+                new Equal<>(User_.USERNAME, "a"),
+                new IsNull<>(User_.EMAIL),
+                new Equal<>(User_.USERNAME, "b"),
+                new In<>(User_.USERNAME, List.of("b", "c")),
+                new Equal<>(User_.USERNAME, "d", true)
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(new Or<User>(
+                new In<>(User_.USERNAME, List.of("a", "b", "c")),
+                new IsNull<>(User_.EMAIL),
+                new Equal<>(User_.USERNAME, "d", true)));
+    }
+
+    @Test
+    void inWithDifferentSettingsIsNotMerged() {
+        Specification<User> specification = new Or<>(
+                new In<>(User_.USERNAME, List.of("a"), InStrategy.ARRAY),
+                new In<>(User_.USERNAME, List.of("b"), InStrategy.PARAMETERS)
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(specification);
+    }
+
+    @Test
+    void localDateEqualityIsNotMerged() {
+        Specification<User> specification = new Or<>(
+                new Equal<>(User_.CREATED_AT, LocalDate.of(2024, 1, 1)),
+                new Equal<>(User_.CREATED_AT, LocalDate.of(2024, 1, 2))
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(specification);
+    }
+
+    @Test
+    void rangesOnSamePathAreIntersected() {
+        Specification<ComparableEntity> specification = new And<>(
+                new GreaterThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 1),
+                new Between<>(ComparableEntity_.INT_VALUE, List.of(3, 20)),
+                new LessThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 10),
+                new GreaterThanOrEqualTo<>(ComparableEntity_.LONG_VALUE, 5L),
+                new GreaterThanOrEqualTo<>(ComparableEntity_.LONG_VALUE, 7L)
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(new And<ComparableEntity>(
+                new Between<>(ComparableEntity_.INT_VALUE, List.of(3, 10)),
+                new GreaterThanOrEqualTo<>(ComparableEntity_.LONG_VALUE, 7L)));
+    }
+
+    @Test
+    void stringRangesAreNotIntersected() {
+        // 'a' > 'B' по кодам символов, но не в collation en_US
+        Specification<User> specification = new And<>(
+                new GreaterThanOrEqualTo<>(User_.USERNAME, "a"),
+                new GreaterThanOrEqualTo<>(User_.USERNAME, "B")
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(specification);
+    }
+
+    @Test
+    void equalitiesOfDifferentClassesAreNotMerged() {
+        Specification<ComparableEntity> specification = new Or<>(
+                new Equal<>(ComparableEntity_.LONG_VALUE, 1),
+                new Equal<>(ComparableEntity_.LONG_VALUE, 2L),
+                new Equal<>(ComparableEntity_.LONG_VALUE, 3L)
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(new Or<ComparableEntity>(
+                new Equal<>(ComparableEntity_.LONG_VALUE, 1),
+                new In<>(ComparableEntity_.LONG_VALUE, List.of(2L, 3L))));
+    }
+
+    @Test
+    void rangesAreNotIntersectedUnderOr() {
+        Specification<ComparableEntity> specification = new Or<>(
+                new GreaterThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 1),
+                new LessThanOrEqualTo<>(ComparableEntity_.INT_VALUE, 10)
+        );
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(specification);
+    }
+
+    @Test
+    void notIsPushedDownWhenEveryConditionCanBeNegated() {
+        assertThat(optimizer.optimize(new Not<User>(new Equal<>(User_.USERNAME, "a", true))))
+                .isEqualTo(new NotEqual<User>(User_.USERNAME, "a", true));
+        assertThat(optimizer.optimize(new Not<User>(new Not<>(new IsNull<>(User_.EMAIL)))))
+                .isEqualTo(new IsNull<User>(User_.EMAIL));
+        assertThat(optimizer.optimize(new Not<User>(new IsNull<>(User_.EMAIL), new NotEqual<>(User_.USERNAME, "a"))))
+                .isEqualTo(new Or<User>(new IsNotNull<>(User_.EMAIL), new Equal<>(User_.USERNAME, "a")));
+        assertThat(optimizer.optimize(new Not<User>(CompositionMode.OR, new IsNotNull<>(User_.EMAIL), new IsNull<>(User_.USERNAME))))
+                .isEqualTo(new And<User>(new IsNull<>(User_.EMAIL), new IsNotNull<>(User_.USERNAME)));
+    }
+
+    @Test
+    void notIsKeptWhenConditionCannotBeNegated() {
+        Specification<User> specification = new Not<>(new IsNull<>(User_.EMAIL), new Like<>(User_.USERNAME, "a"));
+
+        assertThat(optimizer.optimize(specification)).isEqualTo(specification);
+    }
+
+    @Test
+    void foreignSpecificationsAreKept() {
+        Specification<User> lambda = (root, query, cb) -> null;
+
+        assertThat(optimizer.optimize(lambda)).isSameAs(lambda);
+        assertThat(optimizer.optimize(new And<>(lambda, new Empty<>()))).isSameAs(lambda);
+    }
+}
@@ -0,0 +1,173 @@
+package io.github.kovalev.specificationhelper.repository;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Comment;
+import io.github.kovalev.specificationhelper.domain.entity.Comment_;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Exists;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Not;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.template.SpecificationTemplate;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import io.github.kovalev.specificationhelper.utils.Param;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Репозиторий с {@link SpecificationHelperRepository} (скомпилированный HQL) возвращает то же, что
+ * {@code SimpleJpaRepository}, который строит запрос через {@code Specification.toPredicate}.
+ */
+class CompiledQueryParityTest extends DatabaseTest {
+
+    private static final String POSTS_TITLE = User_.POSTS + "." + Post_.TITLE;
+
+    private List<User> users;
+
+    @BeforeEach
+    void setUp() {
+        users = userGenerator.list(5);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user_" + i + (i % 2 == 0 ? "%" : "A"));
+            users.get(i).setEmail("User" + i + "@Gmail.com");
+            users.get(i).setCreatedAt(LocalDateTime.now().minusDays(i));
+        }
+        users.get(4).setEmail(null);
+
+        Post java = post(users.get(0), "java");
+        Post go = post(users.get(1), "go");
+        Comment comment = new Comment();
+        comment.setText("hi");
+        comment.setAuthor(users.get(2));
+        comment.setPost(go);
+        comment.setCreatedAt(LocalDateTime.now());
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            List.of(java, go, comment).forEach(entityManager::persist);
+        });
+    }
+
+    @Test
+    void comparisonsMatchCriteria() {
+        User first = users.get(0);
+        assertParity(
+                new Equal<>(User_.USERNAME, first.getUsername()),
+                new Equal<>(User_.EMAIL, "user0@gmail.com", true),
+                new Equal<>(User_.EMAIL, "USER1@GMAIL.COM", CaseSettings.ILIKE),
+                new NotEqual<>(User_.EMAIL, first.getEmail()),
+                new Equal<>(User_.EMAIL, null, NullHandling.USE_IS_NULL),
+                new Equal<>(User_.CREATED_AT, LocalDate.now().minusDays(1)),
+                new GreaterThanOrEqualTo<>(User_.CREATED_AT, LocalDate.now().minusDays(2)),
+                new LessThanOrEqualTo<>(User_.CREATED_AT, LocalDate.now().minusDays(3)),
+                new Between<>(User_.CREATED_AT, Arrays.asList(null, LocalDateTime.now().minusHours(12))),
+                new Not<>(new IsNull<>(User_.EMAIL), new Equal<>(User_.USERNAME, first.getUsername())),
+                new Or<>(new Equal<>(User_.ID, first.getId()), new IsNull<>(User_.EMAIL))
+        );
+    }
+
+    @Test
+    void likeMatchesCriteria() {
+        assertParity(
+                new Like<>(User_.USERNAME, "_0%"),
+                new Like<>(User_.USERNAME, "%", LikeMatchMode.END_ONLY),
+                new Like<>(User_.USERNAME, "USER_1", LikeMatchMode.START_ONLY, true),
+                new Like<>(User_.EMAIL, "gmail", CaseSettings.ILIKE),
+                new Like<>(User_.USERNAME, "user_", LikeMatchMode.PREFIX_RANGE),
+                new Like<>(User_.USERNAME, "user__", LikeMatchMode.PATTERN)
+        );
+    }
+
+    @Test
+    void inMatchesCriteria() {
+        List<UUID> ids = IntStream.range(0, 40).mapToObj(i -> UUID.randomUUID()).toList();
+        List<UUID> withUsers = List.of(users.get(1).getId(), users.get(3).getId());
+        assertParity(
+                new In<>(User_.ID, withUsers),
+                new In<>(User_.ID, withUsers, InStrategy.ARRAY),
+                new In<>(User_.ID, withUsers, InStrategy.PARAMETERS),
+                new In<>(User_.ID, concat(ids, withUsers)),
+                new In<>(User_.ID, concat(ids, withUsers), InStrategy.PADDED_PARAMETERS),
+                new Not<>(new In<>(User_.ID, withUsers))
+        );
+    }
+
+    @Test
+    void collectionsMatchCriteria() {
+        assertParity(
+                new Equal<>(POSTS_TITLE, "java"),
+                new IsNull<>(User_.POSTS + "." + Post_.ID),
+                new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "go")),
+                new Not<>(new Exists<User, Post>(User_.POSTS)),
+                new Exists<User, Post>(FieldPath.of(User_.posts),
+                        new Exists<Post, Comment>(Post_.COMMENTS, new Equal<>(Comment_.TEXT, "hi")))
+        );
+    }
+
+    @Test
+    void templatesMatchCriteria() {
+        SpecificationTemplate<User> template = new SpecificationTemplate<>(User.class, new And<>(
+                SpecificationTemplate.like(User_.EMAIL, Param.of("email", String.class), LikeMatchMode.BOTH,
+                        CaseSettings.DEFAULT),
+                SpecificationTemplate.gte(User_.CREATED_AT, Param.of("from", LocalDateTime.class))
+        ));
+        assertParity(
+                template.bind("GMAIL", LocalDateTime.now().minusDays(2)),
+                template.bind("user3", LocalDateTime.now().minusDays(5))
+        );
+    }
+
+    @SafeVarargs
+    private void assertParity(Specification<User>... specifications) {
+        Sort byId = Sort.by(User_.ID);
+        for (Specification<User> specification : specifications) {
+            List<UUID> criteria = userRepository.findAll(specification, byId).stream().map(User::getId).toList();
+
+            assertThat(compiledUserRepository.findAll(specification, byId)).as(specification.toString())
+                    .extracting(User::getId).containsExactlyElementsOf(criteria);
+            assertThat(compiledUserRepository.count(specification)).as(specification.toString())
+                    .isEqualTo(userRepository.count(specification));
+            assertThat(compiledUserRepository.exists(specification)).as(specification.toString())
+                    .isEqualTo(!criteria.isEmpty());
+        }
+    }
+
+    private static List<UUID> concat(List<UUID> first, List<UUID> second) {
+        return java.util.stream.Stream.concat(first.stream(), second.stream()).toList();
+    }
+
+    private static Post post(User author, String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent("content");
+        post.setCreatedAt(LocalDateTime.now());
+        post.setAuthor(author);
+        return post;
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.kovalev.specificationhelper.repository;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Empty;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNotNull;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpecificationHelperRepositoryTest extends DatabaseTest {
+
+    @Test
+    void compiledQueriesMatchCriteriaQueries() {
+        List<User> users = userGenerator.list(10);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername(users.get(i).getUsername() + i);
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+
+        Specification<User> compiled = new Or<>(
+                new Equal<>(User_.USERNAME, users.get(0).getUsername()),
+                new In<>(User_.ID, List.of(users.get(1).getId(), users.get(2).getId()))
+        );
+        Specification<User> criteria = (root, query, cb) -> compiled.toPredicate(root, query, cb);
+
+        assertThat(compiledUserRepository.findAll(compiled)).containsExactlyInAnyOrderElementsOf(userRepository.findAll(compiled));
+        assertThat(compiledUserRepository.findAll(compiled)).containsExactlyInAnyOrderElementsOf(compiledUserRepository.findAll(criteria));
+        assertThat(compiledUserRepository.count(compiled)).isEqualTo(3);
+    }
+
+    @Test
+    void pageAndSortAreApplied() {
+        List<User> users = userGenerator.list(7);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        List<String> expected = users.stream().map(User::getUsername).sorted(Comparator.reverseOrder()).toList();
+
+        var page = compiledUserRepository.findAll(new Like<>(User_.EMAIL, "@"),
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, User_.USERNAME)));
+
+        assertThat(page.getTotalElements()).isEqualTo(7);
+        assertThat(page.getContent()).extracting(User::getUsername).containsExactlyElementsOf(expected.subList(3, 6));
+    }
+
+    @Test
+    void countQueryRunsOnlyForFullPage() {
+        List<User> users = userGenerator.list(5);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        Specification<User> specification = new Like<>(User_.EMAIL, "@");
+
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        statistics.clear();
+        assertThat(compiledUserRepository.findAll(specification, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(compiledUserRepository.findAll(specification, PageRequest.of(1, 3)).getTotalElements()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(compiledUserRepository.findAll(specification, PageRequest.of(0, 3)).getTotalElements()).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void identifierLookupSkipsSqlForLoadedEntities() {
+        List<User> users = userGenerator.list(3);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername("user" + i);
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        List<UUID> ids = users.stream().map(User::getId).toList();
+
+        SpecificationHelperRepository<User, UUID> repository = new SpecificationHelperRepository<>(
+                JpaEntityInformationSupport.getEntityInformation(User.class, entityManager), entityManager) {
+            @Override
+            protected boolean identifierLookup() {
+                return true;
+            }
+        };
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            repository.findAllById(ids);
+            statistics.clear();
+
+            assertThat(repository.findAll(new In<>(User_.ID, ids))).hasSize(3);
+            assertThat(repository.findAll(new And<>(new Empty<>(), new In<>(User_.ID, ids), new Like<>(User_.USERNAME, "user1"))))
+                    .extracting(User::getId).containsExactly(ids.get(1));
+            assertThat(repository.findOne(new Equal<>(User_.ID, ids.get(2)))).get().extracting(User::getId).isEqualTo(ids.get(2));
+            assertThat(statistics.getPrepareStatementCount()).isZero();
+        });
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            statistics.clear();
+
+            assertThat(repository.findAll(new In<>(User_.ID, List.of(ids.get(0), UUID.randomUUID()))))
+                    .extracting(User::getId).containsExactly(ids.get(0));
+            assertThat(repository.findOne(new Equal<>(User_.ID, UUID.randomUUID()))).isEmpty();
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void sameShapeReusesQueryPlan() {
+        List<User> users = userGenerator.list(3);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        compiledUserRepository.findAll(new Equal<>(User_.USERNAME, users.get(0).getUsername()));
+        statistics.clear();
+
+        users.forEach(user -> compiledUserRepository.findAll(new Equal<>(User_.USERNAME, user.getUsername())));
+
+        // разбор HQL и SQL-план берутся из кеша на каждом вызове
+        assertThat(statistics.getQueryPlanCacheHitCount()).isGreaterThanOrEqualTo(users.size());
+        assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+    }
+
+    @Test
+    void unsatisfiableSpecificationSkipsDatabase() {
+        List<User> users = userGenerator.list(2);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+
+        Specification<User> contradiction = new And<>(
+                new Equal<>(User_.ID, users.get(0).getId()),
+                new Or<>(new IsNull<>(User_.ID), new Equal<>(User_.ID, users.get(1).getId()))
+        );
+
+        var statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        assertThat(compiledUserRepository.findAll(contradiction)).isEmpty();
+        assertThat(compiledUserRepository.findAll(contradiction, Sort.by(User_.USERNAME))).isEmpty();
+        assertThat(compiledUserRepository.findAll(contradiction, PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(compiledUserRepository.findOne(contradiction)).isEmpty();
+        assertThat(compiledUserRepository.count(contradiction)).isZero();
+        assertThat(compiledUserRepository.exists(contradiction)).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(compiledUserRepository.count(new And<>(new IsNotNull<>(User_.USERNAME), new Equal<>(User_.ID, users.get(0).getId()))))
+                .isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
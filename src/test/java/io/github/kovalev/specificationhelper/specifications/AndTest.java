@@ -4,11 +4,17 @@ package io.github.kovalev.specificationhelper.specifications;
 import io.github.kovalev.specificationhelper.DatabaseTest;
 import io.github.kovalev.specificationhelper.domain.entity.User;
 import io.github.kovalev.specificationhelper.domain.entity.User_;
+import jakarta.persistence.criteria.Predicate;
+import lombok.val;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -92,4 +98,78 @@ class AndTest extends DatabaseTest {
         And<User> and = new And<>(specs);
         assertThat(userRepository.findAll(and)).hasSize(1).containsExactly(user);
     }
-}
\ No newline at end of file
+
+    @Test
+    void nestedAndIsFlattenedIntoSinglePredicate() {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(User.class);
+        val root = query.from(User.class);
+
+        And<User> and = new And<>(
+                new And<>(new Equal<>(User_.USERNAME, "john"), new Equal<>(User_.EMAIL, "john@gmail.com")),
+                new Empty<>(),
+                null,
+                new And<>(new And<>(new IsNotNull<>(User_.CREATED_AT))),
+                new Equal<>(User_.ID, null)
+        );
+
+        Predicate predicate = and.toPredicate(root, query, cb);
+
+        assertThat(predicate).isNotNull();
+        assertThat(predicate.getOperator()).isEqualTo(Predicate.BooleanOperator.AND);
+        assertThat(predicate.getExpressions()).hasSize(3);
+    }
+
+    @Test
+    void nullAndEmptyChildrenAreIgnored() {
+        User user = userGenerator.one();
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(user));
+
+        And<User> and = new And<>(
+                null,
+                new Empty<>(),
+                new Equal<>(User_.USERNAME, null),
+                new Equal<>(User_.ID, user.getId())
+        );
+        assertThat(userRepository.findAll(and)).hasSize(1).containsExactly(user);
+        assertThat(userRepository.findAll(new And<>(new Empty<>(), new Equal<>(User_.EMAIL, null)))).hasSize(1);
+    }
+
+    @Test
+    void wideAndWorks() {
+        User user = userGenerator.one();
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(user));
+
+        List<Specification<User>> specs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            specs.add(new Equal<>(User_.USERNAME, user.getUsername()));
+        }
+
+        assertThat(userRepository.findAll(new And<>(specs))).hasSize(1).containsExactly(user);
+    }
+
+    @Test
+    void frozenTreeIsSharedAcrossThreads() throws Exception {
+        List<User> users = userGenerator.list(10);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+
+        And<User> frozen = new And<User>(
+                new IsNotNull<>(User_.USERNAME),
+                new Or<>(new Equal<>(User_.ID, users.get(0).getId()), new Equal<>(User_.ID, users.get(1).getId()))
+        ).freeze();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<User>>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(() -> userRepository.findAll(frozen)));
+            }
+            for (Future<List<User>> result : results) {
+                assertThat(result.get()).extracting(User::getId)
+                        .containsExactlyInAnyOrder(users.get(0).getId(), users.get(1).getId());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.kovalev.specificationhelper.specifications;
+
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.enums.NullHandling;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BaseSpecificationTest {
+
+    @Test
+    void sameShapeWithDifferentValues() {
+        And<User> first = new And<>(new Equal<>(User_.USERNAME, "alice"), new In<>(User_.ID, List.of(1, 2)));
+        And<User> second = new And<>(new Equal<>(User_.USERNAME, "bob"), new In<>(User_.ID, List.of(3)));
+
+        assertThat(first.shape()).isEqualTo(second.shape());
+        assertThat(first).isNotEqualTo(second);
+    }
+
+    @Test
+    void shapeDependsOnOperatorPathAndFlags() {
+        long shape = new Equal<User>(User_.USERNAME, "alice").shape();
+
+        assertThat(new NotEqual<User>(User_.USERNAME, "alice").shape()).isNotEqualTo(shape);
+        assertThat(new Equal<User>(User_.EMAIL, "alice").shape()).isNotEqualTo(shape);
+        assertThat(new Equal<User>(User_.USERNAME, "alice", true).shape()).isNotEqualTo(shape);
+        assertThat(new Equal<User>(User_.USERNAME, "alice", NullHandling.USE_IS_NULL).shape()).isNotEqualTo(shape);
+        assertThat(new Equal<User>(User_.USERNAME, null).shape()).isNotEqualTo(shape);
+        assertThat(new Equal<User>(User_.CREATED_AT, LocalDate.now()).shape())
+                .isNotEqualTo(new Equal<User>(User_.CREATED_AT, LocalDate.now().atStartOfDay()).shape());
+        assertThat(new Like<User>(User_.USERNAME, "a", LikeMatchMode.END_ONLY).shape())
+                .isNotEqualTo(new Like<User>(User_.USERNAME, "a", LikeMatchMode.BOTH).shape());
+        assertThat(new And<User>(new IsNull<>(User_.EMAIL)).shape())
+                .isNotEqualTo(new Or<User>(new IsNull<>(User_.EMAIL)).shape())
+                .isNotEqualTo(new Not<User>(CompositionMode.OR, new IsNull<>(User_.EMAIL)).shape());
+    }
+
+    @Test
+    void equalsAndHashCodeIncludeValues() {
+        Or<User> first = new Or<>(new Like<>(User_.EMAIL, "a"), new Between<>(User_.CREATED_AT, List.of(1, 2)), new Empty<>());
+        Or<User> second = new Or<>(new Like<>(User_.EMAIL, "a"), new Between<>(User_.CREATED_AT, List.of(1, 2)), new Empty<>());
+
+        assertThat(first).isEqualTo(second).hasSameHashCodeAs(second);
+        assertThat(new IsNull<User>(User_.EMAIL)).isEqualTo(new IsNull<User>(User_.EMAIL))
+                .isNotEqualTo(new IsNotNull<User>(User_.EMAIL));
+        assertThat(new GreaterThanOrEqualTo<User, Integer>(User_.ID, 1))
+                .isNotEqualTo(new GreaterThanOrEqualTo<User, Integer>(User_.ID, 2));
+    }
+
+    @Test
+    void addResetsCachedValues() {
+        And<User> and = new And<>(new IsNull<>(User_.EMAIL));
+        long shape = and.shape();
+        int hash = and.hashCode();
+
+        and.add(new IsNull<>(User_.USERNAME));
+
+        assertThat(and.shape()).isNotEqualTo(shape);
+        assertThat(and.hashCode()).isNotEqualTo(hash);
+        assertThat(and).isEqualTo(new And<User>(new IsNull<>(User_.EMAIL), new IsNull<>(User_.USERNAME)));
+    }
+
+    @Test
+    void foreignSpecificationsAreComparedByIdentity() {
+        Specification<User> lambda = (root, query, cb) -> null;
+        Specification<User> other = (root, query, cb) -> null;
+
+        assertThat(new And<>(lambda).shape()).isEqualTo(new And<>(lambda).shape()).isNotEqualTo(new And<>(other).shape());
+        assertThat(new And<>(lambda)).isEqualTo(new And<>(lambda)).isNotEqualTo(new And<>(other));
+    }
+
+    @Test
+    void freezeFlattensAndDetachesTree() {
+        List<Integer> ids = new ArrayList<>(List.of(1, 2));
+        Or<User> or = new Or<>(new IsNull<>(User_.EMAIL), new Or<>(new IsNull<>(User_.USERNAME)));
+        And<User> and = new And<>(new Empty<>(), new And<>(new In<>(User_.ID, ids), or), null);
+
+        And<User> frozen = and.freeze();
+        ids.add(3);
+        and.add(new IsNull<>(User_.CREATED_AT));
+
+        assertThat(frozen.isFrozen()).isTrue();
+        assertThat(frozen.freeze()).isSameAs(frozen);
+        assertThat(frozen).isEqualTo(new And<User>(
+                new In<>(User_.ID, List.of(1, 2)),
+                new Or<>(new IsNull<>(User_.EMAIL), new IsNull<>(User_.USERNAME))));
+        assertThat(((Or<User>) frozen.getSpecifications().get(1)).isFrozen()).isTrue();
+        assertThatThrownBy(() -> frozen.add(new IsNull<>(User_.EMAIL))).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> frozen.getSpecifications().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void freezeKeepsImmutableLeaves() {
+        Equal<User> equal = new Equal<>(User_.USERNAME, "alice");
+        Specification<User> lambda = (root, query, cb) -> null;
+
+        assertThat(equal.freeze()).isSameAs(equal);
+        assertThat(new Not<>(CompositionMode.OR, lambda, equal).freeze().getSpecifications()).containsExactly(lambda, equal);
+    }
+}
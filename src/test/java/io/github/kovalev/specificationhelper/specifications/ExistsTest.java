@@ -0,0 +1,126 @@
+package io.github.kovalev.specificationhelper.specifications;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Comment;
+import io.github.kovalev.specificationhelper.domain.entity.Comment_;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.utils.FieldPath;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExistsTest extends DatabaseTest {
+
+    private User twoPosts;
+    private User onePost;
+    private User noPosts;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = userGenerator.list(3);
+        twoPosts = users.get(0);
+        onePost = users.get(1);
+        noPosts = users.get(2);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername(users.get(i).getUsername() + i);
+        }
+
+        Post java = post(twoPosts, "java", "first");
+        Post javaAgain = post(twoPosts, "java", "second");
+        Post go = post(onePost, "go", "first");
+        Comment comment = new Comment();
+        comment.setText("hi");
+        comment.setAuthor(twoPosts);
+        comment.setPost(go);
+        comment.setCreatedAt(LocalDateTime.now());
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            users.forEach(entityManager::persist);
+            List.of(java, javaAgain, go, comment).forEach(entityManager::persist);
+        });
+    }
+
+    @Test
+    void matchingEntityIsReturnedOnce() {
+        Specification<User> join = new Equal<>(User_.POSTS + "." + Post_.TITLE, "java");
+        Specification<User> exists = new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "java"));
+
+        assertThat(userRepository.count(join)).isEqualTo(2);
+        assertThat(userRepository.count(exists)).isEqualTo(1);
+        assertThat(ids(exists)).containsExactly(twoPosts.getId());
+        assertThat(entityManager.createQuery(query(exists)).getResultList())
+                .extracting(User::getId).containsExactly(twoPosts.getId());
+    }
+
+    @Test
+    void allConditionsApplyToOneElement() {
+        assertThat(ids(new Exists<User, Post>(User_.POSTS,
+                new Equal<>(Post_.TITLE, "java"), new Equal<>(Post_.CONTENT, "second"))))
+                .containsExactly(twoPosts.getId());
+        assertThat(ids(new Exists<User, Post>(User_.POSTS,
+                new Equal<>(Post_.TITLE, "go"), new Equal<>(Post_.CONTENT, "second"))))
+                .isEmpty();
+    }
+
+    @Test
+    void nestedAndMultiHopPaths() {
+        Specification<User> nested = new Exists<User, Post>(FieldPath.of(User_.posts),
+                new Exists<Post, Comment>(Post_.COMMENTS, new Equal<>(Comment_.TEXT, "hi")));
+        Specification<User> multiHop = new Exists<User, Comment>(User_.POSTS + "." + Post_.COMMENTS,
+                new Equal<>(Comment_.TEXT, "hi"));
+
+        assertThat(ids(nested)).containsExactly(onePost.getId());
+        assertThat(ids(multiHop)).containsExactly(onePost.getId());
+        assertThat(entityManager.createQuery(query(nested)).getResultList())
+                .extracting(User::getId).containsExactly(onePost.getId());
+        assertThat(entityManager.createQuery(query(multiHop)).getResultList())
+                .extracting(User::getId).containsExactly(onePost.getId());
+    }
+
+    @Test
+    void withoutConditionsChecksPresence() {
+        assertThat(ids(new Exists<User, Post>(User_.POSTS)))
+                .containsExactlyInAnyOrder(twoPosts.getId(), onePost.getId());
+        assertThat(ids(new Not<>(new Exists<User, Post>(User_.POSTS))))
+                .containsExactly(noPosts.getId());
+    }
+
+    @Test
+    void sameShapeForDifferentValues() {
+        assertThat(new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "a")).shape())
+                .isEqualTo(new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "b")).shape());
+        assertThat(new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "a")))
+                .isEqualTo(new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.TITLE, "a")))
+                .isNotEqualTo(new Exists<User, Post>(User_.POSTS, new Equal<>(Post_.CONTENT, "a")));
+    }
+
+    private List<Object> ids(Specification<User> specification) {
+        return userRepository.findAll(specification).stream().map(user -> (Object) user.getId()).toList();
+    }
+
+    private CriteriaQuery<User> query(Specification<User> specification) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(User.class);
+        var root = query.from(User.class);
+        return query.where(specification.toPredicate(root, query, cb));
+    }
+
+    private static Post post(User author, String title, String content) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(content);
+        post.setCreatedAt(LocalDateTime.now());
+        post.setAuthor(author);
+        return post;
+    }
+}
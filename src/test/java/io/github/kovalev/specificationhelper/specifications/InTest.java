@@ -4,8 +4,13 @@ package io.github.kovalev.specificationhelper.specifications;
 import io.github.kovalev.specificationhelper.DatabaseTest;
 import io.github.kovalev.specificationhelper.domain.entity.User;
 import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.utils.InSettings;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.IntStream;
@@ -56,4 +61,37 @@ class InTest extends DatabaseTest {
         assertThat(userRepository.findAll(emptySpec1)).hasSize(userUuids.size());
         assertThat(userRepository.findAll(emptySpec2)).hasSize(userUuids.size());
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @EnumSource(InStrategy.class)
+    void everyStrategyFindsSameRows(InStrategy strategy) {
+        List<UUID> userUuids = transactionalExecutor.executeWithInNewTransaction(() ->
+                userGenerator.list(10).stream()
+                        .peek(user -> entityManager.persist(user))
+                        .map(User::getId)
+                        .toList()
+                        .subList(0, 5));
+
+        List<UUID> values = new ArrayList<>(userUuids);
+        IntStream.range(0, 2000).forEach(i -> values.add(UUID.randomUUID()));
+
+        InSettings settings = new InSettings(strategy, 16, 256);
+        List<User> result = userRepository.findAll(new In<>(User_.ID, values, settings));
+
+        assertThat(result).extracting(User::getId).containsExactlyInAnyOrderElementsOf(userUuids);
+    }
+
+    @Test
+    void hugeListDoesNotHitParameterLimit() {
+        List<UUID> userUuids = transactionalExecutor.executeWithInNewTransaction(() ->
+                userGenerator.list(3).stream()
+                        .peek(user -> entityManager.persist(user))
+                        .map(User::getId)
+                        .toList());
+
+        List<UUID> values = new ArrayList<>(userUuids);
+        IntStream.range(0, 100_000).forEach(i -> values.add(UUID.randomUUID()));
+
+        assertThat(userRepository.findAll(new In<>(User_.ID, values))).hasSize(3);
+    }
+}
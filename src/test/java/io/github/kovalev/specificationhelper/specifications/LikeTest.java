@@ -7,6 +7,8 @@ import io.github.kovalev.specificationhelper.domain.entity.User_;
 import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 class LikeTest extends DatabaseTest {
@@ -66,6 +68,25 @@ class LikeTest extends DatabaseTest {
         assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "search", LikeMatchMode.NONE))).isEmpty();
     }
 
+    @Test
+    void valueIsEscaped() {
+        User user = userGenerator.one();
+        user.setUsername("john_doe");
+        user.setEmail("100%_match@example.com");
+        User other = userGenerator.one();
+        other.setUsername("johnXdoe");
+        other.setEmail("1000_match@example.com");
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(user);
+            entityManager.persist(other);
+        });
+
+        // % и _ в значении ищутся как обычные символы
+        assertThat(userRepository.findAll(new Like<>(User_.USERNAME, "n_d"))).hasSize(1);
+        assertThat(userRepository.findAll(new Like<>(User_.EMAIL, "100%_match"))).hasSize(1);
+        assertThat(userRepository.findAll(new Like<>(User_.EMAIL, "100%", LikeMatchMode.END_ONLY, true))).hasSize(1);
+    }
+
     @Test
     void standardLikeBehavior() {
         User user = userGenerator.one();
@@ -74,13 +95,13 @@ class LikeTest extends DatabaseTest {
         transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(user));
 
         // _ работает как single-character wildcard
-        assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "j%_d%"))).isPresent();
+        assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "j%_d%", LikeMatchMode.PATTERN))).isPresent();
 
         // Поиск реальных спецсимволов с экранированием
-        assertThat(userRepository.findOne(new Like<>(User_.EMAIL, "100\\%\\_match"))).isPresent();
+        assertThat(userRepository.findOne(new Like<>(User_.EMAIL, "100\\%\\_match%", LikeMatchMode.PATTERN))).isPresent();
 
         // Смешанный случай
-        assertThat(userRepository.findOne(new Like<>(User_.EMAIL, "10%\\_ma%"))).isPresent();
+        assertThat(userRepository.findOne(new Like<>(User_.EMAIL, "10%\\_ma%", LikeMatchMode.PATTERN))).isPresent();
     }
 
     @Test
@@ -90,7 +111,27 @@ class LikeTest extends DatabaseTest {
         transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(user));
 
         // Поиск escape-символа
-        assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "\\\\_esc%"))).isPresent();
+        assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "\\\\_esc%", LikeMatchMode.PATTERN))).isPresent();
+        assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "\\_esc", LikeMatchMode.END_ONLY))).isPresent();
+    }
+
+    @Test
+    void literalIsEquality() {
+        User user = userGenerator.one();
+        user.setUsername("Exact_Match");
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(user));
+
+        Like<User> none = new Like<>(User_.USERNAME, "Exact_Match", LikeMatchMode.NONE);
+        assertThat(none.getLiteral()).isEqualTo("Exact_Match");
+        assertThat(userRepository.findOne(none)).isPresent();
+        assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "exact_match", LikeMatchMode.NONE, true))).isPresent();
+
+        // шаблон без спецификаторов - тоже равенство
+        Like<User> pattern = new Like<>(User_.USERNAME, "Exact\\_Match", LikeMatchMode.PATTERN);
+        assertThat(pattern.getLiteral()).isEqualTo("Exact_Match");
+        assertThat(userRepository.findOne(pattern)).isPresent();
+        assertThat(new Like<User>(User_.USERNAME, "Exact_Match", LikeMatchMode.PATTERN).getLiteral()).isNull();
+        assertThat(new Like<User>(User_.USERNAME, "Exact", LikeMatchMode.END_ONLY).getLiteral()).isNull();
     }
 
     @Test
@@ -124,4 +165,31 @@ class LikeTest extends DatabaseTest {
         assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "exactmatch", LikeMatchMode.NONE))).isPresent();
         assertThat(userRepository.findOne(new Like<>(User_.USERNAME, "exact", LikeMatchMode.NONE))).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void prefixRange() {
+        List<String> usernames = List.of("abc", "abcd", "abC", "abd", "ab", "abz-1", "abz1");
+        transactionalExecutor.executeWithInNewTransaction(() -> usernames.forEach(username -> {
+            User user = userGenerator.one();
+            user.setUsername(username);
+            entityManager.persist(user);
+        }));
+
+        // диапазон [abc, abd) и like 'abc%' для отсева строк, попавших в диапазон из-за collation
+        assertThat(usernames(new Like<>(User_.USERNAME, "abc", LikeMatchMode.PREFIX_RANGE)))
+                .containsExactlyInAnyOrder("abc", "abcd");
+        // префикс на 'z' ищется обычным like
+        assertThat(usernames(new Like<>(User_.USERNAME, "abz", LikeMatchMode.PREFIX_RANGE)))
+                .containsExactlyInAnyOrder("abz-1", "abz1");
+        // без учёта регистра диапазон не строится
+        assertThat(usernames(new Like<>(User_.USERNAME, "ABC", LikeMatchMode.PREFIX_RANGE, true)))
+                .containsExactlyInAnyOrder("abc", "abcd", "abC");
+
+        assertThat(new Like<User>(User_.USERNAME, "abc", LikeMatchMode.PREFIX_RANGE).isPrefixRange(String.class)).isTrue();
+        assertThat(new Like<User>(User_.USERNAME, "abc", LikeMatchMode.END_ONLY).isPrefixRange(String.class)).isFalse();
+    }
+
+    private List<String> usernames(Like<User> like) {
+        return userRepository.findAll(like).stream().map(User::getUsername).toList();
+    }
+}
@@ -4,6 +4,7 @@ package io.github.kovalev.specificationhelper.specifications;
 import io.github.kovalev.specificationhelper.DatabaseTest;
 import io.github.kovalev.specificationhelper.domain.entity.User;
 import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.CompositionMode;
 import io.github.kovalev.specificationhelper.enums.NullHandling;
 import lombok.val;
 import org.junit.jupiter.api.Test;
@@ -60,6 +61,33 @@ class NotTest extends DatabaseTest {
                 .containsExactly(user2.getUsername());
     }
 
+    @Test
+    void notWithOrModeFlattensNestedOr() {
+        User user1 = userGenerator.one();
+        User user2 = userGenerator.one();
+        User user3 = userGenerator.one();
+        user1.setUsername("first");
+        user2.setUsername("second");
+        user3.setUsername("third");
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(user1);
+            entityManager.persist(user2);
+            entityManager.persist(user3);
+        });
+
+        // NOT (username = "first" OR username = "second")
+        val notSpec = new Not<User>(
+                CompositionMode.OR,
+                new Or<>(new Equal<>(User_.USERNAME, user1.getUsername()), new Empty<>()),
+                new Or<>(new Equal<>(User_.USERNAME, user2.getUsername()))
+        );
+
+        assertThat(userRepository.findAll(notSpec))
+                .extracting(User::getUsername)
+                .containsExactly(user3.getUsername());
+    }
+
     @Test
     void notWithNullHandling() {
         User user = userGenerator.one();
@@ -4,6 +4,8 @@ package io.github.kovalev.specificationhelper.specifications;
 import io.github.kovalev.specificationhelper.DatabaseTest;
 import io.github.kovalev.specificationhelper.domain.entity.User;
 import io.github.kovalev.specificationhelper.domain.entity.User_;
+import jakarta.persistence.criteria.Predicate;
+import lombok.val;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -122,4 +124,43 @@ class OrTest extends DatabaseTest {
 
         assertThat(userRepository.findAll(and)).hasSize(1).containsExactly(user);
     }
-}
\ No newline at end of file
+
+    @Test
+    void nestedOrIsFlattenedIntoSinglePredicate() {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(User.class);
+        val root = query.from(User.class);
+
+        Or<User> or = new Or<>(
+                new Or<>(new Equal<>(User_.USERNAME, "john"), new Equal<>(User_.USERNAME, "emma")),
+                new Empty<>(),
+                new Or<>(new Or<>(new Equal<>(User_.USERNAME, "mia"))),
+                new And<>(new Equal<>(User_.EMAIL, "a@gmail.com"), new Equal<>(User_.USERNAME, "ava"))
+        );
+
+        Predicate predicate = or.toPredicate(root, query, cb);
+
+        assertThat(predicate).isNotNull();
+        assertThat(predicate.getOperator()).isEqualTo(Predicate.BooleanOperator.OR);
+        assertThat(predicate.getExpressions()).hasSize(4);
+    }
+
+    @Test
+    void nestedOrReturnsResultsMatchingAnyCondition() {
+        User user1 = userGenerator.one();
+        User user2 = userGenerator.one();
+        user2.setUsername("unique_" + user2.getUsername());
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(user1);
+            entityManager.persist(user2);
+        });
+
+        Or<User> or = new Or<>(
+                new Or<>(new Equal<>(User_.ID, user1.getId()), null),
+                new Empty<>(),
+                new Or<>(new Or<>(new Equal<>(User_.USERNAME, user2.getUsername())))
+        );
+        assertThat(userRepository.findAll(or)).hasSize(2).contains(user1, user2);
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.kovalev.specificationhelper.stream;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingExecutorTest extends DatabaseTest {
+
+    private final Specification<User> gmail = new Like<>(User_.EMAIL, "@gmail");
+    private final Sort byId = Sort.by(User_.ID);
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = userGenerator.list(10);
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+    }
+
+    @Test
+    void streamReturnsAllRowsAndClearsContext() {
+        StreamingExecutor<User> executor = new StreamingExecutor<>(entityManager, User.class, 2, 3);
+        List<User> expected = userRepository.findAll(gmail, byId);
+
+        List<Integer> contextSizes = new ArrayList<>();
+        List<User> streamed = transactionalExecutor.executeWithInNewTransaction(() -> {
+            try (Stream<User> users = executor.stream(gmail, byId)) {
+                return users.peek(user -> contextSizes.add(
+                                entityManager.unwrap(Session.class).getStatistics().getEntityCount()))
+                        .toList();
+            }
+        });
+
+        assertThat(streamed).containsExactlyElementsOf(expected);
+        assertThat(contextSizes).allMatch(size -> size <= 3).contains(1);
+    }
+
+    @Test
+    void streamKeepsCallerChanges() {
+        User changed = userRepository.findAll(gmail, byId).get(0);
+        List<Integer> contextSizes = new ArrayList<>();
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.find(User.class, changed.getId()).setUsername("changed");
+            try (Stream<User> users = new StreamingExecutor<>(entityManager, User.class).stream(gmail, byId)) {
+                users.forEach(user -> contextSizes.add(entityManager.unwrap(Session.class).getStatistics().getEntityCount()));
+            }
+            // сущность вызывающего кода осталась в контексте, выданные потоком - отсоединены
+            assertThat(entityManager.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(1);
+        });
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.find(User.class, changed.getId()).setEmail("changed@");
+            try (Stream<User> users = new StreamingExecutor<>(entityManager, User.class, 2, 3).stream(gmail, byId)) {
+                assertThat(users.count()).isEqualTo(9);
+            }
+        });
+
+        assertThat(contextSizes).hasSize(10).allMatch(size -> size <= 2);
+        assertThat(userRepository.findById(changed.getId())).get()
+                .extracting(User::getUsername, User::getEmail).containsExactly("changed", "changed@");
+    }
+
+    @Test
+    void closedStreamReleasesCursor() {
+        StreamingExecutor<User> executor = new StreamingExecutor<>(entityManager, User.class, 2, 0);
+
+        List<User> firstTwo = transactionalExecutor.executeWithInNewTransaction(() -> {
+            try (Stream<User> users = executor.stream(gmail, byId)) {
+                List<User> result = users.limit(2).toList();
+                // после закрытия курсора соединение доступно для следующих запросов
+                assertThat(userRepository.count(gmail)).isEqualTo(10);
+                return result;
+            }
+        });
+
+        assertThat(firstTwo).containsExactlyElementsOf(userRepository.findAll(gmail, byId).subList(0, 2));
+    }
+
+    @Test
+    void publisherRespectsDemandAndCancel() {
+        StreamingExecutor<User> executor = new StreamingExecutor<>(entityManager, User.class);
+        List<User> expected = userRepository.findAll(gmail, byId);
+
+        RecordingSubscriber all = new RecordingSubscriber(3, Long.MAX_VALUE);
+        RecordingSubscriber cancelling = new RecordingSubscriber(2, 5);
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            executor.publisher(gmail, byId).subscribe(all);
+            executor.publisher(gmail, byId).subscribe(cancelling);
+        });
+
+        assertThat(all.received).containsExactlyElementsOf(expected);
+        assertThat(all.completed).isTrue();
+        assertThat(cancelling.received).containsExactlyElementsOf(expected.subList(0, 5));
+        assertThat(cancelling.completed).isFalse();
+        assertThat(cancelling.maxOutstanding).isLessThanOrEqualTo(2);
+    }
+
+    /*
+     * Запрашивает строки порциями по batch из onNext и отменяет подписку после limit строк.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<User> {
+
+        private final int batch;
+        private final long limit;
+        private final List<User> received = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private long outstanding;
+        private long maxOutstanding;
+        private boolean completed;
+
+        private RecordingSubscriber(int batch, long limit) {
+            this.batch = batch;
+            this.limit = limit;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            request();
+        }
+
+        @Override
+        public void onNext(User item) {
+            received.add(item);
+            outstanding--;
+            if (received.size() == limit) {
+                subscription.cancel();
+            } else if (outstanding == 0) {
+                request();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        private void request() {
+            outstanding += batch;
+            maxOutstanding = Math.max(maxOutstanding, outstanding);
+            subscription.request(batch);
+        }
+    }
+}
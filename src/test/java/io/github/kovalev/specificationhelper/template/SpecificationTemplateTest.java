@@ -0,0 +1,142 @@
+package io.github.kovalev.specificationhelper.template;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import io.github.kovalev.specificationhelper.utils.CaseSettings;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static io.github.kovalev.specificationhelper.template.SpecificationTemplate.equal;
+import static io.github.kovalev.specificationhelper.template.SpecificationTemplate.gte;
+import static io.github.kovalev.specificationhelper.template.SpecificationTemplate.in;
+import static io.github.kovalev.specificationhelper.template.SpecificationTemplate.like;
+import static io.github.kovalev.specificationhelper.template.SpecificationTemplate.param;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpecificationTemplateTest extends DatabaseTest {
+
+    private static final SpecificationTemplate<User> BY_NAME = new SpecificationTemplate<>(User.class, new And<>(
+            equal(User_.USERNAME, param("name", String.class), CaseSettings.DEFAULT),
+            like(User_.EMAIL, param("email", String.class)),
+            gte(User_.CREATED_AT, param("from", LocalDateTime.class))
+    ));
+
+    @Test
+    void bindingsShareCompiledQuery() {
+        List<User> users = persist(3);
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        HqlCompiler compiler = new HqlCompiler(entityManager);
+
+        val first = BY_NAME.bind(users.get(0).getUsername().toUpperCase(), "@", from).compile(compiler).orElseThrow();
+        val second = BY_NAME.bind(users.get(1).getUsername(), "gmail", from).compile(compiler).orElseThrow();
+
+        assertThat(first.selectHql()).isEqualTo(second.selectHql());
+        assertThat(first.getParameters())
+                .containsExactly(users.get(0).getUsername().toLowerCase(), "%@%", from);
+        assertThat(second.getParameters())
+                .containsExactly(users.get(1).getUsername().toLowerCase(), "%gmail%", from);
+
+        for (User user : users) {
+            val bound = BY_NAME.bind(user.getUsername().toUpperCase(), "@gmail", from);
+            assertThat(compiledUserRepository.findAll(bound)).extracting(User::getId).containsExactly(user.getId());
+        }
+        assertThat(compiledUserRepository.count(BY_NAME.bind(users.get(0).getUsername(), "@", LocalDateTime.now().plusDays(1))))
+                .isZero();
+    }
+
+    @Test
+    void criteriaMatchesCompiledQuery() {
+        List<User> users = persist(3);
+        val bound = BY_NAME.bind(Map.of("name", users.get(2).getUsername(), "email", users.get(2).getEmail(),
+                "from", LocalDateTime.now().minusDays(1)));
+        Specification<User> criteria = (root, query, cb) -> bound.toPredicate(root, query, cb);
+
+        assertThat(userRepository.findAll(criteria)).extracting(User::getId).containsExactly(users.get(2).getId());
+        assertThat(userRepository.findAll(bound)).extracting(User::getId).containsExactly(users.get(2).getId());
+        assertThat(compiledUserRepository.findAll(bound)).extracting(User::getId).containsExactly(users.get(2).getId());
+    }
+
+    @Test
+    void slotCanBeReusedAndBoundToDay() {
+        List<User> users = persist(2);
+        val template = new SpecificationTemplate<>(User.class, new And<>(
+                new Or<>(equal(User_.USERNAME, param("name", String.class)),
+                        like(User_.EMAIL, param("name", String.class))),
+                equal(User_.CREATED_AT, param("day", LocalDate.class))
+        ));
+
+        assertThat(template.getParams()).extracting(p -> p.getName()).containsExactly("name", "day");
+        assertThat(compiledUserRepository.findAll(template.bind(users.get(0).getUsername(), LocalDate.now())))
+                .extracting(User::getId).containsExactly(users.get(0).getId());
+        assertThat(compiledUserRepository.findAll(template.bind(users.get(0).getUsername(), LocalDate.now().minusDays(1))))
+                .isEmpty();
+    }
+
+    @Test
+    void inSlotIsBoundAsArray() {
+        List<User> users = persist(3);
+        val template = new SpecificationTemplate<User>(User.class, in(User_.ID, param("ids", UUID.class)));
+        HqlCompiler compiler = new HqlCompiler(entityManager);
+
+        val one = template.bind(List.of(users.get(1).getId()));
+        val three = template.bind(List.of(users.get(0).getId(), users.get(2).getId(), UUID.randomUUID()));
+        val first = one.compile(compiler).orElseThrow();
+        val second = three.compile(compiler).orElseThrow();
+        assertThat(first.selectHql()).isEqualTo(second.selectHql());
+        assertThat(second.getParameters()).singleElement().isInstanceOf(UUID[].class);
+
+        assertThat(compiledUserRepository.findAll(one)).extracting(User::getId).containsExactly(users.get(1).getId());
+        assertThat(compiledUserRepository.findAll(three)).extracting(User::getId)
+                .containsExactlyInAnyOrder(users.get(0).getId(), users.get(2).getId());
+        assertThat(userRepository.findAll(three)).extracting(User::getId)
+                .containsExactlyInAnyOrder(users.get(0).getId(), users.get(2).getId());
+        assertThatThrownBy(() -> template.bind(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> template.bind(users.get(1).getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bindValidatesValues() {
+        assertThatThrownBy(() -> BY_NAME.bind("name", "email"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BY_NAME.bind("name", "email", LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BY_NAME.bind("name", null, LocalDateTime.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SpecificationTemplate<>(User.class, new Or<>(
+                equal(User_.USERNAME, param("name", String.class)),
+                equal(User_.ID, param("name", UUID.class)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SpecificationTemplate<>(User.class, new Or<>(
+                equal(User_.ID, param("id", UUID.class)),
+                in(User_.ID, param("id", UUID.class)))))
+                .isInstanceOf(IllegalArgumentException.class);
+        // слот передан в спецификацию напрямую, а не через фабрику шаблона
+        assertThatThrownBy(() -> new SpecificationTemplate<>(User.class,
+                new Equal<>(User_.USERNAME, param("name", String.class))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private List<User> persist(int count) {
+        List<User> users = userGenerator.list(count);
+        for (int i = 0; i < users.size(); i++) {
+            users.get(i).setUsername(users.get(i).getUsername() + i);
+            users.get(i).setEmail(users.get(i).getUsername() + "@gmail.com");
+        }
+        transactionalExecutor.executeWithInNewTransaction(() -> users.forEach(entityManager::persist));
+        return users;
+    }
+}
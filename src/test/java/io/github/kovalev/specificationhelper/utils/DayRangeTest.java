@@ -0,0 +1,117 @@
+package io.github.kovalev.specificationhelper.utils;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.TemporalEntity;
+import io.github.kovalev.specificationhelper.domain.entity.TemporalEntity_;
+import io.github.kovalev.specificationhelper.specifications.Between;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.GreaterThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.LessThanOrEqualTo;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import jakarta.persistence.criteria.Predicate;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DayRangeTest extends DatabaseTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 2, 29);
+
+    @Test
+    void supportsOnlyLocalDateAgainstLocalDateTimeColumns() {
+        val cb = entityManager.getCriteriaBuilder();
+        val root = cb.createQuery(TemporalEntity.class).from(TemporalEntity.class);
+
+        assertThat(DayRange.supports(root.get(TemporalEntity_.LOCAL_DATE_TIME), DAY)).isTrue();
+        assertThat(DayRange.supports(root.get(TemporalEntity_.TIMESTAMP), DAY)).isTrue();
+        assertThat(DayRange.supports(root.get(TemporalEntity_.UTIL_DATE), DAY)).isTrue();
+        assertThat(DayRange.supports(root.get(TemporalEntity_.LOCAL_DATE), DAY)).isFalse();
+        assertThat(DayRange.supports(root.get(TemporalEntity_.INSTANT), DAY)).isFalse();
+        assertThat(DayRange.supports(root.get(TemporalEntity_.OFFSET_DATE_TIME), DAY)).isFalse();
+        assertThat(DayRange.supports(root.get(TemporalEntity_.LOCAL_DATE_TIME), DAY.atStartOfDay())).isFalse();
+    }
+
+    @Test
+    void equalOnDatetimeColumnIsRangeWithoutFunction() {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(ComparableEntity.class);
+        val root = query.from(ComparableEntity.class);
+
+        Predicate predicate = new Equal<ComparableEntity>(ComparableEntity_.DATETIME_VALUE, DAY)
+                .toPredicate(root, query, cb);
+
+        assertThat(predicate.getOperator()).isEqualTo(Predicate.BooleanOperator.AND);
+        assertThat(predicate.getExpressions()).hasSize(2);
+    }
+
+    @Test
+    void equalMatchesWholeDay() {
+        persist(DAY.atStartOfDay(), lastMicro(DAY), lastMicro(DAY.minusDays(1)),
+                DAY.plusDays(1).atStartOfDay());
+
+        assertThat(find(new Equal<>(ComparableEntity_.DATETIME_VALUE, DAY)))
+                .containsExactlyInAnyOrder(DAY.atStartOfDay(), lastMicro(DAY));
+        assertThat(find(new NotEqual<>(ComparableEntity_.DATETIME_VALUE, DAY)))
+                .containsExactlyInAnyOrder(lastMicro(DAY.minusDays(1)), DAY.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    void comparisonsUseDayBoundaries() {
+        persist(DAY.atStartOfDay(), lastMicro(DAY), lastMicro(DAY.minusDays(1)),
+                DAY.plusDays(1).atStartOfDay());
+
+        assertThat(find(new GreaterThanOrEqualTo<>(ComparableEntity_.DATETIME_VALUE, DAY)))
+                .containsExactlyInAnyOrder(DAY.atStartOfDay(), lastMicro(DAY), DAY.plusDays(1).atStartOfDay());
+        assertThat(find(new LessThanOrEqualTo<>(ComparableEntity_.DATETIME_VALUE, DAY)))
+                .containsExactlyInAnyOrder(lastMicro(DAY.minusDays(1)), DAY.atStartOfDay(), lastMicro(DAY));
+        assertThat(find(new Between<>(ComparableEntity_.DATETIME_VALUE, List.of(DAY.minusDays(1), DAY))))
+                .containsExactlyInAnyOrder(lastMicro(DAY.minusDays(1)), DAY.atStartOfDay(), lastMicro(DAY));
+    }
+
+    @Test
+    void timestampColumnMatchesWholeDay() {
+        TemporalEntity entity = new TemporalEntity();
+        entity.setTimestamp(Timestamp.valueOf(DAY.atTime(23, 59, 59)));
+        transactionalExecutor.executeWithInNewTransaction(() -> entityManager.persist(entity));
+
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(TemporalEntity.class);
+        val root = query.from(TemporalEntity.class);
+        query.where(new Equal<TemporalEntity>(TemporalEntity_.TIMESTAMP, DAY).toPredicate(root, query, cb));
+
+        assertThat(entityManager.createQuery(query).getResultList()).hasSize(1);
+    }
+
+    // PostgreSQL хранит микросекунды, поэтому LocalTime.MAX округлился бы до следующего дня
+    private static LocalDateTime lastMicro(LocalDate date) {
+        return date.atTime(LocalTime.MAX.truncatedTo(ChronoUnit.MICROS));
+    }
+
+    private void persist(LocalDateTime... values) {
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            for (LocalDateTime value : values) {
+                ComparableEntity entity = new ComparableEntity();
+                entity.setDatetimeValue(value);
+                entityManager.persist(entity);
+            }
+        });
+    }
+
+    private List<LocalDateTime> find(Specification<ComparableEntity> specification) {
+        return comparableRepository.findAll(specification).stream()
+                .map(ComparableEntity::getDatetimeValue)
+                .toList();
+    }
+}
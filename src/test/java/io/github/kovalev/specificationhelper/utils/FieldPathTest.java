@@ -0,0 +1,99 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.In;
+import io.github.kovalev.specificationhelper.specifications.IsNull;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldPathTest extends DatabaseTest {
+
+    @Test
+    void pathFromAttributes() {
+        FieldPath<User> path = FieldPath.of(User_.posts, Post_.title);
+
+        assertThat(path.getNames()).containsExactly(User_.POSTS, Post_.TITLE);
+        assertThat(path.isResolved()).isTrue();
+        assertThat(path.getAttribute(1)).isSameAs(Post_.title);
+        assertThat(path).isEqualTo(FieldPath.of("posts.title")).hasToString("posts.title");
+        assertThat(FieldPath.of(Post_.author).then(User_.username).getNames()).containsExactly(Post_.AUTHOR, User_.USERNAME);
+        assertThat(path.<Post>subPath(1, 2).getAttribute(0)).isSameAs(Post_.title);
+        assertThat(FieldPath.of("posts.comments.text").subPath(0, 2)).hasToString("posts.comments");
+        assertThatThrownBy(() -> path.subPath(1, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void wrongChainFailsOnCreation() {
+        assertThatThrownBy(() -> FieldPath.of(User_.username, Post_.title))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(Post_.TITLE);
+        assertThatThrownBy(() -> FieldPath.of(User_.posts, User_.email))
+                .isInstanceOf(IllegalArgumentException.class);
+        SingularAttribute<Post, String> notInitialized = null;
+        assertThatThrownBy(() -> FieldPath.of(User_.posts, notInitialized))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> FieldPath.of("posts.title").then(Post_.content))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void stringPathIsParsedOnce() {
+        assertThat(FieldPath.<User>of("posts.title")).isSameAs(FieldPath.<User>of("posts.title"));
+        assertThatThrownBy(() -> FieldPath.of(" ")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void cachedPathCannotBeChanged() {
+        List<String> names = new Equal<User>("posts.title", "java").getFields();
+
+        assertThatThrownBy(() -> names.set(1, Post_.CONTENT)).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(FieldPath.of("posts.title")).hasToString("posts.title");
+        assertThat(FieldPath.of("posts.title").name(1)).isEqualTo(Post_.TITLE);
+    }
+
+    @Test
+    void specificationsWithAttributePathsFindSameRows() {
+        User author = userGenerator.one();
+        User other = userGenerator.one();
+        other.setEmail(null);
+        Post post = new Post();
+        post.setTitle("metamodel");
+        post.setContent("content");
+        post.setCreatedAt(LocalDateTime.now());
+        post.setAuthor(author);
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(author);
+            entityManager.persist(other);
+            entityManager.persist(post);
+        });
+
+        Specification<User> byTitle = new Equal<>(FieldPath.of(User_.posts, Post_.title), "metamodel");
+        Specification<Post> byAuthor = new In<>(FieldPath.of(Post_.author, User_.id), List.of(author.getId()));
+
+        assertThat(userRepository.findAll(byTitle)).extracting(User::getId).containsExactly(author.getId());
+        assertThat(userRepository.findAll(new IsNull<>(FieldPath.of(User_.email))))
+                .extracting(User::getId).containsExactly(other.getId());
+        assertThat(entityManager.createQuery(query(byAuthor)).getResultList())
+                .extracting(Post::getId).containsExactly(post.getId());
+    }
+
+    private CriteriaQuery<Post> query(Specification<Post> specification) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(Post.class);
+        var root = query.from(Post.class);
+        return query.where(specification.toPredicate(root, query, cb));
+    }
+}
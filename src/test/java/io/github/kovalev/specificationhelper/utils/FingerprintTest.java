@@ -0,0 +1,23 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FingerprintTest {
+
+    @Test
+    void dependsOnOrderAndBoundaries() {
+        assertThat(new Fingerprint().add("ab").add("c").get()).isNotEqualTo(new Fingerprint().add("a").add("bc").get());
+        assertThat(new Fingerprint().add("a").add("b").get()).isNotEqualTo(new Fingerprint().add("b").add("a").get());
+        assertThat(new Fingerprint().add((String) null).get()).isNotEqualTo(new Fingerprint().add("").get());
+        assertThat(new Fingerprint().add(true).get()).isNotEqualTo(new Fingerprint().add(false).get());
+    }
+
+    @Test
+    void isStable() {
+        assertThat(new Fingerprint().add("users").add(42L).add(true).get())
+                .isEqualTo(new Fingerprint().add("users").add(42L).add(true).get());
+        assertThat(new Fingerprint().get()).isEqualTo(new Fingerprint().get());
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.kovalev.specificationhelper.utils;
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.LikeMatchMode;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.NotEqual;
+import jakarta.persistence.criteria.CriteriaQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IgnoreCaseClauseTest extends DatabaseTest {
+
+    @BeforeEach
+    void setUp() {
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(user("Alice", "alice"));
+            entityManager.persist(user("a%ice", "a%ice"));
+            entityManager.persist(user("Bob", "bob"));
+        });
+    }
+
+    @Test
+    void lowerAndIlikeIgnoreCase() {
+        for (CaseSettings settings : List.of(CaseSettings.LOWER, CaseSettings.ILIKE)) {
+            assertThat(usernames(new Equal<>(User_.USERNAME, "ALICE", settings))).containsExactly("Alice");
+            assertThat(usernames(new NotEqual<>(User_.USERNAME, "ALICE", settings)))
+                    .containsExactlyInAnyOrder("a%ice", "Bob");
+            assertThat(usernames(new Like<>(User_.USERNAME, "LI", settings))).containsExactly("Alice");
+        }
+    }
+
+    @Test
+    void ilikeEqualityIsNotPattern() {
+        assertThat(usernames(new Equal<>(User_.USERNAME, "A%ICE", CaseSettings.ILIKE))).containsExactly("a%ice");
+        assertThat(usernames(new Equal<>(User_.USERNAME, "A_ICE", CaseSettings.ILIKE))).isEmpty();
+    }
+
+    @Test
+    void caseInsensitiveColumnIsComparedAsIs() {
+        // колонка varchar сравнивается с учётом регистра: условие строится без lower()
+        assertThat(usernames(new Equal<>(User_.USERNAME, "alice", CaseSettings.CASE_INSENSITIVE_COLUMN))).isEmpty();
+        assertThat(usernames(new Equal<>(User_.USERNAME, "Alice", CaseSettings.CASE_INSENSITIVE_COLUMN)))
+                .containsExactly("Alice");
+    }
+
+    @Test
+    void shadowColumnIsComparedInLowerCase() {
+        CaseSettings shadow = CaseSettings.shadowColumn(User_.EMAIL);
+
+        assertThat(usernames(new Equal<>(User_.USERNAME, "BOB", shadow))).containsExactly("Bob");
+        assertThat(usernames(new Like<>(User_.USERNAME, "AL", LikeMatchMode.END_ONLY, shadow))).containsExactly("Alice");
+        assertThatThrownBy(() -> CaseSettings.shadowColumn("author.email")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void settingsArePartOfShape() {
+        assertThat(new Equal<User>(User_.USERNAME, "a", true))
+                .isEqualTo(new Equal<User>(User_.USERNAME, "a", CaseSettings.DEFAULT))
+                .isNotEqualTo(new Equal<User>(User_.USERNAME, "a", CaseSettings.ILIKE));
+        assertThat(new Like<User>(User_.USERNAME, "a", CaseSettings.ILIKE).shape())
+                .isNotEqualTo(new Like<User>(User_.USERNAME, "a", CaseSettings.LOWER).shape());
+    }
+
+    /*
+     * Репозиторий выполняет скомпилированный HQL, запрос через EntityManager - Criteria API: результаты совпадают.
+     */
+    private List<String> usernames(Specification<User> specification) {
+        List<String> compiled = userRepository.findAll(specification).stream().map(User::getUsername).toList();
+        List<String> criteria = entityManager.createQuery(query(specification)).getResultList().stream()
+                .map(User::getUsername).toList();
+
+        assertThat(criteria).containsExactlyInAnyOrderElementsOf(compiled);
+        return compiled;
+    }
+
+    private CriteriaQuery<User> query(Specification<User> specification) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(User.class);
+        var root = query.from(User.class);
+        return query.where(specification.toPredicate(root, query, cb));
+    }
+
+    private static User user(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setCreatedAt(LocalDateTime.now());
+        return user;
+    }
+}
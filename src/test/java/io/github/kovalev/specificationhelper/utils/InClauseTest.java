@@ -0,0 +1,99 @@
+package io.github.kovalev.specificationhelper.utils;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity;
+import io.github.kovalev.specificationhelper.domain.entity.ComparableEntity_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.enums.InStrategy;
+import io.github.kovalev.specificationhelper.hibernate.SpecificationHelperFunctionContributor;
+import io.github.kovalev.specificationhelper.hql.HqlCompiler;
+import io.github.kovalev.specificationhelper.specifications.In;
+import lombok.val;
+import org.hibernate.query.sqm.tree.predicate.SqmInListPredicate;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InClauseTest extends DatabaseTest {
+
+    @Test
+    void paddedSizeIsNextPowerOfTwo() {
+        assertThat(IntStream.of(1, 2, 3, 4, 5, 8, 9, 100, 128, 129).map(InClause::paddedSize).toArray())
+                .containsExactly(1, 2, 4, 4, 8, 8, 16, 128, 128, 256);
+    }
+
+    @Test
+    void autoStrategyDependsOnListSize() {
+        val cb = entityManager.getCriteriaBuilder();
+        val clause = new InClause(InSettings.DEFAULT.withPaddingThreshold(4));
+
+        assertThat(clause.strategy(cb, UUID.class, 4)).isEqualTo(InStrategy.PADDED_PARAMETERS);
+        assertThat(clause.strategy(cb, UUID.class, 5)).isEqualTo(InStrategy.ARRAY);
+    }
+
+    @Test
+    void parametersArePaddedWithLastValue() {
+        val cb = entityManager.getCriteriaBuilder();
+        val root = cb.createQuery(User.class).from(User.class);
+        List<UUID> values = IntStream.range(0, 5).mapToObj(i -> UUID.randomUUID()).toList();
+
+        val predicate = (SqmInListPredicate<?>) new InClause(InSettings.DEFAULT.withStrategy(InStrategy.PADDED_PARAMETERS))
+                .predicate(cb, root.get(User_.ID), values);
+
+        assertThat(predicate.getListExpressions()).hasSize(8);
+    }
+
+    @Test
+    void nullAndDuplicateValuesAreDropped() {
+        val cb = entityManager.getCriteriaBuilder();
+        val root = cb.createQuery(User.class).from(User.class);
+        UUID id = UUID.randomUUID();
+
+        val predicate = (SqmInListPredicate<?>) new InClause(InSettings.DEFAULT)
+                .predicate(cb, root.get(User_.ID), Arrays.asList(id, null, id));
+
+        assertThat(predicate.getListExpressions()).hasSize(1);
+    }
+
+    @Test
+    void longPaddedListIsSplitIntoChunks() {
+        val cb = entityManager.getCriteriaBuilder();
+        val root = cb.createQuery(User.class).from(User.class);
+        List<UUID> values = IntStream.range(0, 20).mapToObj(i -> UUID.randomUUID()).toList();
+
+        val predicate = new InClause(new InSettings(InStrategy.PADDED_PARAMETERS, 0, 8))
+                .predicate(cb, root.get(User_.ID), values);
+
+        assertThat(predicate.getExpressions()).hasSize(3);
+    }
+
+    @Test
+    void integerValuesMatchLongAttributeInArray() {
+        List<ComparableEntity> entities = IntStream.range(0, 3).mapToObj(i -> new ComparableEntity()).toList();
+        transactionalExecutor.executeWithInNewTransaction(() -> entities.forEach(entityManager::persist));
+        List<Integer> ids = entities.stream().map(entity -> entity.getId().intValue()).toList();
+        In<ComparableEntity, Integer> in = new In<>(ComparableEntity_.ID, ids, InStrategy.ARRAY);
+
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(ComparableEntity.class);
+        val root = query.from(ComparableEntity.class);
+        query.where(in.toPredicate(root, query, cb));
+        assertThat(entityManager.createQuery(query).getResultList()).hasSize(3);
+
+        val compiled = new HqlCompiler(entityManager).compile(ComparableEntity.class, in).orElseThrow();
+        assertThat(compiled.getWhere()).startsWith(SpecificationHelperFunctionContributor.IN_ARRAY);
+        assertThat(compiled.bind(entityManager.createQuery(compiled.selectHql(), ComparableEntity.class))
+                .getResultList()).hasSize(3);
+
+        // значение, которое нельзя привести к Long, передаётся параметрами
+        assertThat(InClause.toArray(Long.class, List.of(1, 2L))).isEqualTo(new Long[]{1L, 2L});
+        assertThat(InClause.toArray(Long.class, List.of(1, "2"))).isNull();
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.kovalev.specificationhelper.utils;
+
+
+import io.github.kovalev.specificationhelper.DatabaseTest;
+import io.github.kovalev.specificationhelper.domain.entity.Comment;
+import io.github.kovalev.specificationhelper.domain.entity.Comment_;
+import io.github.kovalev.specificationhelper.domain.entity.Post;
+import io.github.kovalev.specificationhelper.domain.entity.Post_;
+import io.github.kovalev.specificationhelper.domain.entity.User;
+import io.github.kovalev.specificationhelper.domain.entity.User_;
+import io.github.kovalev.specificationhelper.specifications.And;
+import io.github.kovalev.specificationhelper.specifications.Equal;
+import io.github.kovalev.specificationhelper.specifications.Like;
+import io.github.kovalev.specificationhelper.specifications.Or;
+import jakarta.persistence.criteria.JoinType;
+import lombok.val;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JoinRegistryTest extends DatabaseTest {
+
+    private static final String POSTS_TITLE = User_.POSTS + "." + Post_.TITLE;
+    private static final String POSTS_CONTENT = User_.POSTS + "." + Post_.CONTENT;
+    private static final String POSTS_COMMENTS_TEXT = User_.POSTS + "." + Post_.COMMENTS + "." + Comment_.TEXT;
+
+    @Test
+    void associationIsJoinedOnceForWholeTree() {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(User.class);
+        val root = query.from(User.class);
+
+        new And<User>(
+                new Equal<>(POSTS_TITLE, "title"),
+                new Or<>(new Like<>(POSTS_CONTENT, "content"), new Equal<>(POSTS_COMMENTS_TEXT, "text")),
+                new Like<>(POSTS_COMMENTS_TEXT, "text")
+        ).toPredicate(root, query, cb);
+
+        assertThat(root.getJoins()).hasSize(1);
+        assertThat(root.getJoins().iterator().next().getJoins()).hasSize(1);
+        assertThat(JoinRegistry.current()).isNull();
+    }
+
+    @Test
+    void existingFetchIsReused() {
+        val cb = entityManager.getCriteriaBuilder();
+        val query = cb.createQuery(User.class);
+        val root = query.from(User.class);
+        root.fetch(User_.POSTS, JoinType.LEFT);
+
+        new And<User>(new Equal<>(POSTS_TITLE, "title"), new Like<>(POSTS_CONTENT, "content"))
+                .toPredicate(root, query, cb);
+
+        assertThat(root.getFetches()).hasSize(1);
+        assertThat(root.getJoins()).isEmpty();
+    }
+
+    @Test
+    void predicatesOnSameAssociationMatchSameRow() {
+        User author = userGenerator.one();
+        Post post = post(author, "first", "content");
+        Post other = post(author, "second", "other");
+        post.setComments(List.of(comment(author, post, "nice")));
+
+        transactionalExecutor.executeWithInNewTransaction(() -> {
+            entityManager.persist(author);
+            entityManager.persist(post);
+            entityManager.persist(other);
+        });
+
+        assertThat(userRepository.findAll(new And<>(
+                new Equal<>(POSTS_TITLE, "first"),
+                new Equal<>(POSTS_CONTENT, "content"),
+                new Equal<>(POSTS_COMMENTS_TEXT, "nice")
+        ))).containsExactly(author);
+
+        // title и content принадлежат разным постам - общий JOIN не даёт совпадения
+        assertThat(userRepository.findAll(new And<>(
+                new Equal<>(POSTS_TITLE, "first"),
+                new Equal<>(POSTS_CONTENT, "other")
+        ))).isEmpty();
+    }
+
+    private Post post(User author, String title, String content) {
+        Post post = new Post();
+        post.setAuthor(author);
+        post.setTitle(title);
+        post.setContent(content);
+        post.setCreatedAt(LocalDateTime.now());
+        return post;
+    }
+
+    private Comment comment(User author, Post post, String text) {
+        Comment comment = new Comment();
+        comment.setAuthor(author);
+        comment.setPost(post);
+        comment.setText(text);
+        comment.setCreatedAt(LocalDateTime.now());
+        return comment;
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.kovalev.specificationhelper.utils;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikePatternTest {
+
+    @Test
+    void escapesSpecialCharacters() {
+        assertThat(LikePattern.escape("50%_a\\b")).isEqualTo("50\\%\\_a\\\\b");
+        assertThat(LikePattern.escape("plain")).isSameAs("plain");
+        assertThat(LikePattern.escape("")).isEmpty();
+    }
+
+    @Test
+    void literalOfPatternWithoutWildcards() {
+        assertThat(LikePattern.literal("50\\%\\_a\\\\b")).isEqualTo("50%_a\\b");
+        assertThat(LikePattern.literal("plain")).isEqualTo("plain");
+        assertThat(LikePattern.literal("50%")).isNull();
+        assertThat(LikePattern.literal("a_b")).isNull();
+    }
+}
@@ -23,9 +23,11 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 @ExtendWith(MockitoExtension.class)
 class PathCalculatorTest {
@@ -106,7 +108,7 @@ class PathCalculatorTest {
 
     @Test
     void pathWithExistingFetch() {
-        // select p from Post p where p.author.username ...
+        // select p from Post p left join fetch p.author where p.author.username ...
         String[] attributePath = "author.username".split("\\.");
         String author = attributePath[0];
         String username = attributePath[1];
@@ -114,8 +116,9 @@ class PathCalculatorTest {
         SingularAttribute<Post, User> attribute = mock();
         when(attribute.getName()).thenReturn(author);
 
-        // создаем left join на автора как EAGER
-        Fetch<Post, User> fetch = mock();
+        // в Hibernate fetch-узел одновременно является Join
+        Join<Post, User> fetchJoin = mock(Join.class, withSettings().extraInterfaces(Fetch.class));
+        Fetch<Post, User> fetch = (Fetch<Post, User>) fetchJoin;
         when(fetch.getAttribute()).thenAnswer(inv -> attribute);
         when(fetch.getJoinType()).thenReturn(JoinType.LEFT);
 
@@ -126,21 +129,67 @@ class PathCalculatorTest {
         root = mock();
         when(root.getFetches()).thenReturn(Collections.singleton(fetch));
 
-        // Настраиваем, чтобы создался left join с названием "author"
-        join = mock();
-        when(root.join(author, JoinType.LEFT)).thenAnswer(inv -> join);
-
-        // Настраиваем, чтобы при вызове join.get(username) вернулся path
+        // Настраиваем, чтобы при вызове fetchJoin.get(username) вернулся path
         path = mock();
+        when(fetchJoin.get(username)).thenAnswer(inv -> path);
+
+        Path<Object> result = new PathCalculator<>(root, author, username).path();
+
+        assertSame(path, result);
+        // Проверяем, что существующий fetch переиспользован, а новый join не создавался
+        verify(root, never()).join(author, JoinType.LEFT);
+        // Проверяем получение атрибута "username"
+        verify(fetchJoin).get(username);
+    }
+
+    @Test
+    void pathWithExistingNonJoinFetch() {
+        // fetch, который не является Join (не Hibernate-реализация), присоединяется заново
+        String author = "author";
+        String username = "username";
+
+        SingularAttribute<Post, User> attribute = mock();
+        when(attribute.getName()).thenReturn(author);
+
+        Fetch<Post, User> fetch = mock();
+        when(fetch.getAttribute()).thenAnswer(inv -> attribute);
+        when(fetch.getJoinType()).thenReturn(JoinType.LEFT);
+
+        root = mock();
+        when(root.getFetches()).thenReturn(Collections.singleton(fetch));
+        when(root.join(author, JoinType.LEFT)).thenAnswer(inv -> join);
         when(join.get(username)).thenAnswer(inv -> path);
 
         Path<Object> result = new PathCalculator<>(root, author, username).path();
 
         assertSame(path, result);
-        // Проверяем создание left join с названием "author"
         verify(root).join(author, JoinType.LEFT);
-        // Проверяем получение атрибута "username"
-        verify(join).get(username);
+    }
+
+    @Test
+    void pathsInsideRegistryScopeShareJoin() {
+        // select p from Post p where p.author.username ... and p.author.email ...
+        String author = "author";
+
+        root = mock();
+        when(root.getJoins()).thenReturn(Collections.emptySet());
+        when(root.getFetches()).thenReturn(Collections.emptySet());
+        when(root.join(author, JoinType.LEFT)).thenAnswer(inv -> join);
+
+        JoinRegistry.scoped(() -> {
+            new PathCalculator<>(root, author, "username").path();
+            new PathCalculator<>(root, author, "email").path();
+            return new PathCalculator<>(root, author, "id").path();
+        });
+
+        // JOIN создан один раз, коллекции joins/fetches просмотрены один раз
+        verify(root, times(1)).join(author, JoinType.LEFT);
+        verify(root, times(1)).getJoins();
+        verify(root, times(1)).getFetches();
+        verify(join).get("username");
+        verify(join).get("email");
+        verify(join).get("id");
+        assertThat(JoinRegistry.current()).isNull();
     }
 
     @Test
@@ -0,0 +1,51 @@
+package io.github.kovalev.specificationhelper.utils;
+
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixRangeTest {
+
+    @Test
+    void successorIncrementsLastCodePoint() {
+        assertThat(PrefixRange.successor("abc")).isEqualTo("abd");
+        assertThat(PrefixRange.successor("ab9")).isEqualTo("ab:");
+        assertThat(PrefixRange.successor("")).isNull();
+    }
+
+    @Test
+    void successorSkipsSurrogates() {
+        assertThat(PrefixRange.successor("a\uD7FF")).isEqualTo("a\uE000");
+        // U+1F600 -> U+1F601: суррогатная пара увеличивается целиком
+        assertThat(PrefixRange.successor("a\uD83D\uDE00")).isEqualTo("a\uD83D\uDE01");
+        // U+FFFF -> U+10000
+        assertThat(PrefixRange.successor("a\uFFFF")).isEqualTo("a\uD800\uDC00");
+    }
+
+    @Test
+    void successorDropsMaxCodePoint() {
+        String max = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+        assertThat(PrefixRange.successor("ab" + max)).isEqualTo("ac");
+        assertThat(PrefixRange.successor("a" + max + max)).isEqualTo("b");
+        assertThat(PrefixRange.successor(max + max)).isNull();
+    }
+
+    @Test
+    void supportsOnlyAsciiAlphanumericPrefixes() {
+        assertThat(PrefixRange.supports(String.class, "user42")).isTrue();
+        assertThat(PrefixRange.supports(String.class, "AbC")).isTrue();
+
+        assertThat(PrefixRange.supports(Integer.class, "user42")).isFalse();
+        assertThat(PrefixRange.supports(String.class, 42)).isFalse();
+        assertThat(PrefixRange.supports(String.class, "")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "user_")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "us%er")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "user-1")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "café")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "abz")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "abZ")).isFalse();
+        assertThat(PrefixRange.supports(String.class, "ab9")).isFalse();
+    }
+}